@@ -0,0 +1,213 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generators of synthetic content for the benchmarks. The seed is fixed, so every run
+ * (and every fork) parses exactly the same data.
+ *
+ * @author dalcantara
+ *
+ */
+public final class BenchmarkData {
+
+	public static final long SEED = 20131105L;
+
+	/**
+	 * Amount of columns of the wide rows, see {@link WideRecord}
+	 */
+	public static final int WIDE_COLUMNS = 100;
+
+	/**
+	 * Pattern of the dates of {@link #patternDates(int)}
+	 */
+	public static final String DATE_PATTERN = "dd/MM/yyyy HH:mm";
+
+	private static final String[] WORDS = { "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+			"india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa" };
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Rows of {@link NarrowRecord}, header included
+	 * @param rows
+	 * @param quoted
+	 *            (true to quote the text columns, some of them holding separators, line breaks
+	 *            and escaped quotes)
+	 * @return
+	 */
+	public static String narrowContent(int rows, boolean quoted) {
+		Random random = new Random(SEED);
+		StringBuilder content = new StringBuilder(rows * 96);
+		content.append("id\tname\tamount\tactive\tcreated\tcounter\tstatus\n");
+		for (int i = 0; i < rows; i++) {
+			content.append(i).append('\t');
+			appendText(content, random, quoted);
+			content.append('\t').append(randomDecimal(random)).append('\t');
+			content.append(random.nextBoolean()).append('\t');
+			appendDate(content, random);
+			content.append('\t').append(random.nextLong()).append('\t');
+			content.append(NarrowRecord.Status.values()[random.nextInt(NarrowRecord.Status.values().length)]).append('\n');
+		}
+		return content.toString();
+	}
+
+	/**
+	 * Rows of {@link WideRecord}: {@link #WIDE_COLUMNS} columns, header included
+	 * @param rows
+	 * @param quoted
+	 *            (true to quote the text columns)
+	 * @return
+	 */
+	public static String wideContent(int rows, boolean quoted) {
+		Random random = new Random(SEED);
+		StringBuilder content = new StringBuilder(rows * WIDE_COLUMNS * 8);
+		for (int column = 0; column < WIDE_COLUMNS; column++) {
+			content.append((column == 0) ? "" : "\t").append("column").append(column);
+		}
+		content.append('\n');
+		for (int i = 0; i < rows; i++) {
+			for (int column = 0; column < WIDE_COLUMNS; column++) {
+				if (column > 0) {
+					content.append('\t');
+				}
+				switch (column % 4) {
+				case 0:
+					content.append(random.nextInt(100000));
+					break;
+				case 1:
+					appendText(content, random, quoted);
+					break;
+				case 2:
+					content.append(randomDecimal(random));
+					break;
+				default:
+					content.append(random.nextLong());
+				}
+			}
+			content.append('\n');
+		}
+		return content.toString();
+	}
+
+	/**
+	 * Values of a column of the type, as they are found in the files
+	 * @param type
+	 *            (int, long, double, boolean, decimal, string, uuid or enum)
+	 * @param count
+	 * @return
+	 */
+	public static String[] values(String type, int count) {
+		Random random = new Random(SEED);
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			if ("int".equals(type)) {
+				values[i] = String.valueOf(random.nextInt());
+			} else if ("long".equals(type)) {
+				values[i] = String.valueOf(random.nextLong());
+			} else if ("double".equals(type)) {
+				values[i] = randomDecimal(random);
+			} else if ("boolean".equals(type)) {
+				values[i] = String.valueOf(random.nextBoolean());
+			} else if ("decimal".equals(type)) {
+				values[i] = random.nextInt(1000000) + "." + String.format("%04d", random.nextInt(10000));
+			} else if ("string".equals(type)) {
+				values[i] = WORDS[random.nextInt(WORDS.length)] + ' ' + WORDS[random.nextInt(WORDS.length)];
+			} else if ("uuid".equals(type)) {
+				values[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+			} else if ("enum".equals(type)) {
+				values[i] = NarrowRecord.Status.values()[random.nextInt(NarrowRecord.Status.values().length)].name();
+			} else {
+				throw new IllegalArgumentException("Unknown type " + type);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Dates in the generic format (yyyy-MM-dd HH:mm:ss, with an offset one out of four times)
+	 * @param count
+	 * @return
+	 */
+	public static String[] genericDates(int count) {
+		Random random = new Random(SEED);
+		String[] values = new String[count];
+		StringBuilder value = new StringBuilder(32);
+		for (int i = 0; i < count; i++) {
+			value.setLength(0);
+			appendDate(value, random);
+			if (random.nextInt(4) == 0) {
+				value.append(random.nextBoolean() ? "+02:00" : "-0500");
+			}
+			values[i] = value.toString();
+		}
+		return values;
+	}
+
+	/**
+	 * Dates in the pattern {@link #DATE_PATTERN}
+	 * @param count
+	 * @return
+	 */
+	public static String[] patternDates(int count) {
+		Random random = new Random(SEED);
+		String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = String.format("%02d/%02d/%04d %02d:%02d", 1 + random.nextInt(28), 1 + random.nextInt(12),
+					1990 + random.nextInt(40), random.nextInt(24), random.nextInt(60));
+		}
+		return values;
+	}
+
+	/**
+	 * Writes the content into a temporary UTF-8 file, deleted when the JVM exits
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	public static Path toFile(String content) throws IOException {
+		Path file = Files.createTempFile("dlg-parser-benchmark", ".tsv");
+		file.toFile().deleteOnExit();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static void appendText(StringBuilder content, Random random, boolean quoted) {
+		String word = WORDS[random.nextInt(WORDS.length)];
+		if (!quoted) {
+			content.append(word).append(' ').append(random.nextInt(1000));
+			return;
+		}
+		content.append('"').append(word);
+		switch (random.nextInt(8)) {
+		case 0:
+			content.append("\t").append(WORDS[random.nextInt(WORDS.length)]);
+			break;
+		case 1:
+			content.append(" \"\"").append(WORDS[random.nextInt(WORDS.length)]).append("\"\"");
+			break;
+		case 2:
+			content.append("\n").append(WORDS[random.nextInt(WORDS.length)]);
+			break;
+		default:
+			content.append(' ').append(random.nextInt(1000));
+		}
+		content.append('"');
+	}
+
+	private static String randomDecimal(Random random) {
+		return random.nextInt(100000) + "." + random.nextInt(100);
+	}
+
+	private static void appendDate(StringBuilder content, Random random) {
+		content.append(String.format("%04d-%02d-%02d %02d:%02d:%02d", 1990 + random.nextInt(40), 1 + random.nextInt(12),
+				1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+	}
+
+}
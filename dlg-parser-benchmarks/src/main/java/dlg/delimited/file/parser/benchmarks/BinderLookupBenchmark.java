@@ -0,0 +1,66 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.BindedClasses;
+
+/**
+ * Lookup of the binding data of already known classes, done by every parse: by one thread,
+ * and by several threads at the same time (i.e. parses of small files in a pool). Scores are
+ * per lookup.
+ *
+ * @author dalcantara
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinderLookupBenchmark {
+
+	@State(Scope.Thread)
+	public static class Lookups {
+
+		private final Class<?>[] classes = { NarrowRecord.class, WideRecord.class };
+		private int next = 0;
+
+		@Setup
+		public void setUp() {
+			for (Class<?> clazz : classes) {
+				BindedClasses.getBinder(clazz);
+			}
+		}
+
+		Class<?> nextClass() {
+			next = (next + 1) & 1;
+			return classes[next];
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public BindedClass single(Lookups lookups) {
+		return BindedClasses.getBinder(lookups.nextClass());
+	}
+
+	@Benchmark
+	@Threads(8)
+	public BindedClass contended(Lookups lookups) {
+		return BindedClasses.getBinder(lookups.nextClass());
+	}
+
+}
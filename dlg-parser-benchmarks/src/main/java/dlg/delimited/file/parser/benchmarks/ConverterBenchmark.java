@@ -0,0 +1,156 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dlg.delimited.file.parser.converter.CharRangeParser;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.converter.FieldConverter;
+import dlg.delimited.file.parser.converter.FieldConverters;
+import dlg.delimited.file.parser.converter.ValidatingConverter;
+
+/**
+ * Conversion of the values of a column, by type. {@link #getValue(Blackhole)} follows the
+ * path of the parse: primitives parsed straight from the characters of the record, the rest
+ * of types converted from the String of the column. Scores are per value.
+ *
+ * @author dalcantara
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+	static final int VALUES = 1024;
+
+	private static final int OBJECT = 0;
+	private static final int INT = 1;
+	private static final int LONG = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOOLEAN = 4;
+
+	@Param({ "int", "long", "double", "boolean", "decimal", "string", "uuid", "enum" })
+	public String type;
+
+	private String[] values;
+	private char[] chars;
+	private int[] starts;
+	private int[] ends;
+	private FieldConverter<?> converter;
+	private int primitive;
+	private final ConversionResult result = new ConversionResult();
+
+	@Setup
+	public void setUp() {
+		values = BenchmarkData.values(type, VALUES);
+		Class<?> fieldType = getType(type);
+		converter = FieldConverters.getConverter(fieldType, null);
+		primitive = (fieldType == int.class) ? INT : (fieldType == long.class) ? LONG : (fieldType == double.class) ? DOUBLE
+				: (fieldType == boolean.class) ? BOOLEAN : OBJECT;
+		// all the values in one array, like the columns of a record
+		StringBuilder record = new StringBuilder();
+		starts = new int[VALUES];
+		ends = new int[VALUES];
+		for (int i = 0; i < VALUES; i++) {
+			starts[i] = record.length();
+			record.append(values[i]);
+			ends[i] = record.length();
+			record.append('\t');
+		}
+		chars = record.toString().toCharArray();
+	}
+
+	private static Class<?> getType(String type) {
+		if ("int".equals(type)) {
+			return int.class;
+		} else if ("long".equals(type)) {
+			return long.class;
+		} else if ("double".equals(type)) {
+			return double.class;
+		} else if ("boolean".equals(type)) {
+			return boolean.class;
+		} else if ("decimal".equals(type)) {
+			return BigDecimal.class;
+		} else if ("string".equals(type)) {
+			return String.class;
+		} else if ("uuid".equals(type)) {
+			return UUID.class;
+		}
+		return NarrowRecord.Status.class;
+	}
+
+	/**
+	 * Converters throwing exceptions for wrong values, like custom converters
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void convert(Blackhole blackhole) throws Exception {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(converter.convert(values[i]));
+		}
+	}
+
+	/**
+	 * Converters telling wrong values through a status code
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void tryConvert(Blackhole blackhole) {
+		ValidatingConverter<?> validatingConverter = (ValidatingConverter<?>) converter;
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(validatingConverter.tryConvert(values[i], result));
+			blackhole.consume(result.getValue());
+		}
+	}
+
+	/**
+	 * Same path than the parse
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void getValue(Blackhole blackhole) {
+		for (int i = 0; i < VALUES; i++) {
+			int status;
+			switch (primitive) {
+			case INT:
+				status = CharRangeParser.parseInt(chars, starts[i], ends[i], '"', result);
+				break;
+			case LONG:
+				status = CharRangeParser.parseLong(chars, starts[i], ends[i], '"', result);
+				break;
+			case DOUBLE:
+				status = CharRangeParser.parseDouble(chars, starts[i], ends[i], '"', result);
+				break;
+			case BOOLEAN:
+				status = CharRangeParser.parseBoolean(chars, starts[i], ends[i], result);
+				break;
+			default:
+				status = ((ValidatingConverter<?>) converter).tryConvert(new String(chars, starts[i], ends[i] - starts[i]),
+						result);
+			}
+			blackhole.consume(status);
+			blackhole.consume(result.getLong());
+			blackhole.consume(result.getValue());
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.converter.FieldConverter;
+import dlg.delimited.file.parser.converter.FieldConverters;
+import dlg.delimited.file.parser.converter.ValidatingConverter;
+import dlg.delimited.file.parser.util.DateFormatUtils;
+
+/**
+ * Both ways of parsing dates: the generic formats decoded by {@link DateFormatUtils}, and
+ * the pattern of the field parsed by Joda. Scores are per value.
+ *
+ * @author dalcantara
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+
+	static final int VALUES = 1024;
+
+	private String[] genericDates;
+	private String[] patternDates;
+	private ValidatingConverter<?> genericConverter;
+	private ValidatingConverter<?> patternConverter;
+	private FieldConverter<?> genericMillisConverter;
+	private final ConversionResult result = new ConversionResult();
+
+	@Setup
+	public void setUp() {
+		genericDates = BenchmarkData.genericDates(VALUES);
+		patternDates = BenchmarkData.patternDates(VALUES);
+		genericConverter = (ValidatingConverter<?>) FieldConverters.getConverter(Date.class, null);
+		patternConverter = (ValidatingConverter<?>) FieldConverters.getConverter(Date.class, BenchmarkData.DATE_PATTERN);
+		genericMillisConverter = FieldConverters.getConverter(long.class, BindedFieldData.DEFAULT_DATE_FORMATS);
+	}
+
+	/**
+	 * Generic formats into milliseconds, without any allocation
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void genericMillis(Blackhole blackhole) {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(DateFormatUtils.tryGetMillisFromString(genericDates[i]));
+		}
+	}
+
+	/**
+	 * Generic formats checked against their regular expression first
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void genericDateFromString(Blackhole blackhole) throws Exception {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(DateFormatUtils.getDateFromString(genericDates[i]));
+		}
+	}
+
+	/**
+	 * Date fields without pattern
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void genericConverter(Blackhole blackhole) {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(genericConverter.tryConvert(genericDates[i], result));
+			blackhole.consume(result.getValue());
+		}
+	}
+
+	/**
+	 * Long fields holding dates in the generic formats
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void genericMillisConverter(Blackhole blackhole) throws Exception {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(genericMillisConverter.convert(genericDates[i]));
+		}
+	}
+
+	/**
+	 * Date fields with a pattern, parsed by Joda
+	 */
+	@Benchmark
+	@OperationsPerInvocation(VALUES)
+	public void patternConverter(Blackhole blackhole) {
+		for (int i = 0; i < VALUES; i++) {
+			blackhole.consume(patternConverter.tryConvert(patternDates[i], result));
+			blackhole.consume(result.getValue());
+		}
+	}
+
+}
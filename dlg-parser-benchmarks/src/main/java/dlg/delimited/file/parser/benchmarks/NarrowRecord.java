@@ -0,0 +1,99 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.util.Date;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * DTO of the narrow rows of {@link BenchmarkData#narrowContent(int, boolean)}: one column
+ * of every common type
+ *
+ * @author dalcantara
+ *
+ */
+@BinderClassData(naturalOrder = false)
+public class NarrowRecord {
+
+	public enum Status {
+		ACTIVE, SUSPENDED, CLOSED, PENDING
+	}
+
+	@BindedFieldData(readPosition = 0)
+	private int id;
+
+	@BindedFieldData(readPosition = 1)
+	private String name;
+
+	@BindedFieldData(readPosition = 2)
+	private double amount;
+
+	@BindedFieldData(readPosition = 3)
+	private boolean active;
+
+	@BindedFieldData(readPosition = 4)
+	private Date created;
+
+	@BindedFieldData(readPosition = 5)
+	private long counter;
+
+	@BindedFieldData(readPosition = 6)
+	private Status status;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public double getAmount() {
+		return amount;
+	}
+
+	public void setAmount(double amount) {
+		this.amount = amount;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	public Date getCreated() {
+		return created;
+	}
+
+	public void setCreated(Date created) {
+		this.created = created;
+	}
+
+	public long getCounter() {
+		return counter;
+	}
+
+	public void setCounter(long counter) {
+		this.counter = counter;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+}
@@ -0,0 +1,96 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dlg.delimited.file.parser.RecordConsumer;
+import dlg.delimited.file.parser.TsvParser;
+
+/**
+ * Whole parses of narrow and wide rows, quoted or not: into a list, into a consumer reusing
+ * the same DTO, and from a file. Scores are per row, so the allocation rate of the GC profiler
+ * (gc.alloc.rate.norm) is the amount of bytes allocated per row.
+ *
+ * @author dalcantara
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+	static final int ROWS = 10000;
+
+	@Param({ "narrow", "wide" })
+	public String shape;
+
+	@Param({ "false", "true" })
+	public boolean quoted;
+
+	private final TsvParser parser = new TsvParser();
+	private Class<?> clazz;
+	private String content;
+	private Path file;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		boolean wide = "wide".equals(shape);
+		clazz = wide ? WideRecord.class : NarrowRecord.class;
+		content = wide ? BenchmarkData.wideContent(ROWS, quoted) : BenchmarkData.narrowContent(ROWS, quoted);
+		file = BenchmarkData.toFile(content);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public Object parseContent() {
+		return parser.parseContent(new BufferedReader(new StringReader(content)), clazz);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	@SuppressWarnings("unchecked")
+	public long parseContentConsumer(final Blackhole blackhole) {
+		return parser.parseContent(new BufferedReader(new StringReader(content)), (Class<Object>) clazz,
+				new RecordConsumer<Object>() {
+					@Override
+					public void accept(Object record) {
+						blackhole.consume(record);
+					}
+				});
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public Object parseFile() throws IOException {
+		return parser.parseFile(file, clazz);
+	}
+
+}
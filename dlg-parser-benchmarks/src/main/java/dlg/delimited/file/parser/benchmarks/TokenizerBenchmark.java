@@ -0,0 +1,107 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+import dlg.delimited.file.parser.tokenizer.MappedRecordTokenizer;
+import dlg.delimited.file.parser.tokenizer.RecordReader;
+import dlg.delimited.file.parser.tokenizer.RecordTokenizer;
+
+/**
+ * Splitting of records into columns, on narrow (7 columns) and wide (100 columns) rows,
+ * quoted or not: the tokenizer of readers and the one of memory mapped files. Scores are
+ * per row.
+ *
+ * @author dalcantara
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+	static final int ROWS = 10000;
+
+	@Param({ "narrow", "wide" })
+	public String shape;
+
+	@Param({ "false", "true" })
+	public boolean quoted;
+
+	private String content;
+	private Path file;
+	private final ColumnBuffer record = new ColumnBuffer();
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		content = "wide".equals(shape) ? BenchmarkData.wideContent(ROWS, quoted) : BenchmarkData.narrowContent(ROWS, quoted);
+		file = BenchmarkData.toFile(content);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * All the columns of every record
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void reader(Blackhole blackhole) throws IOException {
+		tokenize(new RecordTokenizer(new StringReader(content), "\t", "\""), blackhole);
+	}
+
+	/**
+	 * Only up to the 3rd column, the rest of the record is skipped
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void readerFirstColumns(Blackhole blackhole) throws IOException {
+		tokenize(new RecordTokenizer(new StringReader(content), "\t", "\"", new boolean[3]), blackhole);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void mapped(Blackhole blackhole) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		tokenize(new MappedRecordTokenizer(channel, "\t", "\"", null), blackhole);
+	}
+
+	private void tokenize(RecordReader tokenizer, Blackhole blackhole) throws IOException {
+		try {
+			while (tokenizer.next(record)) {
+				blackhole.consume(record.getColumnCount());
+				blackhole.consume(record.getLineNumber());
+			}
+		} finally {
+			tokenizer.close();
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+package dlg.delimited.file.parser.benchmarks;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * DTO of the wide rows of {@link BenchmarkData#wideContent(int, boolean)}, binding just a
+ * few of their {@link BenchmarkData#WIDE_COLUMNS} columns, the last one included
+ *
+ * @author dalcantara
+ *
+ */
+@BinderClassData(naturalOrder = false)
+public class WideRecord {
+
+	@BindedFieldData(readPosition = 0)
+	private int column0;
+
+	@BindedFieldData(readPosition = 9)
+	private String column9;
+
+	@BindedFieldData(readPosition = 18)
+	private double column18;
+
+	@BindedFieldData(readPosition = 27)
+	private long column27;
+
+	@BindedFieldData(readPosition = 36)
+	private int column36;
+
+	@BindedFieldData(readPosition = 45)
+	private String column45;
+
+	@BindedFieldData(readPosition = 54)
+	private double column54;
+
+	@BindedFieldData(readPosition = 63)
+	private long column63;
+
+	@BindedFieldData(readPosition = 72)
+	private int column72;
+
+	@BindedFieldData(readPosition = 81)
+	private String column81;
+
+	@BindedFieldData(readPosition = 90)
+	private double column90;
+
+	@BindedFieldData(readPosition = 99)
+	private long column99;
+
+	public int getColumn0() {
+		return column0;
+	}
+
+	public void setColumn0(int column0) {
+		this.column0 = column0;
+	}
+
+	public String getColumn9() {
+		return column9;
+	}
+
+	public void setColumn9(String column9) {
+		this.column9 = column9;
+	}
+
+	public double getColumn18() {
+		return column18;
+	}
+
+	public void setColumn18(double column18) {
+		this.column18 = column18;
+	}
+
+	public long getColumn27() {
+		return column27;
+	}
+
+	public void setColumn27(long column27) {
+		this.column27 = column27;
+	}
+
+	public int getColumn36() {
+		return column36;
+	}
+
+	public void setColumn36(int column36) {
+		this.column36 = column36;
+	}
+
+	public String getColumn45() {
+		return column45;
+	}
+
+	public void setColumn45(String column45) {
+		this.column45 = column45;
+	}
+
+	public double getColumn54() {
+		return column54;
+	}
+
+	public void setColumn54(double column54) {
+		this.column54 = column54;
+	}
+
+	public long getColumn63() {
+		return column63;
+	}
+
+	public void setColumn63(long column63) {
+		this.column63 = column63;
+	}
+
+	public int getColumn72() {
+		return column72;
+	}
+
+	public void setColumn72(int column72) {
+		this.column72 = column72;
+	}
+
+	public String getColumn81() {
+		return column81;
+	}
+
+	public void setColumn81(String column81) {
+		this.column81 = column81;
+	}
+
+	public double getColumn90() {
+		return column90;
+	}
+
+	public void setColumn90(double column90) {
+		this.column90 = column90;
+	}
+
+	public long getColumn99() {
+		return column99;
+	}
+
+	public void setColumn99(long column99) {
+		this.column99 = column99;
+	}
+
+}
@@ -0,0 +1,454 @@
+package dlg.delimited.file.parser.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates, at compile time, a plain java binder for every DTO annotated with
+ * <code>@BinderClassData</code>. The binder holds the values of the annotations of the
+ * DTO and its superclasses, and sets the binded fields without reflection: directly
+ * when the field is accessible from the package of the DTO, through its setter otherwise.
+ * <br>
+ * When a DTO can't be binded that way (i.e. a private field without setter, or no
+ * accessible default constructor) a warning is reported and no binder is generated,
+ * so the parser keeps binding that DTO through reflection.
+ * <br>
+ * It reads the annotations by name, so it doesn't depend on the parser library itself,
+ * which is only needed to compile the generated sources.
+ *
+ * @author dalcantara
+ *
+ */
+@SupportedAnnotationTypes(BinderProcessor.BINDER_CLASS_DATA)
+public class BinderProcessor extends AbstractProcessor {
+
+	static final String BINDER_CLASS_DATA = "dlg.delimited.file.parser.annotations.BinderClassData";
+	static final String BINDED_FIELD_DATA = "dlg.delimited.file.parser.annotations.BindedFieldData";
+	static final String LINE_NUMBER_FIELD = "dlg.delimited.file.parser.annotations.LineNumberField";
+
+	/**
+	 * Same suffix than dlg.delimited.file.parser.binder.GeneratedBinder.GENERATED_SUFFIX
+	 */
+	static final String GENERATED_SUFFIX = "_DlgBinder";
+
+	/**
+	 * Typed methods of dlg.delimited.file.parser.binder.FieldSetter by primitive type
+	 */
+	private static final Map<TypeKind, String> PRIMITIVE_SETTERS = new EnumMap<TypeKind, String>(TypeKind.class);
+
+	static {
+		PRIMITIVE_SETTERS.put(TypeKind.INT, "setInt");
+		PRIMITIVE_SETTERS.put(TypeKind.LONG, "setLong");
+		PRIMITIVE_SETTERS.put(TypeKind.SHORT, "setShort");
+		PRIMITIVE_SETTERS.put(TypeKind.DOUBLE, "setDouble");
+		PRIMITIVE_SETTERS.put(TypeKind.FLOAT, "setFloat");
+		PRIMITIVE_SETTERS.put(TypeKind.BOOLEAN, "setBoolean");
+	}
+
+	private Elements elements;
+	private Types types;
+	private Messager messager;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		messager = processingEnv.getMessager();
+		TypeElement binderClassData = elements.getTypeElement(BINDER_CLASS_DATA);
+		if (binderClassData == null) {
+			return false;
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(binderClassData)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				continue;
+			}
+			TypeElement dto = (TypeElement) element;
+			try {
+				generateBinder(dto);
+			} catch (UnsupportedBindingException e) {
+				messager.printMessage(Diagnostic.Kind.WARNING, "No binder generated for " + dto.getQualifiedName()
+						+ ", it will be binded through reflection: " + e.getMessage(), dto);
+			} catch (IOException e) {
+				messager.printMessage(Diagnostic.Kind.ERROR, "Error writing binder for " + dto.getQualifiedName()
+						+ ": " + e.getMessage(), dto);
+			}
+		}
+		return false;
+	}
+
+	private void generateBinder(TypeElement dto) throws IOException {
+		String packageName = elements.getPackageOf(dto).getQualifiedName().toString();
+		checkInstantiable(dto, packageName);
+
+		BindingModel model = new BindingModel();
+		scanFields(dto, false, model);
+
+		String binaryName = elements.getBinaryName(dto).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				.concat(GENERATED_SUFFIX);
+		String dtoName = types.erasure(dto.asType()).toString();
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("import dlg.delimited.file.parser.annotations.BinderClassData.Quoting;\n");
+		source.append("import dlg.delimited.file.parser.binder.FieldSetter;\n");
+		source.append("import dlg.delimited.file.parser.binder.GeneratedBinder;\n\n");
+		source.append("/**\n");
+		source.append(" * Binder of {@link ").append(dtoName).append("}, generated by ")
+				.append(BinderProcessor.class.getName()).append(".\n");
+		source.append(" * Don't edit it, it's generated again at every compilation.\n");
+		source.append(" */\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(simpleName).append(" extends GeneratedBinder {\n\n");
+		source.append("\tpublic ").append(simpleName).append("() {\n");
+		source.append("\t\tsuper(").append(dtoName).append(".class, ");
+		appendClassData(source, dto);
+		source.append(");\n");
+		for (Map.Entry<Integer, String> entry : model.existingFields.entrySet()) {
+			FieldModel field = model.fields.get(entry.getValue());
+			source.append("\t\taddField(").append(entry.getKey()).append(", ")
+					.append(literal(field.getName())).append(", ")
+					.append(classLiteral(field.element.asType())).append(", ")
+					.append(field.required).append(", ")
+					.append(field.trimValue).append(", ")
+					.append(field.dateStringPattern.trim().isEmpty() ? "null" : literal(field.dateStringPattern)).append(", ")
+					.append(field.dictionarySize).append(", ")
+					.append(field.inherited).append(", ");
+			appendSetter(source, dto, dtoName, packageName, field);
+			source.append(");\n");
+		}
+		if (model.lineNumberField != null) {
+			FieldModel field = model.lineNumberField;
+			source.append("\t\tsetLineNumberField(").append(literal(field.getName())).append(", ")
+					.append(classLiteral(field.element.asType())).append(", ")
+					.append(field.inherited).append(", ");
+			appendSetter(source, dto, dtoName, packageName, field);
+			source.append(");\n");
+		}
+		source.append("\t}\n\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic Object newInstance() {\n");
+		source.append("\t\treturn new ").append(dtoName).append("();\n");
+		source.append("\t}\n\n");
+		source.append("}\n");
+
+		String generatedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		Writer writer = processingEnv.getFiler().createSourceFile(generatedName, dto).openWriter();
+		try {
+			writer.write(source.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * The generated binder creates instances with <code>new</code>, so the DTO has to be a
+	 * concrete, static and accessible class with an accessible default constructor
+	 */
+	private void checkInstantiable(TypeElement dto, String packageName) {
+		if (dto.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new UnsupportedBindingException("the class is abstract");
+		}
+		if (dto.getNestingKind() != NestingKind.TOP_LEVEL && !dto.getModifiers().contains(Modifier.STATIC)) {
+			throw new UnsupportedBindingException("inner classes need an enclosing instance");
+		}
+		if (!isAccessible(dto, packageName)) {
+			throw new UnsupportedBindingException("the class isn't accessible from its package");
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(dto.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty()) {
+				if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+					throw new UnsupportedBindingException("the default constructor is private");
+				}
+				return;
+			}
+		}
+		throw new UnsupportedBindingException("there is no default constructor");
+	}
+
+	/**
+	 * Reads the fields of the class and then of its superclasses, following the very same
+	 * rules than dlg.delimited.file.parser.binder.BindedClass does through reflection
+	 */
+	private void scanFields(TypeElement type, boolean inherited, BindingModel model) {
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			registerField(field, type, inherited, model);
+		}
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() == TypeKind.DECLARED) {
+			scanFields((TypeElement) types.asElement(superclass), true, model);
+		}
+	}
+
+	private void registerField(VariableElement element, TypeElement declaringType, boolean inherited, BindingModel model) {
+		String fieldName = element.getSimpleName().toString();
+		String type = getSimpleTypeName(element.asType());
+		if (model.lineNumberField == null) {
+			AnnotationMirror lineNumberAnnotation = getAnnotation(element, LINE_NUMBER_FIELD);
+			if (lineNumberAnnotation != null) {
+				boolean isLineNumberField = (Boolean) getValue(lineNumberAnnotation, "setLineNumber");
+				if (isLineNumberField && ("Integer".equals(type) || "int".equals(type))) {
+					model.lineNumberField = new FieldModel(element, declaringType, inherited);
+					return;
+				}
+			}
+		}
+		AnnotationMirror annotation = getAnnotation(element, BINDED_FIELD_DATA);
+		if (annotation != null && !model.existingFields.containsValue(fieldName)) {
+			int position = (Integer) getValue(annotation, "readPosition");
+			if (position > -1) {
+				FieldModel field = new FieldModel(element, declaringType, inherited);
+				field.required = (Boolean) getValue(annotation, "required");
+				field.trimValue = (Boolean) getValue(annotation, "trimValue");
+				field.dateStringPattern = (String) getValue(annotation, "dateStringPattern");
+				if ((Boolean) getValue(annotation, "dictionary")) {
+					field.dictionarySize = (Integer) getValue(annotation, "dictionarySize");
+				}
+				model.existingFields.put(position, fieldName);
+				model.fields.put(fieldName, field);
+			}
+		}
+	}
+
+	private void appendClassData(StringBuilder source, TypeElement dto) {
+		AnnotationMirror annotation = getAnnotation(dto, BINDER_CLASS_DATA);
+		Object quoting = getValue(annotation, "quoting");
+		source.append("Quoting.").append(((VariableElement) quoting).getSimpleName()).append(", ")
+				.append(literal((String) getValue(annotation, "separtor"))).append(", ")
+				.append(getValue(annotation, "ignoreFirstRow")).append(", ")
+				.append(getValue(annotation, "naturalOrder")).append(", ")
+				.append(getValue(annotation, "trimValue")).append(", ")
+				.append(getValue(annotation, "throwExceptionAtMissingData")).append(", ")
+				.append(getValue(annotation, "failAtWrongDataTypeException"));
+	}
+
+	/**
+	 * Writes the setter of the field: a direct assignment when the field is accessible
+	 * from the generated binder, a call to its setter method otherwise
+	 */
+	private void appendSetter(StringBuilder source, TypeElement dto, String dtoName, String packageName, FieldModel field) {
+		VariableElement element = field.element;
+		if (element.getModifiers().contains(Modifier.STATIC)) {
+			throw new UnsupportedBindingException("static field " + field.getName() + " can't be binded");
+		}
+		// assignment or setter call, to be completed with the value
+		String assignment;
+		if (!element.getModifiers().contains(Modifier.FINAL) && isAccessible(element, field.declaringType, packageName)) {
+			assignment = "((" + types.erasure(field.declaringType.asType()) + ") target)." + field.getName() + " = %s;";
+		} else {
+			ExecutableElement setter = findSetter(dto, element, packageName);
+			if (setter == null) {
+				throw new UnsupportedBindingException("field " + field.getName()
+						+ " is not accessible from its package and has no accessible setter");
+			}
+			assignment = "((" + dtoName + ") target)." + setter.getSimpleName() + "(%s);";
+		}
+		source.append("new FieldSetter() {\n");
+		source.append("\t\t\t@Override\n");
+		source.append("\t\t\tpublic void set(Object target, Object value) {\n");
+		source.append("\t\t\t\t").append(String.format(assignment, "(" + getBoxedTypeName(element.asType()) + ") value")).append("\n");
+		source.append("\t\t\t}\n");
+		TypeKind kind = element.asType().getKind();
+		if (PRIMITIVE_SETTERS.containsKey(kind)) {
+			// typed setter, so primitives are assigned without boxing
+			String primitive = kind.name().toLowerCase();
+			source.append("\n");
+			source.append("\t\t\t@Override\n");
+			source.append("\t\t\tpublic void ").append(PRIMITIVE_SETTERS.get(kind)).append("(Object target, ")
+					.append(primitive).append(" value) {\n");
+			source.append("\t\t\t\t").append(String.format(assignment, "value")).append("\n");
+			source.append("\t\t\t}\n");
+		}
+		source.append("\t\t}");
+	}
+
+	private ExecutableElement findSetter(TypeElement dto, VariableElement field, String packageName) {
+		String name = field.getSimpleName().toString();
+		String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(dto))) {
+			if (method.getSimpleName().contentEquals(setterName) && method.getParameters().size() == 1
+					&& !method.getModifiers().contains(Modifier.STATIC)
+					&& types.isSameType(types.erasure(method.getParameters().get(0).asType()), types.erasure(field.asType()))
+					&& isAccessible(method, (TypeElement) method.getEnclosingElement(), packageName)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns true if the member can be used from a class of the received package
+	 */
+	private boolean isAccessible(Element member, TypeElement declaringType, String packageName) {
+		if (member.getModifiers().contains(Modifier.PRIVATE) || !isAccessible(declaringType, packageName)) {
+			return false;
+		}
+		return member.getModifiers().contains(Modifier.PUBLIC)
+				|| elements.getPackageOf(declaringType).getQualifiedName().contentEquals(packageName);
+	}
+
+	private boolean isAccessible(TypeElement type, String packageName) {
+		Element current = type;
+		while (current != null && (current.getKind().isClass() || current.getKind().isInterface())) {
+			if (current.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (!current.getModifiers().contains(Modifier.PUBLIC)
+					&& !elements.getPackageOf(current).getQualifiedName().contentEquals(packageName)) {
+				return false;
+			}
+			current = current.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private AnnotationMirror getAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private Object getValue(AnnotationMirror annotation, String attribute) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = elements.getElementValuesWithDefaults(annotation);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+				return entry.getValue().getValue();
+			}
+		}
+		throw new IllegalStateException("Attribute " + attribute + " not found in " + annotation);
+	}
+
+	/**
+	 * Same value than Class.getSimpleName() of the field type
+	 */
+	private String getSimpleTypeName(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return type.toString();
+		}
+		if (type.getKind() == TypeKind.DECLARED) {
+			return types.asElement(type).getSimpleName().toString();
+		}
+		String erasure = types.erasure(type).toString();
+		return erasure.substring(erasure.lastIndexOf('.') + 1);
+	}
+
+	private String getBoxedTypeName(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName().toString();
+		}
+		return types.erasure(type).toString();
+	}
+
+	private String classLiteral(TypeMirror type) {
+		return types.erasure(type).toString() + ".class";
+	}
+
+	private static String literal(String value) {
+		StringBuilder literal = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\t':
+				literal.append("\\t");
+				break;
+			case '\n':
+				literal.append("\\n");
+				break;
+			case '\r':
+				literal.append("\\r");
+				break;
+			case '"':
+				literal.append("\\\"");
+				break;
+			case '\\':
+				literal.append("\\\\");
+				break;
+			default:
+				if (c < 0x20 || c > 0x7e) {
+					literal.append(String.format("\\u%04x", (int) c));
+				} else {
+					literal.append(c);
+				}
+			}
+		}
+		return literal.append('"').toString();
+	}
+
+	/**
+	 * Binded fields of a DTO, as BindedClass would find them
+	 */
+	private static class BindingModel {
+		private final Map<Integer, String> existingFields = new LinkedHashMap<Integer, String>();
+		private final Map<String, FieldModel> fields = new LinkedHashMap<String, FieldModel>();
+		private FieldModel lineNumberField;
+	}
+
+	private static class FieldModel {
+		private final VariableElement element;
+		private final TypeElement declaringType;
+		private final boolean inherited;
+		private boolean required;
+		private boolean trimValue;
+		private String dateStringPattern = "";
+		private int dictionarySize;
+
+		FieldModel(VariableElement element, TypeElement declaringType, boolean inherited) {
+			this.element = element;
+			this.declaringType = declaringType;
+			this.inherited = inherited;
+		}
+
+		String getName() {
+			return element.getSimpleName().toString();
+		}
+	}
+
+	/**
+	 * Thrown when a DTO can't be binded by generated code
+	 */
+	private static class UnsupportedBindingException extends RuntimeException {
+
+		private static final long serialVersionUID = 5143786447406520398L;
+
+		UnsupportedBindingException(String message) {
+			super(message);
+		}
+	}
+
+}
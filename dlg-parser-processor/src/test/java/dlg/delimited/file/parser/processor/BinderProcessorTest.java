@@ -0,0 +1,189 @@
+package dlg.delimited.file.parser.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.TsvParser;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.binder.BindedClasses;
+import dlg.delimited.file.parser.binder.GeneratedBinder;
+
+/**
+ * Compiles sample DTOs with the processor, and parses content with the binders it generates
+ *
+ * @author dalcantara
+ *
+ */
+public class BinderProcessorTest {
+
+	private static final String ORDER = "package sample;\n"
+			+ "import dlg.delimited.file.parser.annotations.*;\n"
+			+ "@BinderClassData(ignoreFirstRow = true, naturalOrder = false)\n"
+			+ "public class Order {\n"
+			+ "	@BindedFieldData(readPosition = 0) public String id;\n"
+			+ "	@BindedFieldData(readPosition = 1) public int quantity;\n"
+			+ "	@BindedFieldData(readPosition = 3, trimValue = true) String country;\n"
+			+ "	@BindedFieldData(readPosition = 2) private double price;\n"
+			+ "	@LineNumberField public int line;\n"
+			+ "	public double getPrice() { return price; }\n"
+			+ "	public void setPrice(double price) { this.price = price; }\n"
+			+ "	public String getCountry() { return country; }\n"
+			+ "}\n";
+
+	private static final String HIDDEN = "package sample;\n"
+			+ "import dlg.delimited.file.parser.annotations.*;\n"
+			+ "@BinderClassData(naturalOrder = false)\n"
+			+ "public class Hidden {\n"
+			+ "	@BindedFieldData(readPosition = 0) private String id;\n"
+			+ "	public String getId() { return id; }\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File classes;
+	private File generated;
+	private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+	@Before
+	public void compile() throws IOException {
+		File sources = folder.newFolder("sources", "sample");
+		Files.write(new File(sources, "Order.java").toPath(), ORDER.getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(sources, "Hidden.java").toPath(), HIDDEN.getBytes(StandardCharsets.UTF_8));
+		classes = folder.newFolder("classes");
+		generated = folder.newFolder("generated");
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull("the tests have to run on a JDK", compiler);
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+				StandardCharsets.UTF_8);
+		try {
+			String classPath = getLocation(BinderClassData.class) + File.pathSeparator + getLocation(BinderProcessor.class);
+			List<String> options = Arrays.asList("-classpath", classPath, "-processorpath", getLocation(BinderProcessor.class),
+					"-processor", BinderProcessor.class.getName(), "-d", classes.getPath(), "-s", generated.getPath());
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(new File(sources, "Order.java"),
+					new File(sources, "Hidden.java"));
+			assertTrue(diagnostics.getDiagnostics().toString(),
+					compiler.getTask(null, fileManager, diagnostics, options, null, units).call());
+		} finally {
+			fileManager.close();
+		}
+	}
+
+	private static String getLocation(Class<?> clazz) {
+		try {
+			return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+		} catch (Exception e) {
+			throw new IllegalStateException("Location of " + clazz.getName() + " unknown", e);
+		}
+	}
+
+	private URLClassLoader newClassLoader() throws IOException {
+		return new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader());
+	}
+
+	@Test
+	public void binderIsGeneratedForBindableDtos() throws Exception {
+		assertTrue(new File(generated, "sample/Order" + GeneratedBinder.GENERATED_SUFFIX + ".java").exists());
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			Class<?> binderClass = classLoader.loadClass("sample.Order" + GeneratedBinder.GENERATED_SUFFIX);
+			GeneratedBinder binder = (GeneratedBinder) binderClass.getDeclaredConstructor().newInstance();
+			Class<?> order = classLoader.loadClass("sample.Order");
+			assertEquals(order, binder.getBindedClass());
+			assertTrue(binder.getIgnoreFirstRow());
+			assertFalse(binder.getNaturalOrder());
+			assertEquals(order, binder.newInstance().getClass());
+			List<String> fields = new ArrayList<String>();
+			for (GeneratedBinder.GeneratedField field : binder.getFields()) {
+				fields.add(field.getReadPosition() + ":" + field.getFieldName() + ":" + field.getType().getName());
+			}
+			assertTrue(fields.toString(), fields.containsAll(Arrays.asList("0:id:java.lang.String", "1:quantity:int",
+					"2:price:double", "3:country:java.lang.String")));
+			assertEquals(4, fields.size());
+			assertEquals("line", binder.getLineNumberField().getFieldName());
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	@Test
+	public void generatedBinderParsesTheContent() throws Exception {
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			Class<?> order = classLoader.loadClass("sample.Order");
+			assertEquals(order, BindedClasses.getBinder(order).getClazz());
+			List<?> orders = new TsvParser().parseContent(
+					new BufferedReader(new StringReader("id\tquantity\tprice\tcountry\nA1\t3\t9.5\t ES \nB2\t7\t0.25\tFR\n")),
+					order);
+			assertEquals(2, orders.size());
+			Object first = orders.get(0);
+			assertEquals("A1", order.getField("id").get(first));
+			assertEquals(3, order.getField("quantity").get(first));
+			assertEquals(9.5, (Double) order.getMethod("getPrice").invoke(first), 0);
+			assertEquals("ES", order.getMethod("getCountry").invoke(first));
+			assertEquals(2, order.getField("line").get(first));
+			assertEquals(7, order.getField("quantity").get(orders.get(1)));
+			assertEquals(3, order.getField("line").get(orders.get(1)));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+	@Test
+	public void dtosThatCantBeBindedAreLeftToReflection() throws Exception {
+		assertFalse(new File(generated, "sample/Hidden" + GeneratedBinder.GENERATED_SUFFIX + ".java").exists());
+		boolean warned = false;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.WARNING
+					&& diagnostic.getMessage(Locale.ROOT).contains("No binder generated for sample.Hidden")) {
+				warned = true;
+			}
+		}
+		assertTrue(diagnostics.getDiagnostics().toString(), warned);
+
+		URLClassLoader classLoader = newClassLoader();
+		try {
+			Class<?> hidden = classLoader.loadClass("sample.Hidden");
+			try {
+				classLoader.loadClass("sample.Hidden" + GeneratedBinder.GENERATED_SUFFIX);
+				fail("no binder can be generated for a private field without setter");
+			} catch (ClassNotFoundException e) {
+				// expected
+			}
+			List<?> rows = new TsvParser().parseContent(new BufferedReader(new StringReader("id\nh1\n")), hidden);
+			assertEquals("h1", hidden.getMethod("getId").invoke(rows.get(0)));
+		} finally {
+			classLoader.close();
+		}
+	}
+
+}
@@ -0,0 +1,329 @@
+package dlg.delimited.file.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.exception.ErrorBudgetExceededException;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+import dlg.delimited.file.parser.filter.RecordFilter;
+import dlg.delimited.file.parser.tokenizer.ChunkSplitter;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+import dlg.delimited.file.parser.tokenizer.FileChunk;
+import dlg.delimited.file.parser.tokenizer.MappedRecordTokenizer;
+
+/**
+ * Parses a single file splitting it into chunks of whole records, which are tokenized and
+ * binded in parallel on a fork-join pool. Line numbers are the same than parsing the file
+ * sequentially, and the first row is only ignored in the first chunk.
+ * <br>
+ * Every chunk has to start exactly where the previous one ended, when it doesn't (a quoting
+ * character in the middle of an unquoted column may confuse the {@link ChunkSplitter}) its
+ * records are discarded and the range is parsed again from the right position.
+ * <br>
+ * Every chunk counts its records and collects its errors apart, only the counters and the
+ * errors of the chunks whose records are kept are added to the statistics and the error
+ * collector of the parse (or logged), in the order of the file: a chunk starting at a wrong
+ * position may find errors the file doesn't have. In the same way, an error interrupting the
+ * parse of a chunk (an {@link InvalidFieldValueException}, the error budget exceeded
+ * included) is kept along with its records, and only thrown if the chunk is kept. Metrics
+ * measure all the work done, the chunks parsed again included.
+ *
+ * @author dalcantara
+ *
+ */
+class ChunkedFileParser {
+
+	/**
+	 * Files smaller than this are parsed sequentially
+	 */
+	static final long PARALLEL_THRESHOLD = 32 * 1024 * 1024;
+
+	private static final long MIN_CHUNK_SIZE = 4 * 1024 * 1024;
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private Logger logger = LoggerFactory.getLogger(ChunkedFileParser.class);
+
+	private final TsvParser parser;
+	private final ForkJoinPool pool;
+
+	ChunkedFileParser(TsvParser parser, ForkJoinPool pool) {
+		this.parser = parser;
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns true if the file is worth being parsed in parallel
+	 * @param size
+	 * @return
+	 */
+	boolean isWorthParallel(long size) {
+		return size >= PARALLEL_THRESHOLD && pool.getParallelism() > 1;
+	}
+
+	/**
+	 * Parses the file
+	 * @param path
+	 * @param bindedClass
+	 * @param clazz
+	 * @param filter
+	 *            (null to bind all the records)
+	 * @param statistics
+	 * @param errorCollector
+	 *            (null to log the errors)
+	 * @param metrics
+	 *            (null if the parse has none)
+	 * @return
+	 * @throws IOException
+	 */
+	<T> List<T> parse(Path path, BindedClass bindedClass, Class<T> clazz, RecordFilter filter,
+			ParseStatistics statistics, ParseErrorCollector errorCollector, ParseMetrics metrics) throws IOException {
+		ParseMetricsRecorder recorder = (metrics != null) ? metrics.startParse() : null;
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long start = MappedRecordTokenizer.getContentStart(channel);
+			long end = channel.size();
+			long chunkCount = Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD, (end - start) / MIN_CHUNK_SIZE);
+			List<FileChunk> chunks = new ChunkSplitter(channel, bindedClass.getQuoting()).split(start, end,
+					(int) Math.max(chunkCount, 1), pool);
+			logger.debug("Parsing {} in {} chunks", path, chunks.size());
+			if (errorCollector != null && errorCollector.hasQuarantine() && bindedClass.getIgnoreFirstLine()) {
+				// the header goes first in the quarantine, whichever chunk rejects a record first
+				setHeader(channel, start, end, bindedClass, errorCollector);
+			}
+			return parseChunks(channel, chunks, bindedClass, clazz, filter, statistics, errorCollector, recorder);
+		} finally {
+			channel.close();
+			if (recorder != null) {
+				recorder.finish();
+			}
+		}
+	}
+
+	private <T> List<T> parseChunks(final FileChannel channel, List<FileChunk> chunks, final BindedClass bindedClass,
+			final Class<T> clazz, final RecordFilter filter, ParseStatistics statistics,
+			final ParseErrorCollector errorCollector, final ParseMetricsRecorder recorder) throws IOException {
+		List<Future<ChunkResult<T>>> futures = new ArrayList<Future<ChunkResult<T>>>(chunks.size());
+		for (final FileChunk chunk : chunks) {
+			futures.add(pool.submit(new Callable<ChunkResult<T>>() {
+				@Override
+				public ChunkResult<T> call() throws Exception {
+					return parseChunk(channel, chunk, chunk.getStart(), chunk.getLinesBefore(), bindedClass, clazz, filter,
+							errorCollector, recorder);
+				}
+			}));
+		}
+
+		List<ChunkResult<T>> results = new ArrayList<ChunkResult<T>>(chunks.size());
+		try {
+			for (Future<ChunkResult<T>> future : futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing the file", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IllegalStateException("Error parsing the file", cause);
+		} finally {
+			for (Future<ChunkResult<T>> future : futures) {
+				future.cancel(true);
+			}
+		}
+
+		return merge(channel, results, bindedClass, clazz, filter, statistics, errorCollector, recorder);
+	}
+
+	/**
+	 * Checks that every chunk starts where the previous one ended, parsing again the ranges
+	 * that don't, and joins the records of all the chunks
+	 */
+	private <T> List<T> merge(FileChannel channel, List<ChunkResult<T>> results, BindedClass bindedClass, Class<T> clazz,
+			RecordFilter filter, ParseStatistics statistics, ParseErrorCollector errorCollector,
+			ParseMetricsRecorder recorder) throws IOException {
+		List<T> merged = new ArrayList<T>(countRecords(results));
+
+		long expectedStart = results.get(0).chunk.getStart();
+		int expectedLines = 0;
+		for (ChunkResult<T> result : results) {
+			FileChunk chunk = result.chunk;
+			ChunkResult<T> accepted = result;
+			if (chunk.getStart() != expectedStart || chunk.getLinesBefore() != expectedLines) {
+				logger.debug("Chunk {} doesn't start at a record boundary, parsing it again from {}", chunk, expectedStart);
+				accepted = null;
+				if (expectedStart < chunk.getEnd()) {
+					accepted = parseChunk(channel, chunk, expectedStart, expectedLines, bindedClass, clazz, filter,
+							errorCollector, recorder);
+				}
+			}
+			if (accepted != null) {
+				accepted.errors.report(errorCollector);
+				if (accepted.abort != null) {
+					throw accepted.abort;
+				}
+				expectedStart = accepted.end;
+				expectedLines = accepted.lines;
+				statistics.add(accepted.statistics);
+				merged.addAll(accepted.records);
+			}
+		}
+		return merged;
+	}
+
+	private <T> int countRecords(List<ChunkResult<T>> results) {
+		long count = 0;
+		for (ChunkResult<T> result : results) {
+			count += result.records.size();
+		}
+		return (int) Math.min(count, Integer.MAX_VALUE - 8);
+	}
+
+	/**
+	 * Parses the records of the chunk starting from the received position, counting in a fork
+	 * of the recorder of the parse, if any
+	 */
+	private <T> ChunkResult<T> parseChunk(FileChannel channel, FileChunk chunk, long start, int linesBefore,
+			BindedClass bindedClass, Class<T> clazz, RecordFilter filter, ParseErrorCollector errorCollector,
+			ParseMetricsRecorder recorder) throws IOException {
+		boolean[] neededColumns = (filter != null) ? filter.getNeededColumns(bindedClass.getMappedColumns())
+				: bindedClass.getMappedColumns();
+		MappedRecordTokenizer tokenizer = new MappedRecordTokenizer(channel, start, chunk.getEnd(), linesBefore,
+				bindedClass.getSeparator(), bindedClass.getQuoting(), neededColumns, MappedRecordTokenizer.DEFAULT_WINDOW_SIZE);
+		ParseStatistics statistics = new ParseStatistics();
+		ChunkErrors errors = new ChunkErrors(errorCollector);
+		TsvRecordIterator<T> iterator = new TsvRecordIterator<T>(parser, tokenizer, bindedClass, clazz, filter, statistics,
+				errors, (recorder != null) ? recorder.fork() : null);
+		List<T> records = new ArrayList<T>();
+		InvalidFieldValueException abort = null;
+		try {
+			while (iterator.hasNext()) {
+				records.add(iterator.next());
+			}
+		} catch (InvalidFieldValueException e) {
+			// only thrown once the chunk is known to start at a record boundary
+			abort = e;
+		} finally {
+			iterator.close();
+		}
+		ChunkResult<T> result = new ChunkResult<T>(chunk, records, statistics, errors, tokenizer.getPosition(),
+				tokenizer.getLineNumber());
+		result.abort = abort;
+		return result;
+	}
+
+	/**
+	 * Reads the first row of the content, ignored by the DTO, into the error collector
+	 */
+	private void setHeader(FileChannel channel, long start, long end, BindedClass bindedClass,
+			ParseErrorCollector errorCollector) throws IOException {
+		MappedRecordTokenizer tokenizer = new MappedRecordTokenizer(channel, start, end, 0, bindedClass.getSeparator(),
+				bindedClass.getQuoting(), new boolean[0], MappedRecordTokenizer.DEFAULT_WINDOW_SIZE);
+		ColumnBuffer record = new ColumnBuffer();
+		try {
+			if (tokenizer.next(record)) {
+				errorCollector.setHeader(record.getLine());
+			}
+		} finally {
+			tokenizer.close();
+		}
+	}
+
+	private static class ChunkResult<T> {
+		private final FileChunk chunk;
+		private final List<T> records;
+		private final ParseStatistics statistics;
+		private final ChunkErrors errors;
+		// position and line count after the last record of the chunk
+		private final long end;
+		private final int lines;
+		// error interrupting the parse of the chunk, if any
+		private InvalidFieldValueException abort;
+
+		private ChunkResult(FileChunk chunk, List<T> records, ParseStatistics statistics, ChunkErrors errors, long end,
+				int lines) {
+			this.chunk = chunk;
+			this.records = records;
+			this.statistics = statistics;
+			this.errors = errors;
+			this.end = end;
+			this.lines = lines;
+		}
+	}
+
+	/**
+	 * Errors of a single chunk, kept until the merge knows whether the chunk is kept. They
+	 * aren't logged, and the chunk is interrupted once it has more errors than the budget of
+	 * the parse by itself.
+	 */
+	private static class ChunkErrors extends ParseErrorCollector {
+		private static Logger logger = LoggerFactory.getLogger(ChunkedFileParser.class);
+
+		private final long budget;
+		// errors and raw lines of the rejected records, in the order they were found
+		private final List<Object> events = new ArrayList<Object>();
+		private long count = 0;
+
+		/**
+		 *
+		 * @param collector
+		 *            (collector of the parse, null if the errors are logged)
+		 */
+		private ChunkErrors(ParseErrorCollector collector) {
+			this.budget = (collector != null) ? collector.getErrorBudget() : -1;
+			setDropRejectedRecords(collector != null && collector.isDropRejectedRecords());
+		}
+
+		@Override
+		public void add(ParseError error) {
+			events.add(error);
+			if (budget >= 0 && ++count > budget) {
+				throw new ErrorBudgetExceededException("More than " + budget + " errors found, last one: " + error);
+			}
+		}
+
+		@Override
+		public void reject(String line) {
+			events.add(line);
+		}
+
+		/**
+		 * Hands off the errors to the collector of the parse, or logs them if it has none
+		 * @param collector
+		 * @throws ErrorBudgetExceededException
+		 *             if the collector has more errors than its budget
+		 */
+		private void report(ParseErrorCollector collector) {
+			for (Object event : events) {
+				if (event instanceof ParseError) {
+					if (collector != null) {
+						collector.add((ParseError) event);
+					} else {
+						logger.error("{}", event);
+					}
+				} else if (collector != null) {
+					collector.reject((String) event);
+				}
+			}
+			events.clear();
+		}
+	}
+
+}
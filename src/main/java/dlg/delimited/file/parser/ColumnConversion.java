@@ -0,0 +1,160 @@
+package dlg.delimited.file.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.CharRangeParser;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.converter.FieldConverter;
+import dlg.delimited.file.parser.converter.ValidatingConverter;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+
+/**
+ * Conversion of the columns of a record into the types of their fields, shared by every
+ * iterator whether it binds DTOs or fills batches of columns.
+ * <br>
+ * Wrong values are reported to the errors of the record (or logged when the parse has no
+ * collector), and interrupt the whole process when the DTO says so. Built-in types and
+ * {@link ValidatingConverter}s tell wrong values through a status code, no exception is
+ * created for them.
+ *
+ * @author dalcantara
+ *
+ */
+final class ColumnConversion {
+
+	private static Logger logger = LoggerFactory.getLogger(ColumnConversion.class);
+
+	private ColumnConversion() {
+	}
+
+	/**
+	 * Parses the primitive (or wrapper) value straight from the characters of the column,
+	 * without creating any String nor exception
+	 * @param record
+	 * @param column
+	 * @param binding
+	 *            (binding of a field with a primitive type, see {@link FieldBinding#getPrimitiveType()})
+	 * @param bindedClass
+	 * @param conversion
+	 *            (receives the value, reused along the parse)
+	 * @param errors
+	 *            (errors of the record, null to log them)
+	 * @return true if the value is right, false if it's wrong and has been reported
+	 * @throws InvalidFieldValueException
+	 */
+	static boolean parsePrimitive(ColumnBuffer record, int column, FieldBinding binding, BindedClass bindedClass,
+			ConversionResult conversion, RecordErrors errors) throws InvalidFieldValueException {
+		char[] chars = record.getChars();
+		int start = record.getStart(column);
+		int end = record.getEnd(column);
+		char quote = record.getQuote();
+		if (binding.isTrimValue()) {
+			start = CharRangeParser.trimStart(chars, start, end);
+			end = CharRangeParser.trimEnd(chars, start, end);
+		}
+		int status = ConversionResult.VALID;
+		switch (binding.getPrimitiveType()) {
+		case INT:
+			status = CharRangeParser.parseInt(chars, start, end, quote, conversion);
+			break;
+		case LONG:
+			status = CharRangeParser.parseLong(chars, start, end, quote, conversion);
+			break;
+		case SHORT:
+			status = CharRangeParser.parseShort(chars, start, end, quote, conversion);
+			break;
+		case DOUBLE:
+			status = CharRangeParser.parseDouble(chars, start, end, quote, conversion);
+			break;
+		case FLOAT:
+			status = CharRangeParser.parseFloat(chars, start, end, quote, conversion);
+			break;
+		case BOOLEAN:
+			status = CharRangeParser.parseBoolean(chars, start, end, conversion);
+			break;
+		}
+		if (status != ConversionResult.VALID) {
+			String value = new String(chars, start, end - start);
+			handleWrongValue(value, binding, bindedClass, record, column, errors,
+					ConversionResult.getDescription(status, binding.getTypeName()));
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the value of the row-column string, already unquoted by the tokenizer, and gets the
+	 * corresponding value through the converter of the binded field
+	 * @param value
+	 * @param binding
+	 * @param bindedClass
+	 * @param record
+	 *            (null when the value doesn't come from a record)
+	 * @param column
+	 * @param conversion
+	 *            (holder of the converted values, reused along the parse)
+	 * @param errors
+	 *            (errors of the record, null to log them)
+	 * @return the value, null if it's wrong and has been reported
+	 * @throws InvalidFieldValueException
+	 */
+	static Object getValue(String value, FieldBinding binding, BindedClass bindedClass, ColumnBuffer record, int column,
+			ConversionResult conversion, RecordErrors errors) throws InvalidFieldValueException {
+		FieldConverter<?> converter = binding.getConverter();
+		if (converter == null) {
+			return null;
+		}
+		if (binding.isTrimValue()) {
+			value = value.trim();
+		}
+		String reason;
+		try {
+			if (converter instanceof ValidatingConverter) {
+				int status = ((ValidatingConverter<?>) converter).tryConvert(value, conversion);
+				if (status == ConversionResult.VALID) {
+					return conversion.getValue();
+				}
+				reason = ConversionResult.getDescription(status, binding.getTypeName());
+			} else {
+				return converter.convert(value);
+			}
+		} catch (Exception e) {
+			reason = e.toString();
+		}
+		handleWrongValue(value, binding, bindedClass, record, column, errors, reason);
+		return null;
+	}
+
+	/**
+	 * Reports a value which couldn't be converted, and interrupts the process if the DTO says
+	 * so. The exception is only created then, without stack trace.
+	 * @param value
+	 * @param binding
+	 * @param bindedClass
+	 * @param record
+	 *            (null when the value doesn't come from a record)
+	 * @param column
+	 * @param errors
+	 *            (errors of the record, null to log them)
+	 * @param reason
+	 * @throws InvalidFieldValueException
+	 */
+	private static void handleWrongValue(String value, FieldBinding binding, BindedClass bindedClass, ColumnBuffer record,
+			int column, RecordErrors errors, String reason) throws InvalidFieldValueException {
+		String type = binding.getTypeName();
+		if (errors != null) {
+			errors.add(record, column, binding, value, reason);
+		}
+		if (errors == null || !errors.hasCollector()) {
+			logger.error("{}, Error parsing string value '{}' for data type {}" , value,  type, reason);
+		}
+		if (bindedClass.getFailAtWrongDataTypeException() || (binding.isRequired() && bindedClass.getThrowExceptionAtMissingData())) {
+			throw new InvalidFieldValueException(String.format("Null or Invalid data value: '%s',  for field '%s' (dataType '%s'). ", value, binding.getFieldName(), type), false);
+		}
+	}
+
+}
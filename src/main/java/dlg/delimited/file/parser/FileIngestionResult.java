@@ -0,0 +1,125 @@
+package dlg.delimited.file.parser;
+
+/**
+ * Outcome of the ingestion of a single file by a {@link FolderIngestionService}
+ *
+ * @author dalcantara
+ *
+ */
+public class FileIngestionResult {
+
+	private final String fileName;
+	private final long size;
+	private long recordCount = 0;
+	private ParseStatistics statistics;
+	private ParseErrorCollector errorCollector;
+	private Throwable error;
+	private long nanos;
+	private String movedTo;
+
+	FileIngestionResult(String fileName, long size) {
+		this.fileName = fileName;
+		this.size = size;
+	}
+
+	/**
+	 * Name of the file including its folder path, as listed by
+	 * {@link dlg.delimited.file.parser.util.FileManager#getFilesAndSizeNameInFolders(java.util.List)}
+	 * @return
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Size of the file when it was listed, in bytes
+	 * @return
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Records handed off to the consumer of the file
+	 * @return
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	void setRecordCount(long recordCount) {
+		this.recordCount = recordCount;
+	}
+
+	/**
+	 * Counters of the parse of the file, null if it couldn't be started
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return statistics;
+	}
+
+	void setStatistics(ParseStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Collector of the errors of the file, null unless the service has a
+	 * {@link ParseErrorCollectorFactory}
+	 * @return
+	 */
+	public ParseErrorCollector getErrorCollector() {
+		return errorCollector;
+	}
+
+	void setErrorCollector(ParseErrorCollector errorCollector) {
+		this.errorCollector = errorCollector;
+	}
+
+	/**
+	 * Error interrupting the parse of the file, null if it was parsed
+	 * @return
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	void setError(Throwable error) {
+		this.error = error;
+	}
+
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	/**
+	 * Time spent on the file, waiting for a parsing thread and post-processing included
+	 * @return
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Folder the file was moved to once ingested, null if it wasn't moved
+	 * @return
+	 */
+	public String getMovedTo() {
+		return movedTo;
+	}
+
+	void setMovedTo(String movedTo) {
+		this.movedTo = movedTo;
+	}
+
+	@Override
+	public String toString() {
+		return "FileIngestionResult [fileName=" + fileName + ", size=" + size + ", recordCount=" + recordCount
+				+ ", statistics=" + statistics + ", error=" + error + ", nanos=" + nanos + ", movedTo=" + movedTo + "]";
+	}
+
+}
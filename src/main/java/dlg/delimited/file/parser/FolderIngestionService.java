@@ -0,0 +1,453 @@
+package dlg.delimited.file.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.util.FileManager;
+
+/**
+ * Ingests all the files of a list of folders, parsing several of them at the same time:
+ * <ul>
+ * <li>files are listed through {@link FileManager#getFilesAndSizeNameInFolders(List)} and
+ * started from the largest one, so a huge file doesn't finish last</li>
+ * <li>every file is handled by a thread of its own, a virtual thread when the JVM has them
+ * (Java 21 or later), which waits for the parse and post-processes the file</li>
+ * <li>files are parsed on a bounded pool of parsing threads (one per core by default), which
+ * also takes the largest file first among the ones waiting</li>
+ * <li>the amount of files in flight is limited, so the listing of a folder doesn't open all
+ * of its files at once</li>
+ * </ul>
+ * Every file gets a {@link FileIngestionResult}, a file failing doesn't stop the rest. Once
+ * ingested, files can be moved to a folder for the processed ones and a folder for the failed
+ * ones, see {@link #setProcessedFolder(String)} and {@link #setFailedFolder(String)}.
+ * <br>
+ * Errors can be collected per file through {@link #setErrorCollectors(ParseErrorCollectorFactory)}.
+ * A collector shared by all the files can't have a quarantine, the rejected lines of every file
+ * would be mixed under the header of just one of them.
+ *
+ * @author dalcantara
+ *
+ */
+public class FolderIngestionService {
+
+	/**
+	 * How the ingested files are moved to their folder
+	 */
+	public enum PostProcessing {
+		/**
+		 * Through {@link FileManager#moveFileTo(File, String, Boolean)}, the folder has to be in
+		 * the same file system
+		 */
+		MOVE,
+		/**
+		 * Through {@link FileManager#copyAndRemoveFile(File, String, Boolean)}, for folders in
+		 * other file systems
+		 */
+		COPY_AND_REMOVE
+	}
+
+	private static final AtomicInteger SERVICE_COUNT = new AtomicInteger();
+
+	private static Logger logger = LoggerFactory.getLogger(FolderIngestionService.class);
+
+	private final TsvParser parser;
+	private final FileManager fileManager = new FileManager();
+
+	private int parsingThreads = Runtime.getRuntime().availableProcessors();
+	private int maxInFlightFiles = 2 * Runtime.getRuntime().availableProcessors();
+	private PostProcessing postProcessing = PostProcessing.MOVE;
+	private String processedFolder;
+	private String failedFolder;
+	private boolean addTimeStamp = false;
+	private ParseErrorCollectorFactory errorCollectors;
+
+	public FolderIngestionService() {
+		this(new TsvParser());
+	}
+
+	/**
+	 *
+	 * @param parser
+	 *            (parser of the files)
+	 */
+	public FolderIngestionService(TsvParser parser) {
+		if (parser == null) {
+			throw new NullPointerException("Invalid parameters: parser is mandatory");
+		}
+		this.parser = parser;
+	}
+
+	/**
+	 * Same than {@link #ingest(List, Class, RecordConsumerFactory, ParseOptions)} with the
+	 * default options
+	 * @param folders
+	 * @param clazz
+	 * @param consumers
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public <T> List<FileIngestionResult> ingest(List<String> folders, Class<T> clazz, RecordConsumerFactory<T> consumers)
+			throws InterruptedException {
+		return ingest(folders, clazz, consumers, null);
+	}
+
+	/**
+	 * Parses all the files of the folders (sub-folders aren't read), handing off the records
+	 * of every file to its own consumer, see {@link TsvParser#parseFile(Path, Class, RecordConsumer, ParseOptions)}.
+	 * It returns once all the files have been ingested.
+	 * @param folders
+	 * @param clazz
+	 * @param consumers
+	 *            (creates the consumer of every file)
+	 * @param options
+	 *            (null for the defaults. Every file gets its own statistics, the error collector
+	 *            and the metrics are shared by all the files. The error collector can't have a
+	 *            quarantine, see {@link #setErrorCollectors(ParseErrorCollectorFactory)} to get
+	 *            one per file)
+	 * @return the results of the files, from the largest one to the smallest one
+	 * @throws InterruptedException
+	 *             if the thread is interrupted, the files in flight are interrupted too
+	 * @throws IllegalArgumentException
+	 *             if the error collector of the options has a quarantine, or there's a factory
+	 *             of error collectors too
+	 */
+	public <T> List<FileIngestionResult> ingest(List<String> folders, final Class<T> clazz,
+			final RecordConsumerFactory<T> consumers, final ParseOptions options) throws InterruptedException {
+		if (folders == null) {
+			throw new NullPointerException("Invalid parameters: folders are mandatory");
+		}
+		if (clazz == null) {
+			throw new NullPointerException("Invalid parameters: class is mandatory");
+		}
+		if (consumers == null) {
+			throw new NullPointerException("Invalid parameters: consumer factory is mandatory");
+		}
+		ParseErrorCollector errorCollector = (options != null) ? options.getErrorCollector() : null;
+		if (errorCollector != null && errorCollector.hasQuarantine()) {
+			throw new IllegalArgumentException("Invalid parameters: an error collector shared by all the files can't have a quarantine, set a factory of error collectors instead");
+		}
+		if (errorCollector != null && errorCollectors != null) {
+			throw new IllegalArgumentException("Invalid parameters: error collector of the options and factory of error collectors can't be used together");
+		}
+		List<Map.Entry<String, Long>> files = getFilesBySize(folders);
+		logger.debug("Ingesting {} files out of {}", files.size(), folders);
+
+		int service = SERVICE_COUNT.incrementAndGet();
+		final ThreadPoolExecutor parsingPool = new ThreadPoolExecutor(parsingThreads, parsingThreads, 0, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(), new DaemonThreadFactory("dlg-ingestion-" + service + "-parser-"));
+		ExecutorService filePool = newFileExecutor("dlg-ingestion-" + service + "-file-");
+		final Semaphore inFlight = new Semaphore(maxInFlightFiles);
+		List<Future<FileIngestionResult>> futures = new ArrayList<Future<FileIngestionResult>>(files.size());
+		try {
+			for (final Map.Entry<String, Long> file : files) {
+				inFlight.acquire();
+				futures.add(filePool.submit(new Callable<FileIngestionResult>() {
+					@Override
+					public FileIngestionResult call() throws Exception {
+						try {
+							return ingestFile(file.getKey(), file.getValue(), clazz, consumers, options, parsingPool);
+						} finally {
+							inFlight.release();
+						}
+					}
+				}));
+			}
+			List<FileIngestionResult> results = new ArrayList<FileIngestionResult>(futures.size());
+			for (Future<FileIngestionResult> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					// errors are caught by the file, just in case
+					throw new IllegalStateException("Error ingesting a file", e.getCause());
+				}
+			}
+			return results;
+		} finally {
+			for (Future<FileIngestionResult> future : futures) {
+				future.cancel(true);
+			}
+			filePool.shutdownNow();
+			parsingPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Files of the folders, from the largest one to the smallest one
+	 */
+	private List<Map.Entry<String, Long>> getFilesBySize(List<String> folders) {
+		List<Map.Entry<String, Long>> files = new ArrayList<Map.Entry<String, Long>>(
+				fileManager.getFilesAndSizeNameInFolders(folders).entrySet());
+		Collections.sort(files, new Comparator<Map.Entry<String, Long>>() {
+			@Override
+			public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+				int bySize = o2.getValue().compareTo(o1.getValue());
+				return (bySize != 0) ? bySize : o1.getKey().compareTo(o2.getKey());
+			}
+		});
+		return files;
+	}
+
+	/**
+	 * Ingests the file in the thread of the file: parses it on the parsing pool waiting for it,
+	 * and post-processes it
+	 */
+	private <T> FileIngestionResult ingestFile(String fileName, long size, final Class<T> clazz,
+			RecordConsumerFactory<T> consumers, ParseOptions options, ThreadPoolExecutor parsingPool)
+			throws InterruptedException {
+		long start = System.nanoTime();
+		FileIngestionResult result = new FileIngestionResult(fileName, size);
+		ParseTask task = null;
+		ParseErrorCollector errorCollector = null;
+		try {
+			final Path path = Paths.get(fileName);
+			final ParseOptions fileOptions = getFileOptions(options);
+			if (errorCollectors != null) {
+				errorCollector = errorCollectors.newCollector(path);
+				fileOptions.setErrorCollector(errorCollector);
+				result.setErrorCollector(errorCollector);
+			}
+			final RecordConsumer<T> consumer = consumers.newConsumer(path);
+			result.setStatistics(fileOptions.getStatistics());
+			task = new ParseTask(size, new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					return Long.valueOf(parser.parseFile(path, clazz, consumer, fileOptions));
+				}
+			});
+			parsingPool.execute(task);
+			result.setRecordCount(task.get().longValue());
+		} catch (InterruptedException e) {
+			task.cancel(true);
+			throw e;
+		} catch (ExecutionException e) {
+			result.setError(e.getCause());
+		} catch (Exception e) {
+			result.setError(e);
+		} finally {
+			if (errorCollector != null) {
+				closeErrorCollector(errorCollector, result);
+			}
+		}
+		if (result.getError() != null) {
+			logger.error("Error ingesting file " + fileName, result.getError());
+		}
+		postProcess(result);
+		result.setNanos(System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * Completes the quarantine of the file, the file fails if it couldn't be written
+	 */
+	private static void closeErrorCollector(ParseErrorCollector errorCollector, FileIngestionResult result) {
+		try {
+			errorCollector.close();
+		} catch (IOException e) {
+			if (result.getError() == null) {
+				result.setError(e);
+			}
+		}
+	}
+
+	/**
+	 * Options of the parse of a single file: the ones received with statistics of its own
+	 */
+	private static ParseOptions getFileOptions(ParseOptions options) {
+		ParseOptions fileOptions = new ParseOptions();
+		if (options != null) {
+			if (options.getFields() != null) {
+				fileOptions.setFields(options.getFields());
+			}
+			fileOptions.setFilters(options.getFilters());
+			fileOptions.setErrorCollector(options.getErrorCollector());
+			fileOptions.setMetrics(options.getMetrics());
+		}
+		return fileOptions;
+	}
+
+	/**
+	 * Moves the file to the folder of the processed files, or to the one of the failed files
+	 */
+	private void postProcess(FileIngestionResult result) {
+		String folder = result.isSuccessful() ? processedFolder : failedFolder;
+		if (folder == null) {
+			return;
+		}
+		File file = new File(result.getFileName());
+		if (PostProcessing.COPY_AND_REMOVE.equals(postProcessing)) {
+			if (fileManager.copyAndRemoveFile(file, folder, Boolean.valueOf(addTimeStamp))) {
+				result.setMovedTo(folder);
+			}
+		} else {
+			fileManager.moveFileTo(file, folder, Boolean.valueOf(addTimeStamp));
+			if (!file.exists()) {
+				result.setMovedTo(folder);
+			}
+		}
+	}
+
+	/**
+	 * Executor of the threads of the files: a virtual thread per file when the JVM has them,
+	 * a pool of platform threads otherwise (bounded by the files in flight anyway)
+	 */
+	private static ExecutorService newFileExecutor(String threadPrefix) {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (NoSuchMethodException e) {
+			// before Java 21
+		} catch (Exception e) {
+			logger.debug("Virtual threads not available", e);
+		}
+		return Executors.newCachedThreadPool(new DaemonThreadFactory(threadPrefix));
+	}
+
+	public ParseErrorCollectorFactory getErrorCollectors() {
+		return errorCollectors;
+	}
+
+	/**
+	 * Factory of the error collector of every file, null (default) to use the collector of
+	 * the options, if any
+	 * @param errorCollectors
+	 */
+	public void setErrorCollectors(ParseErrorCollectorFactory errorCollectors) {
+		this.errorCollectors = errorCollectors;
+	}
+
+	public int getParsingThreads() {
+		return parsingThreads;
+	}
+
+	/**
+	 * Amount of threads parsing files, one per core by default
+	 * @param parsingThreads
+	 */
+	public void setParsingThreads(int parsingThreads) {
+		if (parsingThreads < 1) {
+			throw new IllegalArgumentException("Invalid parameters: parsing threads has to be greater than 0");
+		}
+		this.parsingThreads = parsingThreads;
+	}
+
+	public int getMaxInFlightFiles() {
+		return maxInFlightFiles;
+	}
+
+	/**
+	 * Maximum amount of files being ingested at the same time (waiting for a parsing thread,
+	 * parsed or post-processed), twice the cores by default
+	 * @param maxInFlightFiles
+	 */
+	public void setMaxInFlightFiles(int maxInFlightFiles) {
+		if (maxInFlightFiles < 1) {
+			throw new IllegalArgumentException("Invalid parameters: files in flight has to be greater than 0");
+		}
+		this.maxInFlightFiles = maxInFlightFiles;
+	}
+
+	public PostProcessing getPostProcessing() {
+		return postProcessing;
+	}
+
+	public void setPostProcessing(PostProcessing postProcessing) {
+		if (postProcessing == null) {
+			throw new NullPointerException("Invalid parameters: post-processing is mandatory");
+		}
+		this.postProcessing = postProcessing;
+	}
+
+	public String getProcessedFolder() {
+		return processedFolder;
+	}
+
+	/**
+	 * Folder the files parsed are moved to, null (default) to leave them where they are
+	 * @param processedFolder
+	 */
+	public void setProcessedFolder(String processedFolder) {
+		this.processedFolder = processedFolder;
+	}
+
+	public String getFailedFolder() {
+		return failedFolder;
+	}
+
+	/**
+	 * Folder the files whose parse failed are moved to, null (default) to leave them where
+	 * they are
+	 * @param failedFolder
+	 */
+	public void setFailedFolder(String failedFolder) {
+		this.failedFolder = failedFolder;
+	}
+
+	public boolean getAddTimeStamp() {
+		return addTimeStamp;
+	}
+
+	/**
+	 * Set true to add a time stamp to the name of the files moved
+	 * @param addTimeStamp
+	 */
+	public void setAddTimeStamp(boolean addTimeStamp) {
+		this.addTimeStamp = addTimeStamp;
+	}
+
+	/**
+	 * Parse of a file, taken by the parsing pool from the largest one
+	 */
+	private static class ParseTask extends FutureTask<Long> implements Comparable<ParseTask> {
+		private final long size;
+
+		private ParseTask(long size, Callable<Long> callable) {
+			super(callable);
+			this.size = size;
+		}
+
+		@Override
+		public int compareTo(ParseTask other) {
+			return Long.compare(other.size, size);
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private DaemonThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package dlg.delimited.file.parser;
+
+/**
+ * Error found while parsing a record, kept by the {@link ParseErrorCollector} of the parse
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseError {
+
+	private final int lineNumber;
+	private final int column;
+	private final String fieldName;
+	private final String value;
+	private final String reason;
+
+	/**
+	 *
+	 * @param lineNumber
+	 * @param column
+	 *            (index of the column in the split line, -1 if the error is on the whole record)
+	 * @param fieldName
+	 *            (null if the error is on the whole record)
+	 * @param value
+	 *            (raw value of the column, null if the error is on the whole record)
+	 * @param reason
+	 */
+	public ParseError(int lineNumber, int column, String fieldName, String value, String reason) {
+		this.lineNumber = lineNumber;
+		this.column = column;
+		this.fieldName = fieldName;
+		this.value = value;
+		this.reason = reason;
+	}
+
+	/**
+	 * Physical line number in which the record starts, counting from 1
+	 * @return
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Index of the column in the split line, -1 if the error is on the whole record
+	 * @return
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	/**
+	 * Field binded to the column, null if the error is on the whole record
+	 * @return
+	 */
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	/**
+	 * Raw value of the column, null if the error is on the whole record
+	 * @return
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	@Override
+	public String toString() {
+		if (fieldName == null) {
+			return "Error in line " + lineNumber + ": " + reason;
+		}
+		return "Error in line " + lineNumber + ", column " + column + " (field '" + fieldName + "', value '" + value + "'): "
+				+ reason;
+	}
+
+}
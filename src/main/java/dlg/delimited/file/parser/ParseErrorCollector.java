@@ -0,0 +1,377 @@
+package dlg.delimited.file.parser;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.exception.ErrorBudgetExceededException;
+
+/**
+ * Collects the errors of a parse instead of logging every one of them, see
+ * {@link ParseOptions#setErrorCollector(ParseErrorCollector)}:
+ * <ul>
+ * <li>keeps the first errors ({@link #setMaxErrorsKept(int)}) and counts all of them, by field too</li>
+ * <li>logs at most one error per interval ({@link #setLogInterval(long)}), along with the amount of
+ * errors not logged since the previous one</li>
+ * <li>interrupts the parse with an {@link ErrorBudgetExceededException} once there are more errors
+ * than the budget ({@link #setErrorBudget(long)})</li>
+ * <li>writes the raw lines of the rejected records (records with any error) into a quarantine file
+ * ({@link #setQuarantine(Path)}) from a background thread, so they can be fixed and parsed again.
+ * When the DTO ignores the first row, the header of the content is written first.</li>
+ * </ul>
+ * It's thread safe, so it can be shared among several parses (or the chunks of a parallel one).
+ * Configure it before parsing, and close it once all the parses are done to complete the quarantine.
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseErrorCollector implements Closeable {
+
+	public static final int DEFAULT_MAX_ERRORS_KEPT = 1000;
+	public static final long DEFAULT_LOG_INTERVAL = 1000;
+
+	private static final int QUARANTINE_QUEUE_SIZE = 8 * 1024;
+	// marks the end of the quarantine, compared by reference
+	private static final String END_OF_QUARANTINE = new String("");
+
+	private Logger logger = LoggerFactory.getLogger(ParseErrorCollector.class);
+
+	private int maxErrorsKept = DEFAULT_MAX_ERRORS_KEPT;
+	private long errorBudget = -1;
+	private long logInterval = DEFAULT_LOG_INTERVAL;
+	private boolean dropRejectedRecords = false;
+	private Path quarantine;
+
+	private final AtomicLong errorCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final Map<String, AtomicLong> fieldErrorCounts = new ConcurrentHashMap<String, AtomicLong>();
+	private final List<ParseError> errors = new ArrayList<ParseError>();
+	private final AtomicLong nextLogTime = new AtomicLong();
+	private final AtomicLong notLogged = new AtomicLong();
+
+	private volatile String header;
+	private BlockingQueue<String> quarantineQueue;
+	private Thread quarantineThread;
+	private volatile IOException quarantineError;
+	private boolean closed = false;
+
+	/**
+	 * Records an error of the parse, called by the parse itself
+	 * @param error
+	 * @throws ErrorBudgetExceededException
+	 *             if there are more errors than the budget
+	 */
+	public void add(ParseError error) {
+		long count = errorCount.incrementAndGet();
+		if (error.getFieldName() != null) {
+			AtomicLong fieldCount = fieldErrorCounts.get(error.getFieldName());
+			if (fieldCount == null) {
+				fieldErrorCounts.putIfAbsent(error.getFieldName(), new AtomicLong());
+				fieldCount = fieldErrorCounts.get(error.getFieldName());
+			}
+			fieldCount.incrementAndGet();
+		}
+		if (count <= maxErrorsKept) {
+			synchronized (errors) {
+				errors.add(error);
+			}
+		}
+		log(error);
+		if (errorBudget >= 0 && count > errorBudget) {
+			throw new ErrorBudgetExceededException("More than " + errorBudget + " errors found, last one: " + error);
+		}
+	}
+
+	/**
+	 * Logs the error unless another one was logged less than an interval ago
+	 */
+	private void log(ParseError error) {
+		long now = System.currentTimeMillis();
+		long next = nextLogTime.get();
+		if (now >= next && nextLogTime.compareAndSet(next, now + logInterval)) {
+			long skipped = notLogged.getAndSet(0);
+			if (skipped > 0) {
+				logger.error("{} ({} more errors since the previous one)", error, skipped);
+			} else {
+				logger.error("{}", error);
+			}
+		} else {
+			notLogged.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Records a record rejected because of its errors, called by the parse itself
+	 * @param line
+	 *            (raw line of the record)
+	 */
+	public void reject(String line) {
+		rejectedCount.incrementAndGet();
+		if (quarantine != null) {
+			BlockingQueue<String> queue = startQuarantine();
+			try {
+				queue.put(line);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while writing the quarantine", e);
+			}
+		}
+	}
+
+	/**
+	 * Sets the first row of the content, ignored by the DTO, called by the parse itself
+	 * @param line
+	 */
+	public void setHeader(String line) {
+		if (header == null) {
+			header = line;
+		}
+	}
+
+	/**
+	 * Returns true if the rejected records are written into a quarantine file
+	 * @return
+	 */
+	public boolean hasQuarantine() {
+		return quarantine != null;
+	}
+
+	private synchronized BlockingQueue<String> startQuarantine() {
+		if (quarantineError != null) {
+			throw new UncheckedIOException("Error writing the quarantine " + quarantine, quarantineError);
+		}
+		if (closed) {
+			throw new IllegalStateException("Error collector already closed");
+		}
+		if (quarantineQueue == null) {
+			final BufferedWriter writer;
+			try {
+				writer = Files.newBufferedWriter(quarantine, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				quarantineError = e;
+				throw new UncheckedIOException("Error opening the quarantine " + quarantine, e);
+			}
+			final BlockingQueue<String> queue = new ArrayBlockingQueue<String>(QUARANTINE_QUEUE_SIZE);
+			quarantineThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					writeQuarantine(queue, writer);
+				}
+			}, "dlg-parser-quarantine");
+			quarantineThread.setDaemon(true);
+			quarantineThread.start();
+			quarantineQueue = queue;
+		}
+		return quarantineQueue;
+	}
+
+	/**
+	 * Writes the lines of the queue until the end of the quarantine, flushing whenever the
+	 * queue gets empty. Lines received after a writing error are discarded.
+	 */
+	private void writeQuarantine(BlockingQueue<String> queue, BufferedWriter writer) {
+		boolean first = true;
+		try {
+			while (true) {
+				String line = queue.poll();
+				if (line == null) {
+					if (quarantineError == null) {
+						flush(writer);
+					}
+					line = queue.take();
+				}
+				if (line == END_OF_QUARANTINE) {
+					break;
+				}
+				if (quarantineError == null) {
+					try {
+						if (first && header != null) {
+							writer.write(header);
+							writer.newLine();
+						}
+						first = false;
+						writer.write(line);
+						writer.newLine();
+					} catch (IOException e) {
+						quarantineError = e;
+						logger.error("Error writing the quarantine {}", quarantine, e);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				if (quarantineError == null) {
+					quarantineError = e;
+				}
+			}
+		}
+	}
+
+	private void flush(BufferedWriter writer) {
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			quarantineError = e;
+			logger.error("Error writing the quarantine {}", quarantine, e);
+		}
+	}
+
+	/**
+	 * Waits until all the rejected records are written into the quarantine and closes it
+	 * @throws IOException
+	 *             if the quarantine couldn't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		Thread thread;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			thread = quarantineThread;
+			if (thread != null) {
+				try {
+					quarantineQueue.put(END_OF_QUARANTINE);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while closing the quarantine", e);
+				}
+			}
+		}
+		if (thread != null) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while closing the quarantine", e);
+			}
+		}
+		if (quarantineError != null) {
+			throw quarantineError;
+		}
+	}
+
+	/**
+	 * Amount of errors found so far
+	 * @return
+	 */
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	/**
+	 * Amount of records with errors found so far
+	 * @return
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * Amount of errors found so far by field, errors on whole records are not included
+	 * @return
+	 */
+	public Map<String, Long> getFieldErrorCounts() {
+		Map<String, Long> counts = new HashMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : fieldErrorCounts.entrySet()) {
+			counts.put(entry.getKey(), Long.valueOf(entry.getValue().get()));
+		}
+		return counts;
+	}
+
+	/**
+	 * First errors found, up to {@link #getMaxErrorsKept()}
+	 * @return
+	 */
+	public List<ParseError> getErrors() {
+		synchronized (errors) {
+			return new ArrayList<ParseError>(errors);
+		}
+	}
+
+	public int getMaxErrorsKept() {
+		return maxErrorsKept;
+	}
+
+	/**
+	 * Amount of errors kept, the rest are only counted. {@link #DEFAULT_MAX_ERRORS_KEPT} by default.
+	 * @param maxErrorsKept
+	 */
+	public void setMaxErrorsKept(int maxErrorsKept) {
+		this.maxErrorsKept = maxErrorsKept;
+	}
+
+	public long getErrorBudget() {
+		return errorBudget;
+	}
+
+	/**
+	 * Amount of errors tolerated, the parse is interrupted at the next one. Negative (default)
+	 * for no limit.
+	 * @param errorBudget
+	 */
+	public void setErrorBudget(long errorBudget) {
+		this.errorBudget = errorBudget;
+	}
+
+	public long getLogInterval() {
+		return logInterval;
+	}
+
+	/**
+	 * Minimum amount of milliseconds between two logged errors, 0 to log all of them.
+	 * {@link #DEFAULT_LOG_INTERVAL} by default.
+	 * @param logInterval
+	 */
+	public void setLogInterval(long logInterval) {
+		this.logInterval = logInterval;
+	}
+
+	public boolean isDropRejectedRecords() {
+		return dropRejectedRecords;
+	}
+
+	/**
+	 * When true, records with any error are not binded into DTOs. By default they are binded
+	 * leaving untouched the fields with errors. Batches of columns always keep them, with nulls
+	 * in the columns with errors.
+	 * @param dropRejectedRecords
+	 */
+	public void setDropRejectedRecords(boolean dropRejectedRecords) {
+		this.dropRejectedRecords = dropRejectedRecords;
+	}
+
+	public Path getQuarantine() {
+		return quarantine;
+	}
+
+	/**
+	 * File to write the raw lines of the rejected records into, replaced if it exists. It's
+	 * only created when the first record is rejected.
+	 * @param quarantine
+	 */
+	public void setQuarantine(Path quarantine) {
+		this.quarantine = quarantine;
+	}
+
+}
@@ -0,0 +1,23 @@
+package dlg.delimited.file.parser;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the error collector of every file ingested by a {@link FolderIngestionService}, so
+ * every file gets its own errors and its own quarantine (with the header of the file).
+ * <br>
+ * The collectors are closed by the service once their file is parsed, before moving it.
+ *
+ * @author dalcantara
+ *
+ */
+public interface ParseErrorCollectorFactory {
+
+	/**
+	 * Called once per file, before parsing it
+	 * @param file
+	 * @return the collector of the errors of the file, null to log them
+	 */
+	ParseErrorCollector newCollector(Path file);
+
+}
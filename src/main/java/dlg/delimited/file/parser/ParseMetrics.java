@@ -0,0 +1,355 @@
+package dlg.delimited.file.parser;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Instrumentation of the parses using it, see {@link ParseOptions#setMetrics(ParseMetrics)}:
+ * <ul>
+ * <li>lines read (physical lines, first row and blank lines included), blank lines skipped,
+ * records binded and input consumed (characters when reading from a reader, bytes when reading
+ * a file)</li>
+ * <li>time spent parsing and records per second</li>
+ * <li>time spent reading the input, tokenizing the records, converting the values of the
+ * columns and binding them (creating the DTOs and handing them over)</li>
+ * <li>conversion failures by field</li>
+ * <li>bytes allocated by the parsing threads, when the JVM supports measuring it</li>
+ * </ul>
+ * Counters are striped and every parse counts in local variables, adding them up every few
+ * thousand records, so they can be left on in production and shared among threads. Times
+ * but the reading one need timestamps per record, so they are only measured on a sample of
+ * the records (see {@link #setSampleInterval(int)}, off by default) and extrapolated to all
+ * of them.
+ * <br>
+ * Metrics are exposed through listeners notified as every parse ends
+ * ({@link #addListener(ParseMetricsListener)}) and as a JMX MBean ({@link #register(String)}).
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseMetrics implements ParseMetricsMXBean {
+
+	public static final String JMX_DOMAIN = "dlg.delimited.file.parser";
+
+	/**
+	 * Counters kept by the metrics, added up by {@link ParseMetricsRecorder}
+	 */
+	enum Counter {
+		PARSES, LINES, BLANK_LINES, RECORDS, INPUT_READ, PARSE_NANOS, READ_NANOS, TOKENIZE_NANOS, CONVERT_NANOS,
+		BIND_NANOS, ALLOCATED_BYTES
+	}
+
+	private static Logger logger = LoggerFactory.getLogger(ParseMetrics.class);
+
+	// null if the JVM can't measure the bytes allocated by a thread
+	private static final ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+	private final ParseMetrics parent;
+	private final LongAdder[] counters = new LongAdder[Counter.values().length];
+	private final Map<String, LongAdder> fieldFailures = new ConcurrentHashMap<String, LongAdder>();
+	private final List<ParseMetricsListener> listeners = new CopyOnWriteArrayList<ParseMetricsListener>();
+	private volatile int sampleInterval = 0;
+	private ObjectName objectName;
+
+	public ParseMetrics() {
+		this(null);
+	}
+
+	/**
+	 * Metrics of a single parse, added up to its parent as well
+	 */
+	private ParseMetrics(ParseMetrics parent) {
+		this.parent = parent;
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Starts a parse, called by the parse itself
+	 * @return the recorder of the parse, to be finished once the parse is over
+	 */
+	public ParseMetricsRecorder startParse() {
+		return new ParseMetricsRecorder(new ParseMetrics(this), sampleInterval, true);
+	}
+
+	void add(Counter counter, long value) {
+		if (value != 0) {
+			counters[counter.ordinal()].add(value);
+			if (parent != null) {
+				parent.add(counter, value);
+			}
+		}
+	}
+
+	void addFieldFailure(String fieldName) {
+		LongAdder count = fieldFailures.get(fieldName);
+		if (count == null) {
+			fieldFailures.putIfAbsent(fieldName, new LongAdder());
+			count = fieldFailures.get(fieldName);
+		}
+		count.increment();
+		if (parent != null) {
+			parent.addFieldFailure(fieldName);
+		}
+	}
+
+	/**
+	 * Notifies the listeners of the parent that this parse is over
+	 */
+	void completeParse() {
+		add(Counter.PARSES, 1);
+		if (parent != null) {
+			for (ParseMetricsListener listener : parent.listeners) {
+				try {
+					listener.parseCompleted(this, parent);
+				} catch (RuntimeException e) {
+					logger.error("Error notifying the end of a parse to {}", listener, e);
+				}
+			}
+		}
+	}
+
+	private long get(Counter counter) {
+		return counters[counter.ordinal()].sum();
+	}
+
+	/**
+	 * Amount of parses over
+	 */
+	@Override
+	public long getParseCount() {
+		return get(Counter.PARSES);
+	}
+
+	/**
+	 * Physical lines read, the first row and blank lines included
+	 */
+	@Override
+	public long getLineCount() {
+		return get(Counter.LINES);
+	}
+
+	@Override
+	public long getBlankLineCount() {
+		return get(Counter.BLANK_LINES);
+	}
+
+	/**
+	 * Records binded (or added to a batch of columns), filtered out records not included
+	 */
+	@Override
+	public long getRecordCount() {
+		return get(Counter.RECORDS);
+	}
+
+	/**
+	 * Input consumed, line breaks included: characters when reading from a reader, bytes
+	 * when reading a file
+	 */
+	@Override
+	public long getInputRead() {
+		return get(Counter.INPUT_READ);
+	}
+
+	/**
+	 * Time between the start and the end of the parses. Lazy parses (iterators and streams)
+	 * include the time spent by their consumer.
+	 */
+	@Override
+	public long getParseNanos() {
+		return get(Counter.PARSE_NANOS);
+	}
+
+	@Override
+	public double getRecordsPerSecond() {
+		long nanos = getParseNanos();
+		return (nanos > 0) ? getRecordCount() * 1e9 / nanos : 0;
+	}
+
+	/**
+	 * Time spent reading the input into the buffers of the tokenizer. Mapped files are read as
+	 * their pages are touched, so their reading is mostly accounted as tokenizing.
+	 */
+	@Override
+	public long getReadNanos() {
+		return get(Counter.READ_NANOS);
+	}
+
+	/**
+	 * Time spent splitting the records into columns, estimated out of the sampled records
+	 */
+	@Override
+	public long getTokenizeNanos() {
+		return get(Counter.TOKENIZE_NANOS);
+	}
+
+	/**
+	 * Time spent converting the columns into the values of the fields (and setting them),
+	 * estimated out of the sampled records
+	 */
+	@Override
+	public long getConvertNanos() {
+		return get(Counter.CONVERT_NANOS);
+	}
+
+	/**
+	 * Time spent creating (or resetting) the DTOs, filtering and handing them over, estimated
+	 * out of the sampled records
+	 */
+	@Override
+	public long getBindNanos() {
+		return get(Counter.BIND_NANOS);
+	}
+
+	/**
+	 * Bytes allocated by the threads while parsing, 0 if the JVM doesn't support measuring it.
+	 * Lazy parses include the allocations of their consumer, and parses iterated from another
+	 * thread than the one creating them aren't measured.
+	 */
+	@Override
+	public long getAllocatedBytes() {
+		return get(Counter.ALLOCATED_BYTES);
+	}
+
+	/**
+	 * Values that couldn't be converted, by field
+	 */
+	@Override
+	public Map<String, Long> getFieldFailures() {
+		Map<String, Long> failures = new HashMap<String, Long>();
+		for (Map.Entry<String, LongAdder> entry : fieldFailures.entrySet()) {
+			failures.put(entry.getKey(), Long.valueOf(entry.getValue().sum()));
+		}
+		return failures;
+	}
+
+	@Override
+	public int getSampleInterval() {
+		return sampleInterval;
+	}
+
+	/**
+	 * Measures the phases of one out of every <code>sampleInterval</code> records, 0 (default)
+	 * to measure no phase but reading. It applies to the parses started afterwards.
+	 * @param sampleInterval
+	 */
+	@Override
+	public void setSampleInterval(int sampleInterval) {
+		if (sampleInterval < 0) {
+			throw new IllegalArgumentException("Sample interval can't be negative");
+		}
+		this.sampleInterval = sampleInterval;
+	}
+
+	/**
+	 * Sets all the counters to 0, the ones of the parses in progress are only reset partially
+	 */
+	@Override
+	public void reset() {
+		for (LongAdder counter : counters) {
+			counter.reset();
+		}
+		fieldFailures.clear();
+	}
+
+	public void addListener(ParseMetricsListener listener) {
+		if (listener == null) {
+			throw new NullPointerException("Invalid parameters: listener is mandatory");
+		}
+		listeners.add(listener);
+	}
+
+	public void removeListener(ParseMetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server as
+	 * <code>dlg.delimited.file.parser:type=ParseMetrics,name=&lt;name&gt;</code>
+	 * @param name
+	 * @return
+	 * @throws JMException
+	 *             if the name isn't valid or it's already registered
+	 */
+	public synchronized ObjectName register(String name) throws JMException {
+		if (name == null) {
+			throw new NullPointerException("Invalid parameters: name is mandatory");
+		}
+		if (objectName != null) {
+			throw new IllegalStateException("Metrics already registered as " + objectName);
+		}
+		ObjectName candidate = new ObjectName(JMX_DOMAIN + ":type=ParseMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+		objectName = candidate;
+		return objectName;
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server, if they were registered
+	 * @throws JMException
+	 */
+	public synchronized void unregister() throws JMException {
+		if (objectName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Bytes allocated so far by the thread, -1 if the JVM doesn't support measuring it
+	 */
+	static long getAllocatedBytes(long threadId) {
+		if (ALLOCATION_BEAN == null) {
+			return -1;
+		}
+		// only reached when the bean is known to be a HotSpot-like one
+		return ((com.sun.management.ThreadMXBean) ALLOCATION_BEAN).getThreadAllocatedBytes(threadId);
+	}
+
+	/**
+	 * Thread bean of the JVM if it can measure the bytes allocated by a thread, null otherwise
+	 */
+	private static ThreadMXBean getAllocationBean() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+				if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+					return bean;
+				}
+			}
+		} catch (Throwable e) {
+			// not a HotSpot-like JVM
+			logger.debug("Allocated bytes can't be measured", e);
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "ParseMetrics [parseCount=" + getParseCount() + ", lineCount=" + getLineCount() + ", blankLineCount="
+				+ getBlankLineCount() + ", recordCount=" + getRecordCount() + ", inputRead=" + getInputRead()
+				+ ", parseNanos=" + getParseNanos() + ", recordsPerSecond=" + (long) getRecordsPerSecond()
+				+ ", readNanos=" + getReadNanos() + ", tokenizeNanos=" + getTokenizeNanos() + ", convertNanos="
+				+ getConvertNanos() + ", bindNanos=" + getBindNanos() + ", allocatedBytes=" + getAllocatedBytes()
+				+ ", fieldFailures=" + getFieldFailures() + "]";
+	}
+
+}
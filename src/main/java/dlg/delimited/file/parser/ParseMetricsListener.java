@@ -0,0 +1,22 @@
+package dlg.delimited.file.parser;
+
+/**
+ * Gets notified every time a parse using the {@link ParseMetrics} it's registered in is over,
+ * see {@link ParseMetrics#addListener(ParseMetricsListener)}. It's called from the thread
+ * ending the parse, so it has to be quick and thread safe.
+ *
+ * @author dalcantara
+ *
+ */
+public interface ParseMetricsListener {
+
+	/**
+	 * Called once the content is exhausted, the parse is interrupted or its iterator closed
+	 * @param parse
+	 *            (metrics of the parse alone)
+	 * @param total
+	 *            (metrics of all the parses using them, this one included)
+	 */
+	void parseCompleted(ParseMetrics parse, ParseMetrics total);
+
+}
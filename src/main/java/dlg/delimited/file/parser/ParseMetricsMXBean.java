@@ -0,0 +1,45 @@
+package dlg.delimited.file.parser;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ParseMetrics}, see {@link ParseMetrics#register(String)}
+ *
+ * @author dalcantara
+ *
+ */
+public interface ParseMetricsMXBean {
+
+	long getParseCount();
+
+	long getLineCount();
+
+	long getBlankLineCount();
+
+	long getRecordCount();
+
+	long getInputRead();
+
+	long getParseNanos();
+
+	double getRecordsPerSecond();
+
+	long getReadNanos();
+
+	long getTokenizeNanos();
+
+	long getConvertNanos();
+
+	long getBindNanos();
+
+	long getAllocatedBytes();
+
+	Map<String, Long> getFieldFailures();
+
+	int getSampleInterval();
+
+	void setSampleInterval(int sampleInterval);
+
+	void reset();
+
+}
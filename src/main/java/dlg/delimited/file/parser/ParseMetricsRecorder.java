@@ -0,0 +1,203 @@
+package dlg.delimited.file.parser;
+
+import dlg.delimited.file.parser.ParseMetrics.Counter;
+import dlg.delimited.file.parser.tokenizer.RecordReader;
+
+/**
+ * Records the metrics of a parse, see {@link ParseMetrics#startParse()}. It counts in plain
+ * fields, added up to the metrics every few thousand records and when the parse is over, so
+ * it must be used by one thread at a time: parses running in several threads fork a recorder
+ * for every one of them (see {@link #fork()}).
+ * <br>
+ * Phases are only timed for the records told by {@link #sample()}, and extrapolated to all
+ * the records.
+ *
+ * @author dalcantara
+ *
+ */
+public final class ParseMetricsRecorder {
+
+	private static final int FLUSH_INTERVAL = 8192;
+
+	private final ParseMetrics metrics;
+	private final int sampleInterval;
+	private final boolean main;
+	private final long startNanos;
+
+	private RecordReader tokenizer;
+	private long threadId;
+	private long startAllocatedBytes = -1;
+	private int flushedLines;
+	private long flushedInput;
+	private long flushedReadNanos;
+
+	private long blankLines;
+	private long records;
+	private long tokenizeNanos;
+	private long convertNanos;
+	private long bindNanos;
+	private int pendingFlush = FLUSH_INTERVAL;
+	private int pendingSample;
+	private long mark;
+	private long markReadNanos;
+	private boolean finished = false;
+
+	ParseMetricsRecorder(ParseMetrics metrics, int sampleInterval, boolean main) {
+		this.metrics = metrics;
+		this.sampleInterval = sampleInterval;
+		this.main = main;
+		this.startNanos = main ? System.nanoTime() : 0;
+		this.pendingSample = sampleInterval;
+		if (main) {
+			this.threadId = Thread.currentThread().getId();
+			this.startAllocatedBytes = ParseMetrics.getAllocatedBytes(threadId);
+		}
+	}
+
+	/**
+	 * Creates a recorder of the same parse for another thread, it doesn't end the parse when
+	 * it's finished
+	 * @return
+	 */
+	public ParseMetricsRecorder fork() {
+		return new ParseMetricsRecorder(metrics, sampleInterval, false);
+	}
+
+	/**
+	 * Starts reading from the tokenizer, in the thread that will read it. Allocations are
+	 * measured from then on, and only if the recorder is finished in the same thread.
+	 * @param tokenizer
+	 *            (lines, input and reading time are taken from it)
+	 */
+	public void start(RecordReader tokenizer) {
+		this.tokenizer = tokenizer;
+		this.flushedLines = tokenizer.getLineNumber();
+		this.flushedInput = tokenizer.getInputRead();
+		this.flushedReadNanos = tokenizer.getReadNanos();
+		this.threadId = Thread.currentThread().getId();
+		this.startAllocatedBytes = ParseMetrics.getAllocatedBytes(threadId);
+	}
+
+	/**
+	 * Tells whether the next record has to be timed, called before reading it
+	 * @return true if the phases of the next record have to be timed
+	 */
+	public boolean sample() {
+		if (sampleInterval == 0 || --pendingSample > 0) {
+			return false;
+		}
+		pendingSample = sampleInterval;
+		markReadNanos = tokenizer.getReadNanos();
+		mark = System.nanoTime();
+		return true;
+	}
+
+	/**
+	 * The sampled record has been tokenized, the time spent reading is not included
+	 */
+	public void tokenized() {
+		long now = System.nanoTime();
+		tokenizeNanos += now - mark - (tokenizer.getReadNanos() - markReadNanos);
+		mark = now;
+	}
+
+	/**
+	 * The DTO of the sampled record has been created (or reset), or the record has been
+	 * filtered
+	 */
+	public void bound() {
+		long now = System.nanoTime();
+		bindNanos += now - mark;
+		mark = now;
+	}
+
+	/**
+	 * The columns of the sampled record have been converted
+	 */
+	public void converted() {
+		long now = System.nanoTime();
+		convertNanos += now - mark;
+		mark = now;
+	}
+
+	public void blankLine() {
+		blankLines++;
+	}
+
+	/**
+	 * A record has been binded (or added to a batch of columns)
+	 */
+	public void record() {
+		records++;
+		if (--pendingFlush == 0) {
+			flush();
+		}
+	}
+
+	/**
+	 * A value of the field couldn't be converted
+	 * @param fieldName
+	 */
+	public void fieldFailure(String fieldName) {
+		metrics.addFieldFailure(fieldName);
+	}
+
+	/**
+	 * Adds the counters to the metrics
+	 */
+	private void flush() {
+		pendingFlush = FLUSH_INTERVAL;
+		metrics.add(Counter.BLANK_LINES, blankLines);
+		metrics.add(Counter.RECORDS, records);
+		metrics.add(Counter.TOKENIZE_NANOS, tokenizeNanos * sampleInterval);
+		metrics.add(Counter.CONVERT_NANOS, convertNanos * sampleInterval);
+		metrics.add(Counter.BIND_NANOS, bindNanos * sampleInterval);
+		blankLines = 0;
+		records = 0;
+		tokenizeNanos = 0;
+		convertNanos = 0;
+		bindNanos = 0;
+		if (tokenizer != null) {
+			int lines = tokenizer.getLineNumber();
+			long input = tokenizer.getInputRead();
+			long readNanos = tokenizer.getReadNanos();
+			metrics.add(Counter.LINES, lines - flushedLines);
+			metrics.add(Counter.INPUT_READ, input - flushedInput);
+			metrics.add(Counter.READ_NANOS, readNanos - flushedReadNanos);
+			flushedLines = lines;
+			flushedInput = input;
+			flushedReadNanos = readNanos;
+		}
+	}
+
+	/**
+	 * Adds the pending counters to the metrics and, for the recorder of the parse, notifies
+	 * its end. Nothing is done after the first call.
+	 */
+	public void finish() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		flush();
+		if (startAllocatedBytes >= 0 && Thread.currentThread().getId() == threadId) {
+			long allocatedBytes = ParseMetrics.getAllocatedBytes(threadId);
+			if (allocatedBytes >= startAllocatedBytes) {
+				metrics.add(Counter.ALLOCATED_BYTES, allocatedBytes - startAllocatedBytes);
+			}
+		}
+		if (main) {
+			metrics.add(Counter.PARSE_NANOS, System.nanoTime() - startNanos);
+			metrics.completeParse();
+		}
+	}
+
+	/**
+	 * Metrics of the parse alone
+	 * @return
+	 */
+	public ParseMetrics getMetrics() {
+		return metrics;
+	}
+
+}
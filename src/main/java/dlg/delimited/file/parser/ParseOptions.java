@@ -0,0 +1,165 @@
+package dlg.delimited.file.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import dlg.delimited.file.parser.filter.ColumnFilter;
+
+/**
+ * Options of a single parse call, on top of what the annotations of your DTO say
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseOptions {
+
+	/**
+	 * Binded fields to fill, null for all of them
+	 */
+	private Set<String> fields;
+
+	/**
+	 * Conditions the records have to meet to be binded
+	 */
+	private final List<ColumnFilter> filters = new ArrayList<ColumnFilter>();
+
+	/**
+	 * Counters filled by the parse
+	 */
+	private ParseStatistics statistics = new ParseStatistics();
+
+	/**
+	 * Collector of the errors of the parse, null to log them
+	 */
+	private ParseErrorCollector errorCollector;
+
+	/**
+	 * Metrics the parse counts in, null to count nothing
+	 */
+	private ParseMetrics metrics;
+
+	public ParseOptions() {
+	}
+
+	/**
+	 * Binded fields to fill, null if all of them are filled
+	 * @return
+	 */
+	public Set<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Limits the parsing to the received binded fields: the rest of the columns are neither
+	 * decoded nor converted, records are only tokenized up to the last column needed, and the
+	 * rest of the fields of your DTO are left untouched. Null to fill all of them.
+	 * @param fields
+	 */
+	public void setFields(Collection<String> fields) {
+		this.fields = (fields != null) ? new LinkedHashSet<String>(fields) : null;
+	}
+
+	/**
+	 * Same than {@link #setFields(Collection)}
+	 * @param fields
+	 */
+	public void setFields(String... fields) {
+		setFields((fields != null) ? Arrays.asList(fields) : null);
+	}
+
+	/**
+	 * Conditions the records have to meet to be binded, in the order they are evaluated
+	 * @return
+	 */
+	public List<ColumnFilter> getFilters() {
+		return filters;
+	}
+
+	/**
+	 * Adds a condition the records have to meet to be binded. It's evaluated on the column of
+	 * its field before the DTO is created or any other column is converted, so rejected
+	 * records are almost free. The field doesn't need to be among the fields of
+	 * {@link #setFields(Collection)}.
+	 * @param filter
+	 */
+	public void addFilter(ColumnFilter filter) {
+		if (filter == null) {
+			throw new NullPointerException("Invalid parameters: filter is mandatory");
+		}
+		filters.add(filter);
+	}
+
+	/**
+	 * Replaces the conditions the records have to meet to be binded, see {@link #addFilter(ColumnFilter)}
+	 * @param filters
+	 */
+	public void setFilters(Collection<ColumnFilter> filters) {
+		this.filters.clear();
+		if (filters != null) {
+			for (ColumnFilter filter : filters) {
+				addFilter(filter);
+			}
+		}
+	}
+
+	/**
+	 * Counters of the records read and filtered, filled as the parse goes on. Reusing the
+	 * options for several parses accumulates their counters.
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Sets the counters to be filled by the parse, shared statistics get the totals of all the
+	 * parses using them
+	 * @param statistics
+	 */
+	public void setStatistics(ParseStatistics statistics) {
+		if (statistics == null) {
+			throw new NullPointerException("Invalid parameters: statistics are mandatory");
+		}
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Collector of the errors of the parse, null if they are logged one by one
+	 * @return
+	 */
+	public ParseErrorCollector getErrorCollector() {
+		return errorCollector;
+	}
+
+	/**
+	 * Sets the collector of the errors of the parse, which keeps them instead of logging every
+	 * one of them and can interrupt the parse or quarantine the rejected records, see
+	 * {@link ParseErrorCollector}. Null (default) to log them one by one.
+	 * @param errorCollector
+	 */
+	public void setErrorCollector(ParseErrorCollector errorCollector) {
+		this.errorCollector = errorCollector;
+	}
+
+	/**
+	 * Metrics the parse counts in, null if it has none
+	 * @return
+	 */
+	public ParseMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics the parse counts in, shared metrics get the totals of all the parses
+	 * using them, see {@link ParseMetrics}. Null (default) to count nothing.
+	 * @param metrics
+	 */
+	public void setMetrics(ParseMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+}
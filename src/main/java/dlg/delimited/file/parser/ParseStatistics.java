@@ -0,0 +1,56 @@
+package dlg.delimited.file.parser;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of a parse, filled as the records are read. It can be shared among several
+ * parses (or the chunks of a parallel one) to get their totals.
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseStatistics {
+
+	private final AtomicLong recordCount = new AtomicLong();
+	private final AtomicLong filteredCount = new AtomicLong();
+
+	/**
+	 * Records read, neither the ignored first row nor blank lines are counted
+	 * @return
+	 */
+	public long getRecordCount() {
+		return recordCount.get();
+	}
+
+	/**
+	 * Records read but rejected by the filters of the parse, see
+	 * {@link ParseOptions#addFilter(dlg.delimited.file.parser.filter.ColumnFilter)}
+	 * @return
+	 */
+	public long getFilteredCount() {
+		return filteredCount.get();
+	}
+
+	public void addRecords(long count) {
+		recordCount.addAndGet(count);
+	}
+
+	public void addFiltered(long count) {
+		filteredCount.addAndGet(count);
+	}
+
+	/**
+	 * Adds the counters of the received statistics to these ones
+	 * @param statistics
+	 */
+	public void add(ParseStatistics statistics) {
+		addRecords(statistics.getRecordCount());
+		addFiltered(statistics.getFilteredCount());
+	}
+
+	@Override
+	public String toString() {
+		return "ParseStatistics [recordCount=" + getRecordCount() + ", filteredCount=" + getFilteredCount() + "]";
+	}
+
+}
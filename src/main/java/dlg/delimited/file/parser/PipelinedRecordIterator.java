@@ -0,0 +1,353 @@
+package dlg.delimited.file.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.filter.RecordFilter;
+import dlg.delimited.file.parser.tokenizer.RecordBlock;
+import dlg.delimited.file.parser.tokenizer.RecordBlockReader;
+import dlg.delimited.file.parser.tokenizer.RecordTokenizer;
+
+/**
+ * Lazy iterator over the content parsed in a pipeline, so content that can only be read
+ * sequentially is tokenized and binded on several cores:
+ * <ul>
+ * <li>a reader thread fills large blocks of whole records (see {@link RecordBlockReader})</li>
+ * <li>worker threads tokenize and bind the blocks in parallel, every block as a
+ * {@link TsvRecordIterator} would do it</li>
+ * <li>the thread iterating takes the blocks in the order of the content, so the DTOs come in
+ * the same order and with the same line numbers than parsing sequentially</li>
+ * </ul>
+ * Stages are connected by bounded ring buffers. The blocks are allocated up front and
+ * recycled once their DTOs have been iterated, so the reader waits when all of them are in
+ * flight and the memory used doesn't depend on the size of the content.
+ * <br>
+ * Errors interrupting the parse (a wrong value when configured to fail, the error budget of
+ * the collector exceeded, an error reading the content) are thrown once the DTOs of the
+ * records before them have been iterated. Errors and metrics, however, are reported by the
+ * workers as they are found, ahead of the iteration.
+ * <br>
+ * The reader is closed when the content is exhausted, when the process is interrupted, or
+ * when {@link #close()} is called. A reader thread blocked waiting for input closes it as
+ * soon as the read returns.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public class PipelinedRecordIterator<T> implements Iterator<T>, Closeable {
+
+	/**
+	 * Initial size of the blocks, in characters
+	 */
+	static final int BLOCK_SIZE = 512 * 1024;
+
+	private static final AtomicInteger PIPELINE_COUNT = new AtomicInteger();
+
+	private Logger logger = LoggerFactory.getLogger(PipelinedRecordIterator.class);
+
+	private final TsvParser parser;
+	private final RecordBlockReader blockReader;
+	private final BindedClass bindedClass;
+	private final Class<T> clazz;
+	private final boolean[] neededColumns;
+	private final RecordFilter filter;
+	private final ParseStatistics statistics;
+	private final ParseErrorCollector errorCollector;
+	private final ParseMetricsRecorder recorder;
+
+	// ring of free blocks, blocks to parse and blocks in the order of the content
+	private final BlockingQueue<Slot<T>> free;
+	private final BlockingQueue<Slot<T>> work;
+	private final BlockingQueue<Slot<T>> sequence;
+	private final Slot<T> endOfContent = new Slot<T>(null);
+
+	private final Thread reader;
+	private final Thread[] workers;
+
+	private Slot<T> current = null;
+	private int index = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 *
+	 * @param parser
+	 * @param blockReader
+	 * @param bindedClass
+	 * @param clazz
+	 * @param workers
+	 *            (amount of threads tokenizing and binding the blocks)
+	 * @param neededColumns
+	 *            (columns to extract, the mapped ones plus the ones of the filter)
+	 * @param filter
+	 *            (null to bind all the records)
+	 * @param statistics
+	 * @param errorCollector
+	 *            (null to log the errors)
+	 * @param recorder
+	 *            (recorder of the metrics of the parse, null if it has none. It's finished
+	 *            when the iterator is closed)
+	 */
+	PipelinedRecordIterator(TsvParser parser, RecordBlockReader blockReader, BindedClass bindedClass, Class<T> clazz,
+			int workers, boolean[] neededColumns, RecordFilter filter, ParseStatistics statistics,
+			ParseErrorCollector errorCollector, ParseMetricsRecorder recorder) {
+		this.parser = parser;
+		this.blockReader = blockReader;
+		this.bindedClass = bindedClass;
+		this.clazz = clazz;
+		this.neededColumns = neededColumns;
+		this.filter = filter;
+		this.statistics = statistics;
+		this.errorCollector = errorCollector;
+		this.recorder = recorder;
+
+		// enough blocks to keep every worker busy while the previous ones are iterated
+		int blocks = 2 * workers + 1;
+		this.free = new ArrayBlockingQueue<Slot<T>>(blocks);
+		this.work = new ArrayBlockingQueue<Slot<T>>(blocks + workers);
+		this.sequence = new ArrayBlockingQueue<Slot<T>>(blocks + 1);
+		for (int i = 0; i < blocks; i++) {
+			free.add(new Slot<T>(new RecordBlock(BLOCK_SIZE)));
+		}
+
+		int pipeline = PIPELINE_COUNT.incrementAndGet();
+		this.reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				read();
+			}
+		}, "dlg-pipeline-" + pipeline + "-reader");
+		this.workers = new Thread[workers];
+		for (int i = 0; i < workers; i++) {
+			this.workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					work();
+				}
+			}, "dlg-pipeline-" + pipeline + "-worker-" + i);
+			this.workers[i].setDaemon(true);
+			this.workers[i].start();
+		}
+		this.reader.setDaemon(true);
+		this.reader.start();
+	}
+
+	/**
+	 * Body of the reader thread: fills the free blocks, handing them over to the workers and
+	 * to the sequence, in this order
+	 */
+	private void read() {
+		try {
+			while (!closed) {
+				Slot<T> slot = free.take();
+				if (!blockReader.read(slot.block)) {
+					break;
+				}
+				slot.reset();
+				sequence.put(slot);
+				work.put(slot);
+			}
+			sequence.put(endOfContent);
+		} catch (InterruptedException e) {
+			// the iterator has been closed
+		} catch (Exception e) {
+			Slot<T> error = new Slot<T>(null);
+			error.error = e;
+			error.done = true;
+			sequence.offer(error);
+		} finally {
+			for (int i = 0; i < workers.length; i++) {
+				work.offer(endOfContent);
+			}
+			try {
+				blockReader.close();
+			} catch (IOException e) {
+				logger.error("Error closing reader", e);
+			}
+		}
+	}
+
+	/**
+	 * Body of the worker threads: binds the records of the blocks
+	 */
+	private void work() {
+		try {
+			while (true) {
+				Slot<T> slot = work.take();
+				if (slot == endOfContent) {
+					break;
+				}
+				parse(slot);
+				slot.complete();
+			}
+		} catch (InterruptedException e) {
+			// the iterator has been closed
+		}
+	}
+
+	/**
+	 * Binds the records of the block, counting in a fork of the recorder of the parse, if any
+	 */
+	private void parse(Slot<T> slot) {
+		RecordBlock block = slot.block;
+		RecordTokenizer tokenizer = new RecordTokenizer(block.getReader(), bindedClass.getSeparator(),
+				bindedClass.getQuoting(), neededColumns, block.getLinesBefore());
+		TsvRecordIterator<T> iterator = new TsvRecordIterator<T>(parser, tokenizer, bindedClass, clazz, filter,
+				slot.statistics, errorCollector, (recorder != null) ? recorder.fork() : null);
+		try {
+			while (iterator.hasNext()) {
+				slot.records.add(iterator.next());
+			}
+		} catch (Throwable e) {
+			slot.error = e;
+		} finally {
+			iterator.close();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!closed && (current == null || index == current.records.size())) {
+			if (current != null) {
+				// the records before an error are iterated before throwing it
+				Throwable error = current.error;
+				recycle(current);
+				current = null;
+				if (error != null) {
+					close();
+					throw toRuntimeException(error);
+				}
+			}
+			Slot<T> slot;
+			try {
+				slot = sequence.take();
+				slot.await();
+			} catch (InterruptedException e) {
+				close();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted waiting for the records", e);
+			}
+			if (slot == endOfContent) {
+				close();
+				break;
+			}
+			if (slot.block == null) {
+				// error reading the content
+				close();
+				throw toRuntimeException(slot.error);
+			}
+			statistics.add(slot.statistics);
+			current = slot;
+			index = 0;
+		}
+		return !closed && current != null && index < current.records.size();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.records.get(index++);
+	}
+
+	/**
+	 * Returns the block to the free ones, once its DTOs have been iterated
+	 */
+	private void recycle(Slot<T> slot) {
+		slot.records.clear();
+		free.offer(slot);
+	}
+
+	private static RuntimeException toRuntimeException(Throwable error) {
+		if (error instanceof RuntimeException) {
+			return (RuntimeException) error;
+		}
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+		if (error instanceof IOException) {
+			return new UncheckedIOException("Error reading content of file", (IOException) error);
+		}
+		return new IllegalStateException("Error parsing the content", error);
+	}
+
+	/**
+	 * Counters of the records iterated so far
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Amount of characters read so far by the reader thread, ahead of the iteration
+	 * @return
+	 */
+	public long getInputRead() {
+		return blockReader.getInputRead();
+	}
+
+	/**
+	 * Stops the threads of the pipeline, no more records will be returned after it
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			reader.interrupt();
+			for (Thread worker : workers) {
+				worker.interrupt();
+			}
+			current = null;
+			if (recorder != null) {
+				recorder.finish();
+			}
+		}
+	}
+
+	/**
+	 * Block of records along with the DTOs binded out of it
+	 */
+	private static class Slot<T> {
+		private final RecordBlock block;
+		private final List<T> records = new ArrayList<T>();
+		private ParseStatistics statistics;
+		private Throwable error;
+		private boolean done;
+
+		private Slot(RecordBlock block) {
+			this.block = block;
+		}
+
+		private synchronized void reset() {
+			statistics = new ParseStatistics();
+			error = null;
+			done = false;
+		}
+
+		private synchronized void complete() {
+			done = true;
+			notifyAll();
+		}
+
+		private synchronized void await() throws InterruptedException {
+			while (!done && block != null) {
+				wait();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package dlg.delimited.file.parser;
+
+/**
+ * Receives the binded DTOs one by one while the content is being parsed, reusing the same
+ * instance for all the records, see {@link TsvParser#parseContent(java.io.BufferedReader, Class, RecordConsumer)}.
+ * <br>
+ * The instance is only valid during the call: it's overwritten by the next record, so copy
+ * whatever you need out of it and never keep it, add it to a collection or hand it off to
+ * another thread.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public interface RecordConsumer<T> {
+
+	/**
+	 * Called once per binded record
+	 * @param record
+	 *            (instance reused for every record of the parse)
+	 */
+	void accept(T record);
+
+}
@@ -0,0 +1,23 @@
+package dlg.delimited.file.parser;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the consumer of the records of every file ingested by a
+ * {@link FolderIngestionService}. Files are parsed concurrently, so every file gets its own
+ * consumer, called from the thread parsing it.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public interface RecordConsumerFactory<T> {
+
+	/**
+	 * Called once per file, before parsing it
+	 * @param file
+	 * @return the consumer of the records of the file
+	 */
+	RecordConsumer<T> newConsumer(Path file);
+
+}
@@ -0,0 +1,250 @@
+package dlg.delimited.file.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+import dlg.delimited.file.parser.filter.RecordFilter;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+import dlg.delimited.file.parser.tokenizer.RecordReader;
+
+/**
+ * Cursor over the records of a parse, shared by the iterators binding DTOs and the ones
+ * filling batches of columns so all of them keep the same rules: first row ignored when
+ * configured (handed off to the quarantine of the collector, if any), blank lines skipped,
+ * records counted in the statistics, and the ones rejected by the filter skipped before
+ * converting any of their columns.
+ * <br>
+ * Columns are converted through the cursor, so wrong values are reported to the
+ * {@link ParseErrorCollector} of the parse (or logged) and interrupt the process when the DTO
+ * says so, whichever iterator converts them. When the parse has {@link ParseMetrics}, the
+ * cursor counts in them until it's closed.
+ * <br>
+ * Instances are created by {@link TsvParser} along with the iterators of the parse.
+ *
+ * @author dalcantara
+ *
+ */
+public final class RecordCursor implements Closeable {
+
+	private Logger logger = LoggerFactory.getLogger(RecordCursor.class);
+
+	private final RecordReader tokenizer;
+	private final ColumnBuffer record = new ColumnBuffer();
+	private final BindedClass bindedClass;
+	private final RecordFilter filter;
+	private final ParseStatistics statistics;
+	private final RecordErrors errors;
+	private final ParseMetricsRecorder recorder;
+	private final ConversionResult conversion = new ConversionResult();
+
+	private boolean sampled = false;
+	private boolean closed = false;
+
+	/**
+	 *
+	 * @param tokenizer
+	 *            (it has to extract the columns of the filter too)
+	 * @param bindedClass
+	 * @param filter
+	 *            (null to keep all the records)
+	 * @param statistics
+	 * @param errorCollector
+	 *            (null to log the errors)
+	 * @param recorder
+	 *            (recorder of the metrics of the parse, null if it has none. It's finished
+	 *            when the cursor is closed)
+	 */
+	RecordCursor(RecordReader tokenizer, BindedClass bindedClass, RecordFilter filter, ParseStatistics statistics,
+			ParseErrorCollector errorCollector, ParseMetricsRecorder recorder) {
+		if (tokenizer == null || bindedClass == null || statistics == null) {
+			throw new NullPointerException("Invalid parameters: tokenizer, binded class and statistics are mandatory");
+		}
+		this.tokenizer = tokenizer;
+		this.bindedClass = bindedClass;
+		this.filter = filter;
+		this.statistics = statistics;
+		this.errors = (errorCollector != null || recorder != null) ? new RecordErrors(errorCollector, recorder) : null;
+		this.recorder = recorder;
+		if (recorder != null) {
+			recorder.start(tokenizer);
+		}
+	}
+
+	/**
+	 * Moves to the next record to convert, skipping the header, blank lines and the records
+	 * rejected by the filter
+	 * @return false if the content is over
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		while (!closed) {
+			// phases are only timed on a sample of the records
+			sampled = recorder != null && recorder.sample();
+			if (!tokenizer.next(record)) {
+				return false;
+			}
+			if (sampled) {
+				recorder.tokenized();
+			}
+			if (record.getLineNumber() == 1 && bindedClass.getIgnoreFirstLine()) {
+				if (errors != null && errors.hasCollector() && errors.getCollector().hasQuarantine()) {
+					errors.getCollector().setHeader(record.getLine());
+				}
+				continue;
+			}
+			if (record.isBlank()) {
+				if (recorder != null) {
+					recorder.blankLine();
+				}
+				continue;
+			}
+			statistics.addRecords(1);
+			if (filter != null && !filter.accept(record)) {
+				statistics.addFiltered(1);
+				bound();
+				continue;
+			}
+			if (errors != null) {
+				errors.clear();
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Current record
+	 * @return
+	 */
+	public ColumnBuffer getRecord() {
+		return record;
+	}
+
+	public BindedClass getBindedClass() {
+		return bindedClass;
+	}
+
+	/**
+	 * Parses the primitive (or wrapper) value of the column straight from the characters of
+	 * the current record
+	 * @param column
+	 * @param binding
+	 *            (binding of a field with a primitive type, see {@link FieldBinding#getPrimitiveType()})
+	 * @return true if the value is right, see {@link #getConversion()}. False if it's wrong,
+	 *         it has been reported then
+	 * @throws InvalidFieldValueException
+	 *             if the value is wrong and the DTO says the process has to be interrupted
+	 */
+	public boolean parsePrimitive(int column, FieldBinding binding) throws InvalidFieldValueException {
+		return ColumnConversion.parsePrimitive(record, column, binding, bindedClass, conversion, errors);
+	}
+
+	/**
+	 * Converts the value of the column of the current record through the converter of the field
+	 * @param column
+	 * @param binding
+	 * @return the value, null if it's wrong (it has been reported then)
+	 * @throws InvalidFieldValueException
+	 *             if the value is wrong and the DTO says the process has to be interrupted
+	 */
+	public Object getValue(int column, FieldBinding binding) throws InvalidFieldValueException {
+		return ColumnConversion.getValue(record.getString(column), binding, bindedClass, record, column, conversion, errors);
+	}
+
+	/**
+	 * Value of the last primitive parsed
+	 * @return
+	 */
+	public ConversionResult getConversion() {
+		return conversion;
+	}
+
+	/**
+	 * Errors of the current record, null if the parse has neither collector nor metrics
+	 */
+	RecordErrors getErrors() {
+		return errors;
+	}
+
+	/**
+	 * The DTO of the current record has been created (or reset), timed if the record is sampled
+	 */
+	public void bound() {
+		if (sampled) {
+			recorder.bound();
+		}
+	}
+
+	/**
+	 * The columns of the current record have been converted, timed if the record is sampled
+	 */
+	public void converted() {
+		if (sampled) {
+			recorder.converted();
+		}
+	}
+
+	/**
+	 * The current record has been binded (or added to a batch of columns)
+	 */
+	public void kept() {
+		if (recorder != null) {
+			recorder.record();
+		}
+	}
+
+	/**
+	 * Hands off the current record to the collector of the parse, if it had errors
+	 * @return true if it had errors and the collector drops the records with errors
+	 */
+	public boolean reject() {
+		if (errors == null || !errors.hasCollector() || errors.isEmpty()) {
+			return false;
+		}
+		errors.getCollector().reject(record.getLine());
+		return errors.getCollector().isDropRejectedRecords();
+	}
+
+	/**
+	 * Counters of the records read so far
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Amount of input consumed so far, line breaks included: characters when reading
+	 * from a reader, bytes when reading a file
+	 * @return
+	 */
+	public long getInputRead() {
+		return tokenizer.getInputRead();
+	}
+
+	/**
+	 * Closes the underlying reader, and finishes the recorder of the metrics, if any
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			try {
+				tokenizer.close();
+			} catch (IOException e) {
+				logger.error("Error closing reader", e);
+			}
+			if (recorder != null) {
+				recorder.finish();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package dlg.delimited.file.parser;
+
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+
+/**
+ * Errors of the record being binded by an iterator, reported to the collector of the parse
+ * and counted by field in its metrics. Every iterator has its own instance, so it tells
+ * whether the current record has to be rejected even when the collector is shared among threads.
+ *
+ * @author dalcantara
+ *
+ */
+class RecordErrors {
+
+	private final ParseErrorCollector collector;
+	private final ParseMetricsRecorder recorder;
+	private int count = 0;
+
+	/**
+	 *
+	 * @param collector
+	 *            (null if the errors are logged)
+	 * @param recorder
+	 *            (null if the parse has no metrics)
+	 */
+	RecordErrors(ParseErrorCollector collector, ParseMetricsRecorder recorder) {
+		this.collector = collector;
+		this.recorder = recorder;
+	}
+
+	ParseErrorCollector getCollector() {
+		return collector;
+	}
+
+	/**
+	 * Returns true if the errors are reported to a collector, otherwise they have to be logged
+	 * @return
+	 */
+	boolean hasCollector() {
+		return collector != null;
+	}
+
+	/**
+	 * Starts a new record
+	 */
+	void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Returns true if no error was found in the current record
+	 * @return
+	 */
+	boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Reports an error on a column of the current record
+	 * @param record
+	 * @param column
+	 * @param binding
+	 * @param value
+	 * @param reason
+	 */
+	void add(ColumnBuffer record, int column, FieldBinding binding, String value, String reason) {
+		count++;
+		if (recorder != null) {
+			recorder.fieldFailure(binding.getFieldName());
+		}
+		if (collector != null) {
+			collector.add(new ParseError(record.getLineNumber(), column, binding.getFieldName(), value, reason));
+		}
+	}
+
+	/**
+	 * Reports an error on the whole current record
+	 * @param record
+	 * @param e
+	 */
+	void add(ColumnBuffer record, Exception e) {
+		count++;
+		if (collector != null) {
+			collector.add(new ParseError(record.getLineNumber(), -1, null, null, e.toString()));
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package dlg.delimited.file.parser;
+
+import java.util.List;
+
+/**
+ * Receives the binded DTOs in batches while the content is being parsed, see
+ * {@link TsvParser#parseContent(java.io.BufferedReader, Class, RecordSink, int, long)}.
+ * <br>
+ * Every batch is a new list, so it's safe to keep it or to hand it off to another
+ * thread (i.e. to pipeline bulk inserts with the parsing).
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public interface RecordSink<T> {
+
+	/**
+	 * Called every time a batch is completed, and once more at the end of the
+	 * content if there are pending records.
+	 * @param batch
+	 */
+	void onBatch(List<T> batch);
+
+	/**
+	 * Called when the parsing is interrupted, either because the content couldn't
+	 * be read or because of an {@link dlg.delimited.file.parser.exception.InvalidFieldValueException}.
+	 * Records parsed before the error are flushed before this call.
+	 * @param e
+	 */
+	void onError(Exception e);
+
+}
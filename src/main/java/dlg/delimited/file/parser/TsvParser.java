@@ -2,17 +2,22 @@ package dlg.delimited.file.parser;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -20,8 +25,21 @@ import org.slf4j.LoggerFactory;
 
 import dlg.delimited.file.parser.binder.BindedClass;
 import dlg.delimited.file.parser.binder.BindedClasses;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.binder.FieldSetter;
+import dlg.delimited.file.parser.columnar.ColumnBatch;
+import dlg.delimited.file.parser.columnar.ColumnBatchIterator;
+import dlg.delimited.file.parser.converter.CharRangeParser;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.converter.StringDictionary;
 import dlg.delimited.file.parser.exception.InvalidFieldValueException;
-import dlg.delimited.file.parser.util.DateFormatUtils;
+import dlg.delimited.file.parser.filter.RecordFilter;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+import dlg.delimited.file.parser.tokenizer.MappedRecordTokenizer;
+import dlg.delimited.file.parser.tokenizer.PipelinedGzipInputStream;
+import dlg.delimited.file.parser.tokenizer.RecordBlockReader;
+import dlg.delimited.file.parser.tokenizer.RecordReader;
+import dlg.delimited.file.parser.tokenizer.RecordTokenizer;
 
 /**
  * 
@@ -32,358 +50,912 @@ import dlg.delimited.file.parser.util.DateFormatUtils;
 public class TsvParser {
 	
 
+	private static final int GZIP_READER_SIZE = 64 * 1024;
+	private static final int BYTE_ORDER_MARK = '\uFEFF';
+
 	private Logger logger = LoggerFactory.getLogger(TsvParser.class);
 
 	
-	@SuppressWarnings("unchecked")
-	public List parseContent(BufferedReader bufferedReader, Class clazz) {
-		BindedClass bindedClass = BindedClasses.getBinder(clazz);
-		if (bindedClass == null) {
-			throw new IllegalArgumentException("No binding annotation defined for class " + clazz.getName());
-		}
-		List result = null;
-		try {
-			String line;
-			int lineNumber = 1;
-			Object record;
-			result = new ArrayList();
-			while (((line = bufferedReader.readLine()) != null)) {
-				if (lineNumber == 1 && bindedClass.getIgnoreFirstLine()) {
-					lineNumber++;
-					continue;
-				}
-				if (StringUtils.trimToNull(line) != null) {
+	/**
+	 * Parses the whole content into a list of DTOs. Keep in mind that all the binded
+	 * DTOs are kept in memory, for large contents use {@link #stream(BufferedReader, Class)}
+	 * or {@link #iterate(BufferedReader, Class)} instead.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @return
+	 */
+	public <T> List<T> parseContent(BufferedReader bufferedReader, Class<T> clazz) {
+		return parseContent(bufferedReader, clazz, (ParseOptions) null);
+	}
 
-					try {
-						record = bindedClass.getClazz().cast(getBindedClassDTOFromLine(line, lineNumber, bindedClass));
-						if (record != null) {
-							result.add(record);
-						}
-					} catch (Exception e) {
-						if (e instanceof InvalidFieldValueException) {
-							throw (InvalidFieldValueException) e;
-						}
-						logger.error("Error processing line, " + line, e);
-					}
-				}
-				lineNumber++;
+	/**
+	 * Same than {@link #parseContent(BufferedReader, Class)} with the options of this call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 */
+	public <T> List<T> parseContent(BufferedReader bufferedReader, Class<T> clazz, ParseOptions options) {
+		TsvRecordIterator<T> iterator = iterate(bufferedReader, clazz, options);
+		List<T> result = new ArrayList<T>();
+		try {
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
 			}
-		} catch (IOException e) {
-			logger.error("Error reading content of file", e);
+		} catch (UncheckedIOException e) {
+			logger.error("Error reading content of file", e.getCause());
 		} finally {
-			try {
-				bufferedReader.close();
-			} catch (IOException e1) {
-				logger.error("Error closing buffered reader", e1);
-			}
+			iterator.close();
 		}
 		logger.debug("Resulting DTOs {}: ", result);
 		return result;
 	}
 
 	/**
-	 * Generates an instance of your DTO by parsing the current string row accordingly to
-	 * the specified indexes of fields provided in the constructor
-	 * @param line
+	 * Parses the content handing off the binded DTOs to the sink in batches, a batch is
+	 * completed every <code>batchSize</code> records or every <code>batchInputSize</code>
+	 * characters of content read, whichever comes first (use 0 to disable any of them).
+	 * Pending records are flushed at the end of the content. <br>
+	 * Errors that interrupt the parsing are reported to {@link RecordSink#onError(Exception)}
+	 * instead of being thrown.
+	 * @param bufferedReader
 	 * @param clazz
-	 * @param lineNumber
-	 * @return
-	 * @throws Exception 
+	 * @param sink
+	 * @param batchSize
+	 * @param batchInputSize
+	 * @return amount of records handed off to the sink
 	 */
-	private Object getBindedClassDTOFromLine(String line,  int lineNumber, BindedClass bindedClass) throws InvalidFieldValueException {
+	public <T> long parseContent(BufferedReader bufferedReader, Class<T> clazz, RecordSink<T> sink, int batchSize, long batchInputSize) {
+		if (sink == null) {
+			throw new IllegalArgumentException("A record sink is mandatory");
+		}
+		if (batchSize < 1 && batchInputSize < 1) {
+			throw new IllegalArgumentException("Either batch size or batch input size has to be greater than 0");
+		}
+		return deliver(iterate(bufferedReader, clazz), sink, batchSize, batchInputSize);
+	}
 
-		Object myIntance = null;
+	/**
+	 * Reads the iterator handing off its DTOs to the sink in batches
+	 */
+	private <T> long deliver(TsvRecordIterator<T> iterator, RecordSink<T> sink, int batchSize, long batchInputSize) {
+		int initialCapacity = (batchSize > 0) ? Math.min(batchSize, 10000) : 10;
+		List<T> batch = new ArrayList<T>(initialCapacity);
+		long delivered = 0;
+		long batchStart = 0;
 		try {
-			Constructor[] constructors = bindedClass.getClazz().getDeclaredConstructors();
-			Constructor init = constructors[0];
-			init.setAccessible(true);
-
-			Object[] initArgs = new Object[] {};
-			myIntance = init.newInstance(initArgs);
-			
-			if (StringUtils.isNotEmpty(line)) {
-				String[] split = split(line, bindedClass);
-				int startWith = (bindedClass.getNaturalOrder()) ? bindedClass.getFirstColumn() - 1 : bindedClass.getFirstColumn();
-				for (int inx = startWith; inx < split.length; inx++) {
-					String stringValue = split[inx];
-					if (StringUtils.isNotEmpty(stringValue)) {
-						int mapColumnValue = (bindedClass.getNaturalOrder()) ? (inx + 1) : inx;
-						String fieldName = bindedClass.getExistingFields().get(mapColumnValue);
-						if (StringUtils.isNotEmpty(fieldName)) {
-							Object value = getValue(stringValue, fieldName, bindedClass);
-							if (bindedClass.getInheritedFields().contains(fieldName)) {
-								setInheritedField(fieldName, bindedClass.getClazz().getSuperclass(), myIntance, value);
-							} else {
-								Field field = myIntance.getClass().getDeclaredField(fieldName);
-								if (field != null) {
-									field.setAccessible(true);
-									field.set(myIntance, value);
-								}
-							}
-							
-						}
-					}
+			while (iterator.hasNext()) {
+				batch.add(iterator.next());
+				if ((batchSize > 0 && batch.size() >= batchSize)
+						|| (batchInputSize > 0 && iterator.getInputRead() - batchStart >= batchInputSize)) {
+					delivered += batch.size();
+					sink.onBatch(batch);
+					batch = new ArrayList<T>(initialCapacity);
+					batchStart = iterator.getInputRead();
 				}
 			}
-			String lineNumberField = bindedClass.getLineNumberField();
-			if (StringUtils.trimToNull(lineNumberField) != null) {
-				if (bindedClass.getInheritedFields().contains(lineNumberField)) {
-					setInheritedField(lineNumberField, bindedClass.getClazz().getSuperclass(), myIntance, lineNumber);
-				} else {
-					Field field = myIntance.getClass().getDeclaredField(lineNumberField);
-					if (field != null) {
-						field.setAccessible(true);
-						field.set(myIntance, lineNumber);
-					}
-				}
+			if (!batch.isEmpty()) {
+				delivered += batch.size();
+				sink.onBatch(batch);
 			}
-		} catch (Exception e) {
-			if (e instanceof InvalidFieldValueException) {
-				throw (InvalidFieldValueException) e;
+		} catch (UncheckedIOException e) {
+			delivered += flush(batch, sink);
+			sink.onError(e.getCause());
+		} catch (InvalidFieldValueException e) {
+			delivered += flush(batch, sink);
+			sink.onError(e);
+		} finally {
+			iterator.close();
+		}
+		return delivered;
+	}
+
+	private <T> int flush(List<T> batch, RecordSink<T> sink) {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		sink.onBatch(batch);
+		return batch.size();
+	}
+
+	/**
+	 * Parses the content handing off every record to the consumer as soon as it's binded,
+	 * reusing a single instance of your DTO for all of them so no DTO is created per record.
+	 * The binded fields are reset to the values of a new instance before every record.
+	 * <br>
+	 * The instance is only valid during {@link RecordConsumer#accept(Object)}, see
+	 * {@link RecordConsumer}. Every call uses its own instance, so parsing in several
+	 * threads at once is safe.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param consumer
+	 * @return amount of records handed off to the consumer
+	 * @throws UncheckedIOException
+	 *             if the content can't be read
+	 */
+	public <T> long parseContent(BufferedReader bufferedReader, Class<T> clazz, RecordConsumer<T> consumer) {
+		return parseContent(bufferedReader, clazz, consumer, null);
+	}
+
+	/**
+	 * Same than {@link #parseContent(BufferedReader, Class, RecordConsumer)} with the options of this call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param consumer
+	 * @param options
+	 *            (null for the defaults)
+	 * @return amount of records handed off to the consumer
+	 */
+	public <T> long parseContent(BufferedReader bufferedReader, Class<T> clazz, RecordConsumer<T> consumer, ParseOptions options) {
+		if (consumer == null) {
+			throw new IllegalArgumentException("A record consumer is mandatory");
+		}
+		return consume(iterate(bufferedReader, clazz, options), consumer);
+	}
+
+	/**
+	 * Reads the iterator handing off its DTOs to the consumer, binding all of them into the same instance
+	 */
+	private <T> long consume(TsvRecordIterator<T> iterator, RecordConsumer<T> consumer) {
+		long consumed = 0;
+		try {
+			iterator.reuseInstance();
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+				consumed++;
 			}
-			logger.error("Error parsing line " + line, e);
+		} finally {
+			iterator.close();
 		}
-		return myIntance;
+		return consumed;
 	}
-	
+
 	/**
-	 * Searches in the received superclass for the field to set, if not found
-	 * will keep calling itself with the superclass of first received class
-	 * until it finds it or there is not more super classes.
-	 * NOTE this is in order to handle the setting of inherited properties,
-	 * which camel-bindy didn't provide 
-	 * @param fieldName
-	 * @param superclass
-	 * @param myIntance
-	 * @param value
+	 * Returns a lazy iterator that reads and binds one line at a time. The reader
+	 * is closed when the content is exhausted or when the iterator is closed.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @return
 	 */
-	private void setInheritedField(String fieldName, Class superclass, Object myIntance, Object value) {
-		if (superclass != null) {
-			Field field;
-			try {
-				field = superclass.getDeclaredField(fieldName);
-				if (field != null) {
-					field.setAccessible(true);
-					field.set(myIntance, value);
-				}
-			} catch (NoSuchFieldException e) {
-				setInheritedField(fieldName, superclass.getSuperclass(), myIntance, value);
-			} catch (IllegalArgumentException e) {
-				logger.warn("Trying to set {} with value {} for DTO {}", fieldName, value, superclass.getSuperclass());
-				logger.error("Error setting field", e);
-			} catch (IllegalAccessException e) {
-				logger.warn("Trying to set {} with value {} for DTO {}", fieldName, value, superclass.getSuperclass());
-				logger.error("Error setting field", e);
+	public <T> TsvRecordIterator<T> iterate(BufferedReader bufferedReader, Class<T> clazz) {
+		return iterate(bufferedReader, clazz, (ParseOptions) null);
+	}
+
+	/**
+	 * Same than {@link #iterate(BufferedReader, Class)} with the options of this call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 */
+	public <T> TsvRecordIterator<T> iterate(BufferedReader bufferedReader, Class<T> clazz, ParseOptions options) {
+		BindedClass bindedClass = getBindedClass(clazz, options);
+		RecordFilter filter = getRecordFilter(clazz, options);
+		RecordTokenizer tokenizer = new RecordTokenizer(bufferedReader, bindedClass.getSeparator(), bindedClass.getQuoting(),
+				getNeededColumns(bindedClass, filter));
+		return new TsvRecordIterator<T>(this, tokenizer, bindedClass, clazz, filter, getStatistics(options),
+				getErrorCollector(options), getRecorder(options));
+	}
+
+	/**
+	 * Returns a lazy sequential stream of DTOs, reading and binding one line at a time.
+	 * Closing the stream closes the reader, so use it within a try-with-resources block.
+	 * Reading errors are thrown as {@link UncheckedIOException}.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @return
+	 */
+	public <T> Stream<T> stream(BufferedReader bufferedReader, Class<T> clazz) {
+		return toStream(iterate(bufferedReader, clazz));
+	}
+
+	/**
+	 * Same than {@link #stream(BufferedReader, Class)} with the options of this call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 */
+	public <T> Stream<T> stream(BufferedReader bufferedReader, Class<T> clazz, ParseOptions options) {
+		return toStream(iterate(bufferedReader, clazz, options));
+	}
+
+	/**
+	 * Parses the whole content into a list of DTOs in a pipeline: a thread reads the content
+	 * in large blocks of whole records while <code>workers</code> threads tokenize and bind
+	 * them, see {@link PipelinedRecordIterator}. The result is the same than parsing the
+	 * content sequentially, line numbers included. Use it for content that can't be split,
+	 * such as standard input or sockets, files are better parsed with
+	 * {@link #parseFileInParallel(Path, Class)}.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param workers
+	 *            (amount of threads tokenizing and binding)
+	 * @return
+	 */
+	public <T> List<T> parseContentInParallel(BufferedReader bufferedReader, Class<T> clazz, int workers) {
+		return parseContentInParallel(bufferedReader, clazz, workers, null);
+	}
+
+	/**
+	 * Same than {@link #parseContentInParallel(BufferedReader, Class, int)} with the options of
+	 * this call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param workers
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 */
+	public <T> List<T> parseContentInParallel(BufferedReader bufferedReader, Class<T> clazz, int workers, ParseOptions options) {
+		PipelinedRecordIterator<T> iterator = iterateInParallel(bufferedReader, clazz, workers, options);
+		List<T> result = new ArrayList<T>();
+		try {
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
 			}
+		} catch (UncheckedIOException e) {
+			logger.error("Error reading content of file", e.getCause());
+		} finally {
+			iterator.close();
 		}
-		
+		return result;
 	}
-	
+
+	/**
+	 * Returns a lazy iterator over the content parsed in a pipeline, see
+	 * {@link #parseContentInParallel(BufferedReader, Class, int)}. The threads of the pipeline
+	 * run ahead of the iteration (up to a bounded amount of blocks), until the content is
+	 * exhausted or the iterator is closed.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param workers
+	 *            (amount of threads tokenizing and binding)
+	 * @return
+	 */
+	public <T> PipelinedRecordIterator<T> iterateInParallel(BufferedReader bufferedReader, Class<T> clazz, int workers) {
+		return iterateInParallel(bufferedReader, clazz, workers, null);
+	}
+
 	/**
-	 * Selects the strategy to split columns, according to the quoting 
-	 * character and the separator provided 
-	 * @param line
+	 * Same than {@link #iterateInParallel(BufferedReader, Class, int)} with the options of this
+	 * call
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param workers
+	 * @param options
+	 *            (null for the defaults)
 	 * @return
 	 */
-	private String[] split(String line, BindedClass bindedClass) {
-		String quoting = bindedClass.getQuoting();
-		String separator = bindedClass.getSeparator();
-		if (StringUtils.trimToNull(quoting) == null) {
-			return splitWithNoQuoting(line, separator);
-		} else {
-			return splitWithQuoting(line, separator, quoting);
+	public <T> PipelinedRecordIterator<T> iterateInParallel(BufferedReader bufferedReader, Class<T> clazz, int workers,
+			ParseOptions options) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("Invalid parameters: workers has to be greater than 0");
 		}
+		BindedClass bindedClass = getBindedClass(clazz, options);
+		RecordFilter filter = getRecordFilter(clazz, options);
+		RecordBlockReader blockReader = new RecordBlockReader(bufferedReader, bindedClass.getSeparator(),
+				bindedClass.getQuoting());
+		return new PipelinedRecordIterator<T>(this, blockReader, bindedClass, clazz, workers,
+				getNeededColumns(bindedClass, filter), filter, getStatistics(options), getErrorCollector(options),
+				getRecorder(options));
 	}
-	
+
+	/**
+	 * Parses the whole UTF-8 file into a list of DTOs, reading it through memory mapped
+	 * regions and decoding just the mapped columns. Keep in mind that all the binded DTOs
+	 * are kept in memory, for large files use {@link #stream(Path, Class)} instead.
+	 * <br>
+	 * Large files are parsed in parallel when there is more than one core available, see
+	 * {@link #parseFileInParallel(Path, Class)}.
+	 * <br>
+	 * Gzip files are detected by their content and decompressed ahead of the parser by a thread
+	 * of their own, see {@link PipelinedGzipInputStream}. They are parsed sequentially.
+	 * @param path
+	 * @param clazz
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> List<T> parseFile(Path path, Class<T> clazz) throws IOException {
+		return parseFile(path, clazz, (ParseOptions) null);
+	}
+
 	/**
-	 * Split by separator, assuming there is not quoting to indicate the 
-	 * possibility of a separator character inside a text
-	 * 
-	 * @param line
-	 * @param separator
+	 * Same than {@link #parseFile(Path, Class)} with the options of this call
+	 * @param path
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
 	 * @return
+	 * @throws IOException
 	 */
-	private String[] splitWithNoQuoting(String line, String separator) {
-		String[] split = line.split(separator);
-		List<String> columns = new ArrayList<String>(split.length + 1); 
-		for (int i = 0; i < split.length; i++) {
-			String columnValue = split[i];
-				columns.add(columnValue);
+	public <T> List<T> parseFile(Path path, Class<T> clazz, ParseOptions options) throws IOException {
+		BindedClass bindedClass = getBindedClass(clazz, options);
+		RecordFilter filter = getRecordFilter(clazz, options);
+		ChunkedFileParser chunkedParser = new ChunkedFileParser(this, ForkJoinPool.commonPool());
+		if (chunkedParser.isWorthParallel(Files.size(path)) && !PipelinedGzipInputStream.isGzip(path)) {
+			return chunkedParser.parse(path, bindedClass, clazz, filter, getStatistics(options), getErrorCollector(options),
+					getMetrics(options));
 		}
-		return  columns.toArray(new String[]{});
+		return parseFileSequentially(path, bindedClass, clazz, filter, getStatistics(options), getErrorCollector(options),
+				getMetrics(options));
 	}
-	
+
 	/**
-	 * Splits the line into columns, taking into account that inside quotings there might
-	 * be a separator character that is only part of a text and not a an actual separator
-	 * @param line
-	 * @param separator
-	 * @param quoting
+	 * Parses the UTF-8 file splitting it into chunks which are parsed in parallel on the
+	 * common fork-join pool. The result is the same than parsing the file sequentially,
+	 * line numbers included. Gzip files can't be split, they are parsed sequentially.
+	 * @param path
+	 * @param clazz
 	 * @return
+	 * @throws IOException
 	 */
-	private String[] splitWithQuoting(String line, String separator, String quoting) {
-		String[] split = line.split(separator);
-		List<String> columns = new ArrayList<String>(split.length + 1); 
-		for (int i = 0; i < split.length; i++) {
-			String columnValue = split[i];
-			if (columnValue != null && columnValue.startsWith(quoting)  && (!columnValue.endsWith(quoting) || columnValue.endsWith(quoting.concat(quoting)))) {
-				StringBuilder column = new StringBuilder(columnValue);
-				Boolean keepLooking = true;
-				while (keepLooking) {
-					column.append(separator);
-					i++;
-					if (i < split.length) {
-						String otherColumn = split[i];
-						column.append(otherColumn);
-						if (otherColumn.endsWith(quoting) && !otherColumn.endsWith(quoting.concat(quoting))) {
-							keepLooking = false;
-						}
-					} else {
-						keepLooking = false;
-					}
-				}
-				columns.add(column.toString());
-			} else {
-				columns.add(columnValue);
+	public <T> List<T> parseFileInParallel(Path path, Class<T> clazz) throws IOException {
+		return parseFileInParallel(path, clazz, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Same than {@link #parseFileInParallel(Path, Class)} using the received pool
+	 * @param path
+	 * @param clazz
+	 * @param pool
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> List<T> parseFileInParallel(Path path, Class<T> clazz, ForkJoinPool pool) throws IOException {
+		if (pool == null) {
+			throw new NullPointerException("Invalid parameters: pool is mandatory");
+		}
+		if (PipelinedGzipInputStream.isGzip(path)) {
+			// compressed content can't be split, it's decompressed ahead of the parser instead
+			return parseFileSequentially(path, getBindedClass(clazz), clazz, null, new ParseStatistics(), null, null);
+		}
+		return new ChunkedFileParser(this, pool).parse(path, getBindedClass(clazz), clazz, null, new ParseStatistics(), null, null);
+	}
+
+	private <T> List<T> parseFileSequentially(Path path, BindedClass bindedClass, Class<T> clazz, RecordFilter filter,
+			ParseStatistics statistics, ParseErrorCollector errorCollector, ParseMetrics metrics) throws IOException {
+		TsvRecordIterator<T> iterator = iterate(path, bindedClass, clazz, filter, statistics, errorCollector, metrics);
+		List<T> result = new ArrayList<T>();
+		try {
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
 			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			iterator.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Same than {@link #parseContent(BufferedReader, Class, RecordSink, int, long)} reading
+	 * the UTF-8 file through memory mapped regions, <code>batchInputSize</code> is measured
+	 * in bytes.
+	 * @param path
+	 * @param clazz
+	 * @param sink
+	 * @param batchSize
+	 * @param batchInputSize
+	 * @return amount of records handed off to the sink
+	 * @throws IOException
+	 */
+	public <T> long parseFile(Path path, Class<T> clazz, RecordSink<T> sink, int batchSize, long batchInputSize) throws IOException {
+		if (sink == null) {
+			throw new IllegalArgumentException("A record sink is mandatory");
+		}
+		if (batchSize < 1 && batchInputSize < 1) {
+			throw new IllegalArgumentException("Either batch size or batch input size has to be greater than 0");
 		}
-		
-		
-		return  columns.toArray(new String[]{});
+		return deliver(iterate(path, clazz), sink, batchSize, batchInputSize);
 	}
 
 	/**
-	 * Gets the value of the row-column string, and gets the corresponding value according
-	 * to the field data type in your DTO
-	 * @param value
-	 * @param type
+	 * Same than {@link #parseContent(BufferedReader, Class, RecordConsumer)} reading the UTF-8
+	 * file through memory mapped regions. The file is parsed sequentially in the calling thread.
+	 * @param path
+	 * @param clazz
+	 * @param consumer
+	 * @return amount of records handed off to the consumer
+	 * @throws IOException
+	 */
+	public <T> long parseFile(Path path, Class<T> clazz, RecordConsumer<T> consumer) throws IOException {
+		return parseFile(path, clazz, consumer, null);
+	}
+
+	/**
+	 * Same than {@link #parseFile(Path, Class, RecordConsumer)} with the options of this call
+	 * @param path
+	 * @param clazz
+	 * @param consumer
+	 * @param options
+	 *            (null for the defaults)
+	 * @return amount of records handed off to the consumer
+	 * @throws IOException
+	 */
+	public <T> long parseFile(Path path, Class<T> clazz, RecordConsumer<T> consumer, ParseOptions options) throws IOException {
+		if (consumer == null) {
+			throw new IllegalArgumentException("A record consumer is mandatory");
+		}
+		try {
+			return consume(iterate(path, clazz, options), consumer);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Returns a lazy iterator over the UTF-8 file, which is read through memory mapped
+	 * regions scanning its raw bytes, so just the columns mapped to a field are decoded.
+	 * The file is closed when it's exhausted or when the iterator is closed.
+	 * <br>
+	 * Gzip files are decompressed ahead of the iterator by a thread of their own, the input
+	 * read is measured in decompressed characters then.
+	 * @param path
+	 * @param clazz
 	 * @return
+	 * @throws IOException
 	 */
-	protected Object getValue(String value, String fieldName, BindedClass bindedClass) throws InvalidFieldValueException {
-		if (StringUtils.trimToNull(fieldName) != null) {
-			String type = bindedClass.getFieldsDataType().get(fieldName);
-			if (StringUtils.trimToNull(type) == null) {
-				return null;
+	public <T> TsvRecordIterator<T> iterate(Path path, Class<T> clazz) throws IOException {
+		return iterate(path, clazz, (ParseOptions) null);
+	}
+
+	/**
+	 * Same than {@link #iterate(Path, Class)} with the options of this call
+	 * @param path
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> TsvRecordIterator<T> iterate(Path path, Class<T> clazz, ParseOptions options) throws IOException {
+		return iterate(path, getBindedClass(clazz, options), clazz, getRecordFilter(clazz, options), getStatistics(options),
+				getErrorCollector(options), getMetrics(options));
+	}
+
+	private <T> TsvRecordIterator<T> iterate(Path path, BindedClass bindedClass, Class<T> clazz, RecordFilter filter,
+			ParseStatistics statistics, ParseErrorCollector errorCollector, ParseMetrics metrics) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			RecordReader tokenizer = openTokenizer(path, channel, bindedClass, filter);
+			return new TsvRecordIterator<T>(this, tokenizer, bindedClass, clazz, filter, statistics, errorCollector,
+					(metrics != null) ? metrics.startParse() : null);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		} catch (RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a lazy sequential stream of DTOs out of the UTF-8 file, see {@link #iterate(Path, Class)}.
+	 * Closing the stream closes the file, so use it within a try-with-resources block.
+	 * @param path
+	 * @param clazz
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> Stream<T> stream(Path path, Class<T> clazz) throws IOException {
+		return toStream(iterate(path, clazz));
+	}
+
+	/**
+	 * Same than {@link #stream(Path, Class)} with the options of this call
+	 * @param path
+	 * @param clazz
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 * @throws IOException
+	 */
+	public <T> Stream<T> stream(Path path, Class<T> clazz, ParseOptions options) throws IOException {
+		return toStream(iterate(path, clazz, options));
+	}
+
+	/**
+	 * Returns a lazy iterator over batches of rows stored by column instead of as DTOs, see
+	 * {@link ColumnBatch}. Columns are binded accordingly to the annotations of your DTO, but
+	 * no instance of it is created. The reader is closed when the content is exhausted or
+	 * when the iterator is closed.
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param batchSize
+	 *            (maximum amount of rows of every batch)
+	 * @return
+	 */
+	public ColumnBatchIterator iterateColumns(BufferedReader bufferedReader, Class clazz, int batchSize) {
+		return iterateColumns(bufferedReader, clazz, batchSize, null);
+	}
+
+	/**
+	 * Same than {@link #iterateColumns(BufferedReader, Class, int)} with the options of this
+	 * call, the batches only have the columns of the fields requested in the options
+	 * @param bufferedReader
+	 * @param clazz
+	 * @param batchSize
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 */
+	public ColumnBatchIterator iterateColumns(BufferedReader bufferedReader, Class clazz, int batchSize, ParseOptions options) {
+		BindedClass bindedClass = getBindedClass(clazz, options);
+		RecordFilter filter = getRecordFilter(clazz, options);
+		RecordTokenizer tokenizer = new RecordTokenizer(bufferedReader, bindedClass.getSeparator(), bindedClass.getQuoting(),
+				getNeededColumns(bindedClass, filter));
+		return new ColumnBatchIterator(new RecordCursor(tokenizer, bindedClass, filter, getStatistics(options),
+				getErrorCollector(options), getRecorder(options)), batchSize);
+	}
+
+	/**
+	 * Same than {@link #iterateColumns(BufferedReader, Class, int)} reading the UTF-8 file through
+	 * memory mapped regions, so just the binded columns are decoded
+	 * @param path
+	 * @param clazz
+	 * @param batchSize
+	 * @return
+	 * @throws IOException
+	 */
+	public ColumnBatchIterator iterateColumns(Path path, Class clazz, int batchSize) throws IOException {
+		return iterateColumns(path, clazz, batchSize, null);
+	}
+
+	/**
+	 * Same than {@link #iterateColumns(Path, Class, int)} with the options of this call, the
+	 * batches only have the columns of the fields requested in the options
+	 * @param path
+	 * @param clazz
+	 * @param batchSize
+	 * @param options
+	 *            (null for the defaults)
+	 * @return
+	 * @throws IOException
+	 */
+	public ColumnBatchIterator iterateColumns(Path path, Class clazz, int batchSize, ParseOptions options) throws IOException {
+		BindedClass bindedClass = getBindedClass(clazz, options);
+		RecordFilter filter = getRecordFilter(clazz, options);
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			RecordReader tokenizer = openTokenizer(path, channel, bindedClass, filter);
+			return new ColumnBatchIterator(new RecordCursor(tokenizer, bindedClass, filter, getStatistics(options),
+					getErrorCollector(options), getRecorder(options)), batchSize);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		} catch (RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Tokenizer of the file: plain files are read through memory mapped regions of the channel,
+	 * gzip files are decompressed ahead of the parser by a thread of their own (the channel is
+	 * closed then, the file is read through the decompressing stream)
+	 */
+	private static RecordReader openTokenizer(Path path, FileChannel channel, BindedClass bindedClass, RecordFilter filter)
+			throws IOException {
+		if (!PipelinedGzipInputStream.isGzip(channel)) {
+			return new MappedRecordTokenizer(channel, bindedClass.getSeparator(), bindedClass.getQuoting(),
+					getNeededColumns(bindedClass, filter));
+		}
+		channel.close();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new PipelinedGzipInputStream(path, ForkJoinPool.commonPool()), StandardCharsets.UTF_8), GZIP_READER_SIZE);
+		try {
+			// the byte order mark is skipped, as it is in plain files
+			reader.mark(1);
+			if (reader.read() != BYTE_ORDER_MARK) {
+				reader.reset();
 			}
-			String quoting = bindedClass.getQuoting();
-			if (StringUtils.trimToNull(quoting) != null) {
-				String startWith = "^".concat(quoting);
-				String endWith = quoting.concat("$");
-				value = value.replaceAll(startWith, "").replaceAll(endWith, "");
+			return new RecordTokenizer(reader, bindedClass.getSeparator(), bindedClass.getQuoting(),
+					getNeededColumns(bindedClass, filter));
+		} catch (IOException e) {
+			reader.close();
+			throw e;
+		} catch (RuntimeException e) {
+			reader.close();
+			throw e;
+		}
+	}
+
+	private BindedClass getBindedClass(Class clazz) {
+		BindedClass bindedClass = BindedClasses.getBinder(clazz);
+		if (bindedClass == null) {
+			throw new IllegalArgumentException("No binding annotation defined for class " + clazz.getName());
+		}
+		return bindedClass;
+	}
+
+	/**
+	 * Binding data of the class limited to the fields requested in the options, if any
+	 */
+	private BindedClass getBindedClass(Class clazz, ParseOptions options) {
+		BindedClass bindedClass = getBindedClass(clazz);
+		if (options != null && options.getFields() != null) {
+			return bindedClass.getProjection(options.getFields());
+		}
+		return bindedClass;
+	}
+
+	/**
+	 * Filter of the records resolved against the whole binding data of the class, so it can be
+	 * on fields out of the projection. Null if the options have no filters.
+	 */
+	private RecordFilter getRecordFilter(Class clazz, ParseOptions options) {
+		if (options == null || options.getFilters().isEmpty()) {
+			return null;
+		}
+		return new RecordFilter(getBindedClass(clazz), options.getFilters());
+	}
+
+	/**
+	 * Columns the tokenizer has to extract: the mapped ones plus the ones of the filter
+	 */
+	private static boolean[] getNeededColumns(BindedClass bindedClass, RecordFilter filter) {
+		return (filter != null) ? filter.getNeededColumns(bindedClass.getMappedColumns()) : bindedClass.getMappedColumns();
+	}
+
+	private static ParseStatistics getStatistics(ParseOptions options) {
+		return (options != null) ? options.getStatistics() : new ParseStatistics();
+	}
+
+	private static ParseErrorCollector getErrorCollector(ParseOptions options) {
+		return (options != null) ? options.getErrorCollector() : null;
+	}
+
+	private static ParseMetrics getMetrics(ParseOptions options) {
+		return (options != null) ? options.getMetrics() : null;
+	}
+
+	/**
+	 * Starts the recording of a parse in the metrics of the options, null if there are none
+	 */
+	private static ParseMetricsRecorder getRecorder(ParseOptions options) {
+		ParseMetrics metrics = getMetrics(options);
+		return (metrics != null) ? metrics.startParse() : null;
+	}
+
+	private <T> Stream<T> toStream(final TsvRecordIterator<T> iterator) {
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				iterator.close();
 			}
-			if (bindedClass.hasToTrimField(fieldName)) {
-				value = value.trim();
+		});
+	}
+
+	/**
+	 * Creates a new instance of your DTO for the current record, the columns are set by
+	 * {@link #setFieldsFromRecord(ColumnBuffer, BindedClass, StringDictionary[], Object, ConversionResult, RecordErrors)}
+	 * @param record
+	 * @param bindedClass
+	 * @param errors
+	 *            (errors of the record, null to log them)
+	 * @return the instance, null if it couldn't be created
+	 */
+	Object newInstance(ColumnBuffer record, BindedClass bindedClass, RecordErrors errors) {
+		try {
+			return bindedClass.newInstance();
+		} catch (Exception e) {
+			reportError(record, e, errors);
+			return null;
+		}
+	}
+
+	/**
+	 * Resets the binded fields of an existing instance of your DTO, so nothing of the previous
+	 * record is left in it before binding the next one
+	 * @param bindedClass
+	 * @param myIntance
+	 * @param defaultValues
+	 *            (see {@link #getDefaultValues(BindedClass, Object)})
+	 */
+	void resetFields(BindedClass bindedClass, Object myIntance, Object[] defaultValues) {
+		for (int inx = 0; inx < defaultValues.length; inx++) {
+			FieldBinding binding = bindedClass.getColumnBinding(inx);
+			if (binding != null) {
+				binding.getSetter().set(myIntance, defaultValues[inx]);
 			}
-			try {
-				String lowerCasedType = type.toLowerCase();
-				if ("String".equals(type)) {
-					return value;
-				} else {
-					String cleanOfCommaNumber = value.replace(",", "");
-					if ("Integer".equals(type) || "int".equals(type)) {
-						return Integer.valueOf(cleanOfCommaNumber);
-						
-					} else if ("double".equals(lowerCasedType)) {
-						return Double.valueOf(cleanOfCommaNumber);
-						
-					} else if ("BigDecimal".equals(type)) {
-						return new BigDecimal(cleanOfCommaNumber);
-						
-					} else if ("short".equals(lowerCasedType)) {
-						return Short.valueOf(cleanOfCommaNumber);
-						
-					} else if ("BigInteger".equals(type)) {
-						return new BigInteger(cleanOfCommaNumber);
-						
-					} else if ("float".equals(lowerCasedType)) {
-						return Float.valueOf(cleanOfCommaNumber);
-						
-					} else if ("boolean".equals(lowerCasedType)) {
-						return getBoolean(value);
-						
-					} else if ("Date".equals(lowerCasedType)) {
-						return  getDateFromString(value, type, fieldName, bindedClass);
-					} else if ("Calendar".equals(type)) {
-						Date date = getDateFromString(value, type, fieldName, bindedClass);
-						if (date != null) {
-							Calendar calendar = Calendar.getInstance();
-							calendar.setTime(date);
-							return calendar;
-						}
+		}
+	}
+
+	/**
+	 * Values of the binded fields of a new instance of your DTO, indexed by column, so
+	 * reused instances get the same initial values than new ones. Fields that can't be read
+	 * get the default value of their type.
+	 * @param bindedClass
+	 * @param newInstance
+	 *            (instance just created, not binded yet)
+	 * @return
+	 */
+	Object[] getDefaultValues(BindedClass bindedClass, Object newInstance) {
+		FieldBinding[] columnBindings = bindedClass.getColumnBindings();
+		Object[] defaultValues = new Object[columnBindings.length];
+		for (int inx = 0; inx < columnBindings.length; inx++) {
+			FieldBinding binding = columnBindings[inx];
+			if (binding != null) {
+				Field field = getField(newInstance.getClass(), binding.getFieldName());
+				try {
+					if (field != null) {
+						field.setAccessible(true);
+						defaultValues[inx] = field.get(newInstance);
 					}
+				} catch (Exception e) {
+					logger.debug("Field {} can't be read, it's reset to the default value of its type", binding.getFieldName());
 				}
-			} catch (Exception e) {
-				logger.error("{}, Error parsing string value '{}' for data type {}" , value,  type, e.getMessage());
-				if (bindedClass.getFailAtWrongDataTypeException() || (failForField(fieldName, bindedClass))) {
-					throw new InvalidFieldValueException(String.format("Null or Invalid data value: '%s',  for field '%s' (dataType '%s'). ", value, fieldName, type));
+				if (defaultValues[inx] == null && binding.getType().isPrimitive()) {
+					defaultValues[inx] = Array.get(Array.newInstance(binding.getType(), 1), 0);
 				}
-				return null;
 			}
-			
+		}
+		return defaultValues;
+	}
+
+	private static Field getField(Class<?> clazz, String fieldName) {
+		for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+			try {
+				return current.getDeclaredField(fieldName);
+			} catch (NoSuchFieldException e) {
+				// declared in a superclass
+			}
 		}
 		return null;
 	}
 
-	private static List<String> trueValues = Arrays.asList(new String[]{"true", "yes", "y", "1"});
-	private static List<String> falseValues = Arrays.asList(new String[]{"false", "no", "n", "0"});
 	/**
-	 * Gets a boolean value according to accepted boolean string representation. <br>
-	 * TRUE: "true", "yes", "y", "1" <br>
-	 * FALSE: "false", "no", "n", "0" <br>
-	 * Throws an IllegalArgumentException if the value doesn't correspond to any <br> 
-	 * of the accepted values
-	 * @param value
-	 * @return
+	 * Sets the fields of your DTO out of the columns of the current record, accordingly to the
+	 * binding plan of the class
+	 * @param record
+	 * @param bindedClass
+	 * @param dictionaries
+	 *            (dictionaries of the parse indexed by column, null if no field uses one)
+	 * @param myIntance
+	 * @param conversion
+	 *            (holder of the converted values, reused along the parse)
+	 * @param errors
+	 *            (errors of the record, null to log them)
+	 * @return the instance
+	 * @throws InvalidFieldValueException
 	 */
-	private Object getBoolean(String value) {
-		String lowerCasedValue = value.toLowerCase();
-		if (trueValues.contains(lowerCasedValue)) {
-			return Boolean.TRUE;
-		} else if (falseValues.contains(lowerCasedValue)) {
-			return Boolean.FALSE;
+	Object setFieldsFromRecord(ColumnBuffer record, BindedClass bindedClass, StringDictionary[] dictionaries,
+			Object myIntance, ConversionResult conversion, RecordErrors errors) throws InvalidFieldValueException {
+		try {
+			int lastColumn = Math.min(record.getColumnCount(), bindedClass.getLastColumnIndex() + 1);
+			for (int inx = bindedClass.getFirstColumnIndex(); inx < lastColumn; inx++) {
+				FieldBinding binding = bindedClass.getColumnBinding(inx);
+				if (binding != null && !record.isEmpty(inx)) {
+					if (binding.getPrimitiveType() != null) {
+						setPrimitiveValue(myIntance, record, inx, binding, bindedClass, conversion, errors);
+					} else if (dictionaries != null && dictionaries[inx] != null && !record.hasEscapedQuotes(inx)) {
+						binding.getSetter().set(myIntance, getDictionaryValue(record, inx, binding, dictionaries[inx]));
+					} else {
+						Object value = ColumnConversion.getValue(record.getString(inx), binding, bindedClass, record, inx, conversion,
+								errors);
+						// primitive fields (i.e. dates held in longs) are left untouched when there is no value
+						if (value != null || !binding.getType().isPrimitive()) {
+							binding.getSetter().set(myIntance, value);
+						}
+					}
+				}
+			}
+			FieldBinding lineNumberBinding = bindedClass.getLineNumberBinding();
+			if (lineNumberBinding != null) {
+				lineNumberBinding.getSetter().set(myIntance, record.getLineNumber());
+			}
+		} catch (Exception e) {
+			if (e instanceof InvalidFieldValueException) {
+				throw (InvalidFieldValueException) e;
+			}
+			reportError(record, e, errors);
 		}
-		throw new IllegalArgumentException("Invalid boolean data " + value);
+		return myIntance;
 	}
 
 	/**
-	 * Returns true if the whole process has to fail because of this field missing or with invalid value 
-	 * @param fieldName
-	 * @return
+	 * Reports an error on the whole record to the collector of the parse, or logs it if there is none
+	 * @param record
+	 * @param e
+	 * @param errors
 	 */
-	private boolean failForField(String fieldName, BindedClass bindedClass) {
-		
-		return bindedClass.getThrowExceptionAtMissingData() && bindedClass.getRequiredFields().get(fieldName);
+	private void reportError(ColumnBuffer record, Exception e, RecordErrors errors) {
+		if (errors != null) {
+			errors.add(record, e);
+		}
+		if (errors == null || !errors.hasCollector()) {
+			logger.error("Error parsing line " + record.getLine(), e);
+		}
 	}
 
 	/**
-	 * Parses a date string into a Date object, using the pattern assigned to the field, or the generic 
-	 * google's feed accepted
-	 * @param value
-	 * @param type
-	 * @param fieldName
+	 * Gets the canonical instance of the value of the column out of the dictionary of the
+	 * field, a new String is only created the first time the value is found
+	 * @param record
+	 * @param column
+	 * @param binding
+	 * @param dictionary
 	 * @return
-	 * @throws Exception
 	 */
-	private Date getDateFromString(String value, String type, String fieldName, BindedClass bindedClass) throws Exception {
-		String fieldDatePattern = bindedClass.getDateFormatPattern(fieldName);
-		if (StringUtils.trimToNull(fieldDatePattern) != null) {
-			return getDateFromString(value, fieldDatePattern);
-		} else {
-			return DateFormatUtils.getDateFromString(value);
+	private String getDictionaryValue(ColumnBuffer record, int column, FieldBinding binding, StringDictionary dictionary) {
+		char[] chars = record.getChars();
+		int start = record.getStart(column);
+		int end = record.getEnd(column);
+		if (binding.isTrimValue()) {
+			start = CharRangeParser.trimStart(chars, start, end);
+			end = CharRangeParser.trimEnd(chars, start, end);
+		}
+		return dictionary.get(chars, start, end);
+	}
+
+	/**
+	 * Parses the primitive (or wrapper) value straight from the characters of the column and
+	 * sets it into the field, without creating any String nor exception. Wrong values are
+	 * handled like in {@link #getValue(String, String, BindedClass)}, leaving the field untouched.
+	 * @param target
+	 * @param record
+	 * @param column
+	 * @param binding
+	 * @param bindedClass
+	 * @param conversion
+	 * @param errors
+	 * @throws InvalidFieldValueException
+	 */
+	private void setPrimitiveValue(Object target, ColumnBuffer record, int column, FieldBinding binding,
+			BindedClass bindedClass, ConversionResult conversion, RecordErrors errors) throws InvalidFieldValueException {
+		if (!ColumnConversion.parsePrimitive(record, column, binding, bindedClass, conversion, errors)) {
+			return;
+		}
+		FieldSetter setter = binding.getSetter();
+		switch (binding.getPrimitiveType()) {
+		case INT:
+			setter.setInt(target, (int) conversion.getLong());
+			break;
+		case LONG:
+			setter.setLong(target, conversion.getLong());
+			break;
+		case SHORT:
+			setter.setShort(target, (short) conversion.getLong());
+			break;
+		case DOUBLE:
+			setter.setDouble(target, conversion.getDouble());
+			break;
+		case FLOAT:
+			setter.setFloat(target, (float) conversion.getDouble());
+			break;
+		case BOOLEAN:
+			setter.setBoolean(target, conversion.getLong() == 1);
+			break;
 		}
-		
 	}
+
 	/**
-	 * Gets a date from string value, using the assigned pattern
+	 * Gets the value of the row-column string, and gets the corresponding value according
+	 * to the field data type in your DTO. Enclosing quotes of the value are removed.
 	 * @param value
+	 * @param type
 	 * @return
-	 * @throws ParseException 
 	 */
-	private Date getDateFromString(String value, String pattern) throws ParseException {
-			SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
-			return simpleDateFormat.parse(value);
+	protected Object getValue(String value, String fieldName, BindedClass bindedClass) throws InvalidFieldValueException {
+		if (StringUtils.trimToNull(fieldName) != null) {
+			FieldBinding binding = bindedClass.getFieldBinding(fieldName);
+			if (binding != null) {
+				String quoting = bindedClass.getQuoting();
+				if (StringUtils.trimToNull(quoting) != null) {
+					String startWith = "^".concat(quoting);
+					String endWith = quoting.concat("$");
+					value = value.replaceAll(startWith, "").replaceAll(endWith, "");
+				}
+				return ColumnConversion.getValue(value, binding, bindedClass, null, -1, new ConversionResult(), null);
+			}
+		}
+		return null;
 	}
 
-	
-
 }
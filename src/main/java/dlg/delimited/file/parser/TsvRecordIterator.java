@@ -0,0 +1,217 @@
+package dlg.delimited.file.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.StringDictionary;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+import dlg.delimited.file.parser.filter.RecordFilter;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+import dlg.delimited.file.parser.tokenizer.RecordReader;
+
+/**
+ * Lazy iterator over the content of a delimited file. Each call to {@link #next()}
+ * reads and binds just one record, so the whole content never has to be held in memory.
+ * <br>
+ * It keeps the same rules than {@link TsvParser#parseContent(BufferedReader, Class)}:
+ * first row ignored when configured, blank lines skipped, line number counting every
+ * physical line (a record with quoted line breaks gets the number of the line it starts in),
+ * and an {@link InvalidFieldValueException} interrupting the whole process.
+ * <br>
+ * Fields with a dictionary (see {@link dlg.delimited.file.parser.annotations.BindedFieldData#dictionary()})
+ * share their values along all the records of the iterator.
+ * <br>
+ * Records rejected by the filter of the parse, if any, are skipped before creating the DTO,
+ * and counted in the statistics of the iterator.
+ * <br>
+ * Errors are logged one by one, unless the parse has a {@link ParseErrorCollector}.
+ * <br>
+ * When the parse has {@link ParseMetrics}, the iterator counts in them until it's closed.
+ * <br>
+ * The reader (or file) is closed once the content is exhausted, when the process is
+ * interrupted, or when {@link #close()} is called.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public class TsvRecordIterator<T> implements Iterator<T>, Closeable {
+
+	private Logger logger = LoggerFactory.getLogger(TsvRecordIterator.class);
+
+	private final TsvParser parser;
+	private final RecordCursor cursor;
+	private final BindedClass bindedClass;
+	private final Class<T> clazz;
+	private final StringDictionary[] dictionaries;
+	private final RecordErrors errors;
+
+	private T nextRecord = null;
+	private T reusedInstance = null;
+	private Object[] defaultValues = null;
+	private boolean closed = false;
+
+	TsvRecordIterator(TsvParser parser, RecordReader tokenizer, BindedClass bindedClass, Class<T> clazz) {
+		this(parser, tokenizer, bindedClass, clazz, null, new ParseStatistics(), null, null);
+	}
+
+	/**
+	 *
+	 * @param parser
+	 * @param tokenizer
+	 *            (it has to extract the columns of the filter too)
+	 * @param bindedClass
+	 * @param clazz
+	 * @param filter
+	 *            (null to bind all the records)
+	 * @param statistics
+	 * @param errorCollector
+	 *            (null to log the errors)
+	 * @param recorder
+	 *            (recorder of the metrics of the parse, null if it has none. It's finished
+	 *            when the iterator is closed)
+	 */
+	TsvRecordIterator(TsvParser parser, RecordReader tokenizer, BindedClass bindedClass, Class<T> clazz, RecordFilter filter,
+			ParseStatistics statistics, ParseErrorCollector errorCollector, ParseMetricsRecorder recorder) {
+		this.parser = parser;
+		this.cursor = new RecordCursor(tokenizer, bindedClass, filter, statistics, errorCollector, recorder);
+		this.bindedClass = bindedClass;
+		this.clazz = clazz;
+		this.dictionaries = createDictionaries(bindedClass);
+		this.errors = cursor.getErrors();
+	}
+
+	/**
+	 * Creates the dictionaries of the fields that use one, indexed by column
+	 * @return the dictionaries, null if no field uses one
+	 */
+	private static StringDictionary[] createDictionaries(BindedClass bindedClass) {
+		FieldBinding[] columnBindings = bindedClass.getColumnBindings();
+		StringDictionary[] dictionaries = null;
+		for (int i = 0; i < columnBindings.length; i++) {
+			if (columnBindings[i] != null && columnBindings[i].getDictionarySize() > 0) {
+				if (dictionaries == null) {
+					dictionaries = new StringDictionary[columnBindings.length];
+				}
+				dictionaries[i] = new StringDictionary(columnBindings[i].getDictionarySize());
+			}
+		}
+		return dictionaries;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextRecord == null && !closed) {
+			nextRecord = readNext();
+		}
+		return nextRecord != null;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T record = nextRecord;
+		nextRecord = null;
+		return record;
+	}
+
+	/**
+	 * Reads records until one of them can be binded to a DTO, or the content is over
+	 * @return the binded DTO or null if there are no more records
+	 */
+	private T readNext() {
+		try {
+			while (cursor.next()) {
+				ColumnBuffer record = cursor.getRecord();
+				T dto = null;
+				try {
+					Object instance = reusedInstance;
+					if (instance == null) {
+						instance = parser.newInstance(record, bindedClass, errors);
+					} else {
+						parser.resetFields(bindedClass, instance, defaultValues);
+					}
+					cursor.bound();
+					if (instance != null) {
+						dto = clazz.cast(parser.setFieldsFromRecord(record, bindedClass, dictionaries, instance,
+								cursor.getConversion(), errors));
+					}
+					cursor.converted();
+				} catch (InvalidFieldValueException e) {
+					throw e;
+				} catch (Exception e) {
+					if (errors == null || !errors.hasCollector()) {
+						logger.error("Error processing line, " + record.getLine(), e);
+						continue;
+					}
+					errors.add(record, e);
+				}
+				if (cursor.reject()) {
+					continue;
+				}
+				if (dto != null) {
+					cursor.kept();
+					return dto;
+				}
+			}
+		} catch (IOException e) {
+			close();
+			throw new UncheckedIOException("Error reading content of file", e);
+		} catch (RuntimeException e) {
+			// wrong value interrupting the process, error budget exceeded or the quarantine couldn't be written
+			close();
+			throw e;
+		}
+		close();
+		return null;
+	}
+
+	/**
+	 * Makes the iterator bind every record into the same instance instead of creating a new
+	 * one, its binded fields are reset to the values of a new instance before binding each record
+	 */
+	void reuseInstance() {
+		this.reusedInstance = clazz.cast(bindedClass.newInstance());
+		this.defaultValues = parser.getDefaultValues(bindedClass, reusedInstance);
+	}
+
+	/**
+	 * Counters of the records read so far
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return cursor.getStatistics();
+	}
+
+	/**
+	 * Amount of input consumed so far, line breaks included: characters when reading
+	 * from a reader, bytes when reading a file
+	 * @return
+	 */
+	public long getInputRead() {
+		return cursor.getInputRead();
+	}
+
+	/**
+	 * Closes the underlying reader, no more records will be returned after it
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			cursor.close();
+		}
+	}
+
+}
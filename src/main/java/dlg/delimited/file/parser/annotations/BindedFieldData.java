@@ -15,6 +15,12 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.FIELD})
 public @interface BindedFieldData {
+
+	/**
+	 * Date pattern standing for the default formats of each date type, needed by long fields
+	 * holding dates (as milliseconds since the epoch) in the default formats.
+	 */
+	String DEFAULT_DATE_FORMATS = "default";
 	
 	/**
 	 * Column index of the value for the property.
@@ -44,11 +50,28 @@ public @interface BindedFieldData {
 	
 	/**
 	 * if a date field has to be parsed using an particular pattern, 
-	 * provide it with this attribute
+	 * provide it with this attribute (joda-time pattern for Date and Calendar fields,
+	 * java.time pattern for java.time fields).<br>
+	 * long fields with a pattern hold the date as milliseconds since the epoch.
 	 * @return
 	 */
 	String dateStringPattern() default "";
 	
+	/**
+	 * Use it in String fields of low-cardinality columns (countries, currencies, status...)
+	 * so repeated values share the same instance instead of a new String per line.
+	 * Values are kept in a dictionary for the whole parse, up to {@link #dictionarySize()}
+	 * distinct values; it's dropped when the column turns out to have many more.
+	 * @return
+	 */
+	boolean dictionary() default false;
+
+	/**
+	 * Maximum amount of distinct values kept by the dictionary of the field
+	 * @return
+	 */
+	int dictionarySize() default 4096;
+
 	/**
 	 * Use this attribute in your DTO if you have a field that represent
 	 * the line number in the file content, and you wish it to be set.
@@ -1,8 +1,14 @@
 package dlg.delimited.file.parser.binder;
 
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +22,16 @@ import dlg.delimited.file.parser.annotations.LineNumberField;
 import dlg.delimited.file.parser.annotations.BinderClassData.Quoting;
 
 
+/**
+ * Binding data of a DTO, read once out of its annotations (or out of the binder generated
+ * for it at compile time) along with the binding plan of its columns.
+ * <br>
+ * Instances are immutable, all of their fields are final and the maps and lists returned
+ * are unmodifiable, so they are safely shared by all the parses of every thread.
+ *
+ * @author dalcantara
+ *
+ */
 @SuppressWarnings("rawtypes")
 public class BindedClass {
 
@@ -25,33 +41,33 @@ public class BindedClass {
 	/**
 	 * Calculated. Indicates which one is the column to start parsing the line
 	 */
-	private Integer firstColumn = null;
+	private final Integer firstColumn;
 
 	/**
 	 * If true, indicates that mapping of columns start with 1 (natural order,
 	 * first column = 1) if false, indicates that the mapping of columns uses
 	 * progamming order (first column = 0)
 	 */
-	private Boolean naturalOrder = true;
+	private final Boolean naturalOrder;
 	/**
 	 * use to specify what is the name of lineNumber object, is your DTO
 	 * contains that field
 	 */
-	private String lineNumberField = null;
+	private final String lineNumberField;
 
 	/**
 	 * For now, just TSV won't allow other parsing time such are , or ;, because
 	 * I still don't have a strategy to handle them inside a string field
 	 * probably regex are going to help me out on this.
 	 */
-	private String separator;
+	private final String separator;
 
-	private String quoting;
+	private final String quoting;
 
 	/**
 	 * set false if first row doesn't contain headers
 	 */
-	private Boolean ignoreFirstLine = true;
+	private final Boolean ignoreFirstLine;
 
 	/**
 	 * set it to define the pattern to parse date string, otherwise will use
@@ -62,157 +78,310 @@ public class BindedClass {
 	private final Map<String, Boolean> requiredFields;
 	private final Map<String, Boolean> trimFieldRequired;
 
+	/**
+	 * Maximum size of the dictionary of the fields that use one
+	 */
+	private final Map<String, Integer> dictionarySizes;
+
 	/**
 	 * set to true if it's desired to trim column values before assigning it
 	 */
-	private Boolean trimFields = false;
+	private final Boolean trimFields;
+
+	private final Boolean throwExceptionAtMissingData;
+
+	private final Boolean failAtWrongDataTypeException;
+
+	private final Class clazz;
+
+	/**
+	 * Binding plan, compiled once: indexed by column position in the split line
+	 * (always starting with 0), null for columns that aren't mapped
+	 */
+	private final FieldBinding[] columnBindings;
+
+	/**
+	 * Indexes, in the split line, of the columns mapped to a field
+	 */
+	private final boolean[] mappedColumns;
+
+	private final Map<String, FieldBinding> fieldBindings;
 
-	private Boolean throwExceptionAtMissingData = false;
+	private final FieldBinding lineNumberBinding;
 
-	private Boolean failAtWrongDataTypeException = false;
+	/**
+	 * Cached no-arg constructor of your DTO, when binded through reflection
+	 */
+	private final MethodHandle constructor;
 
-	private Class clazz;
+	/**
+	 * Binder generated at compile time for your DTO, if any
+	 */
+	private final GeneratedBinder generatedBinder;
 
 	/**
 	 * 
 	 * @param clazz
 	 *            (Class of your DTO)
-	 * @param existingFields
-	 *            (map containing the index of column->fieldName to map)
 	 */
-	@SuppressWarnings("unchecked")
 	public BindedClass(Class clazz) {
+		this(clazz, null, readAnnotations(clazz));
+	}
+
+	/**
+	 * Builds the binding data out of a binder generated at compile time, so there is
+	 * no need to scan your DTO through reflection
+	 * 
+	 * @param generatedBinder
+	 */
+	public BindedClass(GeneratedBinder generatedBinder) {
+		this(getBindedClass(generatedBinder), generatedBinder, readGeneratedBinder(generatedBinder));
+	}
+
+	private BindedClass(Class clazz, GeneratedBinder generatedBinder, BindingData data) {
+		this.clazz = clazz;
+		this.generatedBinder = generatedBinder;
+		this.ignoreFirstLine = data.ignoreFirstLine;
+		this.trimFields = data.trimFields;
+		this.throwExceptionAtMissingData = data.throwExceptionAtMissingData;
+		this.failAtWrongDataTypeException = data.failAtWrongDataTypeException;
+		this.separator = data.separator;
+		this.quoting = data.quoting;
+		this.lineNumberField = data.lineNumberField;
+		this.existingFields = Collections.unmodifiableMap(data.existingFields);
+		this.inheritedFields = Collections.unmodifiableList(data.inheritedFields);
+		this.fieldsDataTypes = Collections.unmodifiableMap(data.fieldsDataTypes);
+		this.dateFormatPattern = Collections.unmodifiableMap(data.dateFormatPattern);
+		this.requiredFields = Collections.unmodifiableMap(data.requiredFields);
+		this.trimFieldRequired = Collections.unmodifiableMap(data.trimFieldRequired);
+		this.dictionarySizes = Collections.unmodifiableMap(data.dictionarySizes);
+		this.firstColumn = calculateFirstColumn(existingFields.keySet());
+		this.naturalOrder = data.naturalOrder && firstColumn != 0;
+		this.constructor = (generatedBinder == null) ? resolveConstructor(clazz) : null;
+
+		// binding plan: everything needed to bind a line, resolved just once
+		Map<String, FieldBinding> bindings = new HashMap<String, FieldBinding>();
+		int lastColumn = -1;
+		for (Integer columnNumber : existingFields.keySet()) {
+			lastColumn = Math.max(lastColumn, getColumnIndex(columnNumber));
+		}
+		this.columnBindings = new FieldBinding[lastColumn + 1];
+		for (Map.Entry<Integer, String> entry : existingFields.entrySet()) {
+			String fieldName = entry.getValue();
+			Integer dictionarySize = dictionarySizes.get(fieldName);
+			FieldBinding binding = new FieldBinding(fieldName, data.types.get(fieldName), entry.getKey(),
+					requiredFields.get(fieldName), hasToTrimField(fieldName), dateFormatPattern.get(fieldName),
+					(dictionarySize != null) ? dictionarySize.intValue() : 0, data.setters.get(fieldName));
+			columnBindings[getColumnIndex(entry.getKey())] = binding;
+			bindings.put(fieldName, binding);
+		}
+		this.mappedColumns = getMappedColumns(columnBindings);
+		this.fieldBindings = Collections.unmodifiableMap(bindings);
+		this.lineNumberBinding = (lineNumberField != null) ? new FieldBinding(lineNumberField,
+				data.types.get(lineNumberField), -1, false, false, null, data.setters.get(lineNumberField)) : null;
+	}
+
+	/**
+	 * Copy of the binding data keeping just the received fields in the binding plan
+	 */
+	private BindedClass(BindedClass source, Collection<String> fieldNames) {
+		// the maps of the source are unmodifiable, they can be shared
+		this.existingFields = source.existingFields;
+		this.inheritedFields = source.inheritedFields;
+		this.fieldsDataTypes = source.fieldsDataTypes;
+		this.firstColumn = source.firstColumn;
+		this.naturalOrder = source.naturalOrder;
+		this.lineNumberField = source.lineNumberField;
+		this.separator = source.separator;
+		this.quoting = source.quoting;
+		this.ignoreFirstLine = source.ignoreFirstLine;
+		this.dateFormatPattern = source.dateFormatPattern;
+		this.requiredFields = source.requiredFields;
+		this.trimFieldRequired = source.trimFieldRequired;
+		this.dictionarySizes = source.dictionarySizes;
+		this.trimFields = source.trimFields;
+		this.throwExceptionAtMissingData = source.throwExceptionAtMissingData;
+		this.failAtWrongDataTypeException = source.failAtWrongDataTypeException;
+		this.clazz = source.clazz;
+		this.lineNumberBinding = source.lineNumberBinding;
+		this.constructor = source.constructor;
+		this.generatedBinder = source.generatedBinder;
+
+		Map<String, FieldBinding> bindings = new HashMap<String, FieldBinding>();
+		int lastColumn = -1;
+		for (String fieldName : fieldNames) {
+			FieldBinding binding = source.fieldBindings.get(fieldName);
+			if (binding == null) {
+				throw new IllegalArgumentException("Field " + fieldName + " is not binded in class " + clazz.getName());
+			}
+			bindings.put(fieldName, binding);
+			lastColumn = Math.max(lastColumn, getColumnIndex(binding.getColumn()));
+		}
+		this.columnBindings = new FieldBinding[lastColumn + 1];
+		for (FieldBinding binding : bindings.values()) {
+			columnBindings[getColumnIndex(binding.getColumn())] = binding;
+		}
+		this.mappedColumns = getMappedColumns(columnBindings);
+		this.fieldBindings = Collections.unmodifiableMap(bindings);
+	}
+
+	/**
+	 * Returns the binding data limited to the received fields, so the rest of the columns are
+	 * neither decoded nor converted, and records are only tokenized up to the last column of
+	 * those fields. Fields out of the projection are left untouched in the DTOs.
+	 * @param fieldNames
+	 *            (names of binded fields of your DTO)
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if any of the fields is not binded
+	 */
+	public BindedClass getProjection(Collection<String> fieldNames) {
+		if (fieldNames == null) {
+			throw new NullPointerException("Invalid parameters: field names are mandatory");
+		}
+		return new BindedClass(this, fieldNames);
+	}
+
+	private static Class getBindedClass(GeneratedBinder generatedBinder) {
+		if (generatedBinder == null) {
+			throw new NullPointerException("Invalid parameters: generated binder is mandatory");
+		}
+		return generatedBinder.getBindedClass();
+	}
+
+	/**
+	 * Reads the binding data out of the annotations of your DTO and its superclasses
+	 */
+	private static BindingData readAnnotations(Class<?> clazz) {
 		if (clazz == null) {
 			throw new NullPointerException("Invalid parameters: class is mandatory");
 		}
-		inheritedFields = new ArrayList<String>();
-		this.clazz = clazz;
+		BindingData data = new BindingData();
 		try {
-			BinderClassData annotation = (BinderClassData) this.clazz
-					.getAnnotation(dlg.delimited.file.parser.annotations.BinderClassData.class);
-			this.naturalOrder = annotation.naturalOrder();
-			this.ignoreFirstLine = annotation.ignoreFirstRow();
-			this.trimFields = annotation.trimValue();
-			this.throwExceptionAtMissingData = annotation.throwExceptionAtMissingData();
-			this.failAtWrongDataTypeException = annotation.failAtWrongDataTypeException();
-			this.separator = annotation.separtor();
-			Quoting quotingType = annotation.quoting();
-			this.quoting = null;
-			if (Quoting.SINGLE.equals(quotingType)) {
-				this.quoting = "'";
-			} else if (Quoting.DOUBLE.equals(quotingType)) {
-				this.quoting = "\"";
-			}
+			BinderClassData annotation = clazz.getAnnotation(dlg.delimited.file.parser.annotations.BinderClassData.class);
+			data.naturalOrder = annotation.naturalOrder();
+			data.ignoreFirstLine = annotation.ignoreFirstRow();
+			data.trimFields = annotation.trimValue();
+			data.throwExceptionAtMissingData = annotation.throwExceptionAtMissingData();
+			data.failAtWrongDataTypeException = annotation.failAtWrongDataTypeException();
+			data.separator = annotation.separtor();
+			data.quoting = getQuoting(annotation.quoting());
 
 		} catch (Exception e) {
 			
 		}
-		fieldsDataTypes = new HashMap<String, String>();
-		dateFormatPattern = new HashMap<String, String>();
-		existingFields = new HashMap<Integer, String>();
-		requiredFields = new HashMap<String, Boolean>();
-		trimFieldRequired = new HashMap<String, Boolean>();
 
-		setFieldsDataType();
-
-		Set<Integer> keySet = existingFields.keySet();
-		for (Integer columnNumber : keySet) {
-			if (firstColumn == null || firstColumn > columnNumber) {
-				firstColumn = columnNumber;
-			}
-		}
-		if (firstColumn == 0) {
-			naturalOrder = false;
+		Map<String, Field> bindedFields = new HashMap<String, Field>();
+		data.setFieldsDataType(clazz, bindedFields);
+		for (Map.Entry<String, Field> entry : bindedFields.entrySet()) {
+			data.setters.put(entry.getKey(), getSetter(clazz, entry.getValue()));
+			data.types.put(entry.getKey(), entry.getValue().getType());
 		}
+		return data;
 	}
 
 	/**
-	 * Chechs the fields of you DTO and the data types of each fields
+	 * Reads the binding data out of the binder generated at compile time
 	 */
-	private void setFieldsDataType() {
-		Field[] declaredFields = clazz.getDeclaredFields();
-		if (declaredFields != null && declaredFields.length > 0) {
-			for (Field field : declaredFields) {
-				getAnnotation(field);
+	private static BindingData readGeneratedBinder(GeneratedBinder generatedBinder) {
+		BindingData data = new BindingData();
+		data.naturalOrder = generatedBinder.getNaturalOrder();
+		data.ignoreFirstLine = generatedBinder.getIgnoreFirstRow();
+		data.trimFields = generatedBinder.getTrimValue();
+		data.throwExceptionAtMissingData = generatedBinder.getThrowExceptionAtMissingData();
+		data.failAtWrongDataTypeException = generatedBinder.getFailAtWrongDataTypeException();
+		data.separator = generatedBinder.getSeparator();
+		data.quoting = getQuoting(generatedBinder.getQuoting());
+
+		for (GeneratedBinder.GeneratedField field : generatedBinder.getFields()) {
+			String fieldName = field.getFieldName();
+			data.existingFields.put(field.getReadPosition(), fieldName);
+			data.fieldsDataTypes.put(fieldName, field.getType().getSimpleName());
+			if (StringUtils.trimToNull(field.getDateStringPattern()) != null) {
+				data.dateFormatPattern.put(fieldName, field.getDateStringPattern());
 			}
+			data.requiredFields.put(fieldName, Boolean.valueOf(field.isRequired()));
+			data.trimFieldRequired.put(fieldName, Boolean.valueOf(field.isTrimValue()));
+			if (field.getDictionarySize() > 0) {
+				data.dictionarySizes.put(fieldName, Integer.valueOf(field.getDictionarySize()));
+			}
+			if (field.isInherited()) {
+				data.inheritedFields.add(fieldName);
+			}
+			data.setters.put(fieldName, field.getSetter());
+			data.types.put(fieldName, field.getType());
+		}
+		GeneratedBinder.GeneratedField lineNumber = generatedBinder.getLineNumberField();
+		if (lineNumber != null) {
+			data.lineNumberField = lineNumber.getFieldName();
+			if (lineNumber.isInherited()) {
+				data.inheritedFields.add(data.lineNumberField);
+			}
+			data.setters.put(data.lineNumberField, lineNumber.getSetter());
+			data.types.put(data.lineNumberField, lineNumber.getType());
 		}
-		getInheritedProperties(clazz.getSuperclass());
+		return data;
 	}
 
-	/**
-	 * Checks for binded properties in the parent class that weren't already
-	 * specified, and call itself recursively until there is no more parent
-	 * class.
-	 * 
-	 * @param clazz
-	 */
-	private void getInheritedProperties(Class clazz) {
-		if (clazz != null) {
-			Field[] declaredFields = clazz.getDeclaredFields();
-			if (declaredFields != null && declaredFields.length > 0) {
-				for (Field field : declaredFields) {
-					if (getAnnotation(field)) {
-						inheritedFields.add(field.getName());
-					}
-				}
+	private static String getQuoting(Quoting quotingType) {
+		if (Quoting.SINGLE.equals(quotingType)) {
+			return "'";
+		} else if (Quoting.DOUBLE.equals(quotingType)) {
+			return "\"";
+		}
+		return null;
+	}
+
+	private static Integer calculateFirstColumn(Set<Integer> columnNumbers) {
+		Integer firstColumn = null;
+		for (Integer columnNumber : columnNumbers) {
+			if (firstColumn == null || firstColumn > columnNumber) {
+				firstColumn = columnNumber;
 			}
-			Class superclass = clazz.getSuperclass();
-			getInheritedProperties(superclass);
 		}
+		return firstColumn;
 	}
 
 	/**
-	 * For the received field, checks if there is a binding property
-	 * that indicates whether it's a field to bind to a column, 
-	 * in that case to which column, if required, what kind of data type it is, 
-	 * if it has to be trimmed and other stuffs, all by searching for the
-	 * {@link BindedFieldData} annotation and reading its properties
-	 * 
-	 * @param field
-	 * @return
+	 * Caches the default constructor of the DTO, to create instances without reflective lookups
 	 */
-	private boolean getAnnotation(Field field) {
-		String fieldName = field.getName();
+	private static MethodHandle resolveConstructor(Class<?> clazz) {
 		try {
-			String type = field.getType().getSimpleName();
-			if (this.lineNumberField == null) {
-				LineNumberField lineNumberAnnotation = field
-						.getAnnotation(dlg.delimited.file.parser.annotations.LineNumberField.class);
-				if (lineNumberAnnotation != null) {
-					boolean isLineNumberField = lineNumberAnnotation.setLineNumber();
-					if (isLineNumberField && StringUtils.trimToNull(this.lineNumberField) == null
-							&& ("Integer".equals(type) || "int".equals(type))) {
-						this.lineNumberField = fieldName;
-						return true;
-					}
-				}
-			}
-
-			BindedFieldData annotation = field.getAnnotation(dlg.delimited.file.parser.annotations.BindedFieldData.class);
-			if (annotation != null) {
-				if (!existingFields.containsValue(fieldName)) {
-					int position = annotation.readPosition();
-					if (position > -1) {
-
-						existingFields.put(position, fieldName);
-						fieldsDataTypes.put(fieldName, type);
-						String datepattern = annotation.dateStringPattern();
-						if (StringUtils.trimToNull(datepattern) != null) {
-							this.dateFormatPattern.put(fieldName, datepattern);
-						}
-						boolean required = annotation.required();
-						this.requiredFields.put(fieldName, Boolean.valueOf(required));
+			Constructor<?> init = clazz.getDeclaredConstructor();
+			init.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(init)
+					.asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("No default constructor defined for class " + clazz.getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Default constructor not accessible for class " + clazz.getName(), e);
+		}
+	}
 
-						boolean trimValue = annotation.trimValue();
-						this.trimFieldRequired.put(fieldName, Boolean.valueOf(trimValue));
-					}
-					return true;
-				}
-			}
-		} catch (Exception e) {
+	private static FieldSetter getSetter(Class clazz, Field field) {
+		try {
+			return new MethodHandleFieldSetter(field);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Field " + field.getName() + " can't be set for class " + clazz.getName(), e);
+		}
+	}
 
+	private static boolean[] getMappedColumns(FieldBinding[] columnBindings) {
+		boolean[] mappedColumns = new boolean[columnBindings.length];
+		for (int column = 0; column < columnBindings.length; column++) {
+			mappedColumns[column] = columnBindings[column] != null;
 		}
-		return false;
+		return mappedColumns;
+	}
+
+	/**
+	 * Translates the column number of the mapping into the index of the column in the
+	 * split line
+	 * @param columnNumber
+	 * @return
+	 */
+	private int getColumnIndex(int columnNumber) {
+		return naturalOrder ? columnNumber - 1 : columnNumber;
 	}
 
 	public Boolean getIgnoreFirstLine() {
@@ -279,8 +448,235 @@ public class BindedClass {
 		return clazz;
 	}
 
+	/**
+	 * Returns true if the binding data was built out of a binder generated at compile time
+	 * @return
+	 */
+	public boolean isGenerated() {
+		return generatedBinder != null;
+	}
+
 	public String getQuoting() {
 		return quoting;
 	}
 
+	/**
+	 * Binding plan indexed by the column position in the split line, starting with 0.
+	 * Columns not mapped to any field are null.
+	 * <br>
+	 * The binder is shared by every parse, so a copy is returned: keep it instead of calling
+	 * this method per record, or use {@link #getColumnBinding(int)}.
+	 * @return
+	 */
+	public FieldBinding[] getColumnBindings() {
+		return columnBindings.clone();
+	}
+
+	/**
+	 * Binding of the column position in the split line, starting with 0
+	 * @param column
+	 * @return null if the column isn't mapped to any field
+	 */
+	public FieldBinding getColumnBinding(int column) {
+		return (column < columnBindings.length) ? columnBindings[column] : null;
+	}
+
+	/**
+	 * Flags, indexed by the column position in the split line, of the columns mapped
+	 * to a field. The binder is shared by every parse, so a copy is returned.
+	 * @return
+	 */
+	public boolean[] getMappedColumns() {
+		return mappedColumns.clone();
+	}
+
+	/**
+	 * Indexes, in the split line, of the columns mapped to a field in ascending order
+	 * @return
+	 */
+	public int[] getMappedColumnIndexes() {
+		int count = 0;
+		for (boolean mapped : mappedColumns) {
+			if (mapped) {
+				count++;
+			}
+		}
+		int[] indexes = new int[count];
+		int i = 0;
+		for (int column = 0; column < mappedColumns.length; column++) {
+			if (mappedColumns[column]) {
+				indexes[i++] = column;
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * Index, in the split line, of the last mapped column, records don't need to be
+	 * tokenized after it
+	 * @return
+	 */
+	public int getLastColumnIndex() {
+		return columnBindings.length - 1;
+	}
+
+	/**
+	 * Index, in the split line, of the first mapped column
+	 * @return
+	 */
+	public int getFirstColumnIndex() {
+		return getColumnIndex(firstColumn);
+	}
+
+	public FieldBinding getFieldBinding(String fieldName) {
+		return fieldBindings.get(fieldName);
+	}
+
+	public FieldBinding getLineNumberBinding() {
+		return lineNumberBinding;
+	}
+
+	/**
+	 * Creates a new instance of your DTO through its cached default constructor
+	 * @return
+	 */
+	public Object newInstance() {
+		if (generatedBinder != null) {
+			return generatedBinder.newInstance();
+		}
+		try {
+			return constructor.invokeExact();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException("Error creating instance of " + clazz.getName(), e);
+		}
+	}
+
+	/**
+	 * Binding data as it's read, before being frozen into a {@link BindedClass}
+	 */
+	private static class BindingData {
+
+		private final Map<Integer, String> existingFields = new HashMap<Integer, String>();
+		private final List<String> inheritedFields = new ArrayList<String>();
+		private final Map<String, String> fieldsDataTypes = new HashMap<String, String>();
+		private final Map<String, String> dateFormatPattern = new HashMap<String, String>();
+		private final Map<String, Boolean> requiredFields = new HashMap<String, Boolean>();
+		private final Map<String, Boolean> trimFieldRequired = new HashMap<String, Boolean>();
+		private final Map<String, Integer> dictionarySizes = new HashMap<String, Integer>();
+		private final Map<String, FieldSetter> setters = new HashMap<String, FieldSetter>();
+		private final Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+		private boolean naturalOrder = true;
+		private String lineNumberField = null;
+		private String separator;
+		private String quoting;
+		private boolean ignoreFirstLine = true;
+		private boolean trimFields = false;
+		private boolean throwExceptionAtMissingData = false;
+		private boolean failAtWrongDataTypeException = false;
+
+		/**
+		 * Chechs the fields of you DTO and the data types of each fields
+		 * @param clazz
+		 * @param bindedFields
+		 *            (receives the fields found)
+		 */
+		private void setFieldsDataType(Class clazz, Map<String, Field> bindedFields) {
+			Field[] declaredFields = clazz.getDeclaredFields();
+			if (declaredFields != null && declaredFields.length > 0) {
+				for (Field field : declaredFields) {
+					getAnnotation(field, bindedFields);
+				}
+			}
+			getInheritedProperties(clazz.getSuperclass(), bindedFields);
+		}
+
+		/**
+		 * Checks for binded properties in the parent class that weren't already
+		 * specified, and call itself recursively until there is no more parent
+		 * class.
+		 * 
+		 * @param clazz
+		 * @param bindedFields
+		 */
+		private void getInheritedProperties(Class clazz, Map<String, Field> bindedFields) {
+			if (clazz != null) {
+				Field[] declaredFields = clazz.getDeclaredFields();
+				if (declaredFields != null && declaredFields.length > 0) {
+					for (Field field : declaredFields) {
+						if (getAnnotation(field, bindedFields)) {
+							inheritedFields.add(field.getName());
+						}
+					}
+				}
+				Class superclass = clazz.getSuperclass();
+				getInheritedProperties(superclass, bindedFields);
+			}
+		}
+
+		/**
+		 * For the received field, checks if there is a binding property
+		 * that indicates whether it's a field to bind to a column, 
+		 * in that case to which column, if required, what kind of data type it is, 
+		 * if it has to be trimmed and other stuffs, all by searching for the
+		 * {@link BindedFieldData} annotation and reading its properties
+		 * 
+		 * @param field
+		 * @param bindedFields
+		 *            (receives the fields found)
+		 * @return
+		 */
+		private boolean getAnnotation(Field field, Map<String, Field> bindedFields) {
+			String fieldName = field.getName();
+			try {
+				String type = field.getType().getSimpleName();
+				if (this.lineNumberField == null) {
+					LineNumberField lineNumberAnnotation = field
+							.getAnnotation(dlg.delimited.file.parser.annotations.LineNumberField.class);
+					if (lineNumberAnnotation != null) {
+						boolean isLineNumberField = lineNumberAnnotation.setLineNumber();
+						if (isLineNumberField && StringUtils.trimToNull(this.lineNumberField) == null
+								&& ("Integer".equals(type) || "int".equals(type))) {
+							this.lineNumberField = fieldName;
+							bindedFields.put(fieldName, field);
+							return true;
+						}
+					}
+				}
+
+				BindedFieldData annotation = field.getAnnotation(dlg.delimited.file.parser.annotations.BindedFieldData.class);
+				if (annotation != null) {
+					if (!existingFields.containsValue(fieldName)) {
+						int position = annotation.readPosition();
+						if (position > -1) {
+
+							existingFields.put(position, fieldName);
+							bindedFields.put(fieldName, field);
+							fieldsDataTypes.put(fieldName, type);
+							String datepattern = annotation.dateStringPattern();
+							if (StringUtils.trimToNull(datepattern) != null) {
+								this.dateFormatPattern.put(fieldName, datepattern);
+							}
+							boolean required = annotation.required();
+							this.requiredFields.put(fieldName, Boolean.valueOf(required));
+
+							boolean trimValue = annotation.trimValue();
+							this.trimFieldRequired.put(fieldName, Boolean.valueOf(trimValue));
+
+							if (annotation.dictionary()) {
+								this.dictionarySizes.put(fieldName, Integer.valueOf(annotation.dictionarySize()));
+							}
+						}
+						return true;
+					}
+				}
+			} catch (Exception e) {
+
+			}
+			return false;
+		}
+	}
 }
@@ -1,23 +1,79 @@
 package dlg.delimited.file.parser.binder;
 
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the binding data of the DTOs, read once per class.
+ * <br>
+ * It's built on a {@link ClassValue}, so looking up a binder already read takes no lock and
+ * the binder is kept along with the class: it doesn't prevent the class (or its class loader)
+ * from being unloaded.
+ *
+ * @author dalcantara
+ *
+ */
 @SuppressWarnings("rawtypes")
 public class BindedClasses {
-	
-	private static Map<String, BindedClass> binders = new ConcurrentHashMap<String, BindedClass>();
-	
+
+	private static Logger logger = LoggerFactory.getLogger(BindedClasses.class);
+
+	private static final ClassValue<BindedClass> binders = new ClassValue<BindedClass>() {
+		@Override
+		protected BindedClass computeValue(Class<?> clazz) {
+			GeneratedBinder generatedBinder = getGeneratedBinder(clazz);
+			BindedClass binder = (generatedBinder != null) ? new BindedClass(generatedBinder) : new BindedClass(clazz);
+			readClasses.put(clazz, Boolean.TRUE);
+			return binder;
+		}
+	};
+
+	/**
+	 * Classes whose binder has already been read, weakly referenced
+	 */
+	private static final Map<Class, Boolean> readClasses = Collections.synchronizedMap(new WeakHashMap<Class, Boolean>());
+
 	public static boolean containsClassBinder(Class clazz) {
-		return binders.containsKey(clazz.getName());
+		return readClasses.containsKey(clazz);
 	}
-	
-	public synchronized static BindedClass getBinder(Class clazz) {
-		if (!containsClassBinder(clazz)) {
-			BindedClass binder = new BindedClass(clazz);
-			binders.put(clazz.getName(), binder);
+
+	/**
+	 * Binding data of the class, read the first time it's asked for
+	 * @param clazz
+	 * @return
+	 */
+	public static BindedClass getBinder(Class clazz) {
+		if (clazz == null) {
+			throw new NullPointerException("Invalid parameters: class is mandatory");
+		}
+		return binders.get(clazz);
+	}
+
+	/**
+	 * Looks for the binder generated at compile time for the class, returns null if
+	 * there is none so the binding data is read through reflection
+	 * @param clazz
+	 * @return
+	 */
+	private static GeneratedBinder getGeneratedBinder(Class clazz) {
+		String generatedName = clazz.getName().concat(GeneratedBinder.GENERATED_SUFFIX);
+		try {
+			Class<?> generatedClass = Class.forName(generatedName, true, clazz.getClassLoader());
+			if (GeneratedBinder.class.isAssignableFrom(generatedClass)) {
+				return generatedClass.asSubclass(GeneratedBinder.class).getDeclaredConstructor().newInstance();
+			}
+		} catch (ClassNotFoundException e) {
+			// no generated binder, reflection will be used
+		} catch (Exception e) {
+			logger.warn("Generated binder {} couldn't be used, falling back to reflection", generatedName, e);
+		} catch (LinkageError e) {
+			logger.warn("Generated binder {} couldn't be loaded, falling back to reflection", generatedName, e);
 		}
-		return binders.get(clazz.getName());
+		return null;
 	}
 
 }
@@ -0,0 +1,157 @@
+package dlg.delimited.file.parser.binder;
+
+import dlg.delimited.file.parser.converter.FieldConverter;
+import dlg.delimited.file.parser.converter.FieldConverters;
+
+/**
+ * Binding data of a single field of your DTO: the column it's read from, its data type,
+ * the treatment its value needs, and the resolved converter and setter to assign it.
+ * 
+ * @author dalcantara
+ *
+ */
+public class FieldBinding {
+
+	/**
+	 * Types parsed straight from the characters of the record, primitives and their wrappers
+	 */
+	public enum PrimitiveType {
+		INT, LONG, SHORT, DOUBLE, FLOAT, BOOLEAN;
+
+		/**
+		 * Returns the primitive type of the class (or of the primitive it wraps), null if it isn't one
+		 * @param type
+		 * @return
+		 */
+		public static PrimitiveType of(Class<?> type) {
+			if (type == int.class || type == Integer.class) {
+				return INT;
+			} else if (type == long.class || type == Long.class) {
+				return LONG;
+			} else if (type == short.class || type == Short.class) {
+				return SHORT;
+			} else if (type == double.class || type == Double.class) {
+				return DOUBLE;
+			} else if (type == float.class || type == Float.class) {
+				return FLOAT;
+			} else if (type == boolean.class || type == Boolean.class) {
+				return BOOLEAN;
+			}
+			return null;
+		}
+	}
+
+	private final String fieldName;
+	private final Class<?> type;
+	private final String typeName;
+	private final PrimitiveType primitiveType;
+	private final int column;
+	private final boolean required;
+	private final boolean trimValue;
+	private final String dateFormatPattern;
+	private final int dictionarySize;
+	private final FieldSetter setter;
+	private final FieldConverter<?> converter;
+
+	/**
+	 * 
+	 * @param fieldName
+	 * @param type
+	 * @param column
+	 *            (column index as received in {@link dlg.delimited.file.parser.annotations.BindedFieldData#readPosition()})
+	 * @param required
+	 * @param trimValue
+	 * @param dateFormatPattern
+	 * @param setter
+	 */
+	public FieldBinding(String fieldName, Class<?> type, int column, boolean required, boolean trimValue,
+			String dateFormatPattern, FieldSetter setter) {
+		this(fieldName, type, column, required, trimValue, dateFormatPattern, 0, setter);
+	}
+
+	/**
+	 * 
+	 * @param fieldName
+	 * @param type
+	 * @param column
+	 * @param required
+	 * @param trimValue
+	 * @param dateFormatPattern
+	 * @param dictionarySize
+	 *            (maximum size of the dictionary of its values, 0 for no dictionary. Only String fields use it)
+	 * @param setter
+	 */
+	public FieldBinding(String fieldName, Class<?> type, int column, boolean required, boolean trimValue,
+			String dateFormatPattern, int dictionarySize, FieldSetter setter) {
+		this.fieldName = fieldName;
+		this.type = type;
+		this.typeName = type.getSimpleName();
+		// custom converters (and dates held in longs) take precedence over the built-in parsing of primitives
+		this.primitiveType = (FieldConverters.isRegistered(type) || FieldConverters.isEpochMillis(type, dateFormatPattern))
+				? null : PrimitiveType.of(type);
+		this.converter = FieldConverters.getConverter(type, dateFormatPattern);
+		this.column = column;
+		this.required = required;
+		this.trimValue = trimValue;
+		this.dateFormatPattern = dateFormatPattern;
+		this.dictionarySize = (type == String.class && !FieldConverters.isRegistered(type)) ? Math.max(dictionarySize, 0) : 0;
+		this.setter = setter;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	/**
+	 * Primitive type of the field (wrappers included), null for the rest of types
+	 * @return
+	 */
+	public PrimitiveType getPrimitiveType() {
+		return primitiveType;
+	}
+
+	public int getColumn() {
+		return column;
+	}
+
+	public boolean isRequired() {
+		return required;
+	}
+
+	public boolean isTrimValue() {
+		return trimValue;
+	}
+
+	public String getDateFormatPattern() {
+		return dateFormatPattern;
+	}
+
+	/**
+	 * Maximum size of the dictionary of the values of the field, 0 if it doesn't use one
+	 * @return
+	 */
+	public int getDictionarySize() {
+		return dictionarySize;
+	}
+
+	public FieldSetter getSetter() {
+		return setter;
+	}
+
+	/**
+	 * Converter of the text of the column into the value of the field, null if the type is not supported
+	 * @return
+	 */
+	public FieldConverter<?> getConverter() {
+		return converter;
+	}
+
+}
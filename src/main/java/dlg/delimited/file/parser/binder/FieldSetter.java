@@ -0,0 +1,81 @@
+package dlg.delimited.file.parser.binder;
+
+/**
+ * Assigns a value to a field of a DTO instance, resolved once when the
+ * {@link BindedClass} is built so there is no reflective lookup per row.
+ * <br>
+ * Primitive values have their own typed methods, so they can be assigned without boxing.
+ * 
+ * @author dalcantara
+ *
+ */
+public interface FieldSetter {
+
+	/**
+	 * Sets the value into the field of the received DTO instance
+	 * @param target
+	 * @param value
+	 */
+	void set(Object target, Object value);
+
+	/**
+	 * Sets a int into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setInt(Object target, int value) {
+		set(target, Integer.valueOf(value));
+	}
+
+	/**
+	 * Sets a long into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setLong(Object target, long value) {
+		set(target, Long.valueOf(value));
+	}
+
+	/**
+	 * Sets a short into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setShort(Object target, short value) {
+		set(target, Short.valueOf(value));
+	}
+
+	/**
+	 * Sets a double into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setDouble(Object target, double value) {
+		set(target, Double.valueOf(value));
+	}
+
+	/**
+	 * Sets a float into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setFloat(Object target, float value) {
+		set(target, Float.valueOf(value));
+	}
+
+	/**
+	 * Sets a boolean into the field, implementations override it to avoid boxing the value
+	 * when the field is a primitive
+	 * @param target
+	 * @param value
+	 */
+	default void setBoolean(Object target, boolean value) {
+		set(target, Boolean.valueOf(value));
+	}
+
+}
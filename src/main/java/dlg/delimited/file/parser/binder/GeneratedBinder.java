@@ -0,0 +1,196 @@
+package dlg.delimited.file.parser.binder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import dlg.delimited.file.parser.annotations.BinderClassData.Quoting;
+
+/**
+ * Base class of the binders generated at compile time by the dlg-parser annotation
+ * processor. A generated binder holds everything the annotations of your DTO say,
+ * plus plain java code to create instances and to set every binded field, so neither
+ * the scan of the DTO nor the binding of lines needs reflection.
+ * <br>
+ * The generated class is named after your DTO with the {@link #GENERATED_SUFFIX} suffix
+ * (i.e. com.acme.Order_DlgBinder), and it's picked up by {@link BindedClasses#getBinder(Class)}
+ * when present in the classpath.
+ *
+ * @author dalcantara
+ *
+ */
+public abstract class GeneratedBinder {
+
+	/**
+	 * Suffix appended to the binary name of your DTO to name its generated binder
+	 */
+	public static final String GENERATED_SUFFIX = "_DlgBinder";
+
+	private final Class<?> bindedClass;
+	private final Quoting quoting;
+	private final String separator;
+	private final boolean ignoreFirstRow;
+	private final boolean naturalOrder;
+	private final boolean trimValue;
+	private final boolean throwExceptionAtMissingData;
+	private final boolean failAtWrongDataTypeException;
+
+	private final List<GeneratedField> fields = new ArrayList<GeneratedField>();
+	private GeneratedField lineNumberField;
+
+	/**
+	 * Receives the values of the {@link dlg.delimited.file.parser.annotations.BinderClassData}
+	 * annotation of the DTO
+	 */
+	protected GeneratedBinder(Class<?> bindedClass, Quoting quoting, String separator, boolean ignoreFirstRow,
+			boolean naturalOrder, boolean trimValue, boolean throwExceptionAtMissingData,
+			boolean failAtWrongDataTypeException) {
+		this.bindedClass = bindedClass;
+		this.quoting = quoting;
+		this.separator = separator;
+		this.ignoreFirstRow = ignoreFirstRow;
+		this.naturalOrder = naturalOrder;
+		this.trimValue = trimValue;
+		this.throwExceptionAtMissingData = throwExceptionAtMissingData;
+		this.failAtWrongDataTypeException = failAtWrongDataTypeException;
+	}
+
+	/**
+	 * Creates a new instance of the DTO
+	 * @return
+	 */
+	public abstract Object newInstance();
+
+	/**
+	 * Registers a field mapped to a column, with the values of its
+	 * {@link dlg.delimited.file.parser.annotations.BindedFieldData} annotation
+	 */
+	protected void addField(int readPosition, String fieldName, Class<?> type, boolean required, boolean trimValue,
+			String dateStringPattern, boolean inherited, FieldSetter setter) {
+		addField(readPosition, fieldName, type, required, trimValue, dateStringPattern, 0, inherited, setter);
+	}
+
+	/**
+	 * Registers a field mapped to a column, along with the size of its dictionary (0 if it
+	 * doesn't use one)
+	 */
+	protected void addField(int readPosition, String fieldName, Class<?> type, boolean required, boolean trimValue,
+			String dateStringPattern, int dictionarySize, boolean inherited, FieldSetter setter) {
+		fields.add(new GeneratedField(readPosition, fieldName, type, required, trimValue, dateStringPattern,
+				dictionarySize, inherited, setter));
+	}
+
+	/**
+	 * Registers the field annotated with {@link dlg.delimited.file.parser.annotations.LineNumberField}
+	 */
+	protected void setLineNumberField(String fieldName, Class<?> type, boolean inherited, FieldSetter setter) {
+		lineNumberField = new GeneratedField(-1, fieldName, type, false, false, null, 0, inherited, setter);
+	}
+
+	public Class<?> getBindedClass() {
+		return bindedClass;
+	}
+
+	public Quoting getQuoting() {
+		return quoting;
+	}
+
+	public String getSeparator() {
+		return separator;
+	}
+
+	public boolean getIgnoreFirstRow() {
+		return ignoreFirstRow;
+	}
+
+	public boolean getNaturalOrder() {
+		return naturalOrder;
+	}
+
+	public boolean getTrimValue() {
+		return trimValue;
+	}
+
+	public boolean getThrowExceptionAtMissingData() {
+		return throwExceptionAtMissingData;
+	}
+
+	public boolean getFailAtWrongDataTypeException() {
+		return failAtWrongDataTypeException;
+	}
+
+	public List<GeneratedField> getFields() {
+		return Collections.unmodifiableList(fields);
+	}
+
+	public GeneratedField getLineNumberField() {
+		return lineNumberField;
+	}
+
+	/**
+	 * Binding data of a field, as it was read from its annotations at compile time
+	 */
+	public static class GeneratedField {
+
+		private final int readPosition;
+		private final String fieldName;
+		private final Class<?> type;
+		private final boolean required;
+		private final boolean trimValue;
+		private final String dateStringPattern;
+		private final int dictionarySize;
+		private final boolean inherited;
+		private final FieldSetter setter;
+
+		GeneratedField(int readPosition, String fieldName, Class<?> type, boolean required, boolean trimValue,
+				String dateStringPattern, int dictionarySize, boolean inherited, FieldSetter setter) {
+			this.readPosition = readPosition;
+			this.fieldName = fieldName;
+			this.type = type;
+			this.required = required;
+			this.trimValue = trimValue;
+			this.dateStringPattern = dateStringPattern;
+			this.dictionarySize = dictionarySize;
+			this.inherited = inherited;
+			this.setter = setter;
+		}
+
+		public int getReadPosition() {
+			return readPosition;
+		}
+
+		public String getFieldName() {
+			return fieldName;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public boolean isRequired() {
+			return required;
+		}
+
+		public boolean isTrimValue() {
+			return trimValue;
+		}
+
+		public String getDateStringPattern() {
+			return dateStringPattern;
+		}
+
+		public int getDictionarySize() {
+			return dictionarySize;
+		}
+
+		public boolean isInherited() {
+			return inherited;
+		}
+
+		public FieldSetter getSetter() {
+			return setter;
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package dlg.delimited.file.parser.binder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * {@link FieldSetter} backed by a cached {@link MethodHandle}, works for private
+ * and inherited fields as well.
+ * 
+ * @author dalcantara
+ *
+ */
+class MethodHandleFieldSetter implements FieldSetter {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final MethodHandle setter;
+	// typed (without boxing) setter of primitive fields, null for the rest
+	private final MethodHandle primitiveSetter;
+	private final Class<?> primitiveType;
+
+	MethodHandleFieldSetter(Field field) throws IllegalAccessException {
+		field.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+		this.setter = handle.asType(SETTER_TYPE);
+		if (field.getType().isPrimitive()) {
+			this.primitiveType = field.getType();
+			this.primitiveSetter = handle.asType(MethodType.methodType(void.class, Object.class, primitiveType));
+		} else {
+			this.primitiveType = null;
+			this.primitiveSetter = null;
+		}
+	}
+
+	@Override
+	public void set(Object target, Object value) {
+		try {
+			setter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setInt(Object target, int value) {
+		if (primitiveType != int.class) {
+			set(target, Integer.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		if (primitiveType != long.class) {
+			set(target, Long.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setShort(Object target, short value) {
+		if (primitiveType != short.class) {
+			set(target, Short.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		if (primitiveType != double.class) {
+			set(target, Double.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setFloat(Object target, float value) {
+		if (primitiveType != float.class) {
+			set(target, Float.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setBoolean(Object target, boolean value) {
+		if (primitiveType != boolean.class) {
+			set(target, Boolean.valueOf(value));
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(target, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	private static RuntimeException rethrow(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+
+}
@@ -0,0 +1,51 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Column of boolean fields (and their wrapper), stored as a bitmap
+ *
+ * @author dalcantara
+ *
+ */
+public class BooleanColumn extends Column {
+
+	private long[] values;
+
+	BooleanColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.values = new long[(getCapacity() + 63) >>> 6];
+	}
+
+	/**
+	 * Value of the row, false for null rows
+	 * @param row
+	 * @return
+	 */
+	public boolean get(int row) {
+		checkRow(row);
+		return (values[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Bitmap of the values, the bit <code>row % 64</code> of the word <code>row / 64</code>
+	 * is set for every true row
+	 * @return
+	 */
+	public long[] getValues() {
+		return values;
+	}
+
+	void add(boolean value) {
+		int row = nextRow();
+		if (value) {
+			values[row >>> 6] |= 1L << row;
+		}
+	}
+
+	@Override
+	void grow(int capacity) {
+		values = Arrays.copyOf(values, (capacity + 63) >>> 6);
+	}
+
+}
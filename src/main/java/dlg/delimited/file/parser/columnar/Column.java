@@ -0,0 +1,125 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Values of a binded field along all the rows of a {@link ColumnBatch}, stored in a
+ * contiguous array of its type plus a bitmap of the rows with no value: empty columns,
+ * columns missing in the line, and values that couldn't be converted.
+ *
+ * @author dalcantara
+ *
+ */
+public abstract class Column {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final String fieldName;
+	private long[] nulls;
+	private int nullCount = 0;
+	private int rowCount = 0;
+	private int capacity;
+
+	Column(String fieldName, int capacity) {
+		this.fieldName = fieldName;
+		this.capacity = Math.max(capacity, INITIAL_CAPACITY);
+		this.nulls = new long[getBitmapLength(this.capacity)];
+	}
+
+	/**
+	 * Name of the field of the DTO the column is binded to
+	 * @return
+	 */
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns true if the row has no value
+	 * @param row
+	 * @return
+	 */
+	public boolean isNull(int row) {
+		checkRow(row);
+		return (nulls[row >>> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Amount of rows with no value
+	 * @return
+	 */
+	public int getNullCount() {
+		return nullCount;
+	}
+
+	/**
+	 * Bitmap of the rows with no value, the bit <code>row % 64</code> of the word
+	 * <code>row / 64</code> is set for every null row
+	 * @return
+	 */
+	public long[] getNullBitmap() {
+		return nulls;
+	}
+
+	/**
+	 * Amount of rows the arrays can hold
+	 * @return
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Adds a row with no value
+	 */
+	void addNull() {
+		int row = nextRow();
+		nulls[row >>> 6] |= 1L << row;
+		nullCount++;
+	}
+
+	/**
+	 * Reserves the next row, growing the arrays when they are full
+	 * @return index of the row
+	 */
+	int nextRow() {
+		if (rowCount == capacity) {
+			capacity = Math.max(capacity * 2, INITIAL_CAPACITY);
+			nulls = Arrays.copyOf(nulls, getBitmapLength(capacity));
+			grow(capacity);
+		}
+		return rowCount++;
+	}
+
+	/**
+	 * Shrinks the arrays to the amount of rows, once the batch is complete
+	 */
+	void trim() {
+		if (capacity != rowCount) {
+			capacity = rowCount;
+			nulls = Arrays.copyOf(nulls, getBitmapLength(capacity));
+			grow(capacity);
+		}
+	}
+
+	/**
+	 * Resizes the values of the column to the received capacity
+	 * @param capacity
+	 */
+	abstract void grow(int capacity);
+
+	void checkRow(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of " + rowCount + " rows");
+		}
+	}
+
+	private static int getBitmapLength(int capacity) {
+		return (capacity + 63) >>> 6;
+	}
+
+}
@@ -0,0 +1,191 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.FieldConverters;
+
+/**
+ * A batch of consecutive rows of a delimited file, stored by column instead of as DTOs:
+ * a {@link Column} for every binded field of the DTO, along with the line number of
+ * every row.
+ * <br>
+ * Fields are stored accordingly to their type: <br>
+ * int, short: {@link IntColumn} <br>
+ * long, Date and long fields holding dates (milliseconds since the epoch): {@link LongColumn} <br>
+ * double, float: {@link DoubleColumn} <br>
+ * boolean: {@link BooleanColumn} <br>
+ * String: {@link StringColumn} (dictionary encoded) <br>
+ * any other type: {@link ObjectColumn}
+ *
+ * @author dalcantara
+ *
+ */
+public class ColumnBatch {
+
+	private final List<Column> columns = new ArrayList<Column>();
+	private final Map<String, Column> columnsByField = new HashMap<String, Column>();
+
+	/**
+	 * Columns indexed by their position in the record, null for columns that aren't binded
+	 */
+	private final Column[] recordColumns;
+
+	private int[] lineNumbers;
+	private int rowCount = 0;
+
+	/**
+	 *
+	 * @param columnBindings
+	 *            (binding plan of the DTO, indexed by position in the record)
+	 * @param capacity
+	 *            (expected amount of rows)
+	 */
+	ColumnBatch(FieldBinding[] columnBindings, int capacity) {
+		this.recordColumns = new Column[columnBindings.length];
+		this.lineNumbers = new int[Math.max(capacity, 1)];
+		for (int i = 0; i < columnBindings.length; i++) {
+			FieldBinding binding = columnBindings[i];
+			if (binding != null && binding.getConverter() != null) {
+				Column column = newColumn(binding, capacity);
+				recordColumns[i] = column;
+				columns.add(column);
+				columnsByField.put(binding.getFieldName(), column);
+			}
+		}
+	}
+
+	private static Column newColumn(FieldBinding binding, int capacity) {
+		String fieldName = binding.getFieldName();
+		Class<?> type = binding.getType();
+		if (binding.getPrimitiveType() != null) {
+			switch (binding.getPrimitiveType()) {
+			case INT:
+			case SHORT:
+				return new IntColumn(fieldName, capacity);
+			case LONG:
+				return new LongColumn(fieldName, capacity);
+			case DOUBLE:
+			case FLOAT:
+				return new DoubleColumn(fieldName, capacity);
+			case BOOLEAN:
+				return new BooleanColumn(fieldName, capacity);
+			}
+		}
+		if (FieldConverters.isRegistered(type)) {
+			return new ObjectColumn(fieldName, capacity);
+		}
+		if (type == String.class) {
+			return new StringColumn(fieldName, capacity);
+		}
+		if (type == Date.class || type == long.class || type == Long.class) {
+			return new LongColumn(fieldName, capacity);
+		}
+		return new ObjectColumn(fieldName, capacity);
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Columns of the binded fields, in the order of the record
+	 * @return
+	 */
+	public List<Column> getColumns() {
+		return Collections.unmodifiableList(columns);
+	}
+
+	/**
+	 * Column of the field, null if the field isn't binded
+	 * @param fieldName
+	 * @return
+	 */
+	public Column getColumn(String fieldName) {
+		return columnsByField.get(fieldName);
+	}
+
+	public IntColumn getIntColumn(String fieldName) {
+		return getColumn(fieldName, IntColumn.class);
+	}
+
+	public LongColumn getLongColumn(String fieldName) {
+		return getColumn(fieldName, LongColumn.class);
+	}
+
+	public DoubleColumn getDoubleColumn(String fieldName) {
+		return getColumn(fieldName, DoubleColumn.class);
+	}
+
+	public BooleanColumn getBooleanColumn(String fieldName) {
+		return getColumn(fieldName, BooleanColumn.class);
+	}
+
+	public StringColumn getStringColumn(String fieldName) {
+		return getColumn(fieldName, StringColumn.class);
+	}
+
+	public ObjectColumn getObjectColumn(String fieldName) {
+		return getColumn(fieldName, ObjectColumn.class);
+	}
+
+	private <C extends Column> C getColumn(String fieldName, Class<C> columnType) {
+		Column column = columnsByField.get(fieldName);
+		if (column == null) {
+			throw new IllegalArgumentException("No column for field " + fieldName);
+		}
+		if (!columnType.isInstance(column)) {
+			throw new IllegalArgumentException("Column of field " + fieldName + " is a " + column.getClass().getSimpleName());
+		}
+		return columnType.cast(column);
+	}
+
+	/**
+	 * Physical line number in which every row starts
+	 * @return
+	 */
+	public int[] getLineNumbers() {
+		return lineNumbers;
+	}
+
+	public int getLineNumber(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of " + rowCount + " rows");
+		}
+		return lineNumbers[row];
+	}
+
+	Column[] getRecordColumns() {
+		return recordColumns;
+	}
+
+	/**
+	 * Adds a row, its values have to be added to every column afterwards
+	 * @param lineNumber
+	 */
+	void addRow(int lineNumber) {
+		if (rowCount == lineNumbers.length) {
+			lineNumbers = Arrays.copyOf(lineNumbers, rowCount * 2);
+		}
+		lineNumbers[rowCount++] = lineNumber;
+	}
+
+	/**
+	 * Shrinks the arrays of every column to the amount of rows
+	 */
+	void complete() {
+		if (lineNumbers.length != rowCount) {
+			lineNumbers = Arrays.copyOf(lineNumbers, rowCount);
+		}
+		for (Column column : columns) {
+			column.trim();
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import dlg.delimited.file.parser.ParseErrorCollector;
+import dlg.delimited.file.parser.ParseMetrics;
+import dlg.delimited.file.parser.ParseStatistics;
+import dlg.delimited.file.parser.RecordCursor;
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.CharRangeParser;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+
+/**
+ * Lazy iterator over the content of a delimited file in batches of rows stored by column
+ * (see {@link ColumnBatch}), driven by the binding data of your DTO but without creating
+ * any instance of it. Primitive columns are parsed straight from the characters of the record
+ * into arrays of their type.
+ * <br>
+ * It keeps the same rules than {@link dlg.delimited.file.parser.TsvRecordIterator}: first row
+ * ignored when configured, blank lines skipped, and an {@link InvalidFieldValueException}
+ * interrupting the whole process when the DTO says so. Otherwise wrong values are logged
+ * and stored as nulls (or reported to the {@link ParseErrorCollector} of the parse, if any).
+ * Records rejected by the filter of the parse, if any, are skipped before parsing any of their
+ * columns.
+ * <br>
+ * When the parse has {@link ParseMetrics}, the iterator counts in them until it's closed.
+ * Sampled records time their tokenizing and the conversion of their columns.
+ * <br>
+ * The reader (or file) is closed once the content is exhausted, when the process is
+ * interrupted, or when {@link #close()} is called.
+ * <br>
+ * Instances are created by {@link dlg.delimited.file.parser.TsvParser#iterateColumns(java.nio.file.Path, Class, int)}
+ * and its overloads.
+ *
+ * @author dalcantara
+ *
+ */
+public class ColumnBatchIterator implements Iterator<ColumnBatch>, Closeable {
+
+	private final RecordCursor cursor;
+	private final BindedClass bindedClass;
+	private final FieldBinding[] columnBindings;
+	private final int batchSize;
+
+	private ColumnBatch nextBatch = null;
+	private boolean closed = false;
+
+	/**
+	 * The parser lives in another package, so the constructor is public, but the cursor can
+	 * only be created by the parser
+	 * @param cursor
+	 *            (records of the parse, closed along with the iterator)
+	 * @param batchSize
+	 *            (maximum amount of rows of every batch)
+	 */
+	public ColumnBatchIterator(RecordCursor cursor, int batchSize) {
+		if (cursor == null) {
+			throw new NullPointerException("Invalid parameters: cursor is mandatory");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size has to be greater than 0");
+		}
+		this.cursor = cursor;
+		this.bindedClass = cursor.getBindedClass();
+		this.columnBindings = bindedClass.getColumnBindings();
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextBatch == null && !closed) {
+			nextBatch = readNext();
+		}
+		return nextBatch != null;
+	}
+
+	@Override
+	public ColumnBatch next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ColumnBatch batch = nextBatch;
+		nextBatch = null;
+		return batch;
+	}
+
+	/**
+	 * Reads records until the batch is full or the content is over
+	 * @return the batch or null if there are no more records
+	 */
+	private ColumnBatch readNext() {
+		ColumnBatch batch = new ColumnBatch(columnBindings, Math.min(batchSize, 64 * 1024));
+		try {
+			while (batch.getRowCount() < batchSize && cursor.next()) {
+				addRecord(batch);
+				cursor.converted();
+				cursor.kept();
+				// rows with errors are kept, with nulls in the wrong columns
+				cursor.reject();
+			}
+		} catch (IOException e) {
+			close();
+			throw new UncheckedIOException("Error reading content of file", e);
+		} catch (RuntimeException e) {
+			// wrong value interrupting the process, error budget exceeded or the quarantine couldn't be written
+			close();
+			throw e;
+		}
+		if (batch.getRowCount() == 0) {
+			close();
+			return null;
+		}
+		batch.complete();
+		return batch;
+	}
+
+	private void addRecord(ColumnBatch batch) throws InvalidFieldValueException {
+		ColumnBuffer record = cursor.getRecord();
+		batch.addRow(record.getLineNumber());
+		Column[] columns = batch.getRecordColumns();
+		for (int inx = 0; inx < columns.length; inx++) {
+			Column column = columns[inx];
+			if (column != null) {
+				if (inx < bindedClass.getFirstColumnIndex() || record.isEmpty(inx)) {
+					column.addNull();
+				} else {
+					addValue(record, column, inx, columnBindings[inx]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Parses the value of the column of the record into the column of the batch, wrong values
+	 * are added as nulls unless the DTO says the process has to be interrupted
+	 */
+	private void addValue(ColumnBuffer record, Column column, int inx, FieldBinding binding)
+			throws InvalidFieldValueException {
+		if (binding.getPrimitiveType() != null) {
+			if (cursor.parsePrimitive(inx, binding)) {
+				addPrimitive(column, binding, cursor.getConversion());
+			} else {
+				column.addNull();
+			}
+		} else if (column instanceof StringColumn) {
+			if (record.hasEscapedQuotes(inx)) {
+				String value = record.getString(inx);
+				char[] chars = (binding.isTrimValue() ? value.trim() : value).toCharArray();
+				((StringColumn) column).add(chars, 0, chars.length);
+			} else {
+				char[] chars = record.getChars();
+				int start = record.getStart(inx);
+				int end = record.getEnd(inx);
+				if (binding.isTrimValue()) {
+					start = CharRangeParser.trimStart(chars, start, end);
+					end = CharRangeParser.trimEnd(chars, start, end);
+				}
+				((StringColumn) column).add(chars, start, end);
+			}
+		} else {
+			addObject(column, cursor.getValue(inx, binding));
+		}
+	}
+
+	/**
+	 * Adds the primitive value held by the conversion result
+	 */
+	private void addPrimitive(Column column, FieldBinding binding, ConversionResult conversion) {
+		switch (binding.getPrimitiveType()) {
+		case INT:
+		case SHORT:
+			((IntColumn) column).add((int) conversion.getLong());
+			break;
+		case LONG:
+			((LongColumn) column).add(conversion.getLong());
+			break;
+		case DOUBLE:
+		case FLOAT:
+			((DoubleColumn) column).add(conversion.getDouble());
+			break;
+		case BOOLEAN:
+			((BooleanColumn) column).add(conversion.getLong() == 1);
+			break;
+		}
+	}
+
+	private void addObject(Column column, Object value) {
+		if (value == null) {
+			column.addNull();
+		} else if (column instanceof LongColumn) {
+			((LongColumn) column).add((value instanceof Date) ? ((Date) value).getTime() : ((Number) value).longValue());
+		} else {
+			((ObjectColumn) column).add(value);
+		}
+	}
+
+	/**
+	 * Counters of the records read so far
+	 * @return
+	 */
+	public ParseStatistics getStatistics() {
+		return cursor.getStatistics();
+	}
+
+	/**
+	 * Amount of input consumed so far, line breaks included: characters when reading
+	 * from a reader, bytes when reading a file
+	 * @return
+	 */
+	public long getInputRead() {
+		return cursor.getInputRead();
+	}
+
+	/**
+	 * Closes the underlying reader, no more batches will be returned after it
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			cursor.close();
+		}
+	}
+
+}
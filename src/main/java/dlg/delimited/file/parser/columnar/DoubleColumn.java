@@ -0,0 +1,48 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Column of double and float fields (and their wrappers)
+ *
+ * @author dalcantara
+ *
+ */
+public class DoubleColumn extends Column {
+
+	private double[] values;
+
+	DoubleColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.values = new double[getCapacity()];
+	}
+
+	/**
+	 * Value of the row, 0 for null rows
+	 * @param row
+	 * @return
+	 */
+	public double get(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	/**
+	 * Values of all the rows, 0 for null rows
+	 * @return
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	void add(double value) {
+		int row = nextRow();
+		values[row] = value;
+	}
+
+	@Override
+	void grow(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+}
@@ -0,0 +1,48 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Column of int and short fields (and their wrappers)
+ *
+ * @author dalcantara
+ *
+ */
+public class IntColumn extends Column {
+
+	private int[] values;
+
+	IntColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.values = new int[getCapacity()];
+	}
+
+	/**
+	 * Value of the row, 0 for null rows
+	 * @param row
+	 * @return
+	 */
+	public int get(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	/**
+	 * Values of all the rows, 0 for null rows
+	 * @return
+	 */
+	public int[] getValues() {
+		return values;
+	}
+
+	void add(int value) {
+		int row = nextRow();
+		values[row] = value;
+	}
+
+	@Override
+	void grow(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+}
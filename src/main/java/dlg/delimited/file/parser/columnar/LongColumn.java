@@ -0,0 +1,49 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Column of long fields (and their wrapper), Date fields and long fields holding dates
+ * are stored as milliseconds since the epoch
+ *
+ * @author dalcantara
+ *
+ */
+public class LongColumn extends Column {
+
+	private long[] values;
+
+	LongColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.values = new long[getCapacity()];
+	}
+
+	/**
+	 * Value of the row, 0 for null rows
+	 * @param row
+	 * @return
+	 */
+	public long get(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	/**
+	 * Values of all the rows, 0 for null rows
+	 * @return
+	 */
+	public long[] getValues() {
+		return values;
+	}
+
+	void add(long value) {
+		int row = nextRow();
+		values[row] = value;
+	}
+
+	@Override
+	void grow(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+}
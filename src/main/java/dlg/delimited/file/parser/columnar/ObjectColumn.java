@@ -0,0 +1,45 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Column of the fields of any other type (enums, BigDecimal, java.time types...), holding
+ * the values as converted for the DTO
+ *
+ * @author dalcantara
+ *
+ */
+public class ObjectColumn extends Column {
+
+	private Object[] values;
+
+	ObjectColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.values = new Object[getCapacity()];
+	}
+
+	/**
+	 * Value of the row, null for null rows
+	 * @param row
+	 * @return
+	 */
+	public Object get(int row) {
+		checkRow(row);
+		return values[row];
+	}
+
+	public Object[] getValues() {
+		return values;
+	}
+
+	void add(Object value) {
+		int row = nextRow();
+		values[row] = value;
+	}
+
+	@Override
+	void grow(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+}
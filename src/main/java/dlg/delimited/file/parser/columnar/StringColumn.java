@@ -0,0 +1,159 @@
+package dlg.delimited.file.parser.columnar;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary encoded column of String fields: every distinct value of the batch is kept
+ * once in the dictionary, and the rows hold the code (index in the dictionary) of their
+ * value. Values are encoded straight from the characters of the record, so a String is
+ * only created the first time a value is found.
+ *
+ * @author dalcantara
+ *
+ */
+public class StringColumn extends Column {
+
+	private static final int INITIAL_DICTIONARY_SIZE = 64;
+
+	private int[] codes;
+
+	private String[] dictionary = new String[INITIAL_DICTIONARY_SIZE];
+	private int[] hashes = new int[INITIAL_DICTIONARY_SIZE];
+	private int dictionarySize = 0;
+
+	// open addressing table of (code + 1), 0 for empty slots
+	private int[] table = new int[INITIAL_DICTIONARY_SIZE * 2];
+
+	StringColumn(String fieldName, int capacity) {
+		super(fieldName, capacity);
+		this.codes = new int[getCapacity()];
+	}
+
+	/**
+	 * Value of the row, null for null rows
+	 * @param row
+	 * @return
+	 */
+	public String get(int row) {
+		checkRow(row);
+		return isNull(row) ? null : dictionary[codes[row]];
+	}
+
+	/**
+	 * Code of the value of the row in the dictionary, meaningless for null rows
+	 * @param row
+	 * @return
+	 */
+	public int getCode(int row) {
+		checkRow(row);
+		return codes[row];
+	}
+
+	/**
+	 * Codes of the values of all the rows
+	 * @return
+	 */
+	public int[] getCodes() {
+		return codes;
+	}
+
+	/**
+	 * Distinct values of the column, indexed by code
+	 * @return
+	 */
+	public String[] getDictionary() {
+		return Arrays.copyOf(dictionary, dictionarySize);
+	}
+
+	public int getDictionarySize() {
+		return dictionarySize;
+	}
+
+	/**
+	 * Value of the code
+	 * @param code
+	 * @return
+	 */
+	public String getDictionaryValue(int code) {
+		if (code < 0 || code >= dictionarySize) {
+			throw new IndexOutOfBoundsException("Code " + code + " out of " + dictionarySize + " values");
+		}
+		return dictionary[code];
+	}
+
+	void add(char[] chars, int start, int end) {
+		int code = encode(chars, start, end);
+		int row = nextRow();
+		codes[row] = code;
+	}
+
+	/**
+	 * Returns the code of the value, adding it to the dictionary if it's new
+	 */
+	private int encode(char[] chars, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int mask = table.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			int code = entry - 1;
+			if (hashes[code] == hash && matches(dictionary[code], chars, start, end)) {
+				return code;
+			}
+			slot = (slot + 1) & mask;
+		}
+		int code = dictionarySize++;
+		if (code == dictionary.length) {
+			dictionary = Arrays.copyOf(dictionary, code * 2);
+			hashes = Arrays.copyOf(hashes, code * 2);
+		}
+		dictionary[code] = new String(chars, start, end - start);
+		hashes[code] = hash;
+		table[slot] = code + 1;
+		if (dictionarySize * 2 > table.length) {
+			rehash();
+		}
+		return code;
+	}
+
+	private void rehash() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int code = 0; code < dictionarySize; code++) {
+			int hash = hashes[code];
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = code + 1;
+		}
+	}
+
+	private static boolean matches(String value, char[] chars, int start, int end) {
+		if (value.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i - start) != chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	void trim() {
+		super.trim();
+		// the lookup table is only needed while encoding
+		table = null;
+	}
+
+	@Override
+	void grow(int capacity) {
+		codes = Arrays.copyOf(codes, capacity);
+	}
+
+}
@@ -0,0 +1,696 @@
+package dlg.delimited.file.parser.converter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeParserBucket;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.util.DateFormatUtils;
+
+/**
+ * Converters of the types supported out of the box. Numbers ignore thousands separators (,).
+ *
+ * @author dalcantara
+ *
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+class BuiltInConverters {
+
+	private static final String ZONE_LETTERS = "VzOXxZ";
+
+	private static final Map<Class<?>, FieldConverter<?>> converters = new HashMap<Class<?>, FieldConverter<?>>();
+
+	static {
+		converters.put(String.class, new ValidatingConverter<String>() {
+			@Override
+			public String convert(String value) {
+				return value;
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				result.setValue(value);
+				return ConversionResult.VALID;
+			}
+		});
+		FieldConverter<Integer> integerConverter = new ValidatingConverter<Integer>() {
+			@Override
+			public Integer convert(String value) {
+				return Integer.valueOf(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseInt(chars, 0, chars.length, (char) 0, result);
+				result.setValue((status == ConversionResult.VALID) ? Integer.valueOf((int) result.getLong()) : null);
+				return status;
+			}
+		};
+		converters.put(int.class, integerConverter);
+		converters.put(Integer.class, integerConverter);
+		FieldConverter<Long> longConverter = new ValidatingConverter<Long>() {
+			@Override
+			public Long convert(String value) {
+				return Long.valueOf(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseLong(chars, 0, chars.length, (char) 0, result);
+				result.setValue((status == ConversionResult.VALID) ? Long.valueOf(result.getLong()) : null);
+				return status;
+			}
+		};
+		converters.put(long.class, longConverter);
+		converters.put(Long.class, longConverter);
+		FieldConverter<Short> shortConverter = new ValidatingConverter<Short>() {
+			@Override
+			public Short convert(String value) {
+				return Short.valueOf(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseShort(chars, 0, chars.length, (char) 0, result);
+				result.setValue((status == ConversionResult.VALID) ? Short.valueOf((short) result.getLong()) : null);
+				return status;
+			}
+		};
+		converters.put(short.class, shortConverter);
+		converters.put(Short.class, shortConverter);
+		FieldConverter<Double> doubleConverter = new ValidatingConverter<Double>() {
+			@Override
+			public Double convert(String value) {
+				return Double.valueOf(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseDouble(chars, 0, chars.length, (char) 0, result);
+				result.setValue((status == ConversionResult.VALID) ? Double.valueOf(result.getDouble()) : null);
+				return status;
+			}
+		};
+		converters.put(double.class, doubleConverter);
+		converters.put(Double.class, doubleConverter);
+		FieldConverter<Float> floatConverter = new ValidatingConverter<Float>() {
+			@Override
+			public Float convert(String value) {
+				return Float.valueOf(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseFloat(chars, 0, chars.length, (char) 0, result);
+				result.setValue((status == ConversionResult.VALID) ? Float.valueOf((float) result.getDouble()) : null);
+				return status;
+			}
+		};
+		converters.put(float.class, floatConverter);
+		converters.put(Float.class, floatConverter);
+		FieldConverter<Boolean> booleanConverter = new ValidatingConverter<Boolean>() {
+			@Override
+			public Boolean convert(String value) {
+				char[] chars = value.toCharArray();
+				return Boolean.valueOf(CharRangeParser.parseBoolean(chars, 0, chars.length));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				char[] chars = value.toCharArray();
+				int status = CharRangeParser.parseBoolean(chars, 0, chars.length, result);
+				result.setValue((status == ConversionResult.VALID) ? Boolean.valueOf(result.getLong() == 1) : null);
+				return status;
+			}
+		};
+		converters.put(boolean.class, booleanConverter);
+		converters.put(Boolean.class, booleanConverter);
+		converters.put(BigDecimal.class, new ValidatingConverter<BigDecimal>() {
+			@Override
+			public BigDecimal convert(String value) {
+				return new BigDecimal(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				String number = removeThousandsSeparators(value);
+				int status = getBigDecimalStatus(number);
+				result.setValue((status == ConversionResult.VALID) ? new BigDecimal(number) : null);
+				return status;
+			}
+		});
+		converters.put(BigInteger.class, new ValidatingConverter<BigInteger>() {
+			@Override
+			public BigInteger convert(String value) {
+				return new BigInteger(removeThousandsSeparators(value));
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				String number = removeThousandsSeparators(value);
+				boolean valid = isInteger(number, 0, number.length());
+				result.setValue(valid ? new BigInteger(number) : null);
+				return valid ? ConversionResult.VALID : ConversionResult.INVALID_FORMAT;
+			}
+		});
+		converters.put(UUID.class, new ValidatingConverter<UUID>() {
+			@Override
+			public UUID convert(String value) {
+				return UUID.fromString(value);
+			}
+
+			@Override
+			public int tryConvert(String value, ConversionResult result) {
+				boolean valid = isUUID(value);
+				result.setValue(valid ? UUID.fromString(value) : null);
+				return valid ? ConversionResult.VALID : ConversionResult.INVALID_FORMAT;
+			}
+		});
+	}
+
+	/**
+	 * Returns the built-in converter of the type, null if there is none
+	 * @param type
+	 * @param dateFormatPattern
+	 * @return
+	 */
+	static FieldConverter<?> getConverter(Class<?> type, String dateFormatPattern) {
+		if (type == null) {
+			return null;
+		}
+		String pattern = StringUtils.trimToNull(dateFormatPattern);
+		if (type == Date.class) {
+			return new DateConverter(pattern);
+		} else if (type == Calendar.class) {
+			return new CalendarConverter(new DateConverter(pattern));
+		} else if (isEpochMillis(type, pattern)) {
+			return new EpochMillisConverter(pattern);
+		} else if (pattern != null && BindedFieldData.DEFAULT_DATE_FORMATS.equals(pattern)) {
+			// the rest of types have their own default formats
+			pattern = null;
+		}
+		if (type == LocalDate.class) {
+			return new LocalDateConverter(pattern);
+		} else if (type == LocalDateTime.class) {
+			return new LocalDateTimeConverter(pattern);
+		} else if (type == Instant.class) {
+			return new InstantConverter(pattern);
+		} else if (type == ZonedDateTime.class) {
+			return new ZonedDateTimeConverter(pattern);
+		} else if (type == OffsetDateTime.class) {
+			return new OffsetDateTimeConverter(pattern);
+		} else if (type.isEnum()) {
+			return new EnumConverter(type);
+		}
+		return converters.get(type);
+	}
+
+	/**
+	 * Returns true if the fields of the type hold dates as milliseconds since the epoch, that
+	 * is long fields with a date pattern
+	 * @param type
+	 * @param dateFormatPattern
+	 * @return
+	 */
+	static boolean isEpochMillis(Class<?> type, String dateFormatPattern) {
+		return (type == long.class || type == Long.class) && StringUtils.trimToNull(dateFormatPattern) != null;
+	}
+
+	private static String removeThousandsSeparators(String value) {
+		return value.replace(",", "");
+	}
+
+	/**
+	 * Returns true if the range has the shape accepted by BigInteger: [+-]digits, of any script
+	 */
+	private static boolean isInteger(String value, int start, int end) {
+		if (start < end && (value.charAt(start) == '+' || value.charAt(start) == '-')) {
+			start++;
+		}
+		if (start == end) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (Character.digit(value.charAt(i), 10) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Validates the shape accepted by BigDecimal: [+-]digits[.digits][e[+-]digits], with digits
+	 * at either side of the point. Exponents are limited to 9 digits so they always fit.
+	 */
+	private static int getBigDecimalStatus(String value) {
+		int length = value.length();
+		int exponent = length;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == 'e' || c == 'E') {
+				exponent = i;
+				break;
+			}
+		}
+		int start = 0;
+		if (start < exponent && (value.charAt(start) == '+' || value.charAt(start) == '-')) {
+			start++;
+		}
+		int digits = 0;
+		boolean point = false;
+		for (int i = start; i < exponent; i++) {
+			char c = value.charAt(i);
+			if (c == '.' && !point) {
+				point = true;
+			} else if (Character.digit(c, 10) >= 0) {
+				digits++;
+			} else {
+				return ConversionResult.INVALID_FORMAT;
+			}
+		}
+		if (digits == 0) {
+			return ConversionResult.INVALID_FORMAT;
+		}
+		if (exponent < length) {
+			if (!isInteger(value, exponent + 1, length)) {
+				return ConversionResult.INVALID_FORMAT;
+			}
+			int i = exponent + 1;
+			if (value.charAt(i) == '+' || value.charAt(i) == '-') {
+				i++;
+			}
+			while (i < length - 1 && Character.digit(value.charAt(i), 10) == 0) {
+				i++;
+			}
+			if (length - i > 9) {
+				return ConversionResult.OUT_OF_RANGE;
+			}
+		}
+		return ConversionResult.VALID;
+	}
+
+	/**
+	 * Validates the shape accepted by UUID: five groups of hexadecimal digits separated by
+	 * dashes, up to 36 characters
+	 */
+	private static boolean isUUID(String value) {
+		int length = value.length();
+		if (length > 36) {
+			return false;
+		}
+		int groups = 1;
+		int groupLength = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '-') {
+				if (groupLength == 0 || ++groups > 5) {
+					return false;
+				}
+				groupLength = 0;
+			} else if (c < 128 && Character.digit(c, 16) >= 0) {
+				groupLength++;
+			} else {
+				return false;
+			}
+		}
+		return groups == 5 && groupLength > 0;
+	}
+
+	/**
+	 * Dates in the pattern of the field, or in the formats accepted by {@link DateFormatUtils}.
+	 * <br>
+	 * The formatter of the pattern is built once, when the binding is built, and being
+	 * immutable it's shared by all the threads parsing the field.
+	 */
+	static class DateConverter implements ValidatingConverter<Date> {
+
+		private final EpochMillisConverter millisConverter;
+
+		DateConverter(String pattern) {
+			this.millisConverter = new EpochMillisConverter(pattern);
+		}
+
+		@Override
+		public Date convert(String value) throws Exception {
+			if (millisConverter.formatter == null) {
+				// values with an offset without minutes are accepted but have no date
+				long millis = DateFormatUtils.getMillisFromString(value);
+				return (millis != DateFormatUtils.NO_DATE) ? new Date(millis) : null;
+			}
+			return new Date(millisConverter.convertToMillis(value));
+		}
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			int status = millisConverter.tryConvertToMillis(value, result);
+			long millis = result.getLong();
+			// values with an offset without minutes are accepted but have no date
+			result.setValue((status == ConversionResult.VALID && millis != DateFormatUtils.NO_DATE) ? new Date(millis) : null);
+			return status;
+		}
+	}
+
+	/**
+	 * Dates as milliseconds since the epoch, for long fields with a date pattern. The pattern
+	 * {@link BindedFieldData#DEFAULT_DATE_FORMATS} stands for the formats accepted by
+	 * {@link DateFormatUtils}.
+	 */
+	static class EpochMillisConverter implements ValidatingConverter<Long> {
+
+		private final org.joda.time.format.DateTimeFormatter formatter;
+
+		EpochMillisConverter(String pattern) {
+			pattern = StringUtils.trimToNull(pattern);
+			this.formatter = (pattern != null && !BindedFieldData.DEFAULT_DATE_FORMATS.equals(pattern))
+					? DateTimeFormat.forPattern(pattern) : null;
+		}
+
+		@Override
+		public Long convert(String value) {
+			return Long.valueOf(convertToMillis(value));
+		}
+
+		long convertToMillis(String value) {
+			if (formatter != null) {
+				return formatter.parseMillis(value);
+			}
+			long millis = DateFormatUtils.getMillisFromString(value);
+			if (millis == DateFormatUtils.NO_DATE) {
+				throw new IllegalArgumentException("String date not accepted " + value);
+			}
+			return millis;
+		}
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			int status = tryConvertToMillis(value, result);
+			if (status == ConversionResult.VALID && result.getLong() == DateFormatUtils.NO_DATE) {
+				status = ConversionResult.INVALID_FORMAT;
+			}
+			result.setValue((status == ConversionResult.VALID) ? Long.valueOf(result.getLong()) : null);
+			return status;
+		}
+
+		/**
+		 * Converts the value into {@link ConversionResult#getLong()}, leaving there
+		 * {@link DateFormatUtils#NO_DATE} for the values with an offset without minutes.
+		 * Patterns are parsed like {@link org.joda.time.format.DateTimeFormatter#parseMillis(String)}
+		 * does, only dates with fields out of range (i.e. month 13) throw an exception there.
+		 */
+		int tryConvertToMillis(String value, ConversionResult result) {
+			long millis;
+			if (formatter != null) {
+				Chronology chronology = DateTimeUtils.getChronology(formatter.getChronology());
+				if (formatter.getZone() != null) {
+					chronology = chronology.withZone(formatter.getZone());
+				}
+				DateTimeParserBucket bucket = new DateTimeParserBucket(0, chronology, formatter.getLocale(),
+						formatter.getPivotYear(), formatter.getDefaultYear());
+				int position = formatter.getParser().parseInto(bucket, value, 0);
+				if (position < value.length()) {
+					return ConversionResult.INVALID_FORMAT;
+				}
+				millis = bucket.computeMillis(true, value);
+			} else {
+				millis = DateFormatUtils.tryGetMillisFromString(value);
+				if (millis == DateFormatUtils.INVALID_DATE) {
+					return ConversionResult.INVALID_FORMAT;
+				} else if (millis == DateFormatUtils.NONEXISTENT_DATE) {
+					return ConversionResult.OUT_OF_RANGE;
+				}
+			}
+			result.setLong(millis);
+			return ConversionResult.VALID;
+		}
+	}
+
+	static class CalendarConverter implements ValidatingConverter<Calendar> {
+
+		private final DateConverter dateConverter;
+
+		CalendarConverter(DateConverter dateConverter) {
+			this.dateConverter = dateConverter;
+		}
+
+		@Override
+		public Calendar convert(String value) throws Exception {
+			Date date = dateConverter.convert(value);
+			if (date == null) {
+				return null;
+			}
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTime(date);
+			return calendar;
+		}
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			int status = dateConverter.tryConvert(value, result);
+			Date date = (Date) result.getValue();
+			if (date != null) {
+				Calendar calendar = Calendar.getInstance();
+				calendar.setTime(date);
+				result.setValue(calendar);
+			}
+			return status;
+		}
+	}
+
+	/**
+	 * Converter of a java.time type through a {@link DateTimeFormatter}. Wrong values are told
+	 * through a status code: the text is matched against the formatter without resolving it
+	 * first (see {@link DateTimeFormatter#parseUnresolved(CharSequence, ParsePosition)}, which
+	 * doesn't throw), so only values with the right shape but fields out of range (i.e. month 13)
+	 * throw an exception, when they're resolved.
+	 */
+	abstract static class TemporalConverter<T> implements ValidatingConverter<T> {
+
+		final DateTimeFormatter formatter;
+
+		TemporalConverter(DateTimeFormatter formatter) {
+			this.formatter = formatter;
+		}
+
+		@Override
+		public abstract T convert(String value);
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			result.setValue(null);
+			ParsePosition position = new ParsePosition(0);
+			if (formatter.parseUnresolved(value, position) == null || position.getErrorIndex() >= 0
+					|| position.getIndex() != value.length()) {
+				return ConversionResult.INVALID_FORMAT;
+			}
+			try {
+				result.setValue(convert(value));
+			} catch (DateTimeException e) {
+				return ConversionResult.OUT_OF_RANGE;
+			}
+			return ConversionResult.VALID;
+		}
+	}
+
+	/**
+	 * ISO dates (yyyy-MM-dd), or dates in the pattern of the field
+	 */
+	static class LocalDateConverter extends TemporalConverter<LocalDate> {
+
+		LocalDateConverter(String pattern) {
+			super((pattern != null) ? DateTimeFormatter.ofPattern(pattern) : DateTimeFormatter.ISO_LOCAL_DATE);
+		}
+
+		@Override
+		public LocalDate convert(String value) {
+			return LocalDate.parse(value, formatter);
+		}
+	}
+
+	/**
+	 * ISO date times (yyyy-MM-ddTHH:mm[:ss]), or date times in the pattern of the field
+	 */
+	static class LocalDateTimeConverter extends TemporalConverter<LocalDateTime> {
+
+		LocalDateTimeConverter(String pattern) {
+			super((pattern != null) ? DateTimeFormatter.ofPattern(pattern) : DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+		}
+
+		@Override
+		public LocalDateTime convert(String value) {
+			return LocalDateTime.parse(value, formatter);
+		}
+	}
+
+	/**
+	 * ISO instants (i.e. 2016-05-18T10:15:30Z) and the formats accepted by {@link DateFormatUtils},
+	 * or date times in the pattern of the field taken in the default time zone when the
+	 * pattern has no zone
+	 */
+	static class InstantConverter extends TemporalConverter<Instant> {
+
+		private final boolean defaultFormats;
+
+		InstantConverter(String pattern) {
+			super((pattern == null) ? DateTimeFormatter.ISO_INSTANT : getFormatter(pattern));
+			this.defaultFormats = pattern == null;
+		}
+
+		@Override
+		public Instant convert(String value) {
+			if (defaultFormats && DateFormatUtils.isGenericDate(value)) {
+				long millis = DateFormatUtils.tryGetMillisFromString(value);
+				if (millis == DateFormatUtils.NONEXISTENT_DATE) {
+					throw new IllegalArgumentException("String date doesn't exist " + value);
+				} else if (millis == DateFormatUtils.NO_DATE || millis == DateFormatUtils.INVALID_DATE) {
+					throw new IllegalArgumentException("String date not accepted " + value);
+				}
+				return Instant.ofEpochMilli(millis);
+			}
+			return Instant.from(formatter.parse(value));
+		}
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			if (defaultFormats && DateFormatUtils.isGenericDate(value)) {
+				long millis = DateFormatUtils.tryGetMillisFromString(value);
+				if (millis == DateFormatUtils.NONEXISTENT_DATE) {
+					result.setValue(null);
+					return ConversionResult.OUT_OF_RANGE;
+				} else if (millis == DateFormatUtils.NO_DATE || millis == DateFormatUtils.INVALID_DATE) {
+					result.setValue(null);
+					return ConversionResult.INVALID_FORMAT;
+				}
+				result.setValue(Instant.ofEpochMilli(millis));
+				return ConversionResult.VALID;
+			}
+			return super.tryConvert(value, result);
+		}
+	}
+
+	/**
+	 * ISO zoned date times (i.e. 2016-05-18T10:15:30+01:00[Europe/Paris]), or date times in
+	 * the pattern of the field taken in the default time zone when the pattern has no zone
+	 */
+	static class ZonedDateTimeConverter extends TemporalConverter<ZonedDateTime> {
+
+		ZonedDateTimeConverter(String pattern) {
+			super((pattern != null) ? getFormatter(pattern) : DateTimeFormatter.ISO_ZONED_DATE_TIME);
+		}
+
+		@Override
+		public ZonedDateTime convert(String value) {
+			return ZonedDateTime.parse(value, formatter);
+		}
+	}
+
+	/**
+	 * ISO offset date times (i.e. 2016-05-18T10:15:30+01:00), or date times in the pattern of
+	 * the field taken in the default time zone when the pattern has no zone
+	 */
+	static class OffsetDateTimeConverter extends TemporalConverter<OffsetDateTime> {
+
+		OffsetDateTimeConverter(String pattern) {
+			super((pattern != null) ? getFormatter(pattern) : DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		}
+
+		@Override
+		public OffsetDateTime convert(String value) {
+			return ZonedDateTime.parse(value, formatter).toOffsetDateTime();
+		}
+	}
+
+	/**
+	 * Formatter of the pattern, with the default time zone when the pattern has no zone
+	 */
+	static DateTimeFormatter getFormatter(String pattern) {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+		return hasZone(pattern) ? formatter : formatter.withZone(ZoneId.systemDefault());
+	}
+
+	/**
+	 * Returns true if the pattern has any zone or offset letter (out of quoted texts)
+	 */
+	private static boolean hasZone(String pattern) {
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+			} else if (!quoted && ZONE_LETTERS.indexOf(c) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Constants of the enum by name, ignoring case when there is no exact match
+	 */
+	static class EnumConverter implements ValidatingConverter<Enum> {
+
+		private final Class<? extends Enum> type;
+		private final Map<String, Enum> constants = new HashMap<String, Enum>();
+
+		EnumConverter(Class type) {
+			this.type = type;
+			for (Object constant : type.getEnumConstants()) {
+				Enum value = (Enum) constant;
+				constants.put(value.name(), value);
+				String upperCased = value.name().toUpperCase(Locale.ENGLISH);
+				if (!constants.containsKey(upperCased)) {
+					constants.put(upperCased, value);
+				}
+			}
+		}
+
+		@Override
+		public Enum convert(String value) {
+			Enum constant = getConstant(value);
+			if (constant == null) {
+				throw new IllegalArgumentException("No constant " + value + " in enum " + type.getName());
+			}
+			return constant;
+		}
+
+		@Override
+		public int tryConvert(String value, ConversionResult result) {
+			Enum constant = getConstant(value);
+			result.setValue(constant);
+			return (constant != null) ? ConversionResult.VALID : ConversionResult.INVALID_FORMAT;
+		}
+
+		private Enum getConstant(String value) {
+			Enum constant = constants.get(value);
+			if (constant == null) {
+				constant = constants.get(value.toUpperCase(Locale.ENGLISH));
+			}
+			return constant;
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package dlg.delimited.file.parser.converter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.format.DateTimeFormat;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.util.DateFormatUtils;
+
+/**
+ * Formatters of the types whose text isn't just their <code>toString()</code>, writing the
+ * same formats {@link BuiltInConverters} parse: dates in the pattern of the field, or in the
+ * default formats of each type when there is none.
+ *
+ * @author dalcantara
+ *
+ */
+@SuppressWarnings("rawtypes")
+class BuiltInFormatters {
+
+	/**
+	 * Returns the built-in formatter of the type, null if its text is its <code>toString()</code>
+	 * @param type
+	 * @param dateFormatPattern
+	 * @return
+	 */
+	static FieldFormatter<?> getFormatter(Class<?> type, String dateFormatPattern) {
+		if (type == null) {
+			return null;
+		}
+		String pattern = StringUtils.trimToNull(dateFormatPattern);
+		if (type == Date.class) {
+			final MillisFormatter millisFormatter = new MillisFormatter(pattern);
+			return new FieldFormatter<Date>() {
+				@Override
+				public void format(Date value, StringBuilder out) {
+					millisFormatter.format(value.getTime(), out);
+				}
+			};
+		} else if (type == Calendar.class) {
+			final MillisFormatter millisFormatter = new MillisFormatter(pattern);
+			return new FieldFormatter<Calendar>() {
+				@Override
+				public void format(Calendar value, StringBuilder out) {
+					millisFormatter.format(value.getTimeInMillis(), out);
+				}
+			};
+		} else if (BuiltInConverters.isEpochMillis(type, pattern)) {
+			final MillisFormatter millisFormatter = new MillisFormatter(pattern);
+			return new FieldFormatter<Long>() {
+				@Override
+				public void format(Long value, StringBuilder out) {
+					millisFormatter.format(value.longValue(), out);
+				}
+			};
+		} else if (pattern != null && BindedFieldData.DEFAULT_DATE_FORMATS.equals(pattern)) {
+			// the rest of types have their own default formats
+			pattern = null;
+		}
+		if (type == LocalDate.class) {
+			return new TemporalFormatter((pattern != null) ? DateTimeFormatter.ofPattern(pattern) : DateTimeFormatter.ISO_LOCAL_DATE);
+		} else if (type == LocalDateTime.class) {
+			return new TemporalFormatter((pattern != null) ? DateTimeFormatter.ofPattern(pattern) : DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+		} else if (type == Instant.class) {
+			return new TemporalFormatter((pattern != null) ? BuiltInConverters.getFormatter(pattern) : DateTimeFormatter.ISO_INSTANT);
+		} else if (type == ZonedDateTime.class) {
+			return new TemporalFormatter((pattern != null) ? BuiltInConverters.getFormatter(pattern) : DateTimeFormatter.ISO_ZONED_DATE_TIME);
+		} else if (type == OffsetDateTime.class) {
+			return new TemporalFormatter((pattern != null) ? BuiltInConverters.getFormatter(pattern) : DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+		} else if (type.isEnum()) {
+			return new FieldFormatter<Enum>() {
+				@Override
+				public void format(Enum value, StringBuilder out) {
+					out.append(value.name());
+				}
+			};
+		}
+		return null;
+	}
+
+	/**
+	 * Dates as milliseconds since the epoch in the pattern of the field, or in the generic
+	 * format of {@link DateFormatUtils}
+	 */
+	static class MillisFormatter {
+
+		private final org.joda.time.format.DateTimeFormatter formatter;
+
+		MillisFormatter(String pattern) {
+			this.formatter = (pattern != null && !BindedFieldData.DEFAULT_DATE_FORMATS.equals(pattern))
+					? DateTimeFormat.forPattern(pattern) : null;
+		}
+
+		void format(long millis, StringBuilder out) {
+			if (formatter == null) {
+				DateFormatUtils.appendGenericDate(millis, out);
+			} else {
+				out.append(formatter.print(millis));
+			}
+		}
+	}
+
+	/**
+	 * java.time values written straight into the output through their formatter
+	 */
+	static class TemporalFormatter implements FieldFormatter<TemporalAccessor> {
+
+		private final DateTimeFormatter formatter;
+
+		TemporalFormatter(DateTimeFormatter formatter) {
+			this.formatter = formatter;
+		}
+
+		@Override
+		public void format(TemporalAccessor value, StringBuilder out) {
+			formatter.formatTo(value, out);
+		}
+	}
+
+}
@@ -0,0 +1,574 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Parses primitive values straight from a range of characters of the record, so no String
+ * is created per cell. Numbers accept the same texts than the <code>valueOf</code> methods of
+ * their wrappers, ignoring thousands separators (,) and quotes wherever they are.
+ * <br>
+ * Common shapes (plain integers and decimals) are decoded inline, any other text is handed
+ * over to the JDK parsers, so results (and errors) are always the same than theirs.
+ * <br>
+ * Every parse method has a variant returning a status code (see {@link ConversionResult})
+ * instead of throwing an exception, which validates the text before handing it over to the
+ * JDK so wrong values never cost an exception.
+ *
+ * @author dalcantara
+ *
+ */
+public final class CharRangeParser {
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+	// mantissas and powers of ten up to these values are exactly representable
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+	private static final long MAX_EXACT_FLOAT = 1L << 24;
+	private static final int MAX_EXPONENT = 22;
+	private static final int MAX_FLOAT_EXPONENT = 10;
+	private static final int MAX_MANTISSA_DIGITS = 18;
+
+	// packed decimal: 53 bits of mantissa, 6 bits of (exponent + MAX_EXPONENT) and the sign
+	private static final long NOT_PARSED = -1;
+	private static final long MANTISSA_MASK = MAX_EXACT_DOUBLE - 1;
+	private static final int EXPONENT_SHIFT = 53;
+	private static final long EXPONENT_MASK = 0x3F;
+	private static final long NEGATIVE = 1L << 59;
+
+	private static final String[] TRUE_VALUES = { "true", "yes", "y", "1" };
+	private static final String[] FALSE_VALUES = { "false", "no", "n", "0" };
+
+	private CharRangeParser() {
+	}
+
+	/**
+	 * Position of the first non blank character of the range
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public static int trimStart(char[] chars, int start, int end) {
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Position after the last non blank character of the range
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public static int trimEnd(char[] chars, int start, int end) {
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	public static int parseInt(char[] chars, int start, int end, char quote) {
+		long value = parseInteger(chars, start, end, quote, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		if (value == Long.MIN_VALUE) {
+			return Integer.parseInt(clean(chars, start, end, quote));
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Same than {@link #parseInt(char[], int, int, char)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param quote
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getLong()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseInt(char[] chars, int start, int end, char quote, ConversionResult result) {
+		return parseInteger(chars, start, end, quote, Integer.MIN_VALUE, Integer.MAX_VALUE, result);
+	}
+
+	public static short parseShort(char[] chars, int start, int end, char quote) {
+		long value = parseInteger(chars, start, end, quote, Short.MIN_VALUE, Short.MAX_VALUE);
+		if (value == Long.MIN_VALUE) {
+			return Short.parseShort(clean(chars, start, end, quote));
+		}
+		return (short) value;
+	}
+
+	/**
+	 * Same than {@link #parseShort(char[], int, int, char)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param quote
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getLong()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseShort(char[] chars, int start, int end, char quote, ConversionResult result) {
+		return parseInteger(chars, start, end, quote, Short.MIN_VALUE, Short.MAX_VALUE, result);
+	}
+
+	public static long parseLong(char[] chars, int start, int end, char quote) {
+		// Long.MIN_VALUE itself is left to the slow path, as it's used as "not parsed"
+		long value = parseInteger(chars, start, end, quote, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+		if (value == Long.MIN_VALUE) {
+			return Long.parseLong(clean(chars, start, end, quote));
+		}
+		return value;
+	}
+
+	/**
+	 * Same than {@link #parseLong(char[], int, int, char)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param quote
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getLong()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseLong(char[] chars, int start, int end, char quote, ConversionResult result) {
+		int status = parseInteger(chars, start, end, quote, Long.MIN_VALUE + 1, Long.MAX_VALUE, result);
+		if (status == ConversionResult.OUT_OF_RANGE && isLongMinValue(chars, start, end, quote)) {
+			result.setLong(Long.MIN_VALUE);
+			return ConversionResult.VALID;
+		}
+		return status;
+	}
+
+	private static int parseInteger(char[] chars, int start, int end, char quote, long min, long max,
+			ConversionResult result) {
+		long value = parseInteger(chars, start, end, quote, min, max);
+		if (value != Long.MIN_VALUE) {
+			result.setLong(value);
+			return ConversionResult.VALID;
+		}
+		return isInteger(chars, start, end, quote) ? ConversionResult.OUT_OF_RANGE : ConversionResult.INVALID_FORMAT;
+	}
+
+	/**
+	 * Returns true if the range has the shape of an integer ([+-]digits), whatever its size
+	 */
+	private static boolean isInteger(char[] chars, int start, int end, char quote) {
+		boolean signed = false;
+		boolean digits = false;
+		for (int i = start; i < end; i++) {
+			char c = chars[i];
+			if (isIgnored(c, quote)) {
+				continue;
+			}
+			if ((c == '-' || c == '+') && !signed && !digits) {
+				signed = true;
+			} else if (Character.digit(c, 10) >= 0) {
+				digits = true;
+			} else {
+				return false;
+			}
+		}
+		return digits;
+	}
+
+	/**
+	 * Returns true if the range is exactly Long.MIN_VALUE, left out of the inline decoding
+	 */
+	private static boolean isLongMinValue(char[] chars, int start, int end, char quote) {
+		String minValue = "9223372036854775808";
+		boolean negative = false;
+		int matched = 0;
+		for (int i = start; i < end; i++) {
+			char c = chars[i];
+			if (isIgnored(c, quote)) {
+				continue;
+			}
+			if (c == '-') {
+				negative = true;
+				continue;
+			}
+			int digit = Character.digit(c, 10);
+			if (digit == 0 && matched == 0) {
+				continue;
+			}
+			if (matched == minValue.length() || digit != minValue.charAt(matched) - '0') {
+				return false;
+			}
+			matched++;
+		}
+		return negative && matched == minValue.length();
+	}
+
+	/**
+	 * Decodes a plain integer ([+-]digits) within the limits, digits of any script are
+	 * accepted like the JDK does
+	 * @return the value, or Long.MIN_VALUE if the text isn't a plain integer or it's out of the limits
+	 */
+	private static long parseInteger(char[] chars, int start, int end, char quote, long min, long max) {
+		boolean negative = false;
+		boolean signed = false;
+		boolean digits = false;
+		long limit = -max;
+		long result = 0;
+		for (int i = start; i < end; i++) {
+			char c = chars[i];
+			if (isIgnored(c, quote)) {
+				continue;
+			}
+			if ((c == '-' || c == '+') && !signed && !digits) {
+				signed = true;
+				negative = c == '-';
+				limit = negative ? min : -max;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9) {
+				digit = (c >= 128) ? Character.digit(c, 10) : -1;
+				if (digit < 0) {
+					return Long.MIN_VALUE;
+				}
+			}
+			// accumulated negatively, like the JDK does, to reach the minimum value
+			if (result < limit / 10) {
+				return Long.MIN_VALUE;
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return Long.MIN_VALUE;
+			}
+			result -= digit;
+			digits = true;
+		}
+		if (!digits) {
+			return Long.MIN_VALUE;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Decimals made of an exact mantissa and an exact power of ten are computed with a single
+	 * (correctly rounded) operation, the rest is left to the JDK
+	 */
+	public static double parseDouble(char[] chars, int start, int end, char quote) {
+		long decimal = parseDecimal(chars, start, end, quote);
+		if (decimal != NOT_PARSED) {
+			return toDouble(decimal);
+		}
+		return Double.parseDouble(clean(chars, start, end, quote));
+	}
+
+	/**
+	 * Same than {@link #parseDouble(char[], int, int, char)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param quote
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getDouble()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseDouble(char[] chars, int start, int end, char quote, ConversionResult result) {
+		long decimal = parseDecimal(chars, start, end, quote);
+		if (decimal != NOT_PARSED) {
+			result.setDouble(toDouble(decimal));
+			return ConversionResult.VALID;
+		}
+		String value = clean(chars, start, end, quote);
+		if (!isFloatingPoint(value)) {
+			return ConversionResult.INVALID_FORMAT;
+		}
+		result.setDouble(Double.parseDouble(value));
+		return ConversionResult.VALID;
+	}
+
+	private static double toDouble(long decimal) {
+		long mantissa = decimal & MANTISSA_MASK;
+		int exponent = (int) ((decimal >>> EXPONENT_SHIFT) & EXPONENT_MASK) - MAX_EXPONENT;
+		double value = (double) mantissa;
+		value = (exponent >= 0) ? value * DOUBLE_POWERS_OF_TEN[exponent] : value / DOUBLE_POWERS_OF_TEN[-exponent];
+		return (decimal & NEGATIVE) != 0 ? -value : value;
+	}
+
+	public static float parseFloat(char[] chars, int start, int end, char quote) {
+		long decimal = parseDecimal(chars, start, end, quote);
+		if (decimal != NOT_PARSED && isExactFloat(decimal)) {
+			return toFloat(decimal);
+		}
+		return Float.parseFloat(clean(chars, start, end, quote));
+	}
+
+	/**
+	 * Same than {@link #parseFloat(char[], int, int, char)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param quote
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getDouble()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseFloat(char[] chars, int start, int end, char quote, ConversionResult result) {
+		long decimal = parseDecimal(chars, start, end, quote);
+		if (decimal != NOT_PARSED && isExactFloat(decimal)) {
+			result.setDouble(toFloat(decimal));
+			return ConversionResult.VALID;
+		}
+		String value = clean(chars, start, end, quote);
+		if (!isFloatingPoint(value)) {
+			return ConversionResult.INVALID_FORMAT;
+		}
+		result.setDouble(Float.parseFloat(value));
+		return ConversionResult.VALID;
+	}
+
+	private static boolean isExactFloat(long decimal) {
+		long mantissa = decimal & MANTISSA_MASK;
+		int exponent = (int) ((decimal >>> EXPONENT_SHIFT) & EXPONENT_MASK) - MAX_EXPONENT;
+		return mantissa < MAX_EXACT_FLOAT && exponent >= -MAX_FLOAT_EXPONENT && exponent <= MAX_FLOAT_EXPONENT;
+	}
+
+	private static float toFloat(long decimal) {
+		long mantissa = decimal & MANTISSA_MASK;
+		int exponent = (int) ((decimal >>> EXPONENT_SHIFT) & EXPONENT_MASK) - MAX_EXPONENT;
+		float value = (float) mantissa;
+		value = (exponent >= 0) ? value * FLOAT_POWERS_OF_TEN[exponent] : value / FLOAT_POWERS_OF_TEN[-exponent];
+		return (decimal & NEGATIVE) != 0 ? -value : value;
+	}
+
+	/**
+	 * Returns true if the text is accepted by Double.parseDouble (and Float.parseFloat):
+	 * decimals, hexadecimals, NaN and Infinity, with optional type suffix and surrounding blanks
+	 */
+	private static boolean isFloatingPoint(String value) {
+		int end = value.length();
+		int i = 0;
+		while (i < end && value.charAt(i) <= ' ') {
+			i++;
+		}
+		while (end > i && value.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+			i++;
+		}
+		if (value.startsWith("NaN", i) || value.startsWith("Infinity", i)) {
+			return end == i + (value.charAt(i) == 'N' ? 3 : 8);
+		}
+		boolean hexadecimal = end - i > 1 && value.charAt(i) == '0' && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X');
+		if (hexadecimal) {
+			i += 2;
+		}
+		int digits = 0;
+		boolean point = false;
+		for (; i < end; i++) {
+			char c = value.charAt(i);
+			if (c == '.' && !point) {
+				point = true;
+			} else if ((c >= '0' && c <= '9') || (hexadecimal && Character.digit(c, 16) >= 0 && c < 128)) {
+				digits++;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < end && (hexadecimal ? (value.charAt(i) == 'p' || value.charAt(i) == 'P')
+				: (value.charAt(i) == 'e' || value.charAt(i) == 'E'))) {
+			i++;
+			if (i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+				i++;
+			}
+			int exponentDigits = 0;
+			for (; i < end && value.charAt(i) >= '0' && value.charAt(i) <= '9'; i++) {
+				exponentDigits++;
+			}
+			if (exponentDigits == 0) {
+				return false;
+			}
+		} else if (hexadecimal) {
+			// the binary exponent is mandatory
+			return false;
+		}
+		if (i < end && "fFdD".indexOf(value.charAt(i)) >= 0) {
+			i++;
+		}
+		return i == end;
+	}
+
+	/**
+	 * Decodes a plain decimal ([+-]digits[.digits][e[+-]digits]), surrounding blanks are
+	 * ignored like the JDK does. The result is packed into a long (mantissa, exponent and
+	 * sign) so nothing is allocated.
+	 * @return the packed decimal, or NOT_PARSED if the text isn't a plain decimal or it can't
+	 *         be computed exactly
+	 */
+	private static long parseDecimal(char[] chars, int start, int end, char quote) {
+		start = trimStart(chars, start, end);
+		end = trimEnd(chars, start, end);
+		boolean negative = false;
+		boolean signed = false;
+		boolean digits = false;
+		boolean point = false;
+		long mantissa = 0;
+		int mantissaDigits = 0;
+		int exponent = 0;
+		int i = start;
+		for (; i < end; i++) {
+			char c = chars[i];
+			if (isIgnored(c, quote)) {
+				continue;
+			}
+			if ((c == '-' || c == '+') && !signed && !digits && !point) {
+				signed = true;
+				negative = c == '-';
+			} else if (c == '.' && !point) {
+				point = true;
+			} else if (c >= '0' && c <= '9') {
+				digits = true;
+				if (mantissa > 0 || c != '0') {
+					if (++mantissaDigits > MAX_MANTISSA_DIGITS) {
+						return NOT_PARSED;
+					}
+					mantissa = mantissa * 10 + (c - '0');
+				}
+				if (point) {
+					exponent--;
+				}
+			} else if ((c == 'e' || c == 'E') && digits) {
+				break;
+			} else {
+				return NOT_PARSED;
+			}
+		}
+		if (!digits) {
+			return NOT_PARSED;
+		}
+		if (i < end) {
+			// exponent
+			i++;
+			boolean negativeExponent = false;
+			boolean exponentSigned = false;
+			boolean exponentDigits = false;
+			int value = 0;
+			for (; i < end; i++) {
+				char c = chars[i];
+				if (isIgnored(c, quote)) {
+					continue;
+				}
+				if ((c == '-' || c == '+') && !exponentSigned && !exponentDigits) {
+					exponentSigned = true;
+					negativeExponent = c == '-';
+				} else if (c >= '0' && c <= '9' && value < 1000) {
+					exponentDigits = true;
+					value = value * 10 + (c - '0');
+				} else {
+					return NOT_PARSED;
+				}
+			}
+			if (!exponentDigits) {
+				return NOT_PARSED;
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		if (mantissa == 0) {
+			exponent = 0;
+		}
+		if (mantissa >= MAX_EXACT_DOUBLE || exponent < -MAX_EXPONENT || exponent > MAX_EXPONENT) {
+			return NOT_PARSED;
+		}
+		return mantissa | ((long) (exponent + MAX_EXPONENT) << EXPONENT_SHIFT) | (negative ? NEGATIVE : 0);
+	}
+
+	/**
+	 * Parses a boolean out of its accepted representations (ignoring case) <br>
+	 * TRUE: "true", "yes", "y", "1" <br>
+	 * FALSE: "false", "no", "n", "0" <br>
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the value doesn't correspond to any of the accepted values
+	 */
+	public static boolean parseBoolean(char[] chars, int start, int end) {
+		int value = getBoolean(chars, start, end);
+		if (value < 0) {
+			throw new IllegalArgumentException("Invalid boolean data " + new String(chars, start, end - start));
+		}
+		return value == 1;
+	}
+
+	/**
+	 * Same than {@link #parseBoolean(char[], int, int)}, returning a status code instead of
+	 * throwing an exception
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @param result
+	 *            (receives the value, see {@link ConversionResult#getLong()}: 1 for true, 0 for false)
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	public static int parseBoolean(char[] chars, int start, int end, ConversionResult result) {
+		int value = getBoolean(chars, start, end);
+		if (value < 0) {
+			return ConversionResult.INVALID_FORMAT;
+		}
+		result.setLong(value);
+		return ConversionResult.VALID;
+	}
+
+	/**
+	 * @return 1 for true, 0 for false, -1 if the value isn't accepted
+	 */
+	private static int getBoolean(char[] chars, int start, int end) {
+		for (String value : TRUE_VALUES) {
+			if (equalsIgnoreCase(chars, start, end, value)) {
+				return 1;
+			}
+		}
+		for (String value : FALSE_VALUES) {
+			if (equalsIgnoreCase(chars, start, end, value)) {
+				return 0;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean equalsIgnoreCase(char[] chars, int start, int end, String value) {
+		if (end - start != value.length()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.toLowerCase(chars[start + i]) != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isIgnored(char c, char quote) {
+		return c == ',' || (c == quote && quote != 0);
+	}
+
+	/**
+	 * Text of the range without the ignored characters, for the JDK parsers
+	 */
+	private static String clean(char[] chars, int start, int end, char quote) {
+		StringBuilder value = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			if (!isIgnored(chars[i], quote)) {
+				value.append(chars[i]);
+			}
+		}
+		return value.toString();
+	}
+
+}
@@ -0,0 +1,89 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Holder of the value converted by the methods returning a status code instead of throwing
+ * an exception ({@link ValidatingConverter}, {@link CharRangeParser}), so wrong values cost
+ * neither an exception nor its stack trace.
+ * <br>
+ * Primitive values are kept apart so nothing is boxed: integers and booleans (1 for true)
+ * as longs, decimals as doubles. It's mutable and meant to be reused along a whole parse,
+ * so every thread needs its own instance.
+ *
+ * @author dalcantara
+ *
+ */
+public final class ConversionResult {
+
+	/**
+	 * The value was converted
+	 */
+	public static final int VALID = 0;
+	/**
+	 * The text doesn't have any of the accepted formats of the type
+	 */
+	public static final int INVALID_FORMAT = 1;
+	/**
+	 * The text has an accepted format, but its value doesn't fit in the type (numbers too
+	 * big, dates that don't exist...)
+	 */
+	public static final int OUT_OF_RANGE = 2;
+
+	private Object value;
+	private long longValue;
+	private double doubleValue;
+
+	/**
+	 * Value converted by a {@link ValidatingConverter}
+	 * @return
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	public void setValue(Object value) {
+		this.value = value;
+	}
+
+	/**
+	 * Integer (or boolean, 1 for true) converted by {@link CharRangeParser}
+	 * @return
+	 */
+	public long getLong() {
+		return longValue;
+	}
+
+	public void setLong(long longValue) {
+		this.longValue = longValue;
+	}
+
+	/**
+	 * Decimal converted by {@link CharRangeParser}
+	 * @return
+	 */
+	public double getDouble() {
+		return doubleValue;
+	}
+
+	public void setDouble(double doubleValue) {
+		this.doubleValue = doubleValue;
+	}
+
+	/**
+	 * Description of an error status, for the logs and the errors of the parse
+	 * @param status
+	 * @param typeName
+	 *            (type the value was converted to)
+	 * @return
+	 */
+	public static String getDescription(int status, String typeName) {
+		switch (status) {
+		case VALID:
+			return "Valid " + typeName;
+		case OUT_OF_RANGE:
+			return "Value out of the range of " + typeName;
+		default:
+			return "Invalid format for " + typeName;
+		}
+	}
+
+}
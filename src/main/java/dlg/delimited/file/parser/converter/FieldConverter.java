@@ -0,0 +1,25 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Converts the text of a column into the value of a field. Converters are resolved once per
+ * field, when the binding of the DTO is built, so they have to be thread safe: the same
+ * instance is used by every parsing of the DTO.
+ * <br>
+ * Custom converters are registered through {@link FieldConverters#register(Class, FieldConverter)}.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of the field
+ */
+public interface FieldConverter<T> {
+
+	/**
+	 * Converts the value of the column, already unquoted (and trimmed when the field requires it)
+	 * @param value
+	 * @return
+	 * @throws Exception
+	 *             if the value is not valid for the type
+	 */
+	T convert(String value) throws Exception;
+
+}
@@ -0,0 +1,117 @@
+package dlg.delimited.file.parser.converter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the converters of field types. A field gets the custom converter registered
+ * for its type if any, the built-in one otherwise: <br>
+ * String, int/Integer, long/Long, short/Short, double/Double, float/Float, boolean/Boolean,
+ * BigDecimal, BigInteger, Date, Calendar, LocalDate, LocalDateTime, Instant, ZonedDateTime,
+ * OffsetDateTime, UUID and any enum. long fields with a date pattern hold dates as milliseconds
+ * since the epoch.
+ * <br>
+ * Converters are resolved when the binding of a DTO is built, so register custom converters
+ * before parsing the DTOs that use them.
+ * <br>
+ * It holds the formatters used to write the fields as well: dates and enums have built-in
+ * ones, the rest of types are written through their <code>toString()</code> unless a custom
+ * formatter is registered.
+ *
+ * @author dalcantara
+ *
+ */
+public class FieldConverters {
+
+	private static final Map<Class<?>, FieldConverter<?>> customConverters = new ConcurrentHashMap<Class<?>, FieldConverter<?>>();
+	private static final Map<Class<?>, FieldFormatter<?>> customFormatters = new ConcurrentHashMap<Class<?>, FieldFormatter<?>>();
+
+	/**
+	 * Registers the converter for the fields of the received type, replacing the
+	 * built-in one (or a previously registered one)
+	 * @param type
+	 * @param converter
+	 */
+	public static <T> void register(Class<T> type, FieldConverter<? extends T> converter) {
+		if (type == null || converter == null) {
+			throw new NullPointerException("Invalid parameters: type and converter are mandatory");
+		}
+		customConverters.put(type, converter);
+	}
+
+	/**
+	 * Registers the formatter for the fields of the received type, replacing the built-in
+	 * one (or a previously registered one)
+	 * @param type
+	 * @param formatter
+	 */
+	public static <T> void register(Class<T> type, FieldFormatter<? super T> formatter) {
+		if (type == null || formatter == null) {
+			throw new NullPointerException("Invalid parameters: type and formatter are mandatory");
+		}
+		customFormatters.put(type, formatter);
+	}
+
+	/**
+	 * Removes the converter and the formatter registered for the type, so the built-in ones
+	 * are used again
+	 * @param type
+	 */
+	public static void unregister(Class<?> type) {
+		customConverters.remove(type);
+		customFormatters.remove(type);
+	}
+
+	/**
+	 * Returns true if there is a custom converter registered for the type
+	 * @param type
+	 * @return
+	 */
+	public static boolean isRegistered(Class<?> type) {
+		return customConverters.containsKey(type);
+	}
+
+	/**
+	 * Returns true if the fields of the type, with the received date pattern, hold dates as
+	 * milliseconds since the epoch instead of numbers
+	 * @param type
+	 * @param dateFormatPattern
+	 * @return
+	 */
+	public static boolean isEpochMillis(Class<?> type, String dateFormatPattern) {
+		return !isRegistered(type) && BuiltInConverters.isEpochMillis(type, dateFormatPattern);
+	}
+
+	/**
+	 * Resolves the converter of a field
+	 * @param type
+	 *            (type of the field)
+	 * @param dateFormatPattern
+	 *            (pattern of date fields, null to use the default formats)
+	 * @return the converter, or null if the type is not supported
+	 */
+	public static FieldConverter<?> getConverter(Class<?> type, String dateFormatPattern) {
+		FieldConverter<?> converter = customConverters.get(type);
+		if (converter != null) {
+			return converter;
+		}
+		return BuiltInConverters.getConverter(type, dateFormatPattern);
+	}
+
+	/**
+	 * Resolves the formatter of a field
+	 * @param type
+	 *            (type of the field)
+	 * @param dateFormatPattern
+	 *            (pattern of date fields, null to use the default formats)
+	 * @return the formatter, or null if the value is written through its <code>toString()</code>
+	 */
+	public static FieldFormatter<?> getFormatter(Class<?> type, String dateFormatPattern) {
+		FieldFormatter<?> formatter = customFormatters.get(type);
+		if (formatter != null) {
+			return formatter;
+		}
+		return BuiltInFormatters.getFormatter(type, dateFormatPattern);
+	}
+
+}
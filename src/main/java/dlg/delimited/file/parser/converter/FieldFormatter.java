@@ -0,0 +1,24 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Writes the value of a field as the text of its column, the opposite of a {@link FieldConverter}.
+ * Formatters are resolved once per field, when the write plan of the DTO is built, so they
+ * have to be thread safe.
+ * <br>
+ * Custom formatters are registered through {@link FieldConverters#register(Class, FieldFormatter)}.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of the field
+ */
+public interface FieldFormatter<T> {
+
+	/**
+	 * Appends the text of the value, not quoted yet
+	 * @param value
+	 *            (never null, null values are written as empty columns)
+	 * @param out
+	 */
+	void format(T value, StringBuilder out);
+
+}
@@ -0,0 +1,114 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Bounded dictionary of the values of a low-cardinality column (countries, currencies,
+ * status...), so every repeated value is the same String instance instead of a new one per
+ * record. Values are looked up straight from the characters of the record, a String is only
+ * created the first time a value is seen.
+ * <br>
+ * Up to <code>maxSize</code> distinct values are kept. Once it's full, values not in the
+ * dictionary are created as usual, and if there are as many of them as the size of the
+ * dictionary the column is taken as a high-cardinality one and the dictionary is disabled,
+ * so no more time is spent hashing its values.
+ * <br>
+ * It's not thread safe, every parse gets its own dictionaries.
+ *
+ * @author dalcantara
+ *
+ */
+public class StringDictionary {
+
+	private final int maxSize;
+	private final String[] values;
+	private final int[] hashes;
+	private final int mask;
+
+	private int size = 0;
+	private int misses = 0;
+	private boolean disabled = false;
+
+	/**
+	 *
+	 * @param maxSize
+	 *            (maximum amount of distinct values kept)
+	 */
+	public StringDictionary(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Invalid parameters: maxSize has to be greater than 0");
+		}
+		this.maxSize = maxSize;
+		// load factor under 0.5, so probe sequences are short
+		int capacity = Integer.highestOneBit(maxSize) << 2;
+		this.values = new String[capacity];
+		this.hashes = new int[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the canonical instance of the value in the range of characters, creating (and
+	 * keeping it, if there is room for it) the first time it's seen
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public String get(char[] chars, int start, int end) {
+		if (disabled) {
+			return new String(chars, start, end - start);
+		}
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int slot = spread(hash) & mask;
+		String value;
+		while ((value = values[slot]) != null) {
+			if (hashes[slot] == hash && matches(value, chars, start, end)) {
+				return value;
+			}
+			slot = (slot + 1) & mask;
+		}
+		value = new String(chars, start, end - start);
+		if (size < maxSize) {
+			values[slot] = value;
+			hashes[slot] = hash;
+			size++;
+		} else if (++misses >= maxSize) {
+			disabled = true;
+		}
+		return value;
+	}
+
+	/**
+	 * Amount of distinct values kept
+	 * @return
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the dictionary was disabled because the column has too many distinct values
+	 * @return
+	 */
+	public boolean isDisabled() {
+		return disabled;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(String value, char[] chars, int start, int end) {
+		if (value.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i - start) != chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
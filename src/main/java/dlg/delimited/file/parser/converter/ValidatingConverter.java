@@ -0,0 +1,24 @@
+package dlg.delimited.file.parser.converter;
+
+/**
+ * Converter able to tell a wrong value through a status code instead of an exception, used
+ * by the parse whenever the converter of a field implements it. All the built-in converters
+ * do; custom converters may implement it too when wrong values are frequent in their files.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of the field
+ */
+public interface ValidatingConverter<T> extends FieldConverter<T> {
+
+	/**
+	 * Converts the value of the column, already unquoted (and trimmed when the field requires
+	 * it), without throwing any exception for wrong values
+	 * @param value
+	 * @param result
+	 *            (receives the converted value, see {@link ConversionResult#getValue()})
+	 * @return {@link ConversionResult#VALID}, or the status telling why the value is wrong
+	 */
+	int tryConvert(String value, ConversionResult result);
+
+}
@@ -0,0 +1,19 @@
+package dlg.delimited.file.parser.exception;
+
+/**
+ * Thrown when a parse finds more errors than the budget of its
+ * {@link dlg.delimited.file.parser.ParseErrorCollector}, interrupting the whole process
+ * like any other {@link InvalidFieldValueException}.
+ *
+ * @author dalcantara
+ *
+ */
+public class ErrorBudgetExceededException extends InvalidFieldValueException {
+
+	private static final long serialVersionUID = 4719355328306713275L;
+
+	public ErrorBudgetExceededException(String message) {
+		super(message, false);
+	}
+
+}
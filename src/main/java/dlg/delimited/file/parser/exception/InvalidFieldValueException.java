@@ -2,15 +2,38 @@ package dlg.delimited.file.parser.exception;
 
 public class InvalidFieldValueException extends IllegalArgumentException {
 
+	private boolean writableStackTrace;
+
 	public InvalidFieldValueException(String format) {
+		this(format, true);
+	}
+
+	/**
+	 *
+	 * @param format
+	 * @param writableStackTrace
+	 *            (false for the exceptions interrupting a parse, their stack trace would only
+	 *            show the internals of the parser and capturing it is expensive)
+	 */
+	public InvalidFieldValueException(String format, boolean writableStackTrace) {
 		super(format);
+		// the constructor of Throwable skipped it, as the flag wasn't set yet
+		this.writableStackTrace = writableStackTrace;
+		if (writableStackTrace) {
+			super.fillInStackTrace();
+		}
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return writableStackTrace ? super.fillInStackTrace() : this;
 	}
 
 	/**
-	 * 
+	 *
 	 */
 	private static final long serialVersionUID = -170786038436825041L;
-	
-	
+
+
 
 }
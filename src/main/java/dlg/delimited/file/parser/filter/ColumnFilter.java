@@ -0,0 +1,139 @@
+package dlg.delimited.file.parser.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Condition a record has to meet to be binded, on the column of one of the binded fields of
+ * your DTO. See {@link dlg.delimited.file.parser.ParseOptions#addFilter(ColumnFilter)}.
+ * <br>
+ * The condition is either on the raw characters of the column ({@link RawPredicate}), so
+ * nothing is created for rejected records, or on its value converted to the type of the field
+ * ({@link ValuePredicate}).
+ *
+ * @author dalcantara
+ *
+ */
+public class ColumnFilter {
+
+	private final String fieldName;
+	private final RawPredicate rawPredicate;
+	private final ValuePredicate<?> valuePredicate;
+
+	/**
+	 * Filter on the raw characters of the column of the field
+	 * @param fieldName
+	 * @param predicate
+	 */
+	public ColumnFilter(String fieldName, RawPredicate predicate) {
+		if (fieldName == null || predicate == null) {
+			throw new NullPointerException("Invalid parameters: field name and predicate are mandatory");
+		}
+		this.fieldName = fieldName;
+		this.rawPredicate = predicate;
+		this.valuePredicate = null;
+	}
+
+	/**
+	 * Filter on the value of the column converted to the type of the field
+	 * @param fieldName
+	 * @param predicate
+	 */
+	public ColumnFilter(String fieldName, ValuePredicate<?> predicate) {
+		if (fieldName == null || predicate == null) {
+			throw new NullPointerException("Invalid parameters: field name and predicate are mandatory");
+		}
+		this.fieldName = fieldName;
+		this.rawPredicate = null;
+		this.valuePredicate = predicate;
+	}
+
+	/**
+	 * Keeps the records whose column is exactly the received text, compared on the raw
+	 * characters so nothing is created for rejected records
+	 * @param fieldName
+	 * @param text
+	 * @return
+	 */
+	public static ColumnFilter equalTo(String fieldName, final String text) {
+		if (text == null) {
+			throw new NullPointerException("Invalid parameters: text is mandatory");
+		}
+		return new ColumnFilter(fieldName, new RawPredicate() {
+			@Override
+			public boolean test(char[] chars, int start, int end) {
+				return matches(text, chars, start, end);
+			}
+		});
+	}
+
+	/**
+	 * Keeps the records whose column is exactly any of the received texts
+	 * @param fieldName
+	 * @param texts
+	 * @return
+	 */
+	public static ColumnFilter oneOf(String fieldName, Collection<String> texts) {
+		if (texts == null) {
+			throw new NullPointerException("Invalid parameters: texts are mandatory");
+		}
+		final Set<String> values = new HashSet<String>(texts);
+		final String[] candidates = values.toArray(new String[values.size()]);
+		return new ColumnFilter(fieldName, new RawPredicate() {
+			@Override
+			public boolean test(char[] chars, int start, int end) {
+				for (String candidate : candidates) {
+					if (matches(candidate, chars, start, end)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * Same than {@link #oneOf(String, Collection)}
+	 * @param fieldName
+	 * @param texts
+	 * @return
+	 */
+	public static ColumnFilter oneOf(String fieldName, String... texts) {
+		return oneOf(fieldName, Arrays.asList(texts));
+	}
+
+	private static boolean matches(String text, char[] chars, int start, int end) {
+		if (text.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i - start) != chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	/**
+	 * Condition on the raw characters, null if the filter is on the converted value
+	 * @return
+	 */
+	public RawPredicate getRawPredicate() {
+		return rawPredicate;
+	}
+
+	/**
+	 * Condition on the converted value, null if the filter is on the raw characters
+	 * @return
+	 */
+	public ValuePredicate<?> getValuePredicate() {
+		return valuePredicate;
+	}
+
+}
@@ -0,0 +1,27 @@
+package dlg.delimited.file.parser.filter;
+
+/**
+ * Condition on the raw characters of a column, evaluated before anything is converted.
+ * Quoted columns come without their enclosing quotes and with their doubled quotes
+ * collapsed into one, as the converters get them, and trimmed when the field requires it.
+ * <br>
+ * The characters belong to a buffer reused for every record, don't keep them. Only the
+ * columns with doubled quotes are copied to collapse them, the rest are tested in place.
+ *
+ * @author dalcantara
+ *
+ */
+public interface RawPredicate {
+
+	/**
+	 * Returns true if the record has to be kept
+	 * @param chars
+	 * @param start
+	 *            (start of the column, included)
+	 * @param end
+	 *            (end of the column, excluded. Equal to start for empty columns)
+	 * @return
+	 */
+	boolean test(char[] chars, int start, int end);
+
+}
@@ -0,0 +1,156 @@
+package dlg.delimited.file.parser.filter;
+
+import java.util.List;
+
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.FieldBinding;
+import dlg.delimited.file.parser.converter.CharRangeParser;
+import dlg.delimited.file.parser.converter.ConversionResult;
+import dlg.delimited.file.parser.converter.FieldConverter;
+import dlg.delimited.file.parser.converter.ValidatingConverter;
+import dlg.delimited.file.parser.tokenizer.ColumnBuffer;
+
+/**
+ * Filters of a parse resolved against the binding data of your DTO, so every record is
+ * evaluated on the columns of the filters only: rejected records cost the extraction of
+ * the columns evaluated, neither the DTO is created nor the rest of the columns converted.
+ * <br>
+ * Filters are evaluated in the order they were added, stopping at the first one rejecting
+ * the record, so put the cheapest and most selective first. Instances are immutable and can
+ * be shared among threads as long as the predicates can.
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordFilter {
+
+	private final FieldBinding[] bindings;
+	private final int[] columns;
+	private final RawPredicate[] rawPredicates;
+	private final ValuePredicate<?>[] valuePredicates;
+
+	/**
+	 *
+	 * @param bindedClass
+	 *            (binding data of the whole DTO, filters can be on fields out of the
+	 *            projection of the parse)
+	 * @param filters
+	 * @throws IllegalArgumentException
+	 *             if any of the filters is on a field which is not binded
+	 */
+	public RecordFilter(BindedClass bindedClass, List<ColumnFilter> filters) {
+		if (bindedClass == null || filters == null) {
+			throw new NullPointerException("Invalid parameters: binded class and filters are mandatory");
+		}
+		int size = filters.size();
+		this.bindings = new FieldBinding[size];
+		this.columns = new int[size];
+		this.rawPredicates = new RawPredicate[size];
+		this.valuePredicates = new ValuePredicate<?>[size];
+		for (int i = 0; i < size; i++) {
+			ColumnFilter filter = filters.get(i);
+			bindings[i] = bindedClass.getFieldBinding(filter.getFieldName());
+			columns[i] = getColumnIndex(bindedClass, bindings[i]);
+			if (columns[i] < 0) {
+				throw new IllegalArgumentException("Field " + filter.getFieldName() + " is not binded in class "
+						+ bindedClass.getClazz().getName());
+			}
+			rawPredicates[i] = filter.getRawPredicate();
+			valuePredicates[i] = filter.getValuePredicate();
+		}
+	}
+
+	private static int getColumnIndex(BindedClass bindedClass, FieldBinding binding) {
+		FieldBinding[] columnBindings = bindedClass.getColumnBindings();
+		for (int column = 0; binding != null && column < columnBindings.length; column++) {
+			if (columnBindings[column] == binding) {
+				return column;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the columns the tokenizer has to extract: the received ones plus the columns
+	 * of the filters
+	 * @param mappedColumns
+	 *            (columns needed to bind the records, indexed by column position)
+	 * @return
+	 */
+	public boolean[] getNeededColumns(boolean[] mappedColumns) {
+		int length = mappedColumns.length;
+		for (int column : columns) {
+			length = Math.max(length, column + 1);
+		}
+		boolean[] needed = new boolean[length];
+		System.arraycopy(mappedColumns, 0, needed, 0, mappedColumns.length);
+		for (int column : columns) {
+			needed[column] = true;
+		}
+		return needed;
+	}
+
+	/**
+	 * Returns true if the record meets all the filters
+	 * @param record
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean accept(ColumnBuffer record) {
+		for (int i = 0; i < columns.length; i++) {
+			int column = columns[i];
+			boolean empty = record.isEmpty(column);
+			if (rawPredicates[i] != null) {
+				char[] chars = record.getChars();
+				int start = empty ? 0 : record.getStart(column);
+				int end = empty ? 0 : record.getEnd(column);
+				if (!empty && record.hasEscapedQuotes(column)) {
+					// the predicate sees the text of the column, as the converters do
+					chars = record.getString(column).toCharArray();
+					start = 0;
+					end = chars.length;
+				}
+				if (!empty && bindings[i].isTrimValue()) {
+					start = CharRangeParser.trimStart(chars, start, end);
+					end = CharRangeParser.trimEnd(chars, start, end);
+				}
+				if (!rawPredicates[i].test(chars, start, end)) {
+					return false;
+				}
+			} else {
+				// the predicate is on the type of the field, the one its converter returns
+				ValuePredicate<Object> valuePredicate = (ValuePredicate<Object>) valuePredicates[i];
+				if (!valuePredicate.test(empty ? null : getValue(record, column, bindings[i]))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Value of the column converted to the type of the field, null if it can't be converted
+	 */
+	private static Object getValue(ColumnBuffer record, int column, FieldBinding binding) {
+		FieldConverter<?> converter = binding.getConverter();
+		if (converter == null) {
+			return null;
+		}
+		String value = record.getString(column);
+		if (binding.isTrimValue()) {
+			value = value.trim();
+		}
+		try {
+			if (converter instanceof ValidatingConverter) {
+				// filters are shared among threads, the holder is cheaper than an exception anyway
+				ConversionResult result = new ConversionResult();
+				int status = ((ValidatingConverter<?>) converter).tryConvert(value, result);
+				return (status == ConversionResult.VALID) ? result.getValue() : null;
+			}
+			return converter.convert(value);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+}
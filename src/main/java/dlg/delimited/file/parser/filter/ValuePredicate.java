@@ -0,0 +1,21 @@
+package dlg.delimited.file.parser.filter;
+
+/**
+ * Condition on the value of a column converted to the type of its field, evaluated before
+ * the DTO is created or any other column is converted.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of the field
+ */
+public interface ValuePredicate<T> {
+
+	/**
+	 * Returns true if the record has to be kept
+	 * @param value
+	 *            (null when the column is empty or its value can't be converted)
+	 * @return
+	 */
+	boolean test(T value);
+
+}
@@ -0,0 +1,168 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Splits a file into chunks of whole records, so they can be tokenized in parallel.
+ * <br>
+ * The file is divided into regions of the same size which are scanned in parallel, counting
+ * their quotes and line breaks. As the quote state at the start of a region depends on
+ * everything before it, every region keeps the first line break found for both states, and
+ * the right one is picked once the counts of the previous regions are known. That line break
+ * is where the chunk starts, along with the exact amount of physical lines before it.
+ * <br>
+ * Quotes are counted as opening/closing ones, which is exact as long as the quoting character
+ * is only used to enclose columns (doubled inside them). A quoting character in the middle of
+ * an unquoted column may lead to a wrong boundary, so the parsers of the chunks have to check
+ * that every chunk starts where the previous one ended.
+ *
+ * @author dalcantara
+ *
+ */
+public class ChunkSplitter {
+
+	private static final int SCAN_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final boolean quoting;
+	private final byte quote;
+
+	/**
+	 *
+	 * @param channel
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 */
+	public ChunkSplitter(FileChannel channel, String quoting) {
+		if (channel == null) {
+			throw new NullPointerException("Invalid parameters: channel is mandatory");
+		}
+		this.channel = channel;
+		this.quoting = StringUtils.isNotEmpty(quoting);
+		this.quote = this.quoting ? (byte) quoting.charAt(0) : 0;
+	}
+
+	/**
+	 * Splits the range of the file into (up to) the received amount of chunks, fewer chunks
+	 * are returned when there aren't enough records to fill them
+	 * @param start
+	 *            (start of the first record)
+	 * @param end
+	 * @param chunks
+	 * @param executor
+	 *            (executor in which the regions are scanned)
+	 * @return
+	 * @throws IOException
+	 */
+	public List<FileChunk> split(long start, long end, int chunks, ExecutorService executor) throws IOException {
+		List<FileChunk> result = new ArrayList<FileChunk>(Math.max(chunks, 1));
+		long regionSize = (chunks > 1) ? (end - start) / chunks : 0;
+		if (regionSize == 0) {
+			result.add(new FileChunk(0, start, end, 0));
+			return result;
+		}
+
+		List<Future<RegionScan>> scans = new ArrayList<Future<RegionScan>>(chunks);
+		for (int i = 0; i < chunks; i++) {
+			final long from = start + i * regionSize;
+			final long to = (i == chunks - 1) ? end : from + regionSize;
+			scans.add(executor.submit(new Callable<RegionScan>() {
+				@Override
+				public RegionScan call() throws Exception {
+					return scan(from, to);
+				}
+			}));
+		}
+
+		long chunkStart = start;
+		long chunkLines = 0;
+		long quotes = 0;
+		long lines = 0;
+		try {
+			for (int i = 0; i < chunks; i++) {
+				RegionScan scan = scans.get(i).get();
+				if (i > 0) {
+					int state = (int) (quotes & 1);
+					long boundary = scan.boundaries[state];
+					if (boundary > chunkStart && boundary < end) {
+						result.add(new FileChunk(result.size(), chunkStart, boundary, (int) chunkLines));
+						chunkStart = boundary;
+						chunkLines = lines + scan.linesBefore[state];
+					}
+				}
+				quotes += scan.quotes;
+				lines += scan.lineBreaks;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while splitting the file", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Error splitting the file", e.getCause());
+		} finally {
+			for (Future<RegionScan> scan : scans) {
+				scan.cancel(true);
+			}
+		}
+		result.add(new FileChunk(result.size(), chunkStart, end, (int) chunkLines));
+		return result;
+	}
+
+	/**
+	 * Counts the quotes and line breaks of the region, looking for the first line break out
+	 * of quotes for both states at the start of the region
+	 */
+	private RegionScan scan(long from, long to) throws IOException {
+		// separators don't matter here, just quotes and line breaks
+		StructuralScanner scanner = StructuralScanner.newInstance("\n", quoting ? String.valueOf((char) quote) : null);
+		RegionScan scan = new RegionScan();
+		long quotes = 0;
+		long lineBreaks = 0;
+		for (long windowStart = from; windowStart < to; windowStart += SCAN_WINDOW_SIZE) {
+			int size = (int) Math.min(SCAN_WINDOW_SIZE, to - windowStart);
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+			window.order(ByteOrder.LITTLE_ENDIAN);
+			for (int blockStart = 0; blockStart < size; blockStart += StructuralScanner.BLOCK_SIZE) {
+				scanner.scan(window, blockStart, size);
+				long quoteBits = scanner.getQuotes();
+				long newLines = scanner.getSeparators();
+				while (newLines != 0) {
+					int bit = Long.numberOfTrailingZeros(newLines);
+					newLines &= newLines - 1;
+					lineBreaks++;
+					int state = (int) ((quotes + Long.bitCount(quoteBits & ((1L << bit) - 1))) & 1);
+					if (scan.boundaries[state] < 0) {
+						scan.boundaries[state] = windowStart + blockStart + bit + 1;
+						scan.linesBefore[state] = lineBreaks;
+					}
+				}
+				quotes += Long.bitCount(quoteBits);
+			}
+		}
+		scan.quotes = quotes;
+		scan.lineBreaks = lineBreaks;
+		return scan;
+	}
+
+	private static class RegionScan {
+		private long quotes;
+		private long lineBreaks;
+		// indexed by the quote state at the start of the region: 0 out of quotes, 1 inside them
+		private final long[] boundaries = { -1, -1 };
+		private final long[] linesBefore = new long[2];
+	}
+
+}
@@ -0,0 +1,236 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable holder of a tokenized record: the raw characters of the record and the
+ * boundaries of every column in it. Columns are kept as offsets into the characters,
+ * so a column only becomes a String when somebody asks for it.
+ * <br>
+ * The boundaries of quoted columns exclude the enclosing quotes, and doubled quotes
+ * inside them are only collapsed when the value is taken through {@link #getString(int)}.
+ * <br>
+ * When the record comes from raw bytes, the characters hold just the decoded columns and
+ * the raw line is kept as a slice of those bytes.
+ *
+ * @author dalcantara
+ *
+ */
+public class ColumnBuffer {
+
+	private static final int INITIAL_COLUMNS = 32;
+	private static final int INITIAL_CHARS = 256;
+
+	private char[] chars = new char[INITIAL_CHARS];
+	private int length = 0;
+
+	private int[] starts = new int[INITIAL_COLUMNS];
+	private int[] ends = new int[INITIAL_COLUMNS];
+	private boolean[] quoted = new boolean[INITIAL_COLUMNS];
+	private boolean[] escaped = new boolean[INITIAL_COLUMNS];
+	private int columnCount = 0;
+
+	private char quote;
+	private int lineNumber;
+
+	private ByteBuffer rawBytes;
+	private int rawStart;
+	private int rawEnd;
+
+	/**
+	 * Clears the record, keeping the allocated buffers
+	 */
+	void clear() {
+		length = 0;
+		columnCount = 0;
+		rawBytes = null;
+	}
+
+	/**
+	 * Sets the slice of bytes the record was decoded from
+	 */
+	void setRawLine(ByteBuffer bytes, int start, int end) {
+		this.rawBytes = bytes;
+		this.rawStart = start;
+		this.rawEnd = end;
+	}
+
+	char[] ensureCapacity(int capacity) {
+		if (capacity > chars.length) {
+			chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+		}
+		return chars;
+	}
+
+	int getLength() {
+		return length;
+	}
+
+	void setLength(int length) {
+		this.length = length;
+	}
+
+	void setQuote(char quote) {
+		this.quote = quote;
+	}
+
+	void setLineNumber(int lineNumber) {
+		this.lineNumber = lineNumber;
+	}
+
+	void addColumn(int start, int end, boolean quotedColumn, boolean escapedQuotes) {
+		if (columnCount == starts.length) {
+			int capacity = columnCount * 2;
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			quoted = Arrays.copyOf(quoted, capacity);
+			escaped = Arrays.copyOf(escaped, capacity);
+		}
+		starts[columnCount] = start;
+		ends[columnCount] = end;
+		quoted[columnCount] = quotedColumn;
+		escaped[columnCount] = escapedQuotes;
+		columnCount++;
+	}
+
+	/**
+	 * Raw characters of the record, use them along with {@link #getStart(int)} and {@link #getEnd(int)}
+	 * @return
+	 */
+	public char[] getChars() {
+		return chars;
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Index in {@link #getChars()} of the first character of the column
+	 * @param column
+	 * @return
+	 */
+	public int getStart(int column) {
+		return starts[column];
+	}
+
+	/**
+	 * Index in {@link #getChars()} after the last character of the column
+	 * @param column
+	 * @return
+	 */
+	public int getEnd(int column) {
+		return ends[column];
+	}
+
+	/**
+	 * Returns true if the column was enclosed by quotes
+	 * @param column
+	 * @return
+	 */
+	public boolean isQuoted(int column) {
+		return quoted[column];
+	}
+
+	/**
+	 * Returns true if the column contains doubled quotes that stand for a single one
+	 * @param column
+	 * @return
+	 */
+	public boolean hasEscapedQuotes(int column) {
+		return escaped[column];
+	}
+
+	/**
+	 * Returns true if the column doesn't exist or has no characters at all. An empty
+	 * quoted column ("") is not considered empty, it's an explicit empty text.
+	 * @param column
+	 * @return
+	 */
+	public boolean isEmpty(int column) {
+		return column >= columnCount || (starts[column] == ends[column] && !quoted[column]);
+	}
+
+	/**
+	 * Value of the column, without enclosing quotes and with doubled quotes collapsed
+	 * @param column
+	 * @return
+	 */
+	public String getString(int column) {
+		int start = starts[column];
+		int end = ends[column];
+		if (!escaped[column]) {
+			return new String(chars, start, end - start);
+		}
+		StringBuilder value = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char c = chars[i];
+			value.append(c);
+			if (c == quote && i + 1 < end && chars[i + 1] == quote) {
+				i++;
+			}
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Quoting character of the content, 0 if there is no quoting
+	 * @return
+	 */
+	public char getQuote() {
+		return quote;
+	}
+
+	/**
+	 * Physical line number in which the record starts, counting from 1
+	 * @return
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns true if the record is made of blank characters only
+	 * @return
+	 */
+	public boolean isBlank() {
+		if (rawBytes != null) {
+			for (int i = rawStart; i < rawEnd; i++) {
+				int b = rawBytes.get(i);
+				if (b < 0 || b > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (int i = 0; i < length; i++) {
+			if (chars[i] > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Raw text of the record, as it was read (without the line break)
+	 * @return
+	 */
+	public String getLine() {
+		if (rawBytes != null) {
+			byte[] line = new byte[rawEnd - rawStart];
+			for (int i = 0; i < line.length; i++) {
+				line[i] = rawBytes.get(rawStart + i);
+			}
+			return new String(line, StandardCharsets.UTF_8);
+		}
+		return new String(chars, 0, length);
+	}
+
+	@Override
+	public String toString() {
+		return getLine();
+	}
+
+}
@@ -0,0 +1,52 @@
+package dlg.delimited.file.parser.tokenizer;
+
+/**
+ * Range of a file holding whole records, so it can be tokenized on its own
+ *
+ * @author dalcantara
+ *
+ */
+public class FileChunk {
+
+	private final int index;
+	private final long start;
+	private final long end;
+	private final int linesBefore;
+
+	public FileChunk(int index, long start, long end, int linesBefore) {
+		this.index = index;
+		this.start = start;
+		this.end = end;
+		this.linesBefore = linesBefore;
+	}
+
+	/**
+	 * Position of the chunk in the file, counting from 0
+	 * @return
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Amount of physical lines before the start of the chunk
+	 * @return
+	 */
+	public int getLinesBefore() {
+		return linesBefore;
+	}
+
+	@Override
+	public String toString() {
+		return "FileChunk [index=" + index + ", start=" + start + ", end=" + end + ", linesBefore=" + linesBefore + "]";
+	}
+
+}
@@ -0,0 +1,441 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Tokenizer of UTF-8 delimited files working over memory mapped regions of the file.
+ * It follows the same rules than {@link RecordTokenizer}, but scans the raw bytes looking
+ * for separators, quotes and line breaks (a block at a time, see {@link StructuralScanner}),
+ * and only decodes into characters the columns it was asked for. The rest of the columns
+ * are registered as empty, and the columns after the last one asked for aren't registered at
+ * all: without quoting, the rest of the record is skipped looking just for the line break.
+ * <br>
+ * The file is mapped by windows that are remapped as the tokenizer advances, so files larger
+ * than 2GB are supported. A window is enlarged when a single record doesn't fit in it.
+ * <br>
+ * It can also tokenize just a range of the file (i.e. a chunk parsed by another thread),
+ * in that case it reads the records starting in the range, the last one may end after it.
+ *
+ * @author dalcantara
+ *
+ */
+public class MappedRecordTokenizer implements RecordReader {
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final int UNQUOTED = 0;
+	private static final int QUOTED = 1;
+	private static final int QUOTE_IN_QUOTED = 2;
+
+	private final FileChannel channel;
+	private final boolean ownChannel;
+	private final long start;
+	private final long end;
+	private final long limit;
+	private final byte[] separator;
+	private final byte separatorLast;
+	private final boolean quoting;
+	private final byte quote;
+	private final boolean[] decodedColumns;
+	private final int lastColumn;
+	private final int windowSize;
+	private final StructuralScanner scanner;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private int windowLimit;
+
+	// structural bytes of the last block scanned, records usually share blocks
+	private int scannedBlock = -1;
+	private long scannedStructurals;
+	private long scannedLineBreaks;
+
+	private long position;
+	private int lineNumber;
+	private long readNanos;
+
+	/**
+	 * Tokenizes the whole file, skipping the UTF-8 byte order mark if present
+	 * @param channel
+	 * @param separator
+	 * @param quoting
+	 * @param decodedColumns
+	 *            (indexes of the columns to decode, null to decode all of them)
+	 * @throws IOException
+	 */
+	public MappedRecordTokenizer(FileChannel channel, String separator, String quoting, boolean[] decodedColumns)
+			throws IOException {
+		this(channel, getContentStart(channel), channel.size(), 0, separator, quoting, decodedColumns,
+				DEFAULT_WINDOW_SIZE, true);
+	}
+
+	/**
+	 * Tokenizes the records starting from <code>start</code>, which has to be a record boundary,
+	 * and before <code>end</code>. The channel is not closed by this tokenizer, so it can be
+	 * shared by the tokenizers of several ranges.
+	 * @param channel
+	 * @param start
+	 * @param end
+	 * @param linesBefore
+	 *            (amount of physical lines before <code>start</code>)
+	 * @param separator
+	 * @param quoting
+	 * @param decodedColumns
+	 *            (indexes of the columns to decode, null to decode all of them)
+	 * @param windowSize
+	 * @throws IOException
+	 */
+	public MappedRecordTokenizer(FileChannel channel, long start, long end, int linesBefore, String separator,
+			String quoting, boolean[] decodedColumns, int windowSize) throws IOException {
+		this(channel, start, end, linesBefore, separator, quoting, decodedColumns, windowSize, false);
+	}
+
+	private MappedRecordTokenizer(FileChannel channel, long start, long end, int linesBefore, String separator,
+			String quoting, boolean[] decodedColumns, int windowSize, boolean ownChannel) throws IOException {
+		if (channel == null) {
+			throw new NullPointerException("Invalid parameters: channel is mandatory");
+		}
+		if (StringUtils.isEmpty(separator)) {
+			throw new IllegalArgumentException("Invalid parameters: separator is mandatory");
+		}
+		this.channel = channel;
+		this.ownChannel = ownChannel;
+		this.start = start;
+		this.end = end;
+		this.limit = channel.size();
+		this.position = start;
+		this.lineNumber = linesBefore;
+		this.separator = separator.getBytes(StandardCharsets.UTF_8);
+		this.separatorLast = this.separator[this.separator.length - 1];
+		this.quoting = StringUtils.isNotEmpty(quoting);
+		this.quote = this.quoting ? (byte) quoting.charAt(0) : 0;
+		this.decodedColumns = decodedColumns;
+		this.lastColumn = (decodedColumns != null) ? decodedColumns.length - 1 : Integer.MAX_VALUE;
+		this.windowSize = windowSize;
+		this.scanner = StructuralScanner.newInstance(separator, quoting);
+	}
+
+	/**
+	 * Position of the file in which the content starts, after the UTF-8 byte order mark if present
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static long getContentStart(FileChannel channel) throws IOException {
+		if (channel.size() < 3) {
+			return 0;
+		}
+		MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+		if (bytes.get(0) == (byte) 0xEF && bytes.get(1) == (byte) 0xBB && bytes.get(2) == (byte) 0xBF) {
+			return 3;
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean next(ColumnBuffer record) throws IOException {
+		record.clear();
+		if (position >= end) {
+			return false;
+		}
+		if (window == null || position < windowStart || position >= windowStart + windowLimit) {
+			map(position, windowSize);
+		}
+		while (true) {
+			int next = scan(record, (int) (position - windowStart));
+			if (next >= 0) {
+				position = windowStart + next;
+				return true;
+			}
+			// the record doesn't fit in what's left of the window
+			long pending = windowStart + windowLimit - position;
+			map(position, (int) Math.min(MAX_WINDOW_SIZE, Math.max(windowSize, pending * 2)));
+		}
+	}
+
+	private void map(long from, int size) throws IOException {
+		long mapStart = System.nanoTime();
+		windowStart = from;
+		windowLimit = (int) Math.min(size, limit - from);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLimit);
+		readNanos += System.nanoTime() - mapStart;
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		scannedBlock = -1;
+	}
+
+	/**
+	 * Bitmap of the structural bytes of the block of the window starting at the received position
+	 */
+	private long getStructurals(int blockStart) {
+		if (blockStart != scannedBlock) {
+			scan(blockStart);
+		}
+		return scannedStructurals;
+	}
+
+	/**
+	 * Bitmap of the line breaks of the block of the window starting at the received position
+	 */
+	private long getLineBreaks(int blockStart) {
+		if (blockStart != scannedBlock) {
+			scan(blockStart);
+		}
+		return scannedLineBreaks;
+	}
+
+	private void scan(int blockStart) {
+		scanner.scan(window, blockStart, windowLimit);
+		scannedBlock = blockStart;
+		scannedStructurals = scanner.getStructurals();
+		scannedLineBreaks = scanner.getLineBreaks();
+	}
+
+	/**
+	 * Scans the record starting at the received position of the window. The window is read
+	 * a block at a time through the {@link StructuralScanner}, so just the separators, line
+	 * breaks and quotes are visited.
+	 * @return position after the record, or -1 if the window ended before the record did
+	 */
+	private int scan(ColumnBuffer record, int p) {
+		record.clear();
+		record.setQuote((char) quote);
+		record.setLineNumber(lineNumber + 1);
+
+		MappedByteBuffer bytes = window;
+		int limit = windowLimit;
+		boolean lastWindow = windowStart + windowLimit >= this.limit;
+		int recordStart = p;
+		int lines = 0;
+		int column = 0;
+		int state = UNQUOTED;
+		int fieldStart = p;
+		int rawFieldStart = p;
+		int quotePosition = -1;
+		int quoteClose = -1;
+		boolean quoted = false;
+		boolean escaped = false;
+		// past the last column, with no quoting only line breaks matter
+		boolean skipping = false;
+
+		// blocks are aligned to the start of the window, so every block is scanned once
+		int blockOffset = p % StructuralScanner.BLOCK_SIZE;
+		for (int blockStart = p - blockOffset; blockStart < limit; blockStart += StructuralScanner.BLOCK_SIZE) {
+			long structurals = skipping ? getLineBreaks(blockStart) : getStructurals(blockStart);
+			if (blockOffset > 0) {
+				structurals &= -1L << blockOffset;
+				blockOffset = 0;
+			}
+			while (structurals != 0) {
+				int q = blockStart + Long.numberOfTrailingZeros(structurals);
+				structurals &= structurals - 1;
+				byte b = bytes.get(q);
+
+				if (state == QUOTE_IN_QUOTED) {
+					if (b == quote && q == quotePosition + 1) {
+						escaped = true;
+						state = QUOTED;
+						continue;
+					}
+					// the previous quote was the closing one
+					quoteClose = quotePosition;
+					state = UNQUOTED;
+				}
+				if (state == QUOTED) {
+					if (b == quote) {
+						quotePosition = q;
+						state = QUOTE_IN_QUOTED;
+					} else if (b == '\n') {
+						lines++;
+					}
+					continue;
+				}
+				if (b == '\n' || b == '\r') {
+					int next = q + 1;
+					if (b == '\r') {
+						if (next < limit) {
+							if (bytes.get(next) == '\n') {
+								next++;
+							}
+						} else if (!lastWindow) {
+							// can't tell yet if it's followed by \n
+							return -1;
+						}
+					}
+					if (column <= lastColumn) {
+						endColumn(record, column, fieldStart, rawFieldStart, q, quoted, quoteClose, escaped);
+					}
+					record.setRawLine(bytes, recordStart, q);
+					lineNumber += lines + 1;
+					return next;
+				}
+				if (b == separatorLast && endsWithSeparator(bytes, q + 1, rawFieldStart)) {
+					if (column <= lastColumn) {
+						endColumn(record, column, fieldStart, rawFieldStart, q + 1 - separator.length, quoted, quoteClose, escaped);
+					}
+					column++;
+					fieldStart = q + 1;
+					rawFieldStart = q + 1;
+					quoteClose = -1;
+					quoted = false;
+					escaped = false;
+					if (column > lastColumn && !quoting) {
+						skipping = true;
+						structurals &= getLineBreaks(blockStart);
+					}
+				} else if (quoting && b == quote && q == rawFieldStart) {
+					// quotes are only special at the start of the column
+					quoted = true;
+					fieldStart = q + 1;
+					state = QUOTED;
+				}
+			}
+		}
+		if (!lastWindow) {
+			return -1;
+		}
+		// end of the file without a line break
+		if (state == QUOTE_IN_QUOTED) {
+			quoteClose = quotePosition;
+		}
+		if (column <= lastColumn) {
+			endColumn(record, column, fieldStart, rawFieldStart, limit, quoted, quoteClose, escaped);
+		}
+		record.setRawLine(bytes, recordStart, limit);
+		lineNumber += lines + 1;
+		return limit;
+	}
+
+	private boolean endsWithSeparator(MappedByteBuffer bytes, int p, int rawFieldStart) {
+		int separatorLength = separator.length;
+		if (separatorLength == 1) {
+			return true;
+		}
+		int from = p - separatorLength;
+		if (from < rawFieldStart) {
+			return false;
+		}
+		for (int i = 0; i < separatorLength - 1; i++) {
+			if (bytes.get(from + i) != separator[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Registers the column that ends at the received position, decoding it if it was requested
+	 */
+	private void endColumn(ColumnBuffer record, int column, int fieldStart, int rawFieldStart, int fieldEnd,
+			boolean quoted, int quoteClose, boolean escaped) {
+		if (decodedColumns != null && (column >= decodedColumns.length || !decodedColumns[column])) {
+			record.addColumn(0, 0, false, false);
+			return;
+		}
+		int from = fieldStart;
+		int to = fieldEnd;
+		boolean quotedColumn = quoted;
+		boolean escapedColumn = escaped;
+		if (quoted) {
+			if (quoteClose == fieldEnd - 1) {
+				to = quoteClose;
+			} else if (quoteClose >= 0) {
+				// text after the closing quote, so it wasn't really a quoted column
+				from = rawFieldStart;
+				quotedColumn = false;
+				escapedColumn = false;
+			}
+		}
+		int charStart = record.getLength();
+		int charEnd = decode(record, from, to, charStart);
+		record.setLength(charEnd);
+		record.addColumn(charStart, charEnd, quotedColumn, escapedColumn);
+	}
+
+	/**
+	 * Decodes the UTF-8 bytes into the characters of the record
+	 * @return length of the characters after the decoded ones
+	 */
+	private int decode(ColumnBuffer record, int from, int to, int length) {
+		char[] chars = record.ensureCapacity(length + (to - from));
+		MappedByteBuffer bytes = window;
+		int i = from;
+		while (i < to) {
+			int b0 = bytes.get(i);
+			if (b0 >= 0) {
+				chars[length++] = (char) b0;
+				i++;
+			} else if ((b0 & 0xE0) == 0xC0 && i + 1 < to && isContinuation(bytes.get(i + 1))) {
+				chars[length++] = (char) (((b0 & 0x1F) << 6) | (bytes.get(i + 1) & 0x3F));
+				i += 2;
+			} else if ((b0 & 0xF0) == 0xE0 && i + 2 < to && isContinuation(bytes.get(i + 1))
+					&& isContinuation(bytes.get(i + 2))) {
+				chars[length++] = (char) (((b0 & 0x0F) << 12) | ((bytes.get(i + 1) & 0x3F) << 6) | (bytes.get(i + 2) & 0x3F));
+				i += 3;
+			} else if ((b0 & 0xF8) == 0xF0 && i + 3 < to && isContinuation(bytes.get(i + 1))
+					&& isContinuation(bytes.get(i + 2)) && isContinuation(bytes.get(i + 3))) {
+				int codePoint = ((b0 & 0x07) << 18) | ((bytes.get(i + 1) & 0x3F) << 12)
+						| ((bytes.get(i + 2) & 0x3F) << 6) | (bytes.get(i + 3) & 0x3F);
+				chars[length++] = Character.highSurrogate(codePoint);
+				chars[length++] = Character.lowSurrogate(codePoint);
+				i += 4;
+			} else {
+				chars[length++] = '\uFFFD';
+				i++;
+			}
+		}
+		return length;
+	}
+
+	private static boolean isContinuation(byte b) {
+		return (b & 0xC0) == 0x80;
+	}
+
+	/**
+	 * Amount of bytes read so far
+	 * @return
+	 */
+	@Override
+	public long getInputRead() {
+		return position - start;
+	}
+
+	@Override
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Time spent so far mapping the windows of the file. Pages are read as they are touched,
+	 * so the time spent reading them is mostly taken by the scan of the records.
+	 * @return
+	 */
+	@Override
+	public long getReadNanos() {
+		return readNanos;
+	}
+
+	/**
+	 * Position in the file after the last record read
+	 * @return
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		if (ownChannel) {
+			channel.close();
+		}
+	}
+
+}
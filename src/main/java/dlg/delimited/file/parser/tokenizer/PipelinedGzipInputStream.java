@@ -0,0 +1,383 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decompressed content of a gzip file, decompressed ahead of the reader by a thread of its
+ * own, so decompressing and parsing overlap. Blocks of decompressed content are handed over
+ * through a bounded queue, which keeps the memory used by the blocks waiting to be read
+ * limited.
+ * <br>
+ * Files written as a series of BGZF members (<code>bgzip</code>, and any gzip writer
+ * storing the size of every member in its header) are read member by member, and groups of
+ * members are inflated in parallel on the received executor, keeping their order. Any other
+ * gzip file, multi-member ones included, is inflated sequentially on the decompression thread:
+ * the size of their members is unknown until they are inflated. When a member without its
+ * size is found in a BGZF file, the rest of the file is inflated sequentially.
+ * <br>
+ * Closing the stream stops the decompression thread and closes the file.
+ *
+ * @author dalcantara
+ *
+ */
+public class PipelinedGzipInputStream extends InputStream {
+
+	/**
+	 * Size of the blocks inflated sequentially
+	 */
+	private static final int BLOCK_SIZE = 256 * 1024;
+
+	/**
+	 * Compressed size of the groups of BGZF members inflated at once
+	 */
+	private static final int GROUP_SIZE = 1024 * 1024;
+
+	/**
+	 * Blocks (or groups of members) decompressed ahead of the reader
+	 */
+	private static final int QUEUED_BLOCKS = 16;
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int TRAILER_SIZE = 8;
+	private static final int FLAG_EXTRA = 4;
+	private static final int BGZF_HEADER_SIZE = 18;
+
+	private static final byte[] END_OF_CONTENT = new byte[0];
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private static Logger logger = LoggerFactory.getLogger(PipelinedGzipInputStream.class);
+
+	private final FileChannel channel;
+	private final ExecutorService executor;
+	private final BlockingQueue<Future<byte[]>> blocks = new ArrayBlockingQueue<Future<byte[]>>(QUEUED_BLOCKS);
+	private final Thread decompressor;
+
+	private byte[] block = null;
+	private int position = 0;
+	private boolean ended = false;
+	private volatile boolean closed = false;
+
+	/**
+	 * Opens the gzip file and starts decompressing it
+	 * @param path
+	 * @param executor
+	 *            (executor inflating the members of BGZF files in parallel)
+	 * @throws IOException
+	 */
+	public PipelinedGzipInputStream(Path path, ExecutorService executor) throws IOException {
+		if (path == null) {
+			throw new NullPointerException("Invalid parameters: path is mandatory");
+		}
+		if (executor == null) {
+			throw new NullPointerException("Invalid parameters: executor is mandatory");
+		}
+		this.executor = executor;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.decompressor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				decompress();
+			}
+		}, "dlg-gzip-" + THREAD_COUNT.incrementAndGet());
+		this.decompressor.setDaemon(true);
+		this.decompressor.start();
+	}
+
+	/**
+	 * Returns true if the file starts as a gzip file does
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public static boolean isGzip(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return isGzip(channel);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Same than {@link #isGzip(Path)} on an open file, its position is left untouched
+	 * @param channel
+	 * @return
+	 * @throws IOException
+	 */
+	public static boolean isGzip(FileChannel channel) throws IOException {
+		ByteBuffer magic = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+		while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+			// reading the magic number
+		}
+		return !magic.hasRemaining() && (magic.getShort(0) & 0xffff) == GZIP_MAGIC;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!nextBlock()) {
+			return -1;
+		}
+		return block[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!nextBlock()) {
+			return -1;
+		}
+		int read = Math.min(length, block.length - position);
+		System.arraycopy(block, position, buffer, offset, read);
+		position += read;
+		return read;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (block != null) ? block.length - position : 0;
+	}
+
+	/**
+	 * Takes the next block if the current one has been read, false at the end of the content
+	 */
+	private boolean nextBlock() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		while (!ended && (block == null || position == block.length)) {
+			try {
+				byte[] next = blocks.take().get();
+				if (next == END_OF_CONTENT) {
+					ended = true;
+				} else {
+					block = next;
+					position = 0;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted waiting for decompressed content");
+			} catch (ExecutionException e) {
+				ended = true;
+				// fork-join pools wrap the exceptions of the tasks
+				for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					}
+				}
+				throw new IOException("Error decompressing content", e.getCause());
+			}
+		}
+		return !ended;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			decompressor.interrupt();
+			blocks.clear();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Body of the decompression thread
+	 */
+	private void decompress() {
+		try {
+			long start = readMembers();
+			if (start < channel.size()) {
+				inflateSequentially(start);
+			}
+			blocks.put(CompletableFuture.completedFuture(END_OF_CONTENT));
+		} catch (InterruptedException e) {
+			// the stream has been closed
+		} catch (Exception e) {
+			if (!closed) {
+				CompletableFuture<byte[]> error = new CompletableFuture<byte[]>();
+				error.completeExceptionally(e);
+				try {
+					blocks.put(error);
+				} catch (InterruptedException ie) {
+					// the stream has been closed
+				}
+			} else {
+				logger.debug("Decompression stopped as the stream was closed", e);
+			}
+		}
+	}
+
+	/**
+	 * Reads BGZF members grouping them to be inflated in parallel, until the end of the file
+	 * or the first member without its size
+	 * @return position where the members without their size start
+	 */
+	private long readMembers() throws IOException, InterruptedException {
+		long position = 0;
+		long size = channel.size();
+		List<ByteBuffer> group = new ArrayList<ByteBuffer>();
+		int groupSize = 0;
+		ByteBuffer header = ByteBuffer.allocate(BGZF_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		while (position < size) {
+			int memberSize = getMemberSize(header, position);
+			if (memberSize < 0) {
+				break;
+			}
+			ByteBuffer member = ByteBuffer.allocate(memberSize).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(member, position);
+			group.add(member);
+			groupSize += memberSize;
+			position += memberSize;
+			if (groupSize >= GROUP_SIZE) {
+				submit(group);
+				group = new ArrayList<ByteBuffer>();
+				groupSize = 0;
+			}
+		}
+		if (!group.isEmpty()) {
+			submit(group);
+		}
+		return position;
+	}
+
+	/**
+	 * Total size of the BGZF member at the position, -1 if its header doesn't have it
+	 */
+	private int getMemberSize(ByteBuffer header, long position) throws IOException {
+		header.clear();
+		if (position + BGZF_HEADER_SIZE > channel.size()) {
+			return -1;
+		}
+		readFully(header, position);
+		boolean bgzf = (header.getShort(0) & 0xffff) == GZIP_MAGIC && header.get(2) == 8
+				&& (header.get(3) & FLAG_EXTRA) != 0 && header.getShort(10) == 6 && header.get(12) == 'B'
+				&& header.get(13) == 'C' && header.getShort(14) == 2;
+		if (!bgzf) {
+			return -1;
+		}
+		int memberSize = (header.getShort(16) & 0xffff) + 1;
+		return (memberSize >= BGZF_HEADER_SIZE + TRAILER_SIZE) ? memberSize : -1;
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new EOFException("Unexpected end of gzip file");
+			}
+		}
+	}
+
+	/**
+	 * Queues the inflating of the group of members, waiting when the queue is full
+	 */
+	private void submit(final List<ByteBuffer> group) throws InterruptedException {
+		blocks.put(executor.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return inflate(group);
+			}
+		}));
+	}
+
+	/**
+	 * Inflates the BGZF members, checking their CRC and size
+	 */
+	private static byte[] inflate(List<ByteBuffer> group) throws IOException {
+		int total = 0;
+		for (ByteBuffer member : group) {
+			total += member.getInt(member.limit() - 4);
+		}
+		byte[] content = new byte[total];
+		int offset = 0;
+		Inflater inflater = new Inflater(true);
+		CRC32 crc = new CRC32();
+		try {
+			for (ByteBuffer member : group) {
+				int inputSize = member.getInt(member.limit() - 4);
+				inflater.reset();
+				inflater.setInput(member.array(), BGZF_HEADER_SIZE, member.limit() - BGZF_HEADER_SIZE - TRAILER_SIZE);
+				int inflated = 0;
+				while (inflated < inputSize) {
+					int count = inflater.inflate(content, offset + inflated, inputSize - inflated);
+					if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					inflated += count;
+				}
+				if (inflated != inputSize) {
+					throw new ZipException("Corrupt gzip member: size mismatch");
+				}
+				crc.reset();
+				crc.update(content, offset, inputSize);
+				if ((int) crc.getValue() != member.getInt(member.limit() - TRAILER_SIZE)) {
+					throw new ZipException("Corrupt gzip member: CRC mismatch");
+				}
+				offset += inputSize;
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt gzip member: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+		return content;
+	}
+
+	/**
+	 * Inflates the rest of the file in the decompression thread, all its members one after
+	 * the other
+	 */
+	private void inflateSequentially(long start) throws IOException, InterruptedException {
+		channel.position(start);
+		InputStream input = new GZIPInputStream(Channels.newInputStream(channel), 64 * 1024);
+		byte[] current = new byte[BLOCK_SIZE];
+		int filled = 0;
+		int read;
+		while ((read = input.read(current, filled, current.length - filled)) >= 0) {
+			filled += read;
+			if (filled == current.length) {
+				blocks.put(CompletableFuture.completedFuture(current));
+				current = new byte[BLOCK_SIZE];
+				filled = 0;
+			}
+			if (closed) {
+				throw new InterruptedException();
+			}
+		}
+		if (filled > 0) {
+			byte[] last = new byte[filled];
+			System.arraycopy(current, 0, last, 0, filled);
+			blocks.put(CompletableFuture.completedFuture(last));
+		}
+	}
+
+}
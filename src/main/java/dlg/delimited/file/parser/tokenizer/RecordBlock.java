@@ -0,0 +1,78 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.CharArrayReader;
+import java.io.Reader;
+
+/**
+ * Block of whole records of the content, filled by a {@link RecordBlockReader}. Its buffer
+ * is allocated once and reused by every block read into it, growing only for records larger
+ * than the buffer.
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordBlock {
+
+	private char[] chars;
+	private int length = 0;
+	private int linesBefore = 0;
+
+	/**
+	 *
+	 * @param capacity
+	 *            (initial size of the buffer, in characters)
+	 */
+	public RecordBlock(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid parameters: capacity has to be greater than 0");
+		}
+		this.chars = new char[capacity];
+	}
+
+	char[] getChars() {
+		return chars;
+	}
+
+	/**
+	 * Grows the buffer keeping its content
+	 */
+	char[] grow() {
+		char[] grown = new char[chars.length * 2];
+		System.arraycopy(chars, 0, grown, 0, length);
+		chars = grown;
+		return chars;
+	}
+
+	void setLength(int length) {
+		this.length = length;
+	}
+
+	void setLinesBefore(int linesBefore) {
+		this.linesBefore = linesBefore;
+	}
+
+	/**
+	 * Characters of the block, line breaks included
+	 * @return
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Physical lines of the content before the block
+	 * @return
+	 */
+	public int getLinesBefore() {
+		return linesBefore;
+	}
+
+	/**
+	 * Reader of the records of the block, to be tokenized
+	 * @return
+	 */
+	public Reader getReader() {
+		return new CharArrayReader(chars, 0, length);
+	}
+
+}
@@ -0,0 +1,214 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads the content into blocks of whole records, so they can be tokenized in parallel
+ * although the content can only be read sequentially (standard input, sockets, decompressed
+ * content).
+ * <br>
+ * Every block ends at a record boundary: the characters read after the last one are kept for
+ * the next block. Boundaries are found following the quoting rules of {@link RecordTokenizer},
+ * so a block is tokenized exactly as the whole content would be, and the physical lines before
+ * every block are counted on the way.
+ * <br>
+ * A block is handed over as soon as the reader has no more characters ready, so records don't
+ * wait for a slow input to fill the whole block.
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordBlockReader implements Closeable {
+
+	private static final int FIELD_START = 0;
+	private static final int UNQUOTED = 1;
+	private static final int QUOTED = 2;
+	private static final int QUOTE_IN_QUOTED = 3;
+
+	private final Reader reader;
+	private final char[] separator;
+	private final char separatorLast;
+	private final boolean quoting;
+	private final char quote;
+
+	private char[] pending = new char[0];
+	private int pendingLength = 0;
+	private boolean endOfInput = false;
+	private int lineNumber = 0;
+	private long charactersRead = 0;
+
+	// lines found up to the last boundary of the last scan
+	private int scannedLines;
+
+	/**
+	 *
+	 * @param reader
+	 * @param separator
+	 *            (literal separator of columns, one or more characters)
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 */
+	public RecordBlockReader(Reader reader, String separator, String quoting) {
+		if (reader == null) {
+			throw new NullPointerException("Invalid parameters: reader is mandatory");
+		}
+		if (StringUtils.isEmpty(separator)) {
+			throw new IllegalArgumentException("Invalid parameters: separator is mandatory");
+		}
+		this.reader = reader;
+		this.separator = separator.toCharArray();
+		this.separatorLast = this.separator[this.separator.length - 1];
+		this.quoting = StringUtils.isNotEmpty(quoting);
+		this.quote = this.quoting ? quoting.charAt(0) : 0;
+	}
+
+	/**
+	 * Reads the next records into the block
+	 * @param block
+	 * @return false if the content is over
+	 * @throws IOException
+	 */
+	public boolean read(RecordBlock block) throws IOException {
+		if (endOfInput && pendingLength == 0) {
+			return false;
+		}
+		char[] chars = block.getChars();
+		while (chars.length < pendingLength) {
+			chars = block.grow();
+		}
+		System.arraycopy(pending, 0, chars, 0, pendingLength);
+		int length = pendingLength;
+		int boundary = 0;
+		while (true) {
+			boolean waiting = true;
+			while (length < chars.length && !endOfInput && (waiting || reader.ready())) {
+				int read = reader.read(chars, length, chars.length - length);
+				if (read < 0) {
+					endOfInput = true;
+				} else {
+					length += read;
+					charactersRead += read;
+					waiting = false;
+				}
+			}
+			if (endOfInput) {
+				boundary = length;
+				break;
+			}
+			boundary = findLastBoundary(chars, length);
+			if (boundary > 0) {
+				break;
+			}
+			if (length == chars.length) {
+				// a record larger than the block
+				block.setLength(length);
+				chars = block.grow();
+			}
+		}
+
+		pendingLength = length - boundary;
+		if (pending.length < pendingLength) {
+			pending = new char[Math.max(pendingLength, pending.length * 2)];
+		}
+		System.arraycopy(chars, boundary, pending, 0, pendingLength);
+		block.setLength(boundary);
+		block.setLinesBefore(lineNumber);
+		if (!endOfInput) {
+			lineNumber += scannedLines;
+		}
+		return boundary > 0;
+	}
+
+	/**
+	 * Scans the characters from the start of a record looking for the end of the last
+	 * complete record, counting the physical lines up to it
+	 * @return position after the last record boundary, 0 if there is none
+	 */
+	private int findLastBoundary(char[] chars, int length) {
+		int boundary = 0;
+		int lines = 0;
+		scannedLines = 0;
+		int state = FIELD_START;
+		int rawFieldStart = 0;
+		for (int i = 0; i < length; i++) {
+			char c = chars[i];
+			if (state == QUOTED) {
+				if (c == quote) {
+					state = QUOTE_IN_QUOTED;
+				} else if (c == '\n') {
+					lines++;
+				}
+				continue;
+			}
+			if (state == QUOTE_IN_QUOTED) {
+				if (c == quote) {
+					state = QUOTED;
+					continue;
+				}
+				state = UNQUOTED;
+			}
+			if (c == '\n' || c == '\r') {
+				if (c == '\r') {
+					if (i + 1 == length) {
+						// the line break may go on with a \n not read yet
+						break;
+					}
+					if (chars[i + 1] == '\n') {
+						i++;
+					}
+				}
+				lines++;
+				boundary = i + 1;
+				scannedLines = lines;
+				state = FIELD_START;
+				rawFieldStart = i + 1;
+				continue;
+			}
+			if (!quoting) {
+				continue;
+			}
+			if (c == separatorLast && endsWithSeparator(chars, i + 1, rawFieldStart)) {
+				state = FIELD_START;
+				rawFieldStart = i + 1;
+			} else if (state == FIELD_START) {
+				state = (c == quote) ? QUOTED : UNQUOTED;
+			}
+		}
+		return boundary;
+	}
+
+	private boolean endsWithSeparator(char[] chars, int end, int rawFieldStart) {
+		int separatorLength = separator.length;
+		if (separatorLength == 1) {
+			return true;
+		}
+		int start = end - separatorLength;
+		if (start < rawFieldStart) {
+			return false;
+		}
+		for (int i = 0; i < separatorLength - 1; i++) {
+			if (chars[start + i] != separator[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Amount of characters read so far, line breaks included
+	 * @return
+	 */
+	public long getInputRead() {
+		return charactersRead;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
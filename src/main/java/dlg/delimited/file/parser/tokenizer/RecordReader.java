@@ -0,0 +1,41 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of tokenized records, regardless of where they are read from
+ * 
+ * @author dalcantara
+ *
+ */
+public interface RecordReader extends Closeable {
+
+	/**
+	 * Reads the next record into the received buffer
+	 * @param record
+	 * @return false if there are no more records
+	 * @throws IOException
+	 */
+	boolean next(ColumnBuffer record) throws IOException;
+
+	/**
+	 * Amount of input consumed so far: characters when reading from a Reader, 
+	 * bytes when reading a file
+	 * @return
+	 */
+	long getInputRead();
+
+	/**
+	 * Amount of physical lines read so far
+	 * @return
+	 */
+	int getLineNumber();
+
+	/**
+	 * Time spent so far reading the input into the buffers of the reader, in nanoseconds
+	 * @return
+	 */
+	long getReadNanos();
+
+}
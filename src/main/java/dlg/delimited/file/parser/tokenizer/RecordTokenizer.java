@@ -0,0 +1,321 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Single pass tokenizer of delimited content (RFC 4180 like). It scans every character
+ * once, and writes the boundaries of the columns of each record into a reusable
+ * {@link ColumnBuffer}.
+ * <br>
+ * Rules: <br>
+ * - the separator is taken literally, it's not a regular expression <br>
+ * - a column is quoted only if the quoting character is its first character, inside it
+ * separators and line breaks are part of the text, and a doubled quote stands for one quote <br>
+ * - characters found after the closing quote make the column be taken literally, quotes included <br>
+ * - records end at \n, \r or \r\n, out of quoted columns
+ * <br>
+ * When it's told which columns are needed, the columns after the last one aren't registered,
+ * and without quoting the rest of the record is copied as a whole up to the line break.
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordTokenizer implements RecordReader {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int FIELD_START = 0;
+	private static final int UNQUOTED = 1;
+	private static final int QUOTED = 2;
+	private static final int QUOTE_IN_QUOTED = 3;
+
+	private final Reader reader;
+	private final char[] separator;
+	private final char separatorLast;
+	private final boolean quoting;
+	private final char quote;
+	private final int lastColumn;
+
+	private final char[] readBuffer = new char[BUFFER_SIZE];
+	private int readPosition = 0;
+	private int readLimit = 0;
+	private boolean endOfInput = false;
+
+	private int lineNumber = 0;
+	private long charactersRead = 0;
+	private long readNanos = 0;
+
+	/**
+	 *
+	 * @param reader
+	 * @param separator
+	 *            (literal separator of columns, one or more characters)
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 */
+	public RecordTokenizer(Reader reader, String separator, String quoting) {
+		this(reader, separator, quoting, null);
+	}
+
+	/**
+	 *
+	 * @param reader
+	 * @param separator
+	 *            (literal separator of columns, one or more characters)
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 * @param neededColumns
+	 *            (indexes of the columns needed, null if all of them are. Only the last one matters)
+	 */
+	public RecordTokenizer(Reader reader, String separator, String quoting, boolean[] neededColumns) {
+		this(reader, separator, quoting, neededColumns, 0);
+	}
+
+	/**
+	 * Tokenizer of a part of the content, starting at a record boundary
+	 * @param reader
+	 * @param separator
+	 *            (literal separator of columns, one or more characters)
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 * @param neededColumns
+	 *            (indexes of the columns needed, null if all of them are. Only the last one matters)
+	 * @param linesBefore
+	 *            (physical lines of the content before this part)
+	 */
+	public RecordTokenizer(Reader reader, String separator, String quoting, boolean[] neededColumns, int linesBefore) {
+		if (reader == null) {
+			throw new NullPointerException("Invalid parameters: reader is mandatory");
+		}
+		if (StringUtils.isEmpty(separator)) {
+			throw new IllegalArgumentException("Invalid parameters: separator is mandatory");
+		}
+		this.reader = reader;
+		this.separator = separator.toCharArray();
+		this.separatorLast = this.separator[this.separator.length - 1];
+		this.quoting = StringUtils.isNotEmpty(quoting);
+		this.quote = this.quoting ? quoting.charAt(0) : 0;
+		this.lastColumn = (neededColumns != null) ? neededColumns.length - 1 : Integer.MAX_VALUE;
+		this.lineNumber = linesBefore;
+	}
+
+	@Override
+	public boolean next(ColumnBuffer record) throws IOException {
+		record.clear();
+		if (readPosition >= readLimit && !fill()) {
+			return false;
+		}
+		record.setQuote(quote);
+		record.setLineNumber(lineNumber + 1);
+
+		char[] chars = record.getChars();
+		int length = 0;
+		int column = 0;
+		int state = FIELD_START;
+		int fieldStart = 0;
+		int rawFieldStart = 0;
+		int quoteClose = -1;
+		boolean quoted = false;
+		boolean escaped = false;
+
+		while (true) {
+			if (readPosition >= readLimit && !fill()) {
+				break;
+			}
+			char c = readBuffer[readPosition++];
+			charactersRead++;
+
+			if (state == QUOTED) {
+				if (c == quote) {
+					state = QUOTE_IN_QUOTED;
+				} else if (c == '\n') {
+					lineNumber++;
+				}
+				if (length == chars.length) {
+					chars = record.ensureCapacity(length + 1);
+				}
+				chars[length++] = c;
+				continue;
+			}
+			if (state == QUOTE_IN_QUOTED) {
+				if (c == quote) {
+					escaped = true;
+					state = QUOTED;
+					if (length == chars.length) {
+						chars = record.ensureCapacity(length + 1);
+					}
+					chars[length++] = c;
+					continue;
+				}
+				// the previous quote was the closing one
+				quoteClose = length - 1;
+				state = UNQUOTED;
+			}
+			if (c == '\n' || c == '\r') {
+				if (c == '\r' && (readPosition < readLimit || fill()) && readBuffer[readPosition] == '\n') {
+					readPosition++;
+					charactersRead++;
+				}
+				if (column <= lastColumn) {
+					endColumn(record, fieldStart, rawFieldStart, length, quoted, quoteClose, escaped);
+				}
+				record.setLength(length);
+				lineNumber++;
+				return true;
+			}
+			if (length == chars.length) {
+				chars = record.ensureCapacity(length + 1);
+			}
+			chars[length++] = c;
+
+			if (c == separatorLast && endsWithSeparator(chars, length, rawFieldStart)) {
+				if (column <= lastColumn) {
+					endColumn(record, fieldStart, rawFieldStart, length - separator.length, quoted, quoteClose, escaped);
+				}
+				column++;
+				fieldStart = length;
+				rawFieldStart = length;
+				quoteClose = -1;
+				quoted = false;
+				escaped = false;
+				state = FIELD_START;
+				if (column > lastColumn && !quoting) {
+					length = copyToLineBreak(record, length);
+					chars = record.getChars();
+					state = UNQUOTED;
+				}
+			} else if (state == FIELD_START) {
+				if (quoting && c == quote) {
+					quoted = true;
+					fieldStart = length;
+					state = QUOTED;
+				} else {
+					state = UNQUOTED;
+				}
+			}
+		}
+		// end of input without a line break
+		if (state == QUOTE_IN_QUOTED) {
+			quoteClose = length - 1;
+		}
+		if (column <= lastColumn) {
+			endColumn(record, fieldStart, rawFieldStart, length, quoted, quoteClose, escaped);
+		}
+		record.setLength(length);
+		lineNumber++;
+		return true;
+	}
+
+	/**
+	 * Copies the characters of the record up to the next line break (not included) at once,
+	 * without looking for separators
+	 * @return length of the record after the copied characters
+	 */
+	private int copyToLineBreak(ColumnBuffer record, int length) throws IOException {
+		while (readPosition < readLimit || fill()) {
+			int from = readPosition;
+			int to = from;
+			while (to < readLimit && readBuffer[to] != '\n' && readBuffer[to] != '\r') {
+				to++;
+			}
+			int count = to - from;
+			char[] chars = record.ensureCapacity(length + count);
+			System.arraycopy(readBuffer, from, chars, length, count);
+			length += count;
+			readPosition = to;
+			charactersRead += count;
+			if (to < readLimit) {
+				break;
+			}
+		}
+		return length;
+	}
+
+	private boolean endsWithSeparator(char[] chars, int length, int rawFieldStart) {
+		int separatorLength = separator.length;
+		if (separatorLength == 1) {
+			return true;
+		}
+		int start = length - separatorLength;
+		if (start < rawFieldStart) {
+			return false;
+		}
+		for (int i = 0; i < separatorLength - 1; i++) {
+			if (chars[start + i] != separator[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Registers the column that ends at the received position
+	 */
+	private void endColumn(ColumnBuffer record, int fieldStart, int rawFieldStart, int end, boolean quoted,
+			int quoteClose, boolean escaped) {
+		if (!quoted) {
+			record.addColumn(fieldStart, end, false, false);
+		} else if (quoteClose == end - 1) {
+			record.addColumn(fieldStart, quoteClose, true, escaped);
+		} else if (quoteClose < 0) {
+			// quote never closed, the rest of the content belongs to the column
+			record.addColumn(fieldStart, end, true, escaped);
+		} else {
+			// text after the closing quote, so it wasn't really a quoted column
+			record.addColumn(rawFieldStart, end, false, false);
+		}
+	}
+
+	private boolean fill() throws IOException {
+		if (endOfInput) {
+			return false;
+		}
+		int read;
+		long readStart = System.nanoTime();
+		do {
+			read = reader.read(readBuffer, 0, readBuffer.length);
+		} while (read == 0);
+		readNanos += System.nanoTime() - readStart;
+		if (read < 0) {
+			endOfInput = true;
+			readPosition = 0;
+			readLimit = 0;
+			return false;
+		}
+		readPosition = 0;
+		readLimit = read;
+		return true;
+	}
+
+	/**
+	 * Amount of characters read so far, line breaks included
+	 * @return
+	 */
+	@Override
+	public long getInputRead() {
+		return charactersRead;
+	}
+
+	@Override
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Time spent so far waiting for the reader to fill the buffer
+	 * @return
+	 */
+	@Override
+	public long getReadNanos() {
+		return readNanos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
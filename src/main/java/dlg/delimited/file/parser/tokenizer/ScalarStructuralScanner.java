@@ -0,0 +1,39 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Portable scanner comparing one byte at a time
+ *
+ * @author dalcantara
+ *
+ */
+class ScalarStructuralScanner extends StructuralScanner {
+
+	ScalarStructuralScanner(byte separator, boolean quoting, byte quote) {
+		super(separator, quoting, quote);
+	}
+
+	@Override
+	public void scan(ByteBuffer bytes, int from, int limit) {
+		int end = Math.min(from + BLOCK_SIZE, limit);
+		long separators = 0;
+		long lineBreaks = 0;
+		long quotes = 0;
+		for (int p = from; p < end; p++) {
+			byte b = bytes.get(p);
+			long bit = 1L << (p - from);
+			if (b == separator) {
+				separators |= bit;
+			}
+			if (b == '\n' || b == '\r') {
+				lineBreaks |= bit;
+			}
+			if (quoting && b == quote) {
+				quotes |= bit;
+			}
+		}
+		setBitmaps(separators, lineBreaks, quotes);
+	}
+
+}
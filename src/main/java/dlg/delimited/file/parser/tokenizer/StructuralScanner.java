@@ -0,0 +1,128 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Finds the structural bytes of delimited content (separator, line breaks and quotes) a block
+ * of {@value #BLOCK_SIZE} bytes at a time. The result of every scan is a bitmap per kind of byte,
+ * where bit <code>i</code> stands for the byte at <code>from + i</code>, so tokenizers can jump
+ * straight from one structural byte to the next one.
+ * <br>
+ * Multi byte separators are reported by their last byte, tokenizers have to check the bytes
+ * before it. Every implementation has to return exactly the same bitmaps.
+ * <br>
+ * The implementation is selected at runtime through {@link #newInstance(String, String)}: SWAR
+ * (several bytes compared at once in a <code>long</code>) on 64 bits platforms, byte by byte
+ * otherwise. It can be forced with the system property {@value #IMPLEMENTATION_PROPERTY}
+ * (<code>swar</code> or <code>scalar</code>).
+ *
+ * @author dalcantara
+ *
+ */
+public abstract class StructuralScanner {
+
+	public static final int BLOCK_SIZE = 64;
+
+	public static final String IMPLEMENTATION_PROPERTY = "dlg.parser.scanner";
+
+	protected final byte separator;
+	protected final boolean quoting;
+	protected final byte quote;
+
+	private long separators;
+	private long lineBreaks;
+	private long quotes;
+
+	protected StructuralScanner(byte separator, boolean quoting, byte quote) {
+		this.separator = separator;
+		this.quoting = quoting;
+		this.quote = quote;
+	}
+
+	/**
+	 * Creates the best scanner for the platform
+	 * @param separator
+	 *            (literal separator of columns, its last byte is the one reported)
+	 * @param quoting
+	 *            (quoting character, null or empty if columns are never quoted)
+	 * @return
+	 */
+	public static StructuralScanner newInstance(String separator, String quoting) {
+		if (StringUtils.isEmpty(separator)) {
+			throw new IllegalArgumentException("Invalid parameters: separator is mandatory");
+		}
+		String implementation = System.getProperty(IMPLEMENTATION_PROPERTY);
+		if (implementation == null) {
+			implementation = is64Bits() ? "swar" : "scalar";
+		}
+		byte[] separatorBytes = separator.getBytes(StandardCharsets.UTF_8);
+		byte separatorLast = separatorBytes[separatorBytes.length - 1];
+		boolean isQuoting = StringUtils.isNotEmpty(quoting);
+		byte quote = isQuoting ? (byte) quoting.charAt(0) : 0;
+		if ("scalar".equalsIgnoreCase(implementation)) {
+			return new ScalarStructuralScanner(separatorLast, isQuoting, quote);
+		}
+		return new SwarStructuralScanner(separatorLast, isQuoting, quote);
+	}
+
+	private static boolean is64Bits() {
+		String dataModel = System.getProperty("sun.arch.data.model");
+		if (dataModel != null) {
+			return "64".equals(dataModel);
+		}
+		return StringUtils.contains(System.getProperty("os.arch"), "64");
+	}
+
+	/**
+	 * Scans the block of bytes starting at <code>from</code>, up to {@value #BLOCK_SIZE} bytes
+	 * or <code>limit</code>, whichever comes first. The bitmaps are available afterwards through
+	 * the getters.
+	 * @param bytes
+	 * @param from
+	 * @param limit
+	 */
+	public abstract void scan(ByteBuffer bytes, int from, int limit);
+
+	protected void setBitmaps(long separators, long lineBreaks, long quotes) {
+		this.separators = separators;
+		this.lineBreaks = lineBreaks;
+		this.quotes = quotes;
+	}
+
+	/**
+	 * Bitmap of the (last byte of the) separators of the last block scanned
+	 * @return
+	 */
+	public long getSeparators() {
+		return separators;
+	}
+
+	/**
+	 * Bitmap of the \n and \r of the last block scanned
+	 * @return
+	 */
+	public long getLineBreaks() {
+		return lineBreaks;
+	}
+
+	/**
+	 * Bitmap of the quoting characters of the last block scanned, always empty when
+	 * there is no quoting
+	 * @return
+	 */
+	public long getQuotes() {
+		return quotes;
+	}
+
+	/**
+	 * Bitmap of every structural byte of the last block scanned
+	 * @return
+	 */
+	public long getStructurals() {
+		return separators | lineBreaks | quotes;
+	}
+
+}
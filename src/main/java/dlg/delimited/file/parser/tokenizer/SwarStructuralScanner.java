@@ -0,0 +1,87 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * SWAR (SIMD within a register) scanner, it reads 8 bytes at a time into a <code>long</code>
+ * and finds the bytes equal to a given one with bit tricks, without branching per byte.
+ * The few bytes left at the end of the content are compared one by one.
+ *
+ * @author dalcantara
+ *
+ */
+class SwarStructuralScanner extends StructuralScanner {
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+	// moves the high bit of every byte to the consecutive bits of the highest byte
+	private static final long GATHER = 0x0102040810204080L;
+
+	private static final long NEW_LINES = '\n' * ONES;
+	private static final long CARRIAGE_RETURNS = '\r' * ONES;
+
+	private final long separatorPattern;
+	private final long quotePattern;
+
+	SwarStructuralScanner(byte separator, boolean quoting, byte quote) {
+		super(separator, quoting, quote);
+		this.separatorPattern = (separator & 0xFFL) * ONES;
+		this.quotePattern = (quote & 0xFFL) * ONES;
+	}
+
+	@Override
+	public void scan(ByteBuffer bytes, int from, int limit) {
+		int end = Math.min(from + BLOCK_SIZE, limit);
+		boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+		long separators = 0;
+		long lineBreaks = 0;
+		long quotes = 0;
+		int p = from;
+		int shift = 0;
+		for (; p + 8 <= end; p += 8, shift += 8) {
+			long word = bytes.getLong(p);
+			if (bigEndian) {
+				// first byte in the lowest bits
+				word = Long.reverseBytes(word);
+			}
+			separators |= toBits(matches(word, separatorPattern)) << shift;
+			lineBreaks |= toBits(matches(word, NEW_LINES) | matches(word, CARRIAGE_RETURNS)) << shift;
+			if (quoting) {
+				quotes |= toBits(matches(word, quotePattern)) << shift;
+			}
+		}
+		for (; p < end; p++, shift++) {
+			byte b = bytes.get(p);
+			long bit = 1L << shift;
+			if (b == separator) {
+				separators |= bit;
+			}
+			if (b == '\n' || b == '\r') {
+				lineBreaks |= bit;
+			}
+			if (quoting && b == quote) {
+				quotes |= bit;
+			}
+		}
+		setBitmaps(separators, lineBreaks, quotes);
+	}
+
+	/**
+	 * Returns the high bit of every byte of the word equal to the byte of the pattern. Unlike
+	 * the usual "has zero byte" trick, it doesn't carry between bytes, so there are no false positives.
+	 */
+	private static long matches(long word, long pattern) {
+		long x = word ^ pattern;
+		long t = (x & LOW_BITS) + LOW_BITS;
+		return ~(t | x | LOW_BITS);
+	}
+
+	/**
+	 * Packs the high bits of the 8 bytes into 8 consecutive bits
+	 */
+	private static long toBits(long highBits) {
+		return ((highBits >>> 7) * GATHER) >>> 56;
+	}
+
+}
@@ -1,108 +1,321 @@
 package dlg.delimited.file.parser.util;
 
 
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+/**
+ * Parsing of the date formats accepted by google's feeds: <br>
+ * yyyy-MM-dd'T'HH:mm[:ss][Z], with a space instead of 'T' as well, where the offset
+ * (Z) is +HH:mm or +HHmm. Dates without offset are taken in the default time zone.
+ * <br>
+ * Dates are decoded by the position of their digits, without regular expressions nor
+ * formatters, so it's thread safe and doesn't allocate anything but the resulting date.
+ */
 public class DateFormatUtils {
-	
+
 	private static Logger logger = LoggerFactory.getLogger(DateFormatUtils.class);
-	
-	
+
+
 	private static final String GENERIC_DATE_FORMAT_PATTERN = "^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2}[T ][0-9]{2}[:][0-9]{2}([:][0-9]{2})?([\\+-][0-9]{2}([:]?[0-9]{2})?)?$";
-	private static List<String[]> patterns = null;
-	
-	
-	public static Date getDateFromString(String dateString) throws Exception {
-		Pattern pattern = Pattern.compile(GENERIC_DATE_FORMAT_PATTERN);
-		Matcher matcher = pattern.matcher(dateString);		
-		if (matcher.matches()) {
-			String dateFormat = getDate(dateString);
-			if (StringUtils.isNotEmpty(dateFormat)) {
-
-				DateTimeFormatter formatter = DateTimeFormat.forPattern(dateFormat);
-				DateTime dateTime = formatter.parseDateTime(dateString);
-				dateTime = dateTime.toDateTime(DateTimeZone.forID("EST"));
-				return dateTime.toDate();
-			
 
-			}
-		} else {
+	private static final DateTimeZone EST = DateTimeZone.forID("EST");
+
+	/**
+	 * Returned by {@link #getMillisFromString(CharSequence)} when the value has the generic shape
+	 * but no accepted format (offset without minutes)
+	 */
+	public static final long NO_DATE = Long.MIN_VALUE;
+
+	/**
+	 * Returned by {@link #tryGetMillisFromString(CharSequence)} when the value doesn't have
+	 * any of the accepted formats
+	 */
+	public static final long INVALID_DATE = Long.MIN_VALUE + 1;
+
+	/**
+	 * Returned by {@link #tryGetMillisFromString(CharSequence)} when the value has an accepted
+	 * format but the date doesn't exist
+	 */
+	public static final long NONEXISTENT_DATE = Long.MIN_VALUE + 2;
+
+	private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+	private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+	private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+
+	public static Date getDateFromString(String dateString) throws Exception {
+		if (!isGenericDate(dateString)) {
 			logger.error("String date {} doesn't match the accepted patter: {}", dateString, GENERIC_DATE_FORMAT_PATTERN);
 			throw new IllegalArgumentException("String date not accepted ");
 		}
-		return null;
+		long millis = getMillisFromString(dateString);
+		if (millis == NO_DATE) {
+			return null;
+		}
+		return new Date(millis);
+	}
+
+	/**
+	 * Returns true if the value has the shape of the accepted formats, without validating
+	 * the values of its fields
+	 * @param value
+	 * @return
+	 */
+	public static boolean isGenericDate(CharSequence value) {
+		return getOffsetPosition(value) >= 0;
+	}
+
+	/**
+	 * Parses a date in any of the accepted formats into milliseconds since the epoch
+	 * @param value
+	 * @return the milliseconds, or {@link #NO_DATE} if the value has an offset without minutes
+	 * @throws IllegalArgumentException
+	 *             if the value doesn't have an accepted format, or the date doesn't exist
+	 */
+	public static long getMillisFromString(CharSequence value) {
+		return parseMillis(value, true);
+	}
+
+	/**
+	 * Same than {@link #getMillisFromString(CharSequence)}, returning a constant instead of
+	 * throwing an exception for wrong values
+	 * @param value
+	 * @return the milliseconds, {@link #NO_DATE} if the value has an offset without minutes,
+	 *         {@link #INVALID_DATE} if it doesn't have an accepted format, or
+	 *         {@link #NONEXISTENT_DATE} if the date doesn't exist
+	 */
+	public static long tryGetMillisFromString(CharSequence value) {
+		return parseMillis(value, false);
+	}
+
+	private static long parseMillis(CharSequence value, boolean throwErrors) {
+		int offsetPosition = getOffsetPosition(value);
+		if (offsetPosition < 0) {
+			if (throwErrors) {
+				throw new IllegalArgumentException("String date not accepted " + value);
+			}
+			return INVALID_DATE;
+		}
+		int length = value.length();
+		if (offsetPosition + 3 == length) {
+			// the generic shape allows offsets without minutes, but no format accepts them
+			return NO_DATE;
+		}
+		int year = getNumber(value, 0, 4);
+		int month = getNumber(value, 5, 2);
+		int day = getNumber(value, 8, 2);
+		int hour = getNumber(value, 11, 2);
+		int minute = getNumber(value, 14, 2);
+		int second = (offsetPosition > 16) ? getNumber(value, 17, 2) : 0;
+
+		if (!checkRange("monthOfYear", month, 1, 12, throwErrors)
+				|| !checkRange("dayOfMonth", day, 1, getDaysInMonth(year, month), throwErrors)
+				|| !checkRange("hourOfDay", hour, 0, 23, throwErrors)
+				|| !checkRange("minuteOfHour", minute, 0, 59, throwErrors)
+				|| !checkRange("secondOfMinute", second, 0, 59, throwErrors)) {
+			return NONEXISTENT_DATE;
+		}
+		long localMillis = getDaysSinceEpoch(year, month, day) * MILLIS_PER_DAY
+				+ ((hour * 60L + minute) * 60L + second) * 1000L;
+
+		if (offsetPosition == length) {
+			// default time zone, dates in the gap of a daylight saving change don't exist
+			DateTimeZone zone = DateTimeZone.getDefault();
+			int offset = zone.getOffsetFromLocal(localMillis);
+			long millis = localMillis - offset;
+			if (offset != zone.getOffset(millis)) {
+				if (throwErrors) {
+					throw new IllegalArgumentException("Illegal instant due to time zone offset transition (" + zone + "): " + value);
+				}
+				return NONEXISTENT_DATE;
+			}
+			return millis;
+		}
+		int offsetHours = getNumber(value, offsetPosition + 1, 2);
+		int offsetMinutes = getNumber(value, length - 2, 2);
+		if (offsetHours > 23 || offsetMinutes > 59) {
+			if (throwErrors) {
+				throw new IllegalArgumentException("Invalid time zone offset " + value);
+			}
+			return NONEXISTENT_DATE;
+		}
+		long offset = (offsetHours * 60L + offsetMinutes) * MILLIS_PER_MINUTE;
+		return (value.charAt(offsetPosition) == '-') ? localMillis + offset : localMillis - offset;
 	}
-	
-	private static String getDate(String dateString) {
-		if (patterns == null) {
-			initializePatterns();
-		}
-		Pattern pattern = null;
-		String dateFormat = null;
-		Matcher  matcher;
-		Iterator<String[]> iterator = patterns.iterator();
-		while (iterator.hasNext() && dateFormat == null) {
-			String[] patternDate = iterator.next();
-			pattern = Pattern.compile(patternDate[0]);
-			matcher = pattern.matcher(dateString);;
-		    if(matcher.matches()) {
-		    	dateFormat = patternDate[1];
-		    }			
-		}
-		return dateFormat;
+
+	/**
+	 * Appends the date in the accepted format yyyy-MM-dd'T'HH:mm:ss+HH:mm, in the default time
+	 * zone, without creating any String. Offsets with seconds (local mean times of old dates)
+	 * are written as +00:00 so the date is parsed back to the same instant.
+	 * @param millis
+	 *            (milliseconds since the epoch, the milliseconds of the second are not written)
+	 * @param out
+	 * @throws IllegalArgumentException
+	 *             if the year doesn't fit in four digits
+	 */
+	public static void appendGenericDate(long millis, StringBuilder out) {
+		int offset = DateTimeZone.getDefault().getOffset(millis);
+		if (offset % MILLIS_PER_MINUTE != 0) {
+			offset = 0;
+		}
+		long localMillis = millis + offset;
+		long days = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+		int secondOfDay = (int) (Math.floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+
+		// civil date out of the days since 1970-01-01, the inverse of getDaysSinceEpoch
+		long z = days + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthIndex = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+		int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		if (year < 0 || year > 9999) {
+			throw new IllegalArgumentException("Year " + year + " doesn't fit in the accepted formats");
+		}
+
+		appendDigits(out, (int) year, 4);
+		out.append('-');
+		appendDigits(out, month, 2);
+		out.append('-');
+		appendDigits(out, day, 2);
+		out.append('T');
+		appendDigits(out, secondOfDay / 3600, 2);
+		out.append(':');
+		appendDigits(out, secondOfDay / 60 % 60, 2);
+		out.append(':');
+		appendDigits(out, secondOfDay % 60, 2);
+		int offsetMinutes = (int) (offset / MILLIS_PER_MINUTE);
+		out.append(offsetMinutes < 0 ? '-' : '+');
+		offsetMinutes = Math.abs(offsetMinutes);
+		appendDigits(out, offsetMinutes / 60, 2);
+		out.append(':');
+		appendDigits(out, offsetMinutes % 60, 2);
 	}
 
-	private static void initializePatterns() {
-		patterns = new ArrayList<String[]>();
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2}T[0-9]{2}[:][0-9]{2}$", "yyyy-MM-dd'T'HH:mm"});//google format without time zone
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2} [0-9]{2}[:][0-9]{2}$", "yyyy-MM-dd HH:mm"});//like google format without time zone, but without T
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2}T[0-9]{2}[:][0-9]{2}[\\+-][0-9]{2}[:]?[0-9]{2}$", "yyyy-MM-dd'T'HH:mmZ"});//google format with time zone
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2} [0-9]{2}[:][0-9]{2}[\\+-][0-9]{2}[:]?[0-9]{2}$", "yyyy-MM-dd HH:mmZ"});//like google format with time zone, but without T
-		//same as before, but seconds included
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2}T[0-9]{2}[:][0-9]{2}[:][0-9]{2}$", "yyyy-MM-dd'T'HH:mm:ss"});
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2} [0-9]{2}[:][0-9]{2}[:][0-9]{2}$", "yyyy-MM-dd HH:mm:ss"});
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2}T[0-9]{2}[:][0-9]{2}[:][0-9]{2}[\\+-][0-9]{2}[:]?[0-9]{2}$", "yyyy-MM-dd'T'HH:mm:ssZ"});
-		patterns.add(new String[]{"^[0-9]{4}\\-[0-9]{2}\\-[0-9]{2} [0-9]{2}[:][0-9]{2}[:][0-9]{2}[\\+-][0-9]{2}[:]?[0-9]{2}$", "yyyy-MM-dd HH:mm:ssZ"});
-		
+	private static void appendDigits(StringBuilder out, int value, int digits) {
+		for (int divisor = (digits == 4) ? 1000 : 10; divisor > 0; divisor /= 10) {
+			out.append((char) ('0' + value / divisor % 10));
+		}
+	}
+
+	/**
+	 * Checks the shape of the value
+	 * @return position of the offset (length of the value if it has none), -1 if the value
+	 *         doesn't have the generic shape
+	 */
+	private static int getOffsetPosition(CharSequence value) {
+		int length = value.length();
+		if (length < 16 || !isDigits(value, 0, 4) || value.charAt(4) != '-' || !isDigits(value, 5, 2)
+				|| value.charAt(7) != '-' || !isDigits(value, 8, 2) || (value.charAt(10) != 'T' && value.charAt(10) != ' ')
+				|| !isDigits(value, 11, 2) || value.charAt(13) != ':' || !isDigits(value, 14, 2)) {
+			return -1;
+		}
+		int position = 16;
+		if (position < length && value.charAt(position) == ':') {
+			if (position + 3 > length || !isDigits(value, position + 1, 2)) {
+				return -1;
+			}
+			position += 3;
+		}
+		if (position == length) {
+			return position;
+		}
+		char sign = value.charAt(position);
+		if ((sign != '+' && sign != '-') || position + 3 > length || !isDigits(value, position + 1, 2)) {
+			return -1;
+		}
+		int minutes = position + 3;
+		if (minutes < length && value.charAt(minutes) == ':') {
+			minutes++;
+		}
+		if (minutes == length && minutes == position + 3) {
+			return position;
+		}
+		if (minutes + 2 != length || !isDigits(value, minutes, 2)) {
+			return -1;
+		}
+		return position;
+	}
+
+	private static boolean isDigits(CharSequence value, int start, int count) {
+		for (int i = start; i < start + count; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getNumber(CharSequence value, int start, int count) {
+		int number = 0;
+		for (int i = start; i < start + count; i++) {
+			number = number * 10 + (value.charAt(i) - '0');
+		}
+		return number;
+	}
+
+	private static boolean checkRange(String field, int value, int min, int max, boolean throwErrors) {
+		if (value < min || value > max) {
+			if (throwErrors) {
+				throw new IllegalArgumentException("Value " + value + " for " + field + " must be in the range [" + min + "," + max + "]");
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private static int getDaysInMonth(int year, int month) {
+		if (month == 2 && (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0)) {
+			return 29;
+		}
+		return DAYS_IN_MONTH[month - 1];
+	}
+
+	/**
+	 * Days from 1970-01-01 to the date, proleptic gregorian calendar (as ISO chronology)
+	 */
+	private static long getDaysSinceEpoch(int year, int month, int day) {
+		long y = (month <= 2) ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
 	}
 
 	/**
 	 * Will compare the receive dates, by using joda DateTime, setting same
 	 * timezone for both, and comparing just the date without minutes and
 	 * seconds. Will return true if both dates belong to the same day.
-	 * 
+	 *
 	 * @param dateOne
 	 * @param dateTwo
 	 * @return boolean
 	 */
 	public static boolean isSameDate(Date dateOne, Date dateTwo) {
-	
+
 		if (dateOne == null || dateTwo == null) {
 			throw new IllegalArgumentException("One of the expected dates was null.");
 		}
 
 		DateTime dateTimeOne = new DateTime(dateOne);
-		dateTimeOne = dateTimeOne.toDateTime(DateTimeZone.forID("EST"));
-		
+		dateTimeOne = dateTimeOne.toDateTime(EST);
+
 		DateTime dateTimeTwo = new DateTime(dateTwo);
-		dateTimeTwo = dateTimeTwo.toDateTime(DateTimeZone.forID("EST"));
-		
-		
+		dateTimeTwo = dateTimeTwo.toDateTime(EST);
+
+
 		return dateTimeOne.withTimeAtStartOfDay().isEqual(dateTimeTwo.withTimeAtStartOfDay());
 	}
-	
+
 }
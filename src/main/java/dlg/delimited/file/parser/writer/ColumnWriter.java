@@ -0,0 +1,210 @@
+package dlg.delimited.file.parser.writer;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import dlg.delimited.file.parser.converter.FieldConverters;
+import dlg.delimited.file.parser.converter.FieldFormatter;
+
+/**
+ * Writes the value of one field of the DTO as a column, through a getter resolved once when
+ * the write plan is built. Primitive fields are read without boxing and their digits are
+ * written straight into the buffer of the writer.
+ *
+ * @author dalcantara
+ *
+ */
+abstract class ColumnWriter {
+
+	protected final MethodHandle getter;
+
+	private ColumnWriter(MethodHandle getter) {
+		this.getter = getter;
+	}
+
+	/**
+	 * Appends the text of the field of the DTO to the writer, nothing if it's null
+	 * @param dto
+	 * @param out
+	 * @throws IOException
+	 */
+	abstract void write(Object dto, TsvWriter<?> out) throws IOException;
+
+	/**
+	 * Resolves the writer of the field
+	 * @param field
+	 * @param dateFormatPattern
+	 *            (pattern of date fields, null for the default formats)
+	 * @return
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	static ColumnWriter of(Field field, String dateFormatPattern) throws IllegalAccessException {
+		field.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+		Class<?> type = field.getType();
+		if (type.isPrimitive() && !FieldConverters.isRegistered(type) && !FieldConverters.isEpochMillis(type, dateFormatPattern)) {
+			if (type == int.class || type == short.class) {
+				return new IntColumnWriter(handle.asType(MethodType.methodType(int.class, Object.class)));
+			} else if (type == long.class) {
+				return new LongColumnWriter(handle.asType(MethodType.methodType(long.class, Object.class)));
+			} else if (type == double.class) {
+				return new DoubleColumnWriter(handle.asType(MethodType.methodType(double.class, Object.class)));
+			} else if (type == float.class) {
+				return new FloatColumnWriter(handle.asType(MethodType.methodType(float.class, Object.class)));
+			} else if (type == boolean.class) {
+				return new BooleanColumnWriter(handle.asType(MethodType.methodType(boolean.class, Object.class)));
+			}
+		}
+		FieldFormatter<Object> formatter = (FieldFormatter<Object>) FieldConverters.getFormatter(type, dateFormatPattern);
+		return new ObjectColumnWriter(handle.asType(MethodType.methodType(Object.class, Object.class)), formatter);
+	}
+
+	protected static RuntimeException rethrow(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+
+	private static class IntColumnWriter extends ColumnWriter {
+
+		private IntColumnWriter(MethodHandle getter) {
+			super(getter);
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			int value;
+			try {
+				value = (int) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			out.appendLong(value);
+		}
+	}
+
+	private static class LongColumnWriter extends ColumnWriter {
+
+		private LongColumnWriter(MethodHandle getter) {
+			super(getter);
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			long value;
+			try {
+				value = (long) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			out.appendLong(value);
+		}
+	}
+
+	private static class DoubleColumnWriter extends ColumnWriter {
+
+		private DoubleColumnWriter(MethodHandle getter) {
+			super(getter);
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			double value;
+			try {
+				value = (double) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			out.appendDouble(value);
+		}
+	}
+
+	private static class FloatColumnWriter extends ColumnWriter {
+
+		private FloatColumnWriter(MethodHandle getter) {
+			super(getter);
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			float value;
+			try {
+				value = (float) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			out.appendFloat(value);
+		}
+	}
+
+	private static class BooleanColumnWriter extends ColumnWriter {
+
+		private BooleanColumnWriter(MethodHandle getter) {
+			super(getter);
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			boolean value;
+			try {
+				value = (boolean) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			out.appendBoolean(value);
+		}
+	}
+
+	/**
+	 * Fields of any other type, through their formatter or their <code>toString()</code>.
+	 * Wrappers of numbers are written like their primitives.
+	 */
+	private static class ObjectColumnWriter extends ColumnWriter {
+
+		private final FieldFormatter<Object> formatter;
+
+		private ObjectColumnWriter(MethodHandle getter, FieldFormatter<Object> formatter) {
+			super(getter);
+			this.formatter = formatter;
+		}
+
+		@Override
+		void write(Object dto, TsvWriter<?> out) throws IOException {
+			Object value;
+			try {
+				value = (Object) getter.invokeExact(dto);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+			if (value == null) {
+				return;
+			}
+			if (formatter != null) {
+				StringBuilder text = out.getTextBuffer();
+				formatter.format(value, text);
+				out.appendText(text);
+			} else if (value instanceof String) {
+				out.appendText((String) value);
+			} else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+				out.appendLong(((Number) value).longValue());
+			} else if (value instanceof Double) {
+				out.appendDouble(((Double) value).doubleValue());
+			} else if (value instanceof Float) {
+				out.appendFloat(((Float) value).floatValue());
+			} else if (value instanceof Boolean) {
+				out.appendBoolean(((Boolean) value).booleanValue());
+			} else {
+				out.appendText(value.toString());
+			}
+		}
+	}
+
+}
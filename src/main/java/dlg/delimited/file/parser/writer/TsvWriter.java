@@ -0,0 +1,419 @@
+package dlg.delimited.file.parser.writer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes DTOs as delimited content accordingly to their annotations, so it can be parsed
+ * back by {@link dlg.delimited.file.parser.TsvParser} with the same DTO: separator and quoting
+ * of {@link dlg.delimited.file.parser.annotations.BinderClassData}, a header with the names of
+ * the fields when the first row is ignored, and every field in its
+ * {@link dlg.delimited.file.parser.annotations.BindedFieldData#writePosition()} (its read
+ * position when it has none).
+ * <br>
+ * Texts are quoted only when they contain the separator, the quoting character or line
+ * breaks, doubling the quoting characters inside them. Empty texts are written quoted so they
+ * aren't parsed as nulls. Numbers are written straight into the buffer, and dates in the
+ * pattern of the field or in the default formats of their type.
+ * <br>
+ * Records are written into a large buffer which is only handed off to the target when it's
+ * full, on {@link #flush()} and on {@link #close()}. Instances are not thread safe.
+ *
+ * @author dalcantara
+ *
+ * @param <T> type of your DTO
+ */
+public class TsvWriter<T> implements Closeable, Flushable {
+
+	/**
+	 * Size, in characters, of the buffer of the writer
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_LONG_LENGTH = 20;
+
+	private final Writer writer;
+	private final WritableByteChannel channel;
+	private final CharsetEncoder encoder;
+	private final ByteBuffer bytes;
+
+	private final String separator;
+	private final char quote;
+	private final ColumnWriter[] columnWriters;
+
+	private final char[] buffer;
+	private int position = 0;
+	private final StringBuilder textBuffer = new StringBuilder(64);
+	private long recordCount = 0;
+	private boolean closed = false;
+
+	/**
+	 * Writes the content into the writer
+	 * @param writer
+	 * @param clazz
+	 * @throws IllegalArgumentException
+	 *             if the class has no binding annotations
+	 */
+	public TsvWriter(Writer writer, Class<T> clazz) {
+		this(writer, null, clazz, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Writes the content into the channel encoded in UTF-8
+	 * @param channel
+	 * @param clazz
+	 * @throws IllegalArgumentException
+	 *             if the class has no binding annotations
+	 */
+	public TsvWriter(WritableByteChannel channel, Class<T> clazz) {
+		this(null, channel, clazz, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Writes the content into the file encoded in UTF-8, replacing it if it exists
+	 * @param path
+	 * @param clazz
+	 * @throws IOException
+	 */
+	public TsvWriter(Path path, Class<T> clazz) throws IOException {
+		this(null, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE), clazz, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 *
+	 * @param writer
+	 *            (null when writing into the channel)
+	 * @param channel
+	 *            (null when writing into the writer)
+	 * @param clazz
+	 * @param bufferSize
+	 *            (characters buffered before handing them off to the target)
+	 */
+	public TsvWriter(Writer writer, WritableByteChannel channel, Class<T> clazz, int bufferSize) {
+		if ((writer == null) == (channel == null) || clazz == null) {
+			throw new NullPointerException("Invalid parameters: class and either writer or channel are mandatory");
+		}
+		if (bufferSize < MAX_LONG_LENGTH) {
+			throw new IllegalArgumentException("Buffer size has to be at least " + MAX_LONG_LENGTH);
+		}
+		WritePlan plan = WritePlan.getPlan(clazz);
+		this.writer = writer;
+		this.channel = channel;
+		if (channel != null) {
+			this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.bytes = ByteBuffer.allocateDirect((int) (bufferSize * encoder.maxBytesPerChar()));
+		} else {
+			this.encoder = null;
+			this.bytes = null;
+		}
+		this.separator = plan.getSeparator();
+		this.quote = plan.getQuote();
+		this.columnWriters = plan.getColumnWriters();
+		this.buffer = new char[bufferSize];
+		if (plan.hasHeader()) {
+			writeHeader(plan.getColumnNames());
+		}
+	}
+
+	private void writeHeader(String[] columnNames) {
+		try {
+			for (int column = 0; column < columnNames.length; column++) {
+				if (column > 0) {
+					appendRaw(separator);
+				}
+				if (columnNames[column] != null) {
+					appendText(columnNames[column]);
+				}
+			}
+			appendChar('\n');
+		} catch (IOException e) {
+			// the header always fits in the buffer unless it's tiny
+			throw new IllegalStateException("Error writing the header", e);
+		}
+	}
+
+	/**
+	 * Writes the DTO as a new record
+	 * @param dto
+	 * @throws IOException
+	 */
+	public void write(T dto) throws IOException {
+		if (dto == null) {
+			throw new NullPointerException("Invalid parameters: DTO is mandatory");
+		}
+		if (closed) {
+			throw new IOException("Writer already closed");
+		}
+		for (int column = 0; column < columnWriters.length; column++) {
+			if (column > 0) {
+				appendRaw(separator);
+			}
+			if (columnWriters[column] != null) {
+				columnWriters[column].write(dto, this);
+			}
+		}
+		appendChar('\n');
+		recordCount++;
+	}
+
+	/**
+	 * Writes all the DTOs
+	 * @param dtos
+	 * @throws IOException
+	 */
+	public void writeAll(Iterable<? extends T> dtos) throws IOException {
+		writeAll(dtos.iterator());
+	}
+
+	/**
+	 * Writes all the DTOs of the stream, consuming it
+	 * @param dtos
+	 * @throws IOException
+	 */
+	public void writeAll(Stream<? extends T> dtos) throws IOException {
+		writeAll(dtos.iterator());
+	}
+
+	private void writeAll(Iterator<? extends T> iterator) throws IOException {
+		while (iterator.hasNext()) {
+			write(iterator.next());
+		}
+	}
+
+	/**
+	 * Amount of records written so far, the header excluded
+	 * @return
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Reusable buffer for the text of a value before quoting it
+	 */
+	StringBuilder getTextBuffer() {
+		textBuffer.setLength(0);
+		return textBuffer;
+	}
+
+	void appendLong(long value) throws IOException {
+		if (buffer.length - position < MAX_LONG_LENGTH) {
+			flushBuffer();
+		}
+		if (value == Long.MIN_VALUE) {
+			appendRaw("-9223372036854775808");
+			return;
+		}
+		if (value < 0) {
+			buffer[position++] = '-';
+			value = -value;
+		}
+		int digits = 1;
+		for (long rest = value / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		int end = position + digits;
+		for (int i = end - 1; i >= position; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		position = end;
+	}
+
+	void appendDouble(double value) throws IOException {
+		StringBuilder text = getTextBuffer();
+		text.append(value);
+		appendRaw(text);
+	}
+
+	void appendFloat(float value) throws IOException {
+		StringBuilder text = getTextBuffer();
+		text.append(value);
+		appendRaw(text);
+	}
+
+	void appendBoolean(boolean value) throws IOException {
+		appendRaw(value ? "true" : "false");
+	}
+
+	/**
+	 * Appends the text, quoted when it's needed
+	 * @param text
+	 * @throws IOException
+	 */
+	void appendText(CharSequence text) throws IOException {
+		int length = text.length();
+		if (quote == 0) {
+			if (needsQuoting(text)) {
+				throw new IllegalArgumentException("Value can't be written without quoting: " + text);
+			}
+			appendRaw(text);
+			return;
+		}
+		if (length > 0 && !needsQuoting(text)) {
+			appendRaw(text);
+			return;
+		}
+		appendChar(quote);
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == quote) {
+				appendChar(quote);
+			}
+			appendChar(c);
+		}
+		appendChar(quote);
+	}
+
+	private boolean needsQuoting(CharSequence text) {
+		int length = text.length();
+		char separatorStart = separator.charAt(0);
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r' || (c == quote && quote != 0)) {
+				return true;
+			}
+			if (c == separatorStart && startsWith(text, i, separator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean startsWith(CharSequence text, int offset, String prefix) {
+		if (text.length() - offset < prefix.length()) {
+			return false;
+		}
+		for (int i = 1; i < prefix.length(); i++) {
+			if (text.charAt(offset + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void appendRaw(CharSequence text) throws IOException {
+		int length = text.length();
+		if (buffer.length - position < length) {
+			for (int i = 0; i < length; i++) {
+				appendChar(text.charAt(i));
+			}
+			return;
+		}
+		if (text instanceof String) {
+			((String) text).getChars(0, length, buffer, position);
+		} else if (text instanceof StringBuilder) {
+			((StringBuilder) text).getChars(0, length, buffer, position);
+		} else {
+			for (int i = 0; i < length; i++) {
+				buffer[position + i] = text.charAt(i);
+			}
+		}
+		position += length;
+	}
+
+	private void appendChar(char c) throws IOException {
+		if (position == buffer.length) {
+			flushBuffer();
+		}
+		buffer[position++] = c;
+	}
+
+	/**
+	 * Hands off the buffered characters to the target. When encoding, a high surrogate at
+	 * the end of the buffer is kept until its pair arrives.
+	 */
+	private void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.write(buffer, 0, position);
+			position = 0;
+			return;
+		}
+		CharBuffer chars = CharBuffer.wrap(buffer, 0, position);
+		encode(chars, false);
+		int remaining = chars.remaining();
+		System.arraycopy(buffer, chars.position(), buffer, 0, remaining);
+		position = remaining;
+	}
+
+	private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+		CoderResult result;
+		do {
+			result = encoder.encode(chars, bytes, endOfInput);
+			if (result.isError()) {
+				result.throwException();
+			}
+			writeBytes();
+		} while (result.isOverflow());
+	}
+
+	private void writeBytes() throws IOException {
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+
+	/**
+	 * Hands off the buffered records to the target
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+		flushBuffer();
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Flushes the buffered records and closes the target
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			if (writer != null) {
+				flushBuffer();
+			} else {
+				CharBuffer chars = CharBuffer.wrap(buffer, 0, position);
+				encode(chars, true);
+				position = 0;
+				CoderResult result;
+				do {
+					result = encoder.flush(bytes);
+					writeBytes();
+				} while (result.isOverflow());
+			}
+		} finally {
+			closed = true;
+			if (writer != null) {
+				writer.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,152 @@
+package dlg.delimited.file.parser.writer;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.annotations.BinderClassData.Quoting;
+
+/**
+ * Write plan of a DTO, compiled once per class out of its annotations: the writer of every
+ * column indexed by its position, the separator, the quoting character and the header.
+ * <br>
+ * Fields are written in their {@link BindedFieldData#writePosition()}, or in their
+ * {@link BindedFieldData#readPosition()} when they have none, so the output can be parsed back
+ * with the same DTO. Positions follow the {@link BinderClassData#naturalOrder()} of the class.
+ *
+ * @author dalcantara
+ *
+ */
+class WritePlan {
+
+	/**
+	 * Plans kept along with their class, so they don't prevent the class (or its class loader)
+	 * from being unloaded
+	 */
+	private static final ClassValue<WritePlan> plans = new ClassValue<WritePlan>() {
+		@Override
+		protected WritePlan computeValue(Class<?> clazz) {
+			return new WritePlan(clazz);
+		}
+	};
+
+	private final String separator;
+	private final char quote;
+	private final boolean header;
+	private final String[] columnNames;
+	private final ColumnWriter[] columnWriters;
+
+	private WritePlan(Class<?> clazz) {
+		BinderClassData annotation = clazz.getAnnotation(BinderClassData.class);
+		if (annotation == null) {
+			throw new IllegalArgumentException("No binding annotation defined for class " + clazz.getName());
+		}
+		this.separator = annotation.separtor();
+		this.quote = getQuote(annotation.quoting());
+		this.header = annotation.ignoreFirstRow();
+
+		TreeMap<Integer, Field> fields = new TreeMap<Integer, Field>();
+		Set<String> fieldNames = new HashSet<String>();
+		for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				BindedFieldData fieldData = field.getAnnotation(BindedFieldData.class);
+				// fields hidden by the subclass are not written
+				if (fieldData == null || !fieldNames.add(field.getName())) {
+					continue;
+				}
+				int position = (fieldData.writePosition() > -1) ? fieldData.writePosition() : fieldData.readPosition();
+				if (position > -1) {
+					Field previous = fields.put(Integer.valueOf(position), field);
+					if (previous != null) {
+						throw new IllegalArgumentException("Fields " + previous.getName() + " and " + field.getName()
+								+ " are written in the same column of class " + clazz.getName());
+					}
+				}
+			}
+		}
+		if (fields.isEmpty()) {
+			throw new IllegalArgumentException("No field to write in class " + clazz.getName());
+		}
+
+		int firstPosition = fields.firstKey().intValue();
+		int lastPosition = fields.lastKey().intValue();
+		// like the parsing, a column 0 means the positions start with 0
+		int shift = (annotation.naturalOrder() && firstPosition > 0) ? 1 : 0;
+		this.columnNames = new String[lastPosition - shift + 1];
+		this.columnWriters = new ColumnWriter[lastPosition - shift + 1];
+		for (Map.Entry<Integer, Field> entry : fields.entrySet()) {
+			Field field = entry.getValue();
+			int column = entry.getKey().intValue() - shift;
+			String pattern = StringUtils.trimToNull(field.getAnnotation(BindedFieldData.class).dateStringPattern());
+			columnNames[column] = field.getName();
+			try {
+				columnWriters[column] = ColumnWriter.of(field, pattern);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("Field " + field.getName() + " can't be read for class " + clazz.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the write plan of the class, compiling it the first time
+	 * @param clazz
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the class has no binding annotations
+	 */
+	static WritePlan getPlan(Class<?> clazz) {
+		return plans.get(clazz);
+	}
+
+	private static char getQuote(Quoting quoting) {
+		if (Quoting.SINGLE.equals(quoting)) {
+			return '\'';
+		} else if (Quoting.DOUBLE.equals(quoting)) {
+			return '"';
+		}
+		return 0;
+	}
+
+	String getSeparator() {
+		return separator;
+	}
+
+	/**
+	 * Quoting character, 0 if values can't be quoted
+	 * @return
+	 */
+	char getQuote() {
+		return quote;
+	}
+
+	/**
+	 * Returns true if the content starts with a header, the parsing ignores the first row
+	 * @return
+	 */
+	boolean hasHeader() {
+		return header;
+	}
+
+	/**
+	 * Names of the fields written in every column, null for the gaps
+	 * @return
+	 */
+	String[] getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Writers indexed by column, null for the gaps (written as empty columns)
+	 * @return
+	 */
+	ColumnWriter[] getColumnWriters() {
+		return columnWriters;
+	}
+
+}
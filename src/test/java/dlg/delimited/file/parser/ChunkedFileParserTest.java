@@ -0,0 +1,153 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.BindedClasses;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+
+/**
+ * Checks the parse of files split in chunks at wrong positions
+ *
+ * @author dalcantara
+ *
+ */
+public class ChunkedFileParserTest {
+
+	// large enough to be split in several chunks
+	private static final int ROWS = 600000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ForkJoinPool pool;
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false, failAtWrongDataTypeException = true)
+	public static class Note {
+		@BindedFieldData(readPosition = 0)
+		public String text;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class LenientNote {
+		@BindedFieldData(readPosition = 0)
+		public String text;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	@BeforeClass
+	public static void createPool() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterClass
+	public static void shutdownPool() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Quoted columns holding the separator and line breaks, after a few quoting characters in
+	 * unquoted columns, so the quotes counted by the splitter are off and chunks start inside
+	 * quoted columns
+	 */
+	private Path createNotes(int wrongRow) throws IOException {
+		Path path = folder.newFile("notes.tsv").toPath();
+		BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+		try {
+			writer.write("text\tn\n");
+			for (int i = 0; i < ROWS; i++) {
+				if (i == 7 || i == 11 || i == 13) {
+					writer.write("12\" screen\t" + i + "\n");
+				} else {
+					writer.write("\"note\nfoo\tbar\"\t" + (i == wrongRow ? "x" : String.valueOf(i)) + "\n");
+				}
+			}
+		} finally {
+			writer.close();
+		}
+		return path;
+	}
+
+	@Test
+	public void strayQuotesDontFailTheParse() throws IOException {
+		Path path = createNotes(-1);
+		List<Note> sequential = parser.parseFile(path, Note.class);
+		assertEquals(ROWS, sequential.size());
+
+		List<Note> chunked = parser.parseFileInParallel(path, Note.class, pool);
+		assertEquals(ROWS, chunked.size());
+		for (int i = 0; i < ROWS; i++) {
+			assertEquals(sequential.get(i).text, chunked.get(i).text);
+			assertEquals(sequential.get(i).n, chunked.get(i).n);
+		}
+	}
+
+	@Test
+	public void wrongValuesStillFailTheParse() throws IOException {
+		Path path = createNotes(ROWS - 10);
+		try {
+			parser.parseFileInParallel(path, Note.class, pool);
+			fail("The wrong value should fail the parse");
+		} catch (InvalidFieldValueException e) {
+			assertEquals(true, e.getMessage().contains("'x'"));
+		}
+	}
+
+	@Test
+	public void onlyErrorsOfKeptChunksAreCollected() throws IOException {
+		Path path = createNotes(ROWS - 10);
+		BindedClass bindedClass = BindedClasses.getBinder(LenientNote.class);
+		ParseErrorCollector sequential = new ParseErrorCollector();
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(sequential);
+		assertEquals(ROWS, parser.parseFile(path, LenientNote.class, options).size());
+
+		ParseErrorCollector collector = new ParseErrorCollector();
+		Path quarantine = folder.newFile("quarantine.tsv").toPath();
+		collector.setQuarantine(quarantine);
+		ParseStatistics statistics = new ParseStatistics();
+		List<LenientNote> chunked = new ChunkedFileParser(parser, pool).parse(path, bindedClass, LenientNote.class, null, statistics,
+				collector, null);
+		collector.close();
+		assertEquals(ROWS, chunked.size());
+		assertEquals(ROWS, statistics.getRecordCount());
+		assertEquals(1, collector.getErrorCount());
+		assertEquals(1, collector.getRejectedCount());
+		assertEquals(sequential.getErrors().toString(), collector.getErrors().toString());
+		assertEquals("text\tn\n\"note\nfoo\tbar\"\tx\n", new String(Files.readAllBytes(quarantine), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void errorBudgetCountsOnlyErrorsOfKeptChunks() throws IOException {
+		Path path = createNotes(ROWS - 10);
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setErrorBudget(1);
+		List<LenientNote> chunked = new ChunkedFileParser(parser, pool).parse(path, BindedClasses.getBinder(LenientNote.class),
+				LenientNote.class, null, new ParseStatistics(), collector, null);
+		assertEquals(ROWS, chunked.size());
+		assertEquals(1, collector.getErrorCount());
+	}
+
+}
@@ -0,0 +1,117 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.binder.BindedClass;
+import dlg.delimited.file.parser.binder.BindedClasses;
+
+/**
+ * Checks that a projection fills the selected fields only, leaving the rest of the DTO as a
+ * new instance has it, and refuses fields which are not binded
+ *
+ * @author dalcantara
+ *
+ */
+public class FieldProjectionTest {
+
+	private static final String CONTENT = "id\tname\tcity\tamount\tcode\n"
+			+ "1\tann\tMadrid\t10\tA\n"
+			+ "2\tbob\tParis\tx\ty\n"
+			+ "3\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 1)
+		public String name = "none";
+		@BindedFieldData(readPosition = 2)
+		public String city;
+		@BindedFieldData(readPosition = 3)
+		public int amount = 7;
+		@BindedFieldData(readPosition = 4)
+		public char code;
+		public String notBinded;
+	}
+
+	private List<Row> parse(ParseOptions options) {
+		return parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, options);
+	}
+
+	@Test
+	public void unselectedFieldsKeepTheirDefaults() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		ParseOptions options = new ParseOptions();
+		options.setFields("city", "id");
+		options.setErrorCollector(collector);
+		List<Row> rows = parse(options);
+		assertEquals(3, rows.size());
+		assertEquals(1, rows.get(0).id);
+		assertEquals("Madrid", rows.get(0).city);
+		assertEquals("Paris", rows.get(1).city);
+		assertEquals(3, rows.get(2).id);
+		assertNull(rows.get(2).city);
+		for (Row row : rows) {
+			assertEquals("none", row.name);
+			assertEquals(7, row.amount);
+			assertEquals(0, row.code);
+		}
+		// the wrong values of the columns out of the projection aren't even converted
+		assertEquals(0, collector.getErrorCount());
+	}
+
+	@Test
+	public void columnsAfterTheLastSelectedAreNotRead() {
+		BindedClass projection = BindedClasses.getBinder(Row.class).getProjection(Arrays.asList("name", "id"));
+		assertArrayEquals(new boolean[] { true, true }, projection.getMappedColumns());
+		projection = BindedClasses.getBinder(Row.class).getProjection(Arrays.asList("city"));
+		assertArrayEquals(new boolean[] { false, false, true }, projection.getMappedColumns());
+		assertArrayEquals(new boolean[] { true, true, true, true, true },
+				BindedClasses.getBinder(Row.class).getMappedColumns());
+	}
+
+	@Test
+	public void emptyProjectionFillsNothing() {
+		ParseOptions options = new ParseOptions();
+		options.setFields(Collections.<String> emptyList());
+		List<Row> rows = parse(options);
+		assertEquals(3, rows.size());
+		assertEquals(0, rows.get(0).id);
+		assertEquals("none", rows.get(0).name);
+
+		options.setFields((Collection<String>) null);
+		assertEquals("ann", parse(options).get(0).name);
+	}
+
+	@Test
+	public void fieldsNotBindedAreRejected() {
+		for (String field : new String[] { "unknown", "notBinded" }) {
+			ParseOptions options = new ParseOptions();
+			options.setFields("id", field);
+			try {
+				parse(options);
+				fail(field + " is not binded");
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains(field));
+			}
+		}
+	}
+
+}
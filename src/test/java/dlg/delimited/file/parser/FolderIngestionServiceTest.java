@@ -0,0 +1,139 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.exception.ErrorBudgetExceededException;
+
+/**
+ * Checks that every file ingested gets its own quarantine
+ *
+ * @author dalcantara
+ *
+ */
+public class FolderIngestionServiceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	private static final RecordConsumerFactory<Row> NO_CONSUMER = new RecordConsumerFactory<Row>() {
+		@Override
+		public RecordConsumer<Row> newConsumer(Path file) {
+			return new RecordConsumer<Row>() {
+				@Override
+				public void accept(Row record) {
+				}
+			};
+		}
+	};
+
+	private File createFiles() throws IOException {
+		File input = folder.newFolder("input");
+		Files.write(new File(input, "a.tsv").toPath(), Arrays.asList("name\tn", "a1\t1", "a2\tx", "a3\t3"),
+				StandardCharsets.UTF_8);
+		Files.write(new File(input, "b.tsv").toPath(), Arrays.asList("label\tn", "b1\ty", "b2\t2"), StandardCharsets.UTF_8);
+		return input;
+	}
+
+	@Test
+	public void everyFileGetsItsOwnQuarantine() throws Exception {
+		File input = createFiles();
+		final File quarantines = folder.newFolder("quarantine");
+		FolderIngestionService service = new FolderIngestionService();
+		service.setErrorCollectors(new ParseErrorCollectorFactory() {
+			@Override
+			public ParseErrorCollector newCollector(Path file) {
+				ParseErrorCollector collector = new ParseErrorCollector();
+				collector.setQuarantine(new File(quarantines, file.getFileName().toString()).toPath());
+				return collector;
+			}
+		});
+		List<FileIngestionResult> results = service.ingest(Collections.singletonList(input.getPath()), Row.class,
+				NO_CONSUMER);
+		assertEquals(2, results.size());
+		for (FileIngestionResult result : results) {
+			assertTrue(result.isSuccessful());
+			assertEquals(1, result.getErrorCollector().getRejectedCount());
+		}
+		assertEquals(Arrays.asList("name\tn", "a2\tx"),
+				Files.readAllLines(new File(quarantines, "a.tsv").toPath(), StandardCharsets.UTF_8));
+		assertEquals(Arrays.asList("label\tn", "b1\ty"),
+				Files.readAllLines(new File(quarantines, "b.tsv").toPath(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void everyFileKeepsItsOwnCounts() throws Exception {
+		File input = folder.newFolder("input");
+		Files.write(new File(input, "a.tsv").toPath(), Arrays.asList("name\tn", "a1\t1", "a2\tx", "a3\t3", "a4\t4"),
+				StandardCharsets.UTF_8);
+		Files.write(new File(input, "b.tsv").toPath(), Arrays.asList("name\tn", "b1\ty", "b2\tz"), StandardCharsets.UTF_8);
+		FolderIngestionService service = new FolderIngestionService();
+		service.setErrorCollectors(new ParseErrorCollectorFactory() {
+			@Override
+			public ParseErrorCollector newCollector(Path file) {
+				ParseErrorCollector collector = new ParseErrorCollector();
+				collector.setErrorBudget(1);
+				return collector;
+			}
+		});
+		List<FileIngestionResult> results = service.ingest(Collections.singletonList(input.getPath()), Row.class,
+				NO_CONSUMER);
+		assertEquals(2, results.size());
+		// from the largest file to the smallest one
+		FileIngestionResult a = results.get(0);
+		assertTrue(a.getFileName().endsWith("a.tsv"));
+		assertTrue(a.isSuccessful());
+		assertEquals(4, a.getRecordCount());
+		assertEquals(1, a.getErrorCollector().getErrorCount());
+		assertEquals(Long.valueOf(1), a.getErrorCollector().getFieldErrorCounts().get("n"));
+
+		// the budget of a file isn't spent by the errors of the others
+		FileIngestionResult b = results.get(1);
+		assertTrue(b.getFileName().endsWith("b.tsv"));
+		assertEquals(false, b.isSuccessful());
+		assertTrue(b.getError() instanceof ErrorBudgetExceededException);
+		assertEquals(2, b.getErrorCollector().getErrorCount());
+		// the record exceeding the budget interrupts the parse before being rejected
+		assertEquals(1, b.getErrorCollector().getRejectedCount());
+	}
+
+	@Test
+	public void sharedQuarantineIsRefused() throws Exception {
+		File input = createFiles();
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setQuarantine(folder.newFile("quarantine.tsv").toPath());
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(collector);
+		try {
+			new FolderIngestionService().ingest(Collections.singletonList(input.getPath()), Row.class, NO_CONSUMER, options);
+			fail("a quarantine can't be shared by all the files");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.exception.ErrorBudgetExceededException;
+
+/**
+ * Checks the counters, the error budget and the quarantine of the collector
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseErrorCollectorTest {
+
+	private static final String CONTENT = "name\tn\tm\n"
+			+ "a\t1\t1\n"
+			+ "b\tx\t2\n"
+			+ "c\t3\t3\n"
+			+ "d\ty\tz\n"
+			+ "e\t5\tw\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+		@BindedFieldData(readPosition = 2)
+		public int m;
+	}
+
+	@BinderClassData(ignoreFirstRow = false, naturalOrder = false)
+	public static class NoHeaderRow {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	private List<Row> parse(ParseErrorCollector collector) {
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(collector);
+		return parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, options);
+	}
+
+	private static ParseError newError(int lineNumber) {
+		return new ParseError(lineNumber, 1, "n", "x", "not a number");
+	}
+
+	@Test
+	public void errorsAreCountedByField() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setMaxErrorsKept(2);
+		List<Row> rows = parse(collector);
+		assertEquals(5, rows.size());
+		assertEquals(4, collector.getErrorCount());
+		assertEquals(3, collector.getRejectedCount());
+		assertEquals(Long.valueOf(2), collector.getFieldErrorCounts().get("n"));
+		assertEquals(Long.valueOf(2), collector.getFieldErrorCounts().get("m"));
+		assertEquals(2, collector.getErrors().size());
+		assertEquals(3, collector.getErrors().get(0).getLineNumber());
+		assertEquals("x", collector.getErrors().get(0).getValue());
+		assertEquals("n", collector.getErrors().get(1).getFieldName());
+		assertEquals(5, collector.getErrors().get(1).getLineNumber());
+	}
+
+	@Test
+	public void rejectedRecordsCanBeDropped() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setDropRejectedRecords(true);
+		List<Row> rows = parse(collector);
+		assertEquals(2, rows.size());
+		assertEquals("a", rows.get(0).name);
+		assertEquals("c", rows.get(1).name);
+		assertEquals(3, collector.getRejectedCount());
+	}
+
+	@Test
+	public void budgetIsExceededAtTheNextError() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setErrorBudget(2);
+		collector.add(newError(1));
+		collector.add(newError(2));
+		try {
+			collector.add(newError(3));
+			fail("the third error exceeds the budget");
+		} catch (ErrorBudgetExceededException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("More than 2 errors"));
+		}
+		assertEquals(3, collector.getErrorCount());
+	}
+
+	@Test
+	public void budgetInterruptsTheParse() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setErrorBudget(3);
+		try {
+			parse(collector);
+			fail("the fourth error exceeds the budget");
+		} catch (ErrorBudgetExceededException e) {
+			// line of the fourth error
+			assertTrue(e.getMessage(), e.getMessage().contains("'w'"));
+		}
+		assertEquals(4, collector.getErrorCount());
+
+		collector = new ParseErrorCollector();
+		collector.setErrorBudget(4);
+		assertEquals(5, parse(collector).size());
+
+		collector = new ParseErrorCollector();
+		collector.setErrorBudget(0);
+		try {
+			parse(collector);
+			fail("no error is tolerated");
+		} catch (ErrorBudgetExceededException e) {
+			assertEquals(1, collector.getErrorCount());
+		}
+	}
+
+	@Test
+	public void quarantineStartsWithTheHeader() throws IOException {
+		Path quarantine = folder.newFile("quarantine.tsv").toPath();
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setQuarantine(quarantine);
+		assertTrue(collector.hasQuarantine());
+		parse(collector);
+		collector.close();
+		assertEquals(Arrays.asList("name\tn\tm", "b\tx\t2", "d\ty\tz", "e\t5\tw"),
+				Files.readAllLines(quarantine, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void quarantineHasNoHeaderIfTheDtoReadsTheFirstRow() throws IOException {
+		Path quarantine = folder.newFile("quarantine.tsv").toPath();
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setQuarantine(quarantine);
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(collector);
+		parser.parseContent(new BufferedReader(new StringReader("a\tx\nb\t2\n")), NoHeaderRow.class, options);
+		collector.close();
+		assertEquals(Collections.singletonList("a\tx"), Files.readAllLines(quarantine, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void quarantineIsNotCreatedWithoutRejectedRecords() throws IOException {
+		Path quarantine = folder.getRoot().toPath().resolve("quarantine.tsv");
+		ParseErrorCollector collector = new ParseErrorCollector();
+		collector.setQuarantine(quarantine);
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(collector);
+		parser.parseContent(new BufferedReader(new StringReader("name\tn\tm\na\t1\t1\n")), Row.class, options);
+		collector.close();
+		assertEquals(0, collector.getRejectedCount());
+		assertEquals(false, Files.exists(quarantine));
+	}
+
+}
@@ -0,0 +1,146 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * Checks the counters and the sampled phases of the metrics, read straight and through
+ * their MBean
+ *
+ * @author dalcantara
+ *
+ */
+public class ParseMetricsTest {
+
+	private static final String CONTENT = "name\tn\n"
+			+ "a\t1\n"
+			+ "\n"
+			+ "b\tx\n"
+			+ "c\t3\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	private void parse(ParseMetrics metrics) {
+		ParseOptions options = new ParseOptions();
+		options.setMetrics(metrics);
+		parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, options);
+	}
+
+	@Test
+	public void countersAddUpEveryParse() {
+		ParseMetrics metrics = new ParseMetrics();
+		parse(metrics);
+		parse(metrics);
+		assertEquals(2, metrics.getParseCount());
+		assertEquals(10, metrics.getLineCount());
+		assertEquals(2, metrics.getBlankLineCount());
+		assertEquals(6, metrics.getRecordCount());
+		assertEquals(2 * CONTENT.length(), metrics.getInputRead());
+		assertEquals(Collections.singletonMap("n", Long.valueOf(2)), metrics.getFieldFailures());
+		assertTrue(metrics.getParseNanos() > 0);
+		assertTrue(metrics.getRecordsPerSecond() > 0);
+
+		metrics.reset();
+		assertEquals(0, metrics.getParseCount());
+		assertEquals(0, metrics.getRecordCount());
+		assertTrue(metrics.getFieldFailures().isEmpty());
+	}
+
+	@Test
+	public void phasesAreOnlyMeasuredOnSampledRecords() {
+		ParseMetrics metrics = new ParseMetrics();
+		parse(metrics);
+		assertEquals(0, metrics.getTokenizeNanos());
+		assertEquals(0, metrics.getConvertNanos());
+		assertEquals(0, metrics.getBindNanos());
+
+		metrics.setSampleInterval(1);
+		parse(metrics);
+		assertTrue(metrics.getTokenizeNanos() > 0);
+		assertTrue(metrics.getConvertNanos() > 0);
+		assertTrue(metrics.getBindNanos() > 0);
+		assertEquals(6, metrics.getRecordCount());
+	}
+
+	@Test
+	public void listenersGetEveryParseAndTheTotal() {
+		ParseMetrics metrics = new ParseMetrics();
+		final List<Long> records = new ArrayList<Long>();
+		final List<ParseMetrics> totals = new ArrayList<ParseMetrics>();
+		metrics.addListener(new ParseMetricsListener() {
+			@Override
+			public void parseCompleted(ParseMetrics parse, ParseMetrics total) {
+				records.add(parse.getRecordCount());
+				totals.add(total);
+			}
+		});
+		parse(metrics);
+		parse(metrics);
+		assertEquals(2, records.size());
+		assertEquals(Long.valueOf(3), records.get(0));
+		assertEquals(Long.valueOf(3), records.get(1));
+		assertSame(metrics, totals.get(1));
+	}
+
+	@Test
+	public void mbeanExposesTheCounters() throws Exception {
+		ParseMetrics metrics = new ParseMetrics();
+		ObjectName name = metrics.register("ParseMetricsTest");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			assertTrue(server.isRegistered(name));
+			server.setAttribute(name, new Attribute("SampleInterval", Integer.valueOf(1)));
+			assertEquals(1, metrics.getSampleInterval());
+			parse(metrics);
+			assertEquals(Long.valueOf(1), server.getAttribute(name, "ParseCount"));
+			assertEquals(Long.valueOf(5), server.getAttribute(name, "LineCount"));
+			assertEquals(Long.valueOf(1), server.getAttribute(name, "BlankLineCount"));
+			assertEquals(Long.valueOf(3), server.getAttribute(name, "RecordCount"));
+			assertEquals(Long.valueOf(CONTENT.length()), server.getAttribute(name, "InputRead"));
+			assertTrue((Long) server.getAttribute(name, "TokenizeNanos") > 0);
+			assertTrue((Long) server.getAttribute(name, "ConvertNanos") > 0);
+			assertTrue((Long) server.getAttribute(name, "BindNanos") > 0);
+			assertTrue((Long) server.getAttribute(name, "AllocatedBytes") >= 0);
+
+			TabularData failures = (TabularData) server.getAttribute(name, "FieldFailures");
+			assertEquals(1, failures.size());
+			CompositeData failure = (CompositeData) failures.values().iterator().next();
+			assertEquals("n", failure.get("key"));
+			assertEquals(Long.valueOf(1), failure.get("value"));
+
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertEquals(Long.valueOf(0), server.getAttribute(name, "RecordCount"));
+		} finally {
+			metrics.unregister();
+		}
+		assertEquals(false, server.isRegistered(name));
+	}
+
+}
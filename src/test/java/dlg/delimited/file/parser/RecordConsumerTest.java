@@ -0,0 +1,121 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * Checks that the instance reused for all the records of a consumer is fully reset between
+ * records, so it gets the same values than a new instance per record
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordConsumerTest {
+
+	// full row, empty cells, missing columns, wrong value, full row again
+	private static final String CONTENT = "name\tn\tamount\tcode\n"
+			+ "first\t1\t10\tA\n"
+			+ "empty\t\t\t\n"
+			+ "short\n"
+			+ "wrong\tx\t30\t\n"
+			+ "last\t5\t50\tE\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public String name = "none";
+		@BindedFieldData(readPosition = 1)
+		public int n = 7;
+		@BindedFieldData(readPosition = 2)
+		public Integer amount;
+		@BindedFieldData(readPosition = 3)
+		public char code;
+
+		@Override
+		public String toString() {
+			return name + "|" + n + "|" + amount + "|" + (int) code;
+		}
+	}
+
+	/**
+	 * Keeps the values of every record handed off, and the instances they came in
+	 */
+	private static class Snapshots implements RecordConsumer<Row> {
+		private final List<String> values = new ArrayList<String>();
+		private final List<Row> instances = new ArrayList<Row>();
+
+		@Override
+		public void accept(Row record) {
+			values.add(record.toString());
+			instances.add(record);
+		}
+	}
+
+	private static List<String> toStrings(List<Row> rows) {
+		List<String> values = new ArrayList<String>();
+		for (Row row : rows) {
+			values.add(row.toString());
+		}
+		return values;
+	}
+
+	private static BufferedReader reader() {
+		return new BufferedReader(new StringReader(CONTENT));
+	}
+
+	@Test
+	public void reusedInstanceGetsTheValuesOfNewInstances() {
+		List<String> expected = toStrings(parser.parseContent(reader(), Row.class));
+		Snapshots snapshots = new Snapshots();
+		assertEquals(5, parser.parseContent(reader(), Row.class, snapshots));
+		assertEquals(expected, snapshots.values);
+		// nothing of the previous record is left when cells are empty or missing
+		assertEquals("empty|7|null|0", snapshots.values.get(1));
+		assertEquals("short|7|null|0", snapshots.values.get(2));
+		assertEquals("wrong|7|30|0", snapshots.values.get(3));
+		for (Row instance : snapshots.instances) {
+			assertSame(snapshots.instances.get(0), instance);
+		}
+	}
+
+	@Test
+	public void reusedInstanceIsResetReadingFiles() throws IOException {
+		Path path = folder.newFile("rows.tsv").toPath();
+		Files.write(path, CONTENT.getBytes(StandardCharsets.UTF_8));
+		Snapshots snapshots = new Snapshots();
+		assertEquals(5, parser.parseFile(path, Row.class, snapshots));
+		assertEquals(toStrings(parser.parseFile(path, Row.class)), snapshots.values);
+	}
+
+	@Test
+	public void projectedFieldsAreResetToo() {
+		ParseOptions options = new ParseOptions();
+		options.setFields("name", "amount");
+		Snapshots snapshots = new Snapshots();
+		parser.parseContent(reader(), Row.class, snapshots, options);
+		assertEquals(toStrings(parser.parseContent(reader(), Row.class, options)), snapshots.values);
+		assertEquals("empty|7|null|0", snapshots.values.get(1));
+	}
+
+}
@@ -0,0 +1,152 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.TsvRecordIteratorTest.Row;
+import dlg.delimited.file.parser.TsvRecordIteratorTest.StrictRow;
+import dlg.delimited.file.parser.TsvRecordIteratorTest.TrackedReader;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+
+/**
+ * Checks how the sink gets the batches, and that the errors interrupting the parse reach it
+ * once the pending records are flushed
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordSinkTest {
+
+	private static final String CONTENT = "name\tn\n"
+			+ "a\t1\n"
+			+ "b\t2\n"
+			+ "c\t3\n"
+			+ "d\tx\n"
+			+ "e\t5\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	/**
+	 * Keeps the batches and the errors received
+	 */
+	private static class Batches<T> implements RecordSink<T> {
+		private final List<List<T>> batches = new ArrayList<List<T>>();
+		private final List<Exception> errors = new ArrayList<Exception>();
+
+		@Override
+		public void onBatch(List<T> batch) {
+			batches.add(batch);
+		}
+
+		@Override
+		public void onError(Exception e) {
+			errors.add(e);
+		}
+
+		private List<Integer> getSizes() {
+			List<Integer> sizes = new ArrayList<Integer>();
+			for (List<T> batch : batches) {
+				sizes.add(batch.size());
+			}
+			return sizes;
+		}
+	}
+
+	@Test
+	public void batchesAreCompletedBySize() {
+		Batches<Row> sink = new Batches<Row>();
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		assertEquals(5, parser.parseContent(new BufferedReader(reader), Row.class, sink, 2, 0));
+		assertEquals(Arrays.asList(2, 2, 1), sink.getSizes());
+		assertEquals("a", sink.batches.get(0).get(0).name);
+		assertEquals("e", sink.batches.get(2).get(0).name);
+		assertTrue(sink.errors.isEmpty());
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void batchesAreCompletedByInputSize() {
+		Batches<Row> sink = new Batches<Row>();
+		// every record is 4 characters long, line break included
+		assertEquals(5, parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, sink, 0, 1));
+		assertEquals(Arrays.asList(1, 1, 1, 1, 1), sink.getSizes());
+
+		sink = new Batches<Row>();
+		parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, sink, 0, 1000);
+		assertEquals(Arrays.asList(5), sink.getSizes());
+	}
+
+	@Test
+	public void wrongValuesReachTheSinkAfterTheFlush() {
+		Batches<StrictRow> sink = new Batches<StrictRow>();
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		assertEquals(3, parser.parseContent(new BufferedReader(reader), StrictRow.class, sink, 2, 0));
+		assertEquals(Arrays.asList(2, 1), sink.getSizes());
+		assertEquals(1, sink.errors.size());
+		assertTrue(sink.errors.get(0) instanceof InvalidFieldValueException);
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void readingErrorsReachTheSink() {
+		Batches<Row> sink = new Batches<Row>();
+		TrackedReader reader = new TrackedReader(CONTENT, true);
+		assertEquals(5, parser.parseContent(new BufferedReader(reader), Row.class, sink, 10, 0));
+		assertEquals(Arrays.asList(5), sink.getSizes());
+		assertEquals(1, sink.errors.size());
+		assertTrue(sink.errors.get(0) instanceof IOException);
+		assertEquals("Connection reset", sink.errors.get(0).getMessage());
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void errorsOfTheSinkAreThrown() {
+		final List<Exception> errors = new ArrayList<Exception>();
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		try {
+			parser.parseContent(new BufferedReader(reader), Row.class, new RecordSink<Row>() {
+				@Override
+				public void onBatch(List<Row> batch) {
+					throw new IllegalStateException("Database down");
+				}
+
+				@Override
+				public void onError(Exception e) {
+					errors.add(e);
+				}
+			}, 2, 0);
+			fail("the error of the sink has to interrupt the parse");
+		} catch (IllegalStateException e) {
+			assertEquals("Database down", e.getMessage());
+		}
+		assertTrue(errors.isEmpty());
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void sinkAndBatchLimitAreMandatory() {
+		try {
+			parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, (RecordSink<Row>) null, 2, 0);
+			fail("the sink is mandatory");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, new Batches<Row>(), 0, 0);
+			fail("batches have to be completed somehow");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,264 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.annotations.LineNumberField;
+import dlg.delimited.file.parser.tokenizer.StructuralScanner;
+
+/**
+ * Checks that every way of parsing the same content (sequential, memory mapped, in chunks,
+ * pipelined, compressed) returns the same DTOs, line numbers included
+ *
+ * @author dalcantara
+ *
+ */
+public class TsvParserEquivalenceTest {
+
+	// large enough to be split in several chunks and pipelined in several blocks
+	private static final int ROWS = 300000;
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static String content;
+	private static Path file;
+	private static List<Row> expected;
+	private static ForkJoinPool pool;
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@LineNumberField(setLineNumber = true)
+		public Integer line;
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 1)
+		public String text;
+		@BindedFieldData(readPosition = 2)
+		public long amount;
+		@BindedFieldData(readPosition = 3)
+		public Double ratio;
+
+		@Override
+		public String toString() {
+			return line + ":" + id + "|" + text + "|" + amount + "|" + ratio;
+		}
+	}
+
+	@BeforeClass
+	public static void createContent() throws IOException {
+		content = createContent(ROWS, new Random(7));
+		file = folder.newFile("content.tsv").toPath();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		expected = new TsvParser().parseContent(new BufferedReader(new StringReader(content)), Row.class);
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterClass
+	public static void shutdownPool() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Rows with quoted columns holding separators, quotes and line breaks, empty and null
+	 * columns, \n and \r\n line breaks and some blank lines
+	 */
+	static String createContent(int rows, Random random) {
+		StringBuilder builder = new StringBuilder("id\ttext\tamount\tratio\n");
+		for (int i = 0; i < rows; i++) {
+			String lineBreak = random.nextBoolean() ? "\n" : "\r\n";
+			if (i % 1000 == 999) {
+				builder.append(lineBreak);
+			}
+			builder.append(i).append('\t');
+			switch (i % 6) {
+			case 0:
+				builder.append("plain ").append(random.nextInt(1000));
+				break;
+			case 1:
+				builder.append("\"two\nlines\tand \"\"quotes\"\" ").append(i).append('"');
+				break;
+			case 2:
+				builder.append("\"windows\r\nbreak\"");
+				break;
+			case 3:
+				builder.append("\"\"");
+				break;
+			case 4:
+				break;
+			default:
+				builder.append("\"quoted\"");
+			}
+			builder.append('\t').append(random.nextLong()).append('\t');
+			if (i % 7 != 0) {
+				builder.append(random.nextDouble() * 1000);
+			}
+			builder.append(lineBreak);
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void sequentialContentMatchesRowsWritten() {
+		assertEquals(ROWS, expected.size());
+		assertEquals("2:0|plain", expected.get(0).toString().substring(0, 9));
+		assertEquals(null, expected.get(4).text);
+		assertEquals("", expected.get(3).text);
+		assertEquals("two\nlines\tand \"quotes\" 1", expected.get(1).text);
+	}
+
+	@Test
+	public void mappedFileMatchesSequential() throws IOException {
+		assertSameRecords(expected, iterate(file));
+	}
+
+	@Test
+	public void chunkedFileMatchesSequential() throws IOException {
+		assertSameRecords(expected, parser.parseFileInParallel(file, Row.class, pool));
+	}
+
+	@Test
+	public void pipelinedContentMatchesSequential() {
+		ParseStatistics sequential = new ParseStatistics();
+		ParseOptions sequentialOptions = new ParseOptions();
+		sequentialOptions.setStatistics(sequential);
+		parser.parseContent(new BufferedReader(new StringReader(content)), Row.class, sequentialOptions);
+
+		ParseStatistics pipelined = new ParseStatistics();
+		ParseOptions pipelinedOptions = new ParseOptions();
+		pipelinedOptions.setStatistics(pipelined);
+		assertSameRecords(expected,
+				parser.parseContentInParallel(new BufferedReader(new StringReader(content)), Row.class, 3, pipelinedOptions));
+		assertEquals(sequential.toString(), pipelined.toString());
+	}
+
+	@Test
+	public void gzipFileMatchesSequential() throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(gzip(bytes, 0, bytes.length));
+		Path gzip = folder.newFile("content.tsv.gz").toPath();
+		Files.write(gzip, out.toByteArray());
+		assertSameRecords(expected, parser.parseFile(gzip, Row.class));
+	}
+
+	@Test
+	public void multiMemberGzipFileMatchesSequential() throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int offset = 0; offset < bytes.length; offset += 100000) {
+			out.write(gzip(bytes, offset, Math.min(100000, bytes.length - offset)));
+		}
+		Path gzip = folder.newFile("members.tsv.gz").toPath();
+		Files.write(gzip, out.toByteArray());
+		assertSameRecords(expected, parser.parseFile(gzip, Row.class));
+	}
+
+	@Test
+	public void bgzfFileMatchesSequential() throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int offset = 0; offset < bytes.length; offset += 60000) {
+			out.write(bgzf(bytes, offset, Math.min(60000, bytes.length - offset)));
+		}
+		// end of file marker
+		out.write(bgzf(bytes, 0, 0));
+		Path gzip = folder.newFile("blocks.tsv.gz").toPath();
+		Files.write(gzip, out.toByteArray());
+		assertSameRecords(expected, parser.parseFile(gzip, Row.class));
+		assertSameRecords(expected, parser.parseFileInParallel(gzip, Row.class, pool));
+	}
+
+	@Test
+	public void scalarAndSwarScannersMatchSequential() throws IOException {
+		String previous = System.getProperty(StructuralScanner.IMPLEMENTATION_PROPERTY);
+		try {
+			for (String implementation : new String[] { "scalar", "swar" }) {
+				System.setProperty(StructuralScanner.IMPLEMENTATION_PROPERTY, implementation);
+				assertSameRecords(expected, iterate(file));
+				assertSameRecords(expected, parser.parseFileInParallel(file, Row.class, pool));
+			}
+		} finally {
+			if (previous != null) {
+				System.setProperty(StructuralScanner.IMPLEMENTATION_PROPERTY, previous);
+			} else {
+				System.clearProperty(StructuralScanner.IMPLEMENTATION_PROPERTY);
+			}
+		}
+	}
+
+	private List<Row> iterate(Path path) throws IOException {
+		List<Row> records = new ArrayList<Row>();
+		TsvRecordIterator<Row> iterator = parser.iterate(path, Row.class);
+		try {
+			while (iterator.hasNext()) {
+				records.add(iterator.next());
+			}
+		} finally {
+			iterator.close();
+		}
+		return records;
+	}
+
+	static void assertSameRecords(List<?> expected, List<?> actual) {
+		assertEquals("records", expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals("record " + i, expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+	private static byte[] gzip(byte[] bytes, int offset, int length) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GZIPOutputStream gzip = new GZIPOutputStream(out);
+		gzip.write(bytes, offset, length);
+		gzip.close();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Gzip member with the BGZF extra field holding its size
+	 */
+	private static byte[] bgzf(byte[] bytes, int offset, int length) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(bytes, offset, length);
+		deflater.finish();
+		byte[] deflated = new byte[length + 1024];
+		int size = deflater.deflate(deflated);
+		deflater.end();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, offset, length);
+
+		ByteBuffer member = ByteBuffer.allocate(18 + size + 8).order(ByteOrder.LITTLE_ENDIAN);
+		member.put((byte) 0x1f).put((byte) 0x8b).put((byte) 8).put((byte) 4).putInt(0).put((byte) 0).put((byte) 0xff);
+		member.putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2).putShort((short) (member.capacity() - 1));
+		member.put(deflated, 0, size).putInt((int) crc.getValue()).putInt(length);
+		return member.array();
+	}
+
+}
@@ -0,0 +1,214 @@
+package dlg.delimited.file.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+
+/**
+ * Checks the contract of the lazy iterators and streams: idempotent hasNext, no remove, and
+ * the reader closed at the end of the content, on errors and on early exits
+ *
+ * @author dalcantara
+ *
+ */
+public class TsvRecordIteratorTest {
+
+	private static final String CONTENT = "name\tn\n"
+			+ "a\t1\n"
+			+ "b\t2\n"
+			+ "c\tx\n"
+			+ "d\t4\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false, failAtWrongDataTypeException = true)
+	public static class StrictRow {
+		@BindedFieldData(readPosition = 0)
+		public String name;
+		@BindedFieldData(readPosition = 1)
+		public int n;
+	}
+
+	/**
+	 * Reader telling whether it was closed, failing once its content is read if requested
+	 */
+	static class TrackedReader extends Reader {
+		private final Reader content;
+		private final boolean failAtTheEnd;
+		boolean closed = false;
+
+		TrackedReader(String content, boolean failAtTheEnd) {
+			this.content = new StringReader(content);
+			this.failAtTheEnd = failAtTheEnd;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			int read = content.read(cbuf, off, len);
+			if (read < 0 && failAtTheEnd) {
+				throw new IOException("Connection reset");
+			}
+			return read;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+
+	@Test
+	public void hasNextIsIdempotent() {
+		TsvRecordIterator<Row> iterator = parser.iterate(new BufferedReader(new StringReader(CONTENT)), Row.class);
+		assertTrue(iterator.hasNext());
+		assertTrue(iterator.hasNext());
+		assertEquals("a", iterator.next().name);
+		assertEquals("b", iterator.next().name);
+		assertTrue(iterator.hasNext());
+		assertTrue(iterator.hasNext());
+		assertEquals("c", iterator.next().name);
+		assertEquals("d", iterator.next().name);
+		assertFalse(iterator.hasNext());
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail("there are no more records");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void removeIsNotSupported() {
+		TsvRecordIterator<Row> iterator = parser.iterate(new BufferedReader(new StringReader(CONTENT)), Row.class);
+		iterator.next();
+		try {
+			iterator.remove();
+			fail("records can't be removed from the content");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals("b", iterator.next().name);
+		iterator.close();
+	}
+
+	@Test
+	public void readerIsClosedAtTheEndOfTheContent() {
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		TsvRecordIterator<Row> iterator = parser.iterate(new BufferedReader(reader), Row.class);
+		int count = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			count++;
+		}
+		assertEquals(4, count);
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void closeEndsTheIteration() {
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		TsvRecordIterator<Row> iterator = parser.iterate(new BufferedReader(reader), Row.class);
+		assertEquals("a", iterator.next().name);
+		assertFalse(reader.closed);
+		iterator.close();
+		assertTrue(reader.closed);
+		assertFalse(iterator.hasNext());
+		iterator.close();
+	}
+
+	@Test
+	public void wrongValuesCloseTheReader() {
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		TsvRecordIterator<StrictRow> iterator = parser.iterate(new BufferedReader(reader), StrictRow.class);
+		assertEquals("a", iterator.next().name);
+		assertEquals("b", iterator.next().name);
+		try {
+			iterator.hasNext();
+			fail("the wrong value has to interrupt the parse");
+		} catch (InvalidFieldValueException e) {
+			assertTrue(reader.closed);
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void streamIsClosedOnEarlyExit() {
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		Stream<Row> stream = parser.stream(new BufferedReader(reader), Row.class);
+		try {
+			assertEquals("b", stream.filter(new Predicate<Row>() {
+				@Override
+				public boolean test(Row row) {
+					return row.n == 2;
+				}
+			}).findFirst().get().name);
+			assertFalse(reader.closed);
+		} finally {
+			stream.close();
+		}
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void streamReadsTheWholeContentLazily() {
+		TrackedReader reader = new TrackedReader(CONTENT, false);
+		Stream<Row> stream = parser.stream(new BufferedReader(reader), Row.class);
+		try {
+			assertFalse(reader.closed);
+			assertEquals(Arrays.asList("a", "b", "c", "d"), stream.map(new Function<Row, String>() {
+				@Override
+				public String apply(Row row) {
+					return row.name;
+				}
+			}).collect(Collectors.<String> toList()));
+		} finally {
+			stream.close();
+		}
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void readingErrorsAreUnchecked() {
+		TrackedReader reader = new TrackedReader(CONTENT, true);
+		Stream<Row> stream = parser.stream(new BufferedReader(reader), Row.class);
+		try {
+			stream.count();
+			fail("the reading error has to interrupt the stream");
+		} catch (UncheckedIOException e) {
+			assertEquals("Connection reset", e.getCause().getMessage());
+			assertTrue(reader.closed);
+		} finally {
+			stream.close();
+		}
+	}
+
+}
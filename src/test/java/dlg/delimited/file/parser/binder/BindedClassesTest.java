@@ -0,0 +1,51 @@
+package dlg.delimited.file.parser.binder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * Checks that the binders shared by every parse can't be modified by their callers
+ *
+ * @author dalcantara
+ *
+ */
+public class BindedClassesTest {
+
+	@BinderClassData(naturalOrder = false)
+	public static class Record {
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 2)
+		public String text;
+	}
+
+	@Test
+	public void sameBinderForEveryCaller() {
+		assertSame(BindedClasses.getBinder(Record.class), BindedClasses.getBinder(Record.class));
+	}
+
+	@Test
+	public void bindingPlanCantBeModified() {
+		BindedClass bindedClass = BindedClasses.getBinder(Record.class);
+		FieldBinding[] columnBindings = bindedClass.getColumnBindings();
+		assertEquals(3, columnBindings.length);
+		assertNull(columnBindings[1]);
+		columnBindings[0] = null;
+		assertEquals("id", bindedClass.getColumnBindings()[0].getFieldName());
+		assertEquals("id", bindedClass.getColumnBinding(0).getFieldName());
+		assertNull(bindedClass.getColumnBinding(1));
+		assertNull(bindedClass.getColumnBinding(5));
+
+		boolean[] mappedColumns = bindedClass.getMappedColumns();
+		mappedColumns[1] = true;
+		assertArrayEquals(new boolean[] { true, false, true }, bindedClass.getMappedColumns());
+	}
+
+}
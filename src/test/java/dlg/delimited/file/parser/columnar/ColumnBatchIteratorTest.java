@@ -0,0 +1,123 @@
+package dlg.delimited.file.parser.columnar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.ParseErrorCollector;
+import dlg.delimited.file.parser.ParseOptions;
+import dlg.delimited.file.parser.TsvParser;
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.exception.InvalidFieldValueException;
+
+/**
+ * Checks that the batches of columns keep the same rules than the DTOs of the same parse
+ *
+ * @author dalcantara
+ *
+ */
+public class ColumnBatchIteratorTest {
+
+	private static final String CONTENT = "id\tname\tamount\n"
+			+ "1\t\"say \"\"hi\"\"\"\t1.5\n"
+			+ "\n"
+			+ "2\tbob\tx\n"
+			+ "3\t\t-2\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 1)
+		public String name;
+		@BindedFieldData(readPosition = 2)
+		public Double amount;
+	}
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false, failAtWrongDataTypeException = true)
+	public static class StrictRow {
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 1)
+		public String name;
+		@BindedFieldData(readPosition = 2)
+		public Double amount;
+	}
+
+	private static BufferedReader reader(String content) {
+		return new BufferedReader(new StringReader(content));
+	}
+
+	@Test
+	public void batchesHoldTheValuesOfTheDtos() {
+		List<Row> rows = parser.parseContent(reader(CONTENT), Row.class);
+		ColumnBatchIterator iterator = parser.iterateColumns(reader(CONTENT), Row.class, 2);
+		int row = 0;
+		int batches = 0;
+		while (iterator.hasNext()) {
+			ColumnBatch batch = iterator.next();
+			batches++;
+			for (int i = 0; i < batch.getRowCount(); i++, row++) {
+				Row expected = rows.get(row);
+				assertEquals(expected.id, batch.getIntColumn("id").get(i));
+				assertEquals(expected.name, batch.getStringColumn("name").isNull(i) ? null : batch.getStringColumn("name").get(i));
+				DoubleColumn amount = batch.getDoubleColumn("amount");
+				if (expected.amount == null) {
+					assertTrue(amount.isNull(i));
+				} else {
+					assertEquals(expected.amount.doubleValue(), amount.get(i), 0);
+				}
+			}
+		}
+		assertEquals(rows.size(), row);
+		assertEquals(2, batches);
+		assertEquals(3, iterator.getStatistics().getRecordCount());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void wrongValuesAreReportedOnce() {
+		ParseErrorCollector collector = new ParseErrorCollector();
+		ParseOptions options = new ParseOptions();
+		options.setErrorCollector(collector);
+		ColumnBatchIterator iterator = parser.iterateColumns(reader(CONTENT), Row.class, 10, options);
+		ColumnBatch batch = iterator.next();
+		assertEquals(3, batch.getRowCount());
+		assertTrue(batch.getDoubleColumn("amount").isNull(1));
+		assertEquals(4, batch.getLineNumber(1));
+		assertFalse(iterator.hasNext());
+		assertEquals(1, collector.getErrorCount());
+		assertEquals(1, collector.getRejectedCount());
+		assertEquals("amount", collector.getErrors().get(0).getFieldName());
+	}
+
+	@Test
+	public void wrongValuesInterruptBothIteratorsAlike() {
+		String dtoMessage = null;
+		try {
+			parser.parseContent(reader(CONTENT), StrictRow.class);
+			fail("the wrong amount has to interrupt the parse");
+		} catch (InvalidFieldValueException e) {
+			dtoMessage = e.getMessage();
+		}
+		ColumnBatchIterator iterator = parser.iterateColumns(reader(CONTENT), StrictRow.class, 10);
+		try {
+			iterator.next();
+			fail("the wrong amount has to interrupt the parse");
+		} catch (InvalidFieldValueException e) {
+			assertEquals(dtoMessage, e.getMessage());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+}
@@ -0,0 +1,173 @@
+package dlg.delimited.file.parser.converter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link CharRangeParser} returns the same values and errors than the JDK
+ * parsers, once the ignored characters (thousands separators and quotes) are removed
+ *
+ * @author dalcantara
+ *
+ */
+public class CharRangeParserTest {
+
+	private static final char QUOTE = '"';
+
+	private static final String[] EDGE_CASES = { "", "-", "+", "0", "-0", "+0", "007", "2147483647", "2147483648",
+			"-2147483648", "-2147483649", "32767", "32768", "-32768", "-32769", "9223372036854775807",
+			"9223372036854775808", "-9223372036854775808", "-9223372036854775809", "00000000000000000000001",
+			"1,000,000", "\"42\"", "1e3", "1E-3", "-1.5e+10", ".5", "5.", ".", "1e", "1e+", "1.2.3", "--1", "+-1",
+			" 12", "12 ", " 1.5 ", "NaN", "-Infinity", "Infinity", "infinity", "0x1p3", "0x1.8p1", "0x10", "1f",
+			"1.5d", "1_000", "\u0661\u0662\u0663", "1e400", "-1e400", "1e-400", "4.9e-324", "1.7976931348623157e308",
+			"123456789012345678901234567890", "0.1", "0.30000000000000004", "9007199254740993", "16777217",
+			"3.4028235e38", "1.4e-45" };
+
+	private static final char[] ALPHABET = "0123456789-+.eE ,\"x".toCharArray();
+
+	@Test
+	public void integersMatchTheJdk() {
+		for (String value : values()) {
+			String clean = clean(value);
+			char[] chars = value.toCharArray();
+			ConversionResult result = new ConversionResult();
+
+			Object expected = parseJdk(clean, "int");
+			assertEquals(value, expected, parse(chars, "int"));
+			assertEquals(value, expected instanceof Integer ? (long) (Integer) expected : expected,
+					status(CharRangeParser.parseInt(chars, 0, chars.length, QUOTE, result), result, false));
+
+			expected = parseJdk(clean, "long");
+			assertEquals(value, expected, parse(chars, "long"));
+			assertEquals(value, expected,
+					status(CharRangeParser.parseLong(chars, 0, chars.length, QUOTE, result), result, false));
+
+			expected = parseJdk(clean, "short");
+			assertEquals(value, expected, parse(chars, "short"));
+			assertEquals(value, expected instanceof Short ? (long) (Short) expected : expected,
+					status(CharRangeParser.parseShort(chars, 0, chars.length, QUOTE, result), result, false));
+		}
+	}
+
+	@Test
+	public void decimalsMatchTheJdk() {
+		for (String value : values()) {
+			String clean = clean(value);
+			char[] chars = value.toCharArray();
+			ConversionResult result = new ConversionResult();
+
+			Object expected = parseJdk(clean, "double");
+			assertEquals(value, expected, parse(chars, "double"));
+			assertEquals(value, expected,
+					status(CharRangeParser.parseDouble(chars, 0, chars.length, QUOTE, result), result, true));
+
+			expected = parseJdk(clean, "float");
+			assertEquals(value, expected, parse(chars, "float"));
+			Object status = status(CharRangeParser.parseFloat(chars, 0, chars.length, QUOTE, result), result, true);
+			assertEquals(value, expected instanceof Float ? (double) (Float) expected : expected, status);
+		}
+	}
+
+	@Test
+	public void booleans() {
+		ConversionResult result = new ConversionResult();
+		for (String value : new String[] { "true", "TRUE", "Yes", "y", "1" }) {
+			assertEquals(value, true, CharRangeParser.parseBoolean(value.toCharArray(), 0, value.length()));
+		}
+		for (String value : new String[] { "false", "No", "N", "0" }) {
+			assertEquals(value, false, CharRangeParser.parseBoolean(value.toCharArray(), 0, value.length()));
+		}
+		for (String value : new String[] { "", "t", "2", "truee", " yes" }) {
+			assertEquals(value, ConversionResult.INVALID_FORMAT,
+					CharRangeParser.parseBoolean(value.toCharArray(), 0, value.length(), result));
+		}
+	}
+
+	@Test
+	public void rangesInTheMiddleOfTheRecord() {
+		char[] chars = "a\t-1,234\t5.25\tb".toCharArray();
+		assertEquals(-1234, CharRangeParser.parseInt(chars, 2, 8, QUOTE));
+		assertEquals(5.25, CharRangeParser.parseDouble(chars, 9, 13, QUOTE), 0);
+		assertEquals(2, CharRangeParser.trimStart("  x ".toCharArray(), 0, 4));
+		assertEquals(3, CharRangeParser.trimEnd("  x ".toCharArray(), 0, 4));
+	}
+
+	private static List<String> values() {
+		List<String> values = new ArrayList<String>();
+		for (String value : EDGE_CASES) {
+			values.add(value);
+		}
+		Random random = new Random(5);
+		for (int i = 0; i < 100000; i++) {
+			int length = 1 + random.nextInt(24);
+			StringBuilder value = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				// mostly digits, so many of them are valid numbers
+				value.append(random.nextInt(3) > 0 ? (char) ('0' + random.nextInt(10)) : ALPHABET[random.nextInt(ALPHABET.length)]);
+			}
+			values.add(value.toString());
+		}
+		return values;
+	}
+
+	private static String clean(String value) {
+		return value.replace(",", "").replace(String.valueOf(QUOTE), "");
+	}
+
+	/**
+	 * Value parsed by the JDK, or the class of the exception thrown
+	 */
+	private static Object parseJdk(String value, String type) {
+		try {
+			if ("int".equals(type)) {
+				return Integer.parseInt(value);
+			} else if ("long".equals(type)) {
+				return Long.parseLong(value);
+			} else if ("short".equals(type)) {
+				return Short.parseShort(value);
+			} else if ("double".equals(type)) {
+				return Double.parseDouble(value);
+			}
+			return Float.parseFloat(value);
+		} catch (NumberFormatException e) {
+			return NumberFormatException.class;
+		}
+	}
+
+	/**
+	 * Value parsed by the throwing methods, or the class of the exception thrown
+	 */
+	private static Object parse(char[] chars, String type) {
+		try {
+			if ("int".equals(type)) {
+				return CharRangeParser.parseInt(chars, 0, chars.length, QUOTE);
+			} else if ("long".equals(type)) {
+				return CharRangeParser.parseLong(chars, 0, chars.length, QUOTE);
+			} else if ("short".equals(type)) {
+				return CharRangeParser.parseShort(chars, 0, chars.length, QUOTE);
+			} else if ("double".equals(type)) {
+				return CharRangeParser.parseDouble(chars, 0, chars.length, QUOTE);
+			}
+			return CharRangeParser.parseFloat(chars, 0, chars.length, QUOTE);
+		} catch (NumberFormatException e) {
+			return NumberFormatException.class;
+		}
+	}
+
+	/**
+	 * Value received by the methods returning a status code, or the class of the exception
+	 * the JDK would throw
+	 */
+	private static Object status(int status, ConversionResult result, boolean decimal) {
+		if (status != ConversionResult.VALID) {
+			return NumberFormatException.class;
+		}
+		return decimal ? (Object) result.getDouble() : (Object) result.getLong();
+	}
+
+}
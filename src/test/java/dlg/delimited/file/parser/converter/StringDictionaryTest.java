@@ -0,0 +1,122 @@
+package dlg.delimited.file.parser.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.TsvParser;
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * Checks that the dictionary returns the same instance for repeated values, keeps at most
+ * its size, and turns itself off for high-cardinality columns
+ *
+ * @author dalcantara
+ *
+ */
+public class StringDictionaryTest {
+
+	@BinderClassData(ignoreFirstRow = false, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0, dictionary = true)
+		public String country;
+		@BindedFieldData(readPosition = 1, dictionary = true, dictionarySize = 2)
+		public String city;
+	}
+
+	/**
+	 * Looks up the value from a range in the middle of a new array, as records do
+	 */
+	private static String get(StringDictionary dictionary, String value) {
+		char[] chars = ("\t" + value + "\t").toCharArray();
+		return dictionary.get(chars, 1, chars.length - 1);
+	}
+
+	@Test
+	public void repeatedValuesAreTheSameInstance() {
+		StringDictionary dictionary = new StringDictionary(16);
+		String es = get(dictionary, "ES");
+		assertEquals("ES", es);
+		assertSame(es, get(dictionary, "ES"));
+		assertEquals("FR", get(dictionary, "FR"));
+		assertNotSame(es, get(dictionary, "FR"));
+		assertSame(get(dictionary, ""), get(dictionary, ""));
+		// same hash code, different values
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		String aa = get(dictionary, "Aa");
+		String bb = get(dictionary, "BB");
+		assertEquals("Aa", aa);
+		assertEquals("BB", bb);
+		assertSame(aa, get(dictionary, "Aa"));
+		assertSame(bb, get(dictionary, "BB"));
+		assertEquals(5, dictionary.getSize());
+	}
+
+	@Test
+	public void onlyTheFirstValuesAreKept() {
+		StringDictionary dictionary = new StringDictionary(3);
+		String a = get(dictionary, "a");
+		get(dictionary, "b");
+		get(dictionary, "c");
+		String d = get(dictionary, "d");
+		assertEquals("d", d);
+		assertNotSame(d, get(dictionary, "d"));
+		assertEquals(3, dictionary.getSize());
+		assertSame(a, get(dictionary, "a"));
+		assertFalse(dictionary.isDisabled());
+	}
+
+	@Test
+	public void dictionaryIsDisabledOnceFullAndMissing() {
+		StringDictionary dictionary = new StringDictionary(2);
+		String a = get(dictionary, "a");
+		get(dictionary, "b");
+		get(dictionary, "c");
+		assertFalse(dictionary.isDisabled());
+		get(dictionary, "c");
+		assertTrue(dictionary.isDisabled());
+		// values are still right, but no longer shared
+		String again = get(dictionary, "a");
+		assertEquals("a", again);
+		assertNotSame(a, again);
+		assertEquals(2, dictionary.getSize());
+	}
+
+	@Test
+	public void sizeHasToBePositive() {
+		try {
+			new StringDictionary(0);
+			fail("a dictionary without room is useless");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void dictionaryFieldsShareTheirValues() {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			content.append((i % 2 == 0) ? "ES" : "FR").append('\t').append("city").append(i).append('\n');
+		}
+		content.append("\"E\"\"S\"\tcity\n");
+		List<Row> rows = new TsvParser().parseContent(new BufferedReader(new StringReader(content.toString())), Row.class);
+		assertEquals(21, rows.size());
+		for (int i = 2; i < 20; i++) {
+			assertSame(rows.get(i % 2).country, rows.get(i).country);
+			assertEquals("city" + i, rows.get(i).city);
+		}
+		assertEquals("E\"S", rows.get(20).country);
+		assertEquals("city", rows.get(20).city);
+	}
+
+}
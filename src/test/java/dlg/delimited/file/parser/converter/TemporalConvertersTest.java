@@ -0,0 +1,99 @@
+package dlg.delimited.file.parser.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+/**
+ * Checks that the converters of java.time types tell wrong values through a status code,
+ * and return the same values than their throwing conversion
+ *
+ * @author dalcantara
+ *
+ */
+public class TemporalConvertersTest {
+
+	@Test
+	public void allTheTemporalConvertersValidate() {
+		for (Class<?> type : new Class<?>[] { LocalDate.class, LocalDateTime.class, Instant.class, ZonedDateTime.class,
+				OffsetDateTime.class }) {
+			assertTrue(type.getName(), BuiltInConverters.getConverter(type, null) instanceof ValidatingConverter);
+			assertTrue(type.getName(), BuiltInConverters.getConverter(type, "dd/MM/yyyy HH:mm") instanceof ValidatingConverter);
+		}
+	}
+
+	@Test
+	public void localDates() throws Exception {
+		assertStatus(LocalDate.class, null, "2016-05-18", ConversionResult.VALID);
+		assertStatus(LocalDate.class, null, "2016-02-30", ConversionResult.OUT_OF_RANGE);
+		assertStatus(LocalDate.class, null, "2016-13-01", ConversionResult.OUT_OF_RANGE);
+		assertStatus(LocalDate.class, null, "2016-05-18 ", ConversionResult.INVALID_FORMAT);
+		assertStatus(LocalDate.class, null, "18/05/2016", ConversionResult.INVALID_FORMAT);
+		assertStatus(LocalDate.class, null, "", ConversionResult.INVALID_FORMAT);
+		assertStatus(LocalDate.class, "dd/MM/yyyy", "18/05/2016", ConversionResult.VALID);
+		assertStatus(LocalDate.class, "dd/MM/yyyy", "2016-05-18", ConversionResult.INVALID_FORMAT);
+	}
+
+	@Test
+	public void localDateTimes() throws Exception {
+		assertStatus(LocalDateTime.class, null, "2016-05-18T10:15", ConversionResult.VALID);
+		assertStatus(LocalDateTime.class, null, "2016-05-18T10:15:30", ConversionResult.VALID);
+		assertStatus(LocalDateTime.class, null, "2016-05-18T25:15", ConversionResult.OUT_OF_RANGE);
+		assertStatus(LocalDateTime.class, null, "2016-05-18 10:15", ConversionResult.INVALID_FORMAT);
+		assertStatus(LocalDateTime.class, "dd/MM/yyyy HH:mm", "31/04/2016 10:15", ConversionResult.VALID);
+	}
+
+	@Test
+	public void instants() throws Exception {
+		assertStatus(Instant.class, null, "2016-05-18T10:15:30Z", ConversionResult.VALID);
+		assertStatus(Instant.class, null, "2016-05-18T10:15:30+01:00", ConversionResult.VALID);
+		assertStatus(Instant.class, null, "2016-05-18 10:15", ConversionResult.VALID);
+		assertStatus(Instant.class, null, "2016-02-30T10:15:30+01:00", ConversionResult.OUT_OF_RANGE);
+		assertStatus(Instant.class, null, "2016-05-18T10:15:30+01", ConversionResult.INVALID_FORMAT);
+		assertStatus(Instant.class, null, "yesterday", ConversionResult.INVALID_FORMAT);
+		assertStatus(Instant.class, "dd/MM/yyyy HH:mm", "18/05/2016 10:15", ConversionResult.VALID);
+		assertStatus(Instant.class, "dd/MM/yyyy HH:mm", "18/05/2016", ConversionResult.INVALID_FORMAT);
+	}
+
+	@Test
+	public void zonedAndOffsetDateTimes() throws Exception {
+		assertStatus(ZonedDateTime.class, null, "2016-05-18T10:15:30+01:00[Europe/Paris]", ConversionResult.VALID);
+		assertStatus(ZonedDateTime.class, null, "2016-05-18T10:15:30+01:00[Nowhere/City]", ConversionResult.INVALID_FORMAT);
+		assertStatus(ZonedDateTime.class, "dd/MM/yyyy HH:mm", "18/05/2016 10:15", ConversionResult.VALID);
+		assertStatus(OffsetDateTime.class, null, "2016-05-18T10:15:30+01:00", ConversionResult.VALID);
+		assertStatus(OffsetDateTime.class, null, "2016-05-18T10:15:30", ConversionResult.INVALID_FORMAT);
+		assertStatus(OffsetDateTime.class, "dd/MM/yyyy HH:mm XXX", "18/05/2016 10:15 -03:00", ConversionResult.VALID);
+	}
+
+	/**
+	 * Checks the status of the value, and that the throwing conversion returns the same value
+	 * or throws an exception
+	 */
+	private static void assertStatus(Class<?> type, String pattern, String value, int expected) throws Exception {
+		FieldConverter<?> converter = BuiltInConverters.getConverter(type, pattern);
+		ConversionResult result = new ConversionResult();
+		int status = ((ValidatingConverter<?>) converter).tryConvert(value, result);
+		assertEquals(type.getSimpleName() + " " + value, expected, status);
+		Object converted;
+		try {
+			converted = converter.convert(value);
+		} catch (Exception e) {
+			converted = null;
+		}
+		if (status == ConversionResult.VALID) {
+			assertEquals(type.getSimpleName() + " " + value, converted, result.getValue());
+		} else {
+			assertNull(type.getSimpleName() + " " + value, converted);
+			assertNull(type.getSimpleName() + " " + value, result.getValue());
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+package dlg.delimited.file.parser.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import dlg.delimited.file.parser.ParseOptions;
+import dlg.delimited.file.parser.TsvParser;
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+import dlg.delimited.file.parser.binder.BindedClasses;
+
+/**
+ * Checks what the raw and value predicates of the filters see, the columns they need, and the
+ * counters of the filtered records
+ *
+ * @author dalcantara
+ *
+ */
+public class RecordFilterTest {
+
+	private static final String CONTENT = "id\tname\tcountry\tamount\n"
+			+ "1\t\"say \"\"hi\"\"\"\t ES \t10\n"
+			+ "2\tbob\tFR\t20\n"
+			+ "\n"
+			+ "3\t\"say \"\"hi\"\"\"\tES\tx\n"
+			+ "4\tann\t ES\t5\n";
+
+	private final TsvParser parser = new TsvParser();
+
+	@BinderClassData(ignoreFirstRow = true, naturalOrder = false)
+	public static class Row {
+		@BindedFieldData(readPosition = 0)
+		public int id;
+		@BindedFieldData(readPosition = 1)
+		public String name;
+		@BindedFieldData(readPosition = 2, trimValue = true)
+		public String country;
+		@BindedFieldData(readPosition = 3)
+		public Integer amount;
+		public String notBinded;
+	}
+
+	private List<Row> parse(ParseOptions options) {
+		return parser.parseContent(new BufferedReader(new StringReader(CONTENT)), Row.class, options);
+	}
+
+	private static List<Integer> getIds(List<Row> rows) {
+		List<Integer> ids = new ArrayList<Integer>();
+		for (Row row : rows) {
+			ids.add(row.id);
+		}
+		return ids;
+	}
+
+	@Test
+	public void rawPredicatesSeeDoubledQuotesCollapsed() {
+		final List<String> seen = new ArrayList<String>();
+		ParseOptions options = new ParseOptions();
+		options.addFilter(new ColumnFilter("name", new RawPredicate() {
+			@Override
+			public boolean test(char[] chars, int start, int end) {
+				seen.add(new String(chars, start, end - start));
+				return true;
+			}
+		}));
+		options.addFilter(ColumnFilter.equalTo("name", "say \"hi\""));
+		List<Row> rows = parse(options);
+		assertEquals(Arrays.asList("say \"hi\"", "bob", "say \"hi\"", "ann"), seen);
+		assertEquals(Arrays.asList(1, 3), getIds(rows));
+		assertEquals("say \"hi\"", rows.get(0).name);
+		assertEquals(4, options.getStatistics().getRecordCount());
+		assertEquals(2, options.getStatistics().getFilteredCount());
+	}
+
+	@Test
+	public void rawPredicatesSeeTrimmedColumns() {
+		ParseOptions options = new ParseOptions();
+		options.addFilter(ColumnFilter.equalTo("country", "ES"));
+		assertEquals(Arrays.asList(1, 3, 4), getIds(parse(options)));
+
+		options = new ParseOptions();
+		options.addFilter(ColumnFilter.oneOf("country", "FR", "IT"));
+		assertEquals(Arrays.asList(2), getIds(parse(options)));
+		assertEquals(3, options.getStatistics().getFilteredCount());
+	}
+
+	@Test
+	public void valuePredicatesSeeConvertedValues() {
+		final List<Integer> seen = new ArrayList<Integer>();
+		ParseOptions options = new ParseOptions();
+		options.addFilter(new ColumnFilter("amount", new ValuePredicate<Integer>() {
+			@Override
+			public boolean test(Integer value) {
+				seen.add(value);
+				return value != null && value >= 10;
+			}
+		}));
+		assertEquals(Arrays.asList(1, 2), getIds(parse(options)));
+		assertEquals(Arrays.asList(10, 20, null, 5), seen);
+		assertEquals(4, options.getStatistics().getRecordCount());
+		assertEquals(2, options.getStatistics().getFilteredCount());
+	}
+
+	@Test
+	public void filtersStopAtTheFirstRejection() {
+		final int[] calls = new int[1];
+		ParseOptions options = new ParseOptions();
+		options.addFilter(ColumnFilter.equalTo("name", "bob"));
+		options.addFilter(new ColumnFilter("id", new RawPredicate() {
+			@Override
+			public boolean test(char[] chars, int start, int end) {
+				calls[0]++;
+				return true;
+			}
+		}));
+		assertEquals(Arrays.asList(2), getIds(parse(options)));
+		assertEquals(1, calls[0]);
+	}
+
+	@Test
+	public void filtersOnFieldsOutOfTheProjection() {
+		ParseOptions options = new ParseOptions();
+		options.setFields("id");
+		options.addFilter(ColumnFilter.equalTo("amount", "5"));
+		List<Row> rows = parse(options);
+		assertEquals(Arrays.asList(4), getIds(rows));
+		assertNull(rows.get(0).name);
+		assertNull(rows.get(0).country);
+		assertNull(rows.get(0).amount);
+		assertEquals(3, options.getStatistics().getFilteredCount());
+	}
+
+	@Test
+	public void neededColumnsIncludeTheColumnsOfTheFilters() {
+		RecordFilter filter = new RecordFilter(BindedClasses.getBinder(Row.class),
+				Arrays.asList(ColumnFilter.equalTo("amount", "5"), ColumnFilter.equalTo("id", "1")));
+		assertArrayEquals(new boolean[] { true, false, false, true }, filter.getNeededColumns(new boolean[] { false }));
+		assertArrayEquals(new boolean[] { true, true, false, true },
+				filter.getNeededColumns(new boolean[] { false, true, false, false }));
+
+		filter = new RecordFilter(BindedClasses.getBinder(Row.class), Collections.<ColumnFilter> emptyList());
+		assertArrayEquals(new boolean[] { true, false }, filter.getNeededColumns(new boolean[] { true, false }));
+	}
+
+	@Test
+	public void filtersOnFieldsNotBindedAreRejected() {
+		for (String field : new String[] { "unknown", "notBinded" }) {
+			try {
+				new RecordFilter(BindedClasses.getBinder(Row.class), Arrays.asList(ColumnFilter.equalTo(field, "1")));
+				fail(field + " is not binded");
+			} catch (IllegalArgumentException e) {
+				assertEquals(true, e.getMessage().contains(field));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package dlg.delimited.file.parser.tokenizer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that every implementation of {@link StructuralScanner} returns the same bitmaps
+ *
+ * @author dalcantara
+ *
+ */
+public class StructuralScannerTest {
+
+	// structural bytes are frequent, and bytes over 127 check the sign handling of SWAR
+	private static final byte[] ALPHABET = { '\t', ',', '|', '"', '\'', '\n', '\r', 'a', '0', ' ', (byte) 0x80,
+			(byte) 0xc3, (byte) 0xff, 0 };
+
+	@Test
+	public void scalarAndSwarFindTheSameBytes() {
+		Random random = new Random(11);
+		byte[][] configurations = { { '\t', '"' }, { ',', '\'' }, { '|', 0 } };
+		for (byte[] configuration : configurations) {
+			boolean quoting = configuration[1] != 0;
+			StructuralScanner scalar = new ScalarStructuralScanner(configuration[0], quoting, configuration[1]);
+			StructuralScanner swar = new SwarStructuralScanner(configuration[0], quoting, configuration[1]);
+			for (int round = 0; round < 2000; round++) {
+				byte[] bytes = new byte[1 + random.nextInt(300)];
+				for (int i = 0; i < bytes.length; i++) {
+					bytes[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+				}
+				ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+				int limit = random.nextInt(bytes.length + 1);
+				for (int from = random.nextInt(8); from < limit; from += StructuralScanner.BLOCK_SIZE) {
+					scalar.scan(buffer, from, limit);
+					swar.scan(buffer, from, limit);
+					String block = "round " + round + ", from " + from + ", limit " + limit;
+					assertEquals(block, scalar.getSeparators(), swar.getSeparators());
+					assertEquals(block, scalar.getLineBreaks(), swar.getLineBreaks());
+					assertEquals(block, scalar.getQuotes(), swar.getQuotes());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void implementationCanBeForced() {
+		String previous = System.getProperty(StructuralScanner.IMPLEMENTATION_PROPERTY);
+		try {
+			System.setProperty(StructuralScanner.IMPLEMENTATION_PROPERTY, "scalar");
+			assertEquals(ScalarStructuralScanner.class, StructuralScanner.newInstance("\t", "\"").getClass());
+			System.setProperty(StructuralScanner.IMPLEMENTATION_PROPERTY, "swar");
+			assertEquals(SwarStructuralScanner.class, StructuralScanner.newInstance("\t", "\"").getClass());
+		} finally {
+			if (previous != null) {
+				System.setProperty(StructuralScanner.IMPLEMENTATION_PROPERTY, previous);
+			} else {
+				System.clearProperty(StructuralScanner.IMPLEMENTATION_PROPERTY);
+			}
+		}
+	}
+
+}
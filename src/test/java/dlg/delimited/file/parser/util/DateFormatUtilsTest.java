@@ -0,0 +1,170 @@
+package dlg.delimited.file.parser.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that {@link DateFormatUtils} parses the accepted formats into the same instants than
+ * the joda formatters of the same patterns, and rejects the same values
+ *
+ * @author dalcantara
+ *
+ */
+public class DateFormatUtilsTest {
+
+	private static final String[] PATTERNS = { "yyyy-MM-dd'T'HH:mm", "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd'T'HH:mmZZ",
+			"yyyy-MM-dd'T'HH:mm:ssZZ", "yyyy-MM-dd'T'HH:mmZ", "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy-MM-dd HH:mm",
+			"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm:ssZZ", "yyyy-MM-dd HH:mm:ssZ" };
+
+	private static final String[] DATES = { "2016-05-18T10:15", "2016-05-18T10:15:30", "2016-05-18T10:15+02:00",
+			"2016-05-18T10:15:30-03:30", "2016-05-18T10:15+0200", "2016-05-18T10:15:30-0330", "2016-05-18 10:15",
+			"2016-05-18 23:59:59", "2016-05-18 00:00:00+00:00", "2016-05-18 10:15:30+1400", "2016-02-29T12:00",
+			"2000-02-29T12:00:00", "1970-01-01T00:00:00+00:00", "1969-12-31T23:59:59+00:00", "0001-01-01T00:00+00:00",
+			"9999-12-31T23:59:59+00:00", "2016-10-30T02:30", "2016-03-27T02:30+01:00" };
+
+	private DateTimeZone defaultZone;
+
+	@Before
+	public void setZone() {
+		defaultZone = DateTimeZone.getDefault();
+		// has a daylight saving time gap at 2016-03-27 02:00
+		DateTimeZone.setDefault(DateTimeZone.forID("Europe/Madrid"));
+	}
+
+	@After
+	public void restoreZone() {
+		DateTimeZone.setDefault(defaultZone);
+	}
+
+	@Test
+	public void acceptedPatternsMatchJoda() {
+		for (String date : DATES) {
+			DateTimeFormatter formatter = DateTimeFormat.forPattern(getPattern(date));
+			assertTrue(date, DateFormatUtils.isGenericDate(date));
+			assertEquals(date, formatter.parseMillis(date), DateFormatUtils.getMillisFromString(date));
+			assertEquals(date, formatter.parseMillis(date), DateFormatUtils.tryGetMillisFromString(date));
+		}
+	}
+
+	@Test
+	public void invalidDaysAndMonthsDontExist() {
+		for (String date : new String[] { "2015-02-29T10:00", "2100-02-29T10:00", "2016-04-31T10:00:00",
+				"2016-05-32T10:00+02:00", "2016-05-00 10:00", "2016-13-01T10:00", "2016-00-10T10:00",
+				"2016-05-18T24:00", "2016-05-18T10:60", "2016-05-18T10:15:60" }) {
+			assertNonexistent(date);
+		}
+	}
+
+	@Test
+	public void localTimesInTheDaylightSavingGapDontExist() {
+		assertNonexistent("2016-03-27T02:30");
+		assertNonexistent("2016-03-27 02:00:00");
+		// the same local time exists with an offset, or right after the gap
+		assertEquals(DateFormatUtils.getMillisFromString("2016-03-27T01:30+00:00"),
+				DateFormatUtils.getMillisFromString("2016-03-27T02:30+01:00"));
+		assertEquals(DateTimeFormat.forPattern(PATTERNS[0]).parseMillis("2016-03-27T03:00"),
+				DateFormatUtils.getMillisFromString("2016-03-27T03:00"));
+	}
+
+	@Test
+	public void wrongShapesAreInvalid() {
+		for (String date : new String[] { "", " ", "2016-05-18", "2016-05-18T10", "2016-05-18T10:15:3",
+				"2016-05-18T10:15 ", "2016/05/18 10:15", "2016-05-18X10:15", "2016-05-18T10:15Z", "2016-05-18T10:15+02:0",
+				"2016-05-18T10:15+02:000", "16-05-18T10:15:30", "2016-5-18T10:15" }) {
+			assertFalse(date, DateFormatUtils.isGenericDate(date));
+			assertEquals(date, DateFormatUtils.INVALID_DATE, DateFormatUtils.tryGetMillisFromString(date));
+			try {
+				DateFormatUtils.getMillisFromString(date);
+				fail(date + " has no accepted format");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		try {
+			DateFormatUtils.getDateFromString("");
+			fail("the empty string has no accepted format");
+		} catch (Exception e) {
+			assertTrue(e instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void offsetsWithoutMinutesHaveNoDate() {
+		assertTrue(DateFormatUtils.isGenericDate("2016-05-18T10:15+02"));
+		assertEquals(DateFormatUtils.NO_DATE, DateFormatUtils.getMillisFromString("2016-05-18T10:15+02"));
+		assertEquals(DateFormatUtils.NO_DATE, DateFormatUtils.tryGetMillisFromString("2016-05-18T10:15:30-03"));
+	}
+
+	@Test
+	public void formattedDatesAreParsedBack() {
+		DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZZ");
+		long[] instants = { 0, -1000, 1463559330000L, 1458955800000L, 1458957600000L, 1477787400000L, 1477791000000L,
+				951825600000L, 253402297199000L };
+		for (long millis : instants) {
+			StringBuilder out = new StringBuilder();
+			DateFormatUtils.appendGenericDate(millis, out);
+			String date = out.toString();
+			assertEquals(formatter.print(millis), date);
+			assertEquals(date, millis, DateFormatUtils.getMillisFromString(date));
+		}
+		// the local mean time of Madrid has seconds in its offset, it's written in UTC
+		StringBuilder out = new StringBuilder();
+		DateFormatUtils.appendGenericDate(-2208988800000L, out);
+		assertEquals("1900-01-01T00:00:00+00:00", out.toString());
+		assertEquals(-2208988800000L, DateFormatUtils.getMillisFromString(out));
+		// the milliseconds of the second are not written
+		out.setLength(0);
+		DateFormatUtils.appendGenericDate(1463559330999L, out);
+		assertEquals(1463559330000L, DateFormatUtils.getMillisFromString(out));
+	}
+
+	/**
+	 * Checks that joda rejects the value too, and that the utils tell the date doesn't exist
+	 */
+	private static void assertNonexistent(String date) {
+		try {
+			DateTimeFormat.forPattern(getPattern(date)).parseMillis(date);
+			fail(date + " doesn't exist for joda");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertTrue(date, DateFormatUtils.isGenericDate(date));
+		assertEquals(date, DateFormatUtils.NONEXISTENT_DATE, DateFormatUtils.tryGetMillisFromString(date));
+		try {
+			DateFormatUtils.getMillisFromString(date);
+			fail(date + " doesn't exist");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Returns the joda pattern of the accepted format of the value
+	 */
+	private static String getPattern(String date) {
+		boolean seconds = date.length() > 16 && date.charAt(16) == ':';
+		String offset = "";
+		int position = seconds ? 19 : 16;
+		if (date.length() > position) {
+			offset = (date.indexOf(':', position) > 0) ? "ZZ" : "Z";
+		}
+		String pattern = (date.charAt(10) == 'T' ? "yyyy-MM-dd'T'HH:mm" : "yyyy-MM-dd HH:mm") + (seconds ? ":ss" : "")
+				+ offset;
+		for (String accepted : PATTERNS) {
+			if (accepted.equals(pattern)) {
+				return pattern;
+			}
+		}
+		throw new IllegalArgumentException("No accepted pattern for " + date);
+	}
+
+}
@@ -0,0 +1,146 @@
+package dlg.delimited.file.parser.writer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dlg.delimited.file.parser.TsvParser;
+import dlg.delimited.file.parser.annotations.BindedFieldData;
+import dlg.delimited.file.parser.annotations.BinderClassData;
+
+/**
+ * Checks that the content written by {@link TsvWriter} is parsed back into the same DTOs
+ *
+ * @author dalcantara
+ *
+ */
+public class TsvWriterTest {
+
+	private static final String[] TEXTS = { "plain", "", null, "with\ttab", "with \"quotes\"", "two\nlines",
+			"windows\r\nbreak", "\"", " spaces ", "\u00f1and\u00fa \u20ac" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@BinderClassData(ignoreFirstRow = true)
+	public static class Record {
+		@BindedFieldData(readPosition = 1)
+		public int id;
+		@BindedFieldData(readPosition = 2)
+		public long amount;
+		@BindedFieldData(readPosition = 3)
+		public double ratio;
+		@BindedFieldData(readPosition = 4)
+		public float rate;
+		@BindedFieldData(readPosition = 5)
+		public boolean active;
+		@BindedFieldData(readPosition = 6)
+		public String text;
+		@BindedFieldData(readPosition = 7)
+		public Integer count;
+		@BindedFieldData(readPosition = 8, dateStringPattern = "yyyy-MM-dd HH:mm:ss")
+		public Date date;
+
+		@Override
+		public String toString() {
+			return id + "|" + amount + "|" + ratio + "|" + rate + "|" + active + "|" + text + "|" + count + "|"
+					+ ((date != null) ? date.getTime() : null);
+		}
+	}
+
+	@BinderClassData(ignoreFirstRow = false, separtor = ";", quoting = BinderClassData.Quoting.SINGLE)
+	public static class Pair {
+		@BindedFieldData(readPosition = 1)
+		public String key;
+		@BindedFieldData(readPosition = 2)
+		public String value;
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	private static List<Record> createRecords(int count) {
+		Random random = new Random(3);
+		List<Record> records = new ArrayList<Record>(count);
+		for (int i = 0; i < count; i++) {
+			Record record = new Record();
+			record.id = (i % 50 == 0) ? Integer.MIN_VALUE + i : random.nextInt();
+			record.amount = (i % 50 == 1) ? Long.MIN_VALUE : random.nextLong();
+			record.ratio = (i % 50 == 2) ? Double.MAX_VALUE : random.nextDouble() * random.nextInt(100000) - 5000;
+			record.rate = (i % 50 == 3) ? Float.MIN_VALUE : random.nextFloat();
+			record.active = random.nextBoolean();
+			record.text = TEXTS[i % TEXTS.length];
+			record.count = (i % 3 == 0) ? null : Integer.valueOf(random.nextInt(1000));
+			// the pattern keeps the seconds only
+			record.date = (i % 4 == 0) ? null : new Date((1500000000L + random.nextInt(100000000)) * 1000);
+			records.add(record);
+		}
+		return records;
+	}
+
+	@Test
+	public void writtenContentIsParsedBack() throws IOException {
+		List<Record> records = createRecords(5000);
+		StringWriter content = new StringWriter();
+		TsvWriter<Record> writer = new TsvWriter<Record>(content, Record.class);
+		writer.writeAll(records);
+		writer.close();
+		assertEquals(records.size(), writer.getRecordCount());
+
+		List<Record> parsed = new TsvParser().parseContent(new BufferedReader(new StringReader(content.toString())),
+				Record.class);
+		assertSameRecords(records, parsed);
+	}
+
+	@Test
+	public void writtenFileIsParsedBack() throws IOException {
+		List<Record> records = createRecords(50000);
+		Path path = folder.newFile("records.tsv").toPath();
+		TsvWriter<Record> writer = new TsvWriter<Record>(path, Record.class);
+		try {
+			writer.writeAll(records);
+		} finally {
+			writer.close();
+		}
+		assertSameRecords(records, new TsvParser().parseFile(path, Record.class));
+	}
+
+	@Test
+	public void separatorAndQuotingOfTheClass() throws IOException {
+		List<Pair> pairs = new ArrayList<Pair>();
+		for (String text : TEXTS) {
+			Pair pair = new Pair();
+			pair.key = "it's " + text;
+			pair.value = (text != null) ? text + ";" + text : null;
+			pairs.add(pair);
+		}
+		StringWriter content = new StringWriter();
+		TsvWriter<Pair> writer = new TsvWriter<Pair>(content, Pair.class);
+		writer.writeAll(pairs);
+		writer.close();
+		assertSameRecords(pairs, new TsvParser().parseContent(new BufferedReader(new StringReader(content.toString())),
+				Pair.class));
+	}
+
+	private static void assertSameRecords(List<?> expected, List<?> actual) {
+		assertEquals("records", expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals("record " + i, expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+}